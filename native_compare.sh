@@ -0,0 +1,62 @@
+#!/bin/bash
+
+# Compares the JVM image (Dockerfile) with the native image (Dockerfile.native):
+# - time from container start until the first successful HTTP response
+# - resident memory once started and after the E2E suite
+# Then runs financial_manager_tests.sh against the native binary.
+#
+# Usage:
+#   ./native_compare.sh            # builds both images first
+#   SKIP_BUILD=1 ./native_compare.sh
+
+set -u
+
+JVM_IMAGE="personal-finance-manager:jvm"
+NATIVE_IMAGE="personal-finance-manager:native"
+PROBE_PATH="/api/debug/authstatus"
+
+if [ -z "${SKIP_BUILD:-}" ]; then
+    docker build -t "$JVM_IMAGE" -f Dockerfile . || exit 1
+    docker build -t "$NATIVE_IMAGE" -f Dockerfile.native . || exit 1
+fi
+
+now_ms() {
+    date +%s%3N
+}
+
+# Starts an image, waits for the first 200 and prints "<startup ms> <container id>"
+start_and_time() {
+    local image=$1
+    local port=$2
+    local start
+    start=$(now_ms)
+    local container
+    container=$(docker run -d --rm -p "$port:8080" "$image")
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$port$PROBE_PATH")" = "200" ]; do
+        sleep 0.05
+    done
+    echo "$(( $(now_ms) - start )) $container"
+}
+
+rss() {
+    docker stats --no-stream --format '{{.MemUsage}}' "$1" | cut -d'/' -f1 | tr -d ' '
+}
+
+report() {
+    local label=$1
+    local image=$2
+    local port=$3
+    local run_suite=$4
+
+    read -r startup container < <(start_and_time "$image" "$port")
+    echo "$label: started in ${startup} ms, RSS $(rss "$container")"
+
+    if [ "$run_suite" = "yes" ]; then
+        ./financial_manager_tests.sh "http://localhost:$port/api"
+        echo "$label: RSS after E2E suite $(rss "$container")"
+    fi
+    docker stop "$container" > /dev/null
+}
+
+report "JVM" "$JVM_IMAGE" 18080 no
+report "Native" "$NATIVE_IMAGE" 18081 yes
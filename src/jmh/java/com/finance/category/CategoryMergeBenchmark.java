@@ -0,0 +1,80 @@
+package com.finance.category;
+
+import com.finance.PersonalFinanceManagerApplication;
+import com.finance.user.User;
+import com.finance.user.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merging a custom category holding 100k transactions into a default one, through the full application context
+ * against its in-memory H2 database. The move is one UPDATE statement, so the time is dominated by the database's
+ * per-row update cost rather than by the application.
+ * Each invocation gets a fresh source category filled with plain INSERTs outside the measured call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CategoryMergeBenchmark {
+
+    @Param({"10000", "100000"})
+    private int transactions;
+
+    private ConfigurableApplicationContext context;
+    private CategoryService categoryService;
+    private JdbcTemplate jdbcTemplate;
+    private Long userId;
+    private String source;
+    private int invocation;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        context = new SpringApplicationBuilder(PersonalFinanceManagerApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.jpa.show-sql=false", "finance.recurring.initial-delay=3600000")
+                .run();
+        categoryService = context.getBean(CategoryService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        userId = context.getBean(UserService.class).registerUser(new User(null, "merge.benchmark@example.com",
+                "password123", "Merge Benchmark", "1234567890")).getId();
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        source = "Merge source " + ++invocation;
+        Category category = categoryService.createCustomCategory(source, CategoryType.EXPENSE, userId);
+        jdbcTemplate.update("INSERT INTO transactions (amount, date, category_id, user_id, description, version) " +
+                "SELECT 1.00, CURRENT_DATE, ?, ?, 'Bulk ' || X, 0 FROM SYSTEM_RANGE(1, ?)",
+                category.getId(), userId, transactions);
+    }
+
+    @Benchmark
+    public int merge() {
+        int moved = categoryService.mergeCategory(source, "Food", userId);
+        if (moved != transactions) {
+            throw new IllegalStateException("Expected " + transactions + " moved transactions but got " + moved);
+        }
+        return moved;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+}
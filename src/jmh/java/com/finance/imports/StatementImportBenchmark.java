@@ -0,0 +1,139 @@
+package com.finance.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finance.budget.BudgetSpendIndex;
+import com.finance.category.CategoryType;
+import com.finance.category.CategoryUsageService;
+import com.finance.ledger.LedgerVersionTracker;
+import com.finance.ledger.UserWriteLocks;
+import com.finance.outbox.TransactionOutbox;
+import com.finance.transaction.DuplicateDetector;
+import com.finance.transaction.LedgerInvalidation;
+import com.finance.transaction.TransactionLedgerIndex;
+import com.finance.transaction.TransactionSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Importing a 500k-row CSV statement (about 25 MB) into an in-memory H2 database, with one to eight parse threads
+ * and different chunk sizes. A third of the rows are categorized by description patterns, the rest by the default
+ * categories. The target is 50k rows/s, i.e. under 10 seconds per import.
+ * The transactions table is recreated before every iteration, so no row is dropped as a duplicate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class StatementImportBenchmark {
+
+    private static final ImportCategorizer.ImportCategory FOOD = new ImportCategorizer.ImportCategory(1, "Food", CategoryType.EXPENSE);
+    private static final ImportCategorizer.ImportCategory UTILITIES = new ImportCategorizer.ImportCategory(2, "Utilities", CategoryType.EXPENSE);
+    private static final ImportCategorizer.ImportCategory SALARY = new ImportCategorizer.ImportCategory(3, "Salary", CategoryType.INCOME);
+
+    @Param({"500000"})
+    private int rows;
+
+    @Param({"1", "4", "8"})
+    private int parseThreads;
+
+    @Param({"1000", "5000"})
+    private int chunkSize;
+
+    private Path file;
+    private JdbcTemplate jdbcTemplate;
+    private StatementImporter importer;
+    private ImportCategorizer categorizer;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() throws IOException {
+        file = Files.createTempFile("statement-benchmark-", ".csv");
+        LocalDate start = LocalDate.of(2020, 1, 1);
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            out.write("Date,Description,Amount\n");
+            for (int i = 0; i < rows; i++) {
+                String description = switch (i % 3) {
+                    case 0 -> "TESCO STORES " + i;
+                    case 1 -> "\"Card payment, shop " + i + "\"";
+                    default -> "Transfer " + i;
+                };
+                String amount = i % 10 == 0 ? (100 + i % 900) + ".00" : "-" + (1 + i % 200) + "." + (10 + i % 90);
+                out.write(start.plusDays(i % 1500) + "," + description + "," + amount + "\n");
+            }
+        }
+
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:import_benchmark;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        importer = new StatementImporter(jdbcTemplate, transactionManager, new UserWriteLocks(64),
+                new CategoryUsageService(null, null, null, transactionManager, jdbcTemplate),
+                new LedgerInvalidation(new TransactionLedgerIndex(), new TransactionSearchIndex(), new BudgetSpendIndex(),
+                        new DuplicateDetector(3, 90, 0.6), new LedgerVersionTracker()),
+                new TransactionOutbox(null, new ObjectMapper(), jdbcTemplate), parseThreads, chunkSize);
+        categorizer = new ImportCategorizer(Map.of("Food", FOOD, "Utilities", UTILITIES, "Salary", SALARY),
+                List.of(new ImportCategorizer.PatternMapping("tesco", FOOD)), UTILITIES, SALARY);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpIteration() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        // Same columns and indexes as the tables Hibernate generates, without the foreign keys to users and categories
+        jdbcTemplate.execute("CREATE TABLE categories (id BIGINT PRIMARY KEY, name VARCHAR(255) NOT NULL, type VARCHAR(16) NOT NULL)");
+        jdbcTemplate.execute("INSERT INTO categories VALUES (1, 'Food', 'EXPENSE'), (2, 'Utilities', 'EXPENSE'), (3, 'Salary', 'INCOME')");
+        jdbcTemplate.execute("CREATE TABLE transactions (id BIGINT AUTO_INCREMENT PRIMARY KEY, amount NUMERIC(38, 2) NOT NULL, " +
+                "date DATE NOT NULL, category_id BIGINT NOT NULL, user_id BIGINT NOT NULL, description VARCHAR(500), version BIGINT)");
+        jdbcTemplate.execute("CREATE INDEX idx_transactions_user ON transactions (user_id)");
+        jdbcTemplate.execute("CREATE INDEX idx_transactions_category ON transactions (category_id)");
+        jdbcTemplate.execute("CREATE INDEX idx_transactions_user_date ON transactions (user_id, date)");
+        jdbcTemplate.execute("CREATE TABLE category_usage (id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT NOT NULL, " +
+                "category_id BIGINT NOT NULL, transaction_count BIGINT NOT NULL, amount_total NUMERIC(19, 2) NOT NULL, " +
+                "UNIQUE (user_id, category_id))");
+        jdbcTemplate.execute("CREATE TABLE outbox (id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT NOT NULL, " +
+                "transaction_id BIGINT, type VARCHAR(32) NOT NULL, payload CLOB NOT NULL, " +
+                "created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL)");
+        jdbcTemplate.execute("CREATE INDEX idx_outbox_user_id ON outbox (user_id, id)");
+        jdbcTemplate.execute("CREATE INDEX idx_outbox_created_at ON outbox (created_at)");
+    }
+
+    @Benchmark
+    public ImportJob importStatement() throws IOException {
+        ImportJob job = new ImportJob("benchmark", 1L, file.getFileName().toString(), StatementFormat.CSV, Files.size(file));
+        job.markRunning();
+        importer.importFile(job, file, DateTimeFormatter.ISO_LOCAL_DATE, categorizer);
+        job.complete();
+        if (job.getImported() != rows) {
+            throw new IllegalStateException("Expected " + rows + " imported rows but got " + job.getImported()
+                    + " (" + job.getRejected() + " rejected, " + job.getDuplicates() + " duplicates)");
+        }
+        return job;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        importer.shutdown();
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        Files.deleteIfExists(file);
+    }
+}
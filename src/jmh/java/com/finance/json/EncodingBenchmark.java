@@ -0,0 +1,95 @@
+package com.finance.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.finance.category.CategoryType;
+import com.finance.transaction.dto.TransactionResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CPU time per encoded transaction list for each response encoding, with and without gzip.
+ * The encoded size of each combination is printed once during setup. Brotli is not covered:
+ * the embedded Tomcat cannot produce it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EncodingBenchmark {
+
+    @Param({"10000"})
+    private int rows;
+
+    @Param({"json", "cbor", "smile"})
+    private String encoding;
+
+    @Param({"identity", "gzip"})
+    private String compression;
+
+    private List<TransactionResponse> transactions;
+    private ObjectMapper mapper;
+
+    @Setup
+    public void setUp() throws IOException {
+        transactions = new ArrayList<>(rows);
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < rows; i++) {
+            CategoryType type = i % 5 == 0 ? CategoryType.INCOME : CategoryType.EXPENSE;
+            transactions.add(new TransactionResponse((long) i, BigDecimal.valueOf(1000 + i * 37L, 2),
+                    start.plusDays(i % 365), type == CategoryType.INCOME ? "Salary" : "Food", type,
+                    i % 3 == 0 ? null : "Grocery market run " + i));
+        }
+
+        JsonFactory factory = switch (encoding) {
+            case "cbor" -> new CBORFactory();
+            case "smile" -> new SmileFactory();
+            default -> new JsonFactory();
+        };
+        mapper = new ObjectMapper(factory)
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .registerModule(new FinanceJsonModule());
+        if (!"json".equals(encoding)) {
+            mapper.registerModule(new CompactValuesModule());
+        }
+
+        ByteArrayOutputStream sample = new ByteArrayOutputStream();
+        encode(sample);
+        System.out.printf("%n%s/%s: %d bytes for %d rows%n", encoding, compression, sample.size(), rows);
+    }
+
+    @Benchmark
+    public void encode() throws IOException {
+        encode(OutputStream.nullOutputStream());
+    }
+
+    private void encode(OutputStream target) throws IOException {
+        if ("gzip".equals(compression)) {
+            try (GZIPOutputStream gzip = new GZIPOutputStream(target, 8192)) {
+                mapper.writeValue(gzip, transactions);
+            }
+        } else {
+            mapper.writeValue(target, transactions);
+        }
+    }
+}
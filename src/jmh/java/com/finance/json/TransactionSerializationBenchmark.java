@@ -0,0 +1,77 @@
+package com.finance.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.finance.category.CategoryType;
+import com.finance.transaction.dto.TransactionResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes a transaction list body with the reflective bean serializer, Blackbird, and the hand-written
+ * serializers. Output goes to a null stream so only encoding cost is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TransactionSerializationBenchmark {
+
+    @Param({"10000"})
+    private int rows;
+
+    private List<TransactionResponse> transactions;
+    private ObjectMapper reflective;
+    private ObjectMapper blackbird;
+    private ObjectMapper handWritten;
+
+    @Setup
+    public void setUp() {
+        transactions = new ArrayList<>(rows);
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < rows; i++) {
+            CategoryType type = i % 5 == 0 ? CategoryType.INCOME : CategoryType.EXPENSE;
+            transactions.add(new TransactionResponse((long) i, BigDecimal.valueOf(1000 + i * 37L, 2),
+                    start.plusDays(i % 365), type == CategoryType.INCOME ? "Salary" : "Food", type,
+                    i % 3 == 0 ? null : "Grocery market run " + i));
+        }
+        reflective = mapper();
+        blackbird = mapper().registerModule(new BlackbirdModule());
+        handWritten = mapper().registerModule(new FinanceJsonModule());
+    }
+
+    private static ObjectMapper mapper() {
+        return new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @Benchmark
+    public void reflective() throws Exception {
+        reflective.writeValue(OutputStream.nullOutputStream(), transactions);
+    }
+
+    @Benchmark
+    public void blackbird() throws Exception {
+        blackbird.writeValue(OutputStream.nullOutputStream(), transactions);
+    }
+
+    @Benchmark
+    public void handWritten() throws Exception {
+        handWritten.writeValue(OutputStream.nullOutputStream(), transactions);
+    }
+}
@@ -0,0 +1,80 @@
+package com.finance.ledger;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write throughput under contention: striped per-user locks against one global lock, for 1 to 64 threads.
+ * Each operation picks a random user among {@code users}, so users=1 is the worst case for striping
+ * (everyone writes to the same account) and large user counts approach fully independent writers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UserWriteLocksBenchmark {
+
+    @Param({"striped", "global"})
+    private String mode;
+
+    @Param({"1", "64", "10000"})
+    private int users;
+
+    // Simulated work done while the lock is held
+    @Param({"200"})
+    private int criticalSectionTokens;
+
+    private UserWriteLocks locks;
+    private final ReentrantLock globalLock = new ReentrantLock();
+
+    @Setup
+    public void setUp() {
+        locks = new UserWriteLocks(64);
+    }
+
+    private void write() {
+        long userId = 1 + ThreadLocalRandom.current().nextInt(users);
+        ReentrantLock lock = "striped".equals(mode) ? locks.stripe(userId) : globalLock;
+        lock.lock();
+        try {
+            Blackhole.consumeCPU(criticalSectionTokens);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void threads01() {
+        write();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void threads04() {
+        write();
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void threads16() {
+        write();
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void threads64() {
+        write();
+    }
+}
@@ -0,0 +1,115 @@
+package com.finance.recurring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finance.budget.BudgetSpendIndex;
+import com.finance.category.CategoryUsageService;
+import com.finance.ledger.LedgerVersionTracker;
+import com.finance.ledger.UserWriteLocks;
+import com.finance.outbox.TransactionOutbox;
+import com.finance.transaction.DuplicateDetector;
+import com.finance.transaction.LedgerInvalidation;
+import com.finance.transaction.TransactionLedgerIndex;
+import com.finance.transaction.TransactionSearchIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Materializing one month for a million monthly rules (four per user, 250k users) into an in-memory H2 database,
+ * with one to eight worker threads and different batch sizes. Every rule is due once in the month, so each
+ * iteration inserts a million transactions and creates the users' category usage counters.
+ * The tables are recreated before every iteration, so each measurement starts from the same state.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RecurringMaterializationBenchmark {
+
+    private static final LocalDate MONTH_START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate MONTH_END = LocalDate.of(2024, 1, 31);
+
+    @Param({"1000000"})
+    private int rules;
+
+    @Param({"1", "4", "8"})
+    private int threads;
+
+    @Param({"200", "1000", "5000"})
+    private int batchSize;
+
+    private JdbcTemplate jdbcTemplate;
+    private RecurringRuleMaterializer materializer;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:recurring_benchmark;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        materializer = new RecurringRuleMaterializer(jdbcTemplate, transactionManager, new UserWriteLocks(64),
+                new CategoryUsageService(null, null, null, transactionManager, jdbcTemplate),
+                new LedgerInvalidation(new TransactionLedgerIndex(), new TransactionSearchIndex(), new BudgetSpendIndex(),
+                        new DuplicateDetector(3, 90, 0.6), new LedgerVersionTracker()),
+                new TransactionOutbox(null, new ObjectMapper(), jdbcTemplate), threads, batchSize, 400);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpIteration() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+        // Same columns and indexes as the tables Hibernate generates, without the foreign keys to users and categories
+        jdbcTemplate.execute("CREATE TABLE recurring_rules (id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT NOT NULL, " +
+                "category_id BIGINT NOT NULL, amount NUMERIC(38, 2) NOT NULL, description VARCHAR(500), cadence VARCHAR(16) NOT NULL, " +
+                "start_date DATE NOT NULL, end_date DATE, next_run_date DATE, occurrences BIGINT NOT NULL, version BIGINT)");
+        jdbcTemplate.execute("CREATE INDEX idx_recurring_rules_user ON recurring_rules (user_id, id)");
+        jdbcTemplate.execute("CREATE INDEX idx_recurring_rules_next_run ON recurring_rules (next_run_date)");
+        jdbcTemplate.execute("CREATE TABLE transactions (id BIGINT AUTO_INCREMENT PRIMARY KEY, amount NUMERIC(38, 2) NOT NULL, " +
+                "date DATE NOT NULL, category_id BIGINT NOT NULL, user_id BIGINT NOT NULL, description VARCHAR(500), version BIGINT)");
+        jdbcTemplate.execute("CREATE INDEX idx_transactions_user ON transactions (user_id)");
+        jdbcTemplate.execute("CREATE INDEX idx_transactions_category ON transactions (category_id)");
+        jdbcTemplate.execute("CREATE INDEX idx_transactions_user_date ON transactions (user_id, date)");
+        jdbcTemplate.execute("CREATE TABLE category_usage (id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT NOT NULL, " +
+                "category_id BIGINT NOT NULL, transaction_count BIGINT NOT NULL, amount_total NUMERIC(19, 2) NOT NULL, " +
+                "UNIQUE (user_id, category_id))");
+        jdbcTemplate.execute("CREATE TABLE outbox (id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT NOT NULL, " +
+                "transaction_id BIGINT, type VARCHAR(32) NOT NULL, payload CLOB NOT NULL, " +
+                "created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL)");
+        jdbcTemplate.execute("CREATE INDEX idx_outbox_user_id ON outbox (user_id, id)");
+        jdbcTemplate.execute("CREATE INDEX idx_outbox_created_at ON outbox (created_at)");
+
+        jdbcTemplate.update("INSERT INTO recurring_rules (user_id, category_id, amount, description, cadence, start_date, " +
+                        "next_run_date, occurrences, version) " +
+                        "SELECT 1 + (X - 1) / 4, 1 + MOD(X, 10), 10 + MOD(X, 1000), 'Rule ' || X, 'MONTHLY', " +
+                        "DATEADD('DAY', MOD(X, 28), ?), DATEADD('DAY', MOD(X, 28), ?), 0, 0 FROM SYSTEM_RANGE(1, ?)",
+                MONTH_START, MONTH_START, rules);
+    }
+
+    @Benchmark
+    public RecurringRuleMaterializer.Result materializeMonth() {
+        RecurringRuleMaterializer.Result result = materializer.materializeUpTo(MONTH_END);
+        if (result.transactions() != rules) {
+            throw new IllegalStateException("Expected " + rules + " transactions but got " + result.transactions());
+        }
+        return result;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        materializer.shutdown();
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+}
@@ -3,9 +3,13 @@ package com.finance;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableJpaRepositories
+@EnableScheduling
+@EnableRetry
 public class PersonalFinanceManagerApplication {
 	public static void main(String[] args) {
 		SpringApplication.run(PersonalFinanceManagerApplication.class, args);
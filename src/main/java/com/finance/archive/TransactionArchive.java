@@ -0,0 +1,46 @@
+package com.finance.archive;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One user's transactions of one closed year, moved out of the transactions table into a gzip-compressed payload.
+ * Written and read by {@link TransactionArchiveService} with plain JDBC; mapped here so the table is created.
+ */
+@Entity
+@Table(name = "transaction_archives", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"user_id", "archive_year"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionArchive {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // YEAR is a reserved word in H2
+    @Column(name = "archive_year", nullable = false)
+    private int year;
+
+    @Column(nullable = false)
+    private long transactionCount;
+
+    @Column(nullable = false)
+    private long compressedBytes;
+
+    @Column(nullable = false)
+    private Instant archivedAt;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] payload;
+}
@@ -0,0 +1,39 @@
+package com.finance.archive;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of transactions in one category inside one of a user's archives.
+ * Kept in step with the archive payload so category deletes and merges can see archived use without decoding it.
+ * Written and read by {@link TransactionArchiveService} with plain JDBC; mapped here so the table is created.
+ */
+@Entity
+@Table(name = "transaction_archive_categories", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"user_id", "archive_year", "category_id"})
+}, indexes = {
+        @Index(name = "idx_transaction_archive_categories_user_category", columnList = "user_id, category_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionArchiveCategory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "archive_year", nullable = false)
+    private int year;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Column(nullable = false)
+    private long transactionCount;
+}
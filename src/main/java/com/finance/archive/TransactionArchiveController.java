@@ -0,0 +1,73 @@
+package com.finance.archive;
+
+import com.finance.archive.dto.TransactionArchiveResponse;
+import com.finance.user.UserService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/transactions/archives")
+public class TransactionArchiveController {
+
+    private final TransactionArchiveService archiveService;
+    private final UserService userService;
+
+    public TransactionArchiveController(TransactionArchiveService archiveService, UserService userService) {
+        this.archiveService = archiveService;
+        this.userService = userService;
+    }
+
+    /**
+     * Helper method to get the authenticated user's ID.
+     */
+    private Long getAuthenticatedUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getPrincipal())) {
+            throw new IllegalStateException("User not authenticated.");
+        }
+        String username = authentication.getName();
+        return userService.findIdByUsername(username)
+                .orElseThrow(() -> new IllegalStateException("Authenticated user not found in database: " + username));
+    }
+
+    private TransactionArchiveResponse toResponse(TransactionArchiveService.Summary summary) {
+        return new TransactionArchiveResponse(summary.year(), summary.transactionCount(),
+                summary.compressedBytes(), summary.archivedAt());
+    }
+
+    /**
+     * Lists the authenticated user's archived years.
+     */
+    @GetMapping
+    public ResponseEntity<List<TransactionArchiveResponse>> getArchives() {
+        Long userId = getAuthenticatedUserId();
+        List<TransactionArchiveResponse> archives = archiveService.getArchives(userId).stream()
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(archives);
+    }
+
+    /**
+     * Moves the transactions of a closed year into its archive, adding to the archive if the year was archived before.
+     */
+    @PostMapping("/{year}")
+    public ResponseEntity<TransactionArchiveResponse> archiveYear(@PathVariable int year) {
+        Long userId = getAuthenticatedUserId();
+        return ResponseEntity.status(HttpStatus.CREATED).body(toResponse(archiveService.archive(userId, year)));
+    }
+
+    /**
+     * Moves an archived year's transactions back and deletes the archive.
+     */
+    @PostMapping("/{year}/restore")
+    public ResponseEntity<TransactionArchiveResponse> restoreYear(@PathVariable int year) {
+        Long userId = getAuthenticatedUserId();
+        return ResponseEntity.ok(toResponse(archiveService.restore(userId, year)));
+    }
+}
@@ -0,0 +1,336 @@
+package com.finance.archive;
+
+import com.finance.category.CategoryUsageService;
+import com.finance.exception.ResourceNotFoundException;
+import com.finance.ledger.UserWriteLocks;
+import com.finance.outbox.TransactionEvent;
+import com.finance.outbox.TransactionOutbox;
+import com.finance.transaction.LedgerInvalidation;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Moves a user's transactions of a closed year out of the transactions table into a compressed archive, and back.
+ *
+ * The transactions table and its indexes only hold what users still work with, so listings, reports and the
+ * in-memory indexes built from it stop growing with history. Each (user, year) is one row in transaction_archives
+ * holding the year's transactions gzip-compressed, IDs included. Archiving a year again folds transactions added
+ * since into the same archive; restoring puts them back under their original IDs and drops the archive.
+ *
+ * Both run in one database transaction under the user's write lock, with the category usage counters kept in step
+ * and one bulk outbox event recorded, like other bulk writes. Archived transactions are not part of listings, reports, budgets or goals until restored.
+ * Their categories stay referenced through per-archive category counts: a category with archived transactions
+ * cannot be deleted, and merging it rewrites the archives to the target so every archive remains restorable.
+ */
+@Service
+public class TransactionArchiveService {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final String INSERT =
+            "INSERT INTO transactions (id, amount, date, category_id, user_id, description, version) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserWriteLocks writeLocks;
+    private final CategoryUsageService categoryUsage;
+    private final LedgerInvalidation invalidation;
+    private final TransactionOutbox outbox;
+
+    public TransactionArchiveService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                     UserWriteLocks writeLocks, CategoryUsageService categoryUsage,
+                                     LedgerInvalidation invalidation, TransactionOutbox outbox) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.writeLocks = writeLocks;
+        this.categoryUsage = categoryUsage;
+        this.invalidation = invalidation;
+        this.outbox = outbox;
+    }
+
+    /**
+     * An archived year, without its transactions.
+     * @param year The calendar year.
+     * @param transactionCount The number of archived transactions.
+     * @param compressedBytes The size of the compressed payload.
+     * @param archivedAt When transactions were last added to the archive.
+     */
+    public record Summary(int year, long transactionCount, long compressedBytes, Instant archivedAt) {
+    }
+
+    /**
+     * A transaction as stored in an archive.
+     */
+    record ArchivedTransaction(long id, LocalDate date, BigDecimal amount, long categoryId, String description, long version) {
+    }
+
+    private record StoredArchive(Summary summary, byte[] payload) {
+    }
+
+    /**
+     * Lists a user's archived years.
+     * @param userId The ID of the user.
+     * @return The archives, oldest year first.
+     */
+    public List<Summary> getArchives(Long userId) {
+        return jdbcTemplate.query("SELECT archive_year, transaction_count, compressed_bytes, archived_at " +
+                        "FROM transaction_archives WHERE user_id = ? ORDER BY archive_year",
+                (rs, rowNum) -> new Summary(rs.getInt(1), rs.getLong(2), rs.getLong(3),
+                        rs.getObject(4, OffsetDateTime.class).toInstant()),
+                userId);
+    }
+
+    /**
+     * Moves all of a user's transactions dated in a closed year into that year's archive.
+     * @param userId The ID of the user.
+     * @param year The year to archive; must be before the current year.
+     * @return The archive after the move.
+     * @throws IllegalArgumentException if the year is not closed yet or has no transactions.
+     */
+    public Summary archive(Long userId, int year) {
+        if (year >= LocalDate.now().getYear()) {
+            throw new IllegalArgumentException("Only closed years can be archived; " + year + " is still open.");
+        }
+        return transactionTemplate.execute(status -> archiveYear(userId, year));
+    }
+
+    private Summary archiveYear(Long userId, int year) {
+        writeLocks.lockUntilCompletion(userId);
+        LocalDate start = LocalDate.of(year, 1, 1);
+        LocalDate end = start.plusYears(1);
+        List<ArchivedTransaction> moved = jdbcTemplate.query(
+                "SELECT id, date, amount, category_id, description, version FROM transactions " +
+                        "WHERE user_id = ? AND date >= ? AND date < ?",
+                (rs, rowNum) -> new ArchivedTransaction(rs.getLong(1), rs.getDate(2).toLocalDate(), rs.getBigDecimal(3),
+                        rs.getLong(4), rs.getString(5), rs.getLong(6)),
+                userId, Date.valueOf(start), Date.valueOf(end));
+        if (moved.isEmpty()) {
+            throw new IllegalArgumentException("There are no transactions in " + year + " to archive.");
+        }
+
+        List<ArchivedTransaction> archived = new ArrayList<>(moved);
+        List<byte[]> existing = jdbcTemplate.query(
+                "SELECT payload FROM transaction_archives WHERE user_id = ? AND archive_year = ?",
+                (rs, rowNum) -> rs.getBytes(1), userId, year);
+        if (!existing.isEmpty()) {
+            archived.addAll(decode(existing.get(0)));
+        }
+        archived.sort(Comparator.comparing(ArchivedTransaction::date).thenComparingLong(ArchivedTransaction::id));
+        byte[] payload = encode(archived);
+        Instant now = Instant.now();
+
+        if (existing.isEmpty()) {
+            jdbcTemplate.update("INSERT INTO transaction_archives " +
+                            "(user_id, archive_year, transaction_count, compressed_bytes, archived_at, payload) VALUES (?, ?, ?, ?, ?, ?)",
+                    userId, year, archived.size(), payload.length, OffsetDateTime.ofInstant(now, ZoneOffset.UTC), payload);
+        } else {
+            jdbcTemplate.update("UPDATE transaction_archives SET transaction_count = ?, compressed_bytes = ?, " +
+                            "archived_at = ?, payload = ? WHERE user_id = ? AND archive_year = ?",
+                    archived.size(), payload.length, OffsetDateTime.ofInstant(now, ZoneOffset.UTC), payload, userId, year);
+        }
+        writeCategoryCounts(userId, year, archived);
+        // Safe to delete by range because the user's write lock keeps other writes out since the read above
+        jdbcTemplate.update("DELETE FROM transactions WHERE user_id = ? AND date >= ? AND date < ?",
+                userId, Date.valueOf(start), Date.valueOf(end));
+        adjustUsage(userId, moved, -1);
+        outbox.appendBulk(userId, TransactionEvent.BulkOperation.ARCHIVE, moved.size());
+
+        invalidation.invalidate(userId);
+        System.out.println("Archived " + moved.size() + " transactions of user " + userId + " for " + year
+                + " (" + payload.length + " bytes compressed)");
+        return new Summary(year, archived.size(), payload.length, now);
+    }
+
+    /**
+     * Moves an archived year's transactions back into the transactions table and drops the archive.
+     * @param userId The ID of the user.
+     * @param year The archived year.
+     * @return The archive that was restored.
+     * @throws ResourceNotFoundException if the user has no archive for the year.
+     * @throws IllegalArgumentException if a category of the archived transactions no longer exists, which category
+     *         deletes and merges prevent unless the database was changed directly.
+     */
+    public Summary restore(Long userId, int year) {
+        return transactionTemplate.execute(status -> restoreYear(userId, year));
+    }
+
+    private Summary restoreYear(Long userId, int year) {
+        writeLocks.lockUntilCompletion(userId);
+        List<StoredArchive> found = jdbcTemplate.query(
+                "SELECT archive_year, transaction_count, compressed_bytes, archived_at, payload " +
+                        "FROM transaction_archives WHERE user_id = ? AND archive_year = ?",
+                (rs, rowNum) -> new StoredArchive(new Summary(rs.getInt(1), rs.getLong(2), rs.getLong(3),
+                        rs.getObject(4, OffsetDateTime.class).toInstant()), rs.getBytes(5)),
+                userId, year);
+        if (found.isEmpty()) {
+            throw new ResourceNotFoundException("No archive found for " + year);
+        }
+        List<ArchivedTransaction> archived = decode(found.get(0).payload());
+
+        archived.stream().map(ArchivedTransaction::categoryId).distinct().forEach(categoryId -> {
+            Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM categories WHERE id = ?", Long.class, categoryId);
+            if (count == null || count == 0) {
+                throw new IllegalArgumentException("Archived transactions of " + year
+                        + " belong to a category that no longer exists (ID " + categoryId + ").");
+            }
+        });
+        jdbcTemplate.batchUpdate(INSERT, archived, 1000, (ps, row) -> {
+            ps.setLong(1, row.id());
+            ps.setBigDecimal(2, row.amount());
+            ps.setDate(3, Date.valueOf(row.date()));
+            ps.setLong(4, row.categoryId());
+            ps.setLong(5, userId);
+            ps.setString(6, row.description());
+            ps.setLong(7, row.version());
+        });
+        jdbcTemplate.update("DELETE FROM transaction_archives WHERE user_id = ? AND archive_year = ?", userId, year);
+        jdbcTemplate.update("DELETE FROM transaction_archive_categories WHERE user_id = ? AND archive_year = ?", userId, year);
+        adjustUsage(userId, archived, 1);
+        outbox.appendBulk(userId, TransactionEvent.BulkOperation.RESTORE, archived.size());
+
+        invalidation.invalidate(userId);
+        return found.get(0).summary();
+    }
+
+    /**
+     * Checks whether any of a user's archives holds transactions in a category.
+     * @param userId The ID of the user.
+     * @param categoryId The ID of the category.
+     * @return True if restoring some archive would need the category.
+     */
+    public boolean isCategoryArchived(Long userId, Long categoryId) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transaction_archive_categories " +
+                "WHERE user_id = ? AND category_id = ?", Long.class, userId, categoryId);
+        return count != null && count > 0;
+    }
+
+    /**
+     * Moves a user's archived transactions from one category to another, re-encoding only the archives that hold
+     * the source category. Joins the caller's database transaction if there is one.
+     * @param userId The ID of the user.
+     * @param sourceCategoryId The category being merged away.
+     * @param targetCategoryId The category taking its transactions.
+     * @return The number of archived transactions moved.
+     */
+    public int reassignCategory(Long userId, Long sourceCategoryId, Long targetCategoryId) {
+        return transactionTemplate.execute(status -> {
+            writeLocks.lockUntilCompletion(userId);
+            List<Integer> years = jdbcTemplate.queryForList("SELECT archive_year FROM transaction_archive_categories " +
+                    "WHERE user_id = ? AND category_id = ? ORDER BY archive_year", Integer.class, userId, sourceCategoryId);
+            int moved = 0;
+            for (int year : years) {
+                byte[] stored = jdbcTemplate.queryForObject("SELECT payload FROM transaction_archives " +
+                        "WHERE user_id = ? AND archive_year = ?", (rs, rowNum) -> rs.getBytes(1), userId, year);
+                List<ArchivedTransaction> archived = new ArrayList<>();
+                for (ArchivedTransaction transaction : decode(stored)) {
+                    if (transaction.categoryId() == sourceCategoryId) {
+                        transaction = new ArchivedTransaction(transaction.id(), transaction.date(), transaction.amount(),
+                                targetCategoryId, transaction.description(), transaction.version());
+                        moved++;
+                    }
+                    archived.add(transaction);
+                }
+                byte[] payload = encode(archived);
+                jdbcTemplate.update("UPDATE transaction_archives SET compressed_bytes = ?, payload = ? " +
+                        "WHERE user_id = ? AND archive_year = ?", payload.length, payload, userId, year);
+                writeCategoryCounts(userId, year, archived);
+            }
+            return moved;
+        });
+    }
+
+    /**
+     * Replaces the per-category counts of one archive with those of its transactions.
+     */
+    private void writeCategoryCounts(Long userId, int year, List<ArchivedTransaction> archived) {
+        Map<Long, Long> counts = new LinkedHashMap<>();
+        for (ArchivedTransaction transaction : archived) {
+            counts.merge(transaction.categoryId(), 1L, Long::sum);
+        }
+        jdbcTemplate.update("DELETE FROM transaction_archive_categories WHERE user_id = ? AND archive_year = ?", userId, year);
+        jdbcTemplate.batchUpdate("INSERT INTO transaction_archive_categories (user_id, archive_year, category_id, transaction_count) " +
+                        "VALUES (?, ?, ?, ?)", new ArrayList<>(counts.entrySet()), 1000, (ps, entry) -> {
+                    ps.setLong(1, userId);
+                    ps.setInt(2, year);
+                    ps.setLong(3, entry.getKey());
+                    ps.setLong(4, entry.getValue());
+                });
+    }
+
+    /**
+     * Adds (sign 1) or removes (sign -1) transactions from the user's category usage counters.
+     */
+    private void adjustUsage(Long userId, List<ArchivedTransaction> transactions, int sign) {
+        Map<Long, CategoryUsageService.Delta> usage = new LinkedHashMap<>();
+        for (ArchivedTransaction transaction : transactions) {
+            usage.merge(transaction.categoryId(), new CategoryUsageService.Delta(sign,
+                    sign < 0 ? transaction.amount().negate() : transaction.amount()), CategoryUsageService.Delta::plus);
+        }
+        categoryUsage.adjust(userId, usage);
+    }
+
+    static byte[] encode(List<ArchivedTransaction> transactions) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(transactions.size());
+            for (ArchivedTransaction transaction : transactions) {
+                out.writeLong(transaction.id());
+                out.writeLong(transaction.date().toEpochDay());
+                out.writeUTF(transaction.amount().toPlainString());
+                out.writeLong(transaction.categoryId());
+                out.writeBoolean(transaction.description() != null);
+                if (transaction.description() != null) {
+                    out.writeUTF(transaction.description());
+                }
+                out.writeLong(transaction.version());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not compress archived transactions.", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static List<ArchivedTransaction> decode(byte[] payload) {
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(payload)))) {
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Unsupported archive format version " + version);
+            }
+            int size = in.readInt();
+            List<ArchivedTransaction> transactions = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                long id = in.readLong();
+                LocalDate date = LocalDate.ofEpochDay(in.readLong());
+                BigDecimal amount = new BigDecimal(in.readUTF());
+                long categoryId = in.readLong();
+                String description = in.readBoolean() ? in.readUTF() : null;
+                transactions.add(new ArchivedTransaction(id, date, amount, categoryId, description, in.readLong()));
+            }
+            return transactions;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read archived transactions.", e);
+        }
+    }
+}
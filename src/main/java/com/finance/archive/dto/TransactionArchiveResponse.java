@@ -0,0 +1,17 @@
+package com.finance.archive.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionArchiveResponse {
+    private int year;
+    private long transactionCount;
+    private long compressedBytes;
+    private Instant archivedAt;
+}
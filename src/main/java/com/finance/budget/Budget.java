@@ -0,0 +1,50 @@
+package com.finance.budget;
+
+import com.finance.category.Category;
+import com.finance.user.User;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A spending limit for one category in one calendar month.
+ * The month is stored as its first day. Spending against it is read from {@link BudgetSpendIndex}.
+ */
+@Entity
+@Table(name = "budgets", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"user_id", "category_id", "month_start"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Budget {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id", nullable = false)
+    private Category category;
+
+    @Column(name = "month_start", nullable = false)
+    private LocalDate monthStart;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal amount;
+
+    // Percentage of the amount at which the budget is reported as WARNING
+    @Column(nullable = false)
+    private int alertThreshold = 80;
+
+    @Version
+    private Long version;
+}
@@ -0,0 +1,133 @@
+package com.finance.budget;
+
+import com.finance.budget.dto.BudgetRequest;
+import com.finance.budget.dto.BudgetResponse;
+import com.finance.ledger.ConditionalRequests;
+import com.finance.ledger.LedgerVersionTracker;
+import com.finance.user.UserService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/budgets")
+public class BudgetController {
+
+    private final BudgetService budgetService;
+    private final UserService userService;
+    private final LedgerVersionTracker ledgerVersions;
+
+    public BudgetController(BudgetService budgetService, UserService userService, LedgerVersionTracker ledgerVersions) {
+        this.budgetService = budgetService;
+        this.userService = userService;
+        this.ledgerVersions = ledgerVersions;
+    }
+
+    /**
+     * Helper method to get the authenticated user's ID.
+     */
+    private Long getAuthenticatedUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getPrincipal())) {
+            throw new IllegalStateException("User not authenticated.");
+        }
+        String username = authentication.getName();
+        return userService.findIdByUsername(username)
+                .orElseThrow(() -> new IllegalStateException("Authenticated user not found in database: " + username));
+    }
+
+    private BudgetResponse convertToDto(BudgetService.BudgetWithSpend view) {
+        Budget budget = view.budget();
+        BigDecimal amount = budget.getAmount();
+        BigDecimal spent = view.spent();
+        BigDecimal percentUsed = spent.multiply(BigDecimal.valueOf(100)).divide(amount, 1, RoundingMode.HALF_UP);
+        return new BudgetResponse(
+                budget.getId(),
+                budget.getCategory().getName(),
+                YearMonth.from(budget.getMonthStart()),
+                amount,
+                spent,
+                amount.subtract(spent).max(BigDecimal.ZERO),
+                spent.subtract(amount).max(BigDecimal.ZERO),
+                percentUsed,
+                budget.getAlertThreshold(),
+                view.status()
+        );
+    }
+
+    /**
+     * Creates a budget for an expense category and month for the authenticated user.
+     */
+    @PostMapping
+    public ResponseEntity<BudgetResponse> createBudget(@RequestBody BudgetRequest request) {
+        Long userId = getAuthenticatedUserId();
+        Budget budget = budgetService.createBudget(request, userId);
+        return new ResponseEntity<>(convertToDto(budgetService.withSpend(budget)), HttpStatus.CREATED);
+    }
+
+    /**
+     * Lists the authenticated user's budgets for a month (default: the current month) with spending and status.
+     */
+    @GetMapping
+    public ResponseEntity<List<BudgetResponse>> getBudgets(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth month,
+            WebRequest webRequest) {
+        Long userId = getAuthenticatedUserId();
+        if (ConditionalRequests.checkNotModified(webRequest, ledgerVersions.currentETag(userId))) {
+            return null;
+        }
+        List<BudgetResponse> responses = budgetService.getBudgets(userId, month != null ? month : YearMonth.now()).stream()
+                .map(this::convertToDto)
+                .toList();
+        return ResponseEntity.ok(responses);
+    }
+
+    /**
+     * Lists the current month's budgets that reached their alert threshold or were exceeded.
+     */
+    @GetMapping("/alerts")
+    public ResponseEntity<List<BudgetResponse>> getAlerts(WebRequest webRequest) {
+        Long userId = getAuthenticatedUserId();
+        if (ConditionalRequests.checkNotModified(webRequest, ledgerVersions.currentETag(userId))) {
+            return null;
+        }
+        List<BudgetResponse> responses = budgetService.getAlerts(userId).stream()
+                .map(this::convertToDto)
+                .toList();
+        return ResponseEntity.ok(responses);
+    }
+
+    /**
+     * Changes a budget's amount and/or alert threshold.
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<BudgetResponse> updateBudget(@PathVariable Long id, @RequestBody BudgetRequest request) {
+        Long userId = getAuthenticatedUserId();
+        Budget budget = budgetService.updateBudget(id, request, userId);
+        return ResponseEntity.ok(convertToDto(budgetService.withSpend(budget)));
+    }
+
+    /**
+     * Deletes a budget of the authenticated user.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Map<String, String>> deleteBudget(@PathVariable Long id) {
+        Long userId = getAuthenticatedUserId();
+        budgetService.deleteBudget(id, userId);
+
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Budget deleted successfully");
+        return ResponseEntity.ok(response);
+    }
+}
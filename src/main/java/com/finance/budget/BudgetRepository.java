@@ -0,0 +1,34 @@
+package com.finance.budget;
+
+import com.finance.category.Category;
+import com.finance.user.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BudgetRepository extends JpaRepository<Budget, Long> {
+
+    @Query("SELECT b FROM Budget b JOIN FETCH b.category WHERE b.user = :user AND b.monthStart = :monthStart ORDER BY b.id")
+    List<Budget> findByUserAndMonthStart(@Param("user") User user, @Param("monthStart") LocalDate monthStart);
+
+    Optional<Budget> findByIdAndUser(Long id, User user);
+
+    boolean existsByUserAndCategoryAndMonthStart(User user, Category category, LocalDate monthStart);
+
+    /**
+     * Removes every budget set on a category, for when the category goes away.
+     * @return The number of budgets removed.
+     */
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query("DELETE FROM Budget b WHERE b.category = :category")
+    int deleteByCategory(@Param("category") Category category);
+}
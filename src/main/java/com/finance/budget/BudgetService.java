@@ -0,0 +1,199 @@
+package com.finance.budget;
+
+import com.finance.budget.dto.BudgetRequest;
+import com.finance.category.Category;
+import com.finance.category.CategoryService;
+import com.finance.category.CategoryType;
+import com.finance.exception.ResourceNotFoundException;
+import com.finance.ledger.LedgerVersionTracker;
+import com.finance.ledger.UserWriteLocks;
+import com.finance.user.User;
+import com.finance.user.UserService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class BudgetService {
+
+    private final BudgetRepository budgetRepository;
+    private final UserService userService;
+    private final CategoryService categoryService;
+    private final BudgetSpendIndex spendIndex;
+    private final LedgerVersionTracker ledgerVersions;
+    private final UserWriteLocks writeLocks;
+
+    public BudgetService(BudgetRepository budgetRepository, UserService userService, CategoryService categoryService,
+                         BudgetSpendIndex spendIndex, LedgerVersionTracker ledgerVersions, UserWriteLocks writeLocks) {
+        this.budgetRepository = budgetRepository;
+        this.userService = userService;
+        this.categoryService = categoryService;
+        this.spendIndex = spendIndex;
+        this.ledgerVersions = ledgerVersions;
+        this.writeLocks = writeLocks;
+    }
+
+    /**
+     * A budget together with what has been spent against it.
+     */
+    public record BudgetWithSpend(Budget budget, BigDecimal spent, BudgetStatus status) {
+    }
+
+    /**
+     * Creates a budget for an expense category and month.
+     * @param request The category, month (defaults to the current month), amount and optional alert threshold.
+     * @param userId The ID of the user.
+     * @return The created budget.
+     * @throws IllegalArgumentException if the amount or threshold is invalid, the category is not an expense
+     *         category, or the category already has a budget for that month.
+     * @throws ResourceNotFoundException if the user or category is not found.
+     */
+    @Transactional
+    public Budget createBudget(BudgetRequest request, Long userId) {
+        if (request.getCategoryName() == null || request.getCategoryName().trim().isEmpty()) {
+            throw new IllegalArgumentException("Category name cannot be empty.");
+        }
+        validateAmount(request.getAmount());
+        int alertThreshold = request.getAlertThreshold() != null ? request.getAlertThreshold() : 80;
+        validateAlertThreshold(alertThreshold);
+        YearMonth month = request.getMonth() != null ? request.getMonth() : YearMonth.now();
+
+        // Held so the category cannot be deleted between the lookup and the insert
+        writeLocks.lockUntilCompletion(userId);
+        User user = userService.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+        Category category = categoryService.findAccessibleCategoryByName(request.getCategoryName(), userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Category not found or not accessible: " + request.getCategoryName()));
+        if (category.getType() != CategoryType.EXPENSE) {
+            throw new IllegalArgumentException("Budgets can only be set on EXPENSE categories.");
+        }
+        if (budgetRepository.existsByUserAndCategoryAndMonthStart(user, category, month.atDay(1))) {
+            throw new IllegalArgumentException("A budget for '" + category.getName() + "' in " + month + " already exists.");
+        }
+
+        Budget budget = new Budget();
+        budget.setUser(user);
+        budget.setCategory(category);
+        budget.setMonthStart(month.atDay(1));
+        budget.setAmount(request.getAmount());
+        budget.setAlertThreshold(alertThreshold);
+        Budget saved = budgetRepository.save(budget);
+        ledgerVersions.recordWrite(userId);
+        return saved;
+    }
+
+    /**
+     * Lists a user's budgets for a month with their spending, read from the in-memory accumulator.
+     * @param userId The ID of the user.
+     * @param month The month.
+     * @return The budgets with spending and status.
+     */
+    public List<BudgetWithSpend> getBudgets(Long userId, YearMonth month) {
+        User user = userService.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+        List<Budget> budgets = budgetRepository.findByUserAndMonthStart(user, month.atDay(1));
+        if (budgets.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, BigDecimal> spentByCategory = spendIndex.spentByCategory(user, month);
+        List<BudgetWithSpend> result = new ArrayList<>(budgets.size());
+        for (Budget budget : budgets) {
+            BigDecimal spent = spentByCategory.getOrDefault(budget.getCategory().getId(), BigDecimal.ZERO);
+            result.add(new BudgetWithSpend(budget, spent, status(budget, spent)));
+        }
+        return result;
+    }
+
+    /**
+     * Pairs a single budget with what has been spent against it.
+     * @param budget The budget.
+     * @return The budget with spending and status.
+     */
+    public BudgetWithSpend withSpend(Budget budget) {
+        YearMonth month = YearMonth.from(budget.getMonthStart());
+        BigDecimal spent = spendIndex.spentByCategory(budget.getUser(), month)
+                .getOrDefault(budget.getCategory().getId(), BigDecimal.ZERO);
+        return new BudgetWithSpend(budget, spent, status(budget, spent));
+    }
+
+    /**
+     * Lists the current month's budgets that reached their alert threshold or were exceeded.
+     * @param userId The ID of the user.
+     * @return The budgets in WARNING or EXCEEDED status.
+     */
+    public List<BudgetWithSpend> getAlerts(Long userId) {
+        return getBudgets(userId, YearMonth.now()).stream()
+                .filter(budget -> budget.status() != BudgetStatus.OK)
+                .toList();
+    }
+
+    /**
+     * Changes a budget's amount and/or alert threshold. Null fields are left unchanged.
+     * @param budgetId The ID of the budget.
+     * @param request The new amount and/or alert threshold.
+     * @param userId The ID of the user.
+     * @return The updated budget.
+     * @throws ResourceNotFoundException if the budget is not found for the user.
+     * @throws IllegalArgumentException if the amount or threshold is invalid.
+     */
+    @Transactional
+    public Budget updateBudget(Long budgetId, BudgetRequest request, Long userId) {
+        Budget budget = findBudget(budgetId, userId);
+        if (request.getAmount() != null) {
+            validateAmount(request.getAmount());
+            budget.setAmount(request.getAmount());
+        }
+        if (request.getAlertThreshold() != null) {
+            validateAlertThreshold(request.getAlertThreshold());
+            budget.setAlertThreshold(request.getAlertThreshold());
+        }
+        Budget saved = budgetRepository.save(budget);
+        ledgerVersions.recordWrite(userId);
+        return saved;
+    }
+
+    /**
+     * Deletes a budget.
+     * @param budgetId The ID of the budget.
+     * @param userId The ID of the user.
+     * @throws ResourceNotFoundException if the budget is not found for the user.
+     */
+    @Transactional
+    public void deleteBudget(Long budgetId, Long userId) {
+        budgetRepository.delete(findBudget(budgetId, userId));
+        ledgerVersions.recordWrite(userId);
+    }
+
+    private Budget findBudget(Long budgetId, Long userId) {
+        User user = userService.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+        return budgetRepository.findByIdAndUser(budgetId, user)
+                .orElseThrow(() -> new ResourceNotFoundException("Budget not found with ID: " + budgetId));
+    }
+
+    private static BudgetStatus status(Budget budget, BigDecimal spent) {
+        if (spent.compareTo(budget.getAmount()) > 0) {
+            return BudgetStatus.EXCEEDED;
+        }
+        // spent / amount >= threshold / 100, without dividing
+        BigDecimal alertAt = budget.getAmount().multiply(BigDecimal.valueOf(budget.getAlertThreshold()));
+        return spent.multiply(BigDecimal.valueOf(100)).compareTo(alertAt) >= 0 ? BudgetStatus.WARNING : BudgetStatus.OK;
+    }
+
+    private static void validateAmount(BigDecimal amount) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Amount must be a positive decimal value.");
+        }
+    }
+
+    private static void validateAlertThreshold(int alertThreshold) {
+        if (alertThreshold < 1 || alertThreshold > 100) {
+            throw new IllegalArgumentException("Alert threshold must be between 1 and 100.");
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.finance.budget;
+
+import com.finance.transaction.PerUserIndex;
+import com.finance.transaction.TransactionSnapshot;
+import com.finance.user.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-user running totals of transaction amounts by category and calendar month.
+ *
+ * A user's totals are loaded with one grouped query on first use and then moved by every transaction write
+ * reported through {@link #recordChange(Long, Object, Object)}, so budget checks never scan the ledger.
+ * Bulk writes invalidate the user instead, and the next read reloads.
+ */
+@Component
+public class BudgetSpendIndex extends PerUserIndex<BudgetSpendIndex.MonthlySpend, TransactionSnapshot> {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Returns what a user spent in each category during a month.
+     * @param user The user.
+     * @param month The calendar month.
+     * @return Totals by category ID; categories without transactions that month are absent.
+     */
+    public Map<Long, BigDecimal> spentByCategory(User user, YearMonth month) {
+        return query(user, spend -> spend.forMonth(month));
+    }
+
+    @Override
+    protected MonthlySpend build(User user) {
+        List<Object[]> rows = entityManager.createQuery(
+                        "SELECT t.category.id, year(t.date), month(t.date), SUM(t.amount) FROM Transaction t " +
+                                "WHERE t.user = :user GROUP BY t.category.id, year(t.date), month(t.date)", Object[].class)
+                .setParameter("user", user)
+                .getResultList();
+        MonthlySpend spend = new MonthlySpend();
+        for (Object[] row : rows) {
+            YearMonth month = YearMonth.of(((Number) row[1]).intValue(), ((Number) row[2]).intValue());
+            spend.add((Long) row[0], month, (BigDecimal) row[3]);
+        }
+        return spend;
+    }
+
+    @Override
+    protected boolean apply(MonthlySpend spend, TransactionSnapshot before, TransactionSnapshot after) {
+        if (before != null) {
+            spend.add(before.categoryId(), YearMonth.from(before.date()), before.amount().negate());
+        }
+        if (after != null) {
+            spend.add(after.categoryId(), YearMonth.from(after.date()), after.amount());
+        }
+        return true;
+    }
+
+    /**
+     * One user's totals by month, then by category, so a month's budgets are answered with one lookup.
+     */
+    static final class MonthlySpend {
+        private final Map<YearMonth, Map<Long, BigDecimal>> byMonth = new HashMap<>();
+
+        void add(Long categoryId, YearMonth month, BigDecimal amount) {
+            byMonth.computeIfAbsent(month, m -> new HashMap<>()).merge(categoryId, amount, BigDecimal::add);
+        }
+
+        Map<Long, BigDecimal> forMonth(YearMonth month) {
+            return new HashMap<>(byMonth.getOrDefault(month, Map.of()));
+        }
+
+        BigDecimal get(Long categoryId, YearMonth month) {
+            return byMonth.getOrDefault(month, Map.of()).getOrDefault(categoryId, BigDecimal.ZERO);
+        }
+    }
+}
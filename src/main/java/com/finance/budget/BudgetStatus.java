@@ -0,0 +1,10 @@
+package com.finance.budget;
+
+/**
+ * Where a budget's spending stands against its amount and alert threshold.
+ */
+public enum BudgetStatus {
+    OK,
+    WARNING,
+    EXCEEDED
+}
@@ -0,0 +1,21 @@
+package com.finance.budget.dto;
+
+import com.fasterxml.jackson.annotation.JsonSetter;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+@Data
+public class BudgetRequest {
+    private String categoryName;
+    // "2024-05"; defaults to the current month on create
+    private YearMonth month;
+    private BigDecimal amount;
+    private Integer alertThreshold;
+
+    @JsonSetter("category")
+    public void setCategory(String category) {
+        this.categoryName = category;
+    }
+}
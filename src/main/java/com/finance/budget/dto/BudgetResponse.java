@@ -0,0 +1,31 @@
+package com.finance.budget.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.finance.budget.BudgetStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BudgetResponse {
+    private Long id;
+
+    @JsonProperty("category")
+    private String categoryName;
+
+    private YearMonth month;
+    private BigDecimal amount;
+    private BigDecimal spent;
+
+    // Never negative; see overspent for how far past the amount spending went
+    private BigDecimal remaining;
+    private BigDecimal overspent;
+    private BigDecimal percentUsed;
+    private int alertThreshold;
+    private BudgetStatus status;
+}
@@ -0,0 +1,139 @@
+package com.finance.categorization;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntConsumer;
+
+/**
+ * Aho-Corasick automaton finding every occurrence of a fixed set of patterns in one pass over a text,
+ * however many patterns there are.
+ *
+ * Immutable once built. Each node's transitions are frozen into a sorted key array searched by binary
+ * search, which keeps tens of thousands of patterns compact without a 65536-wide table per node.
+ */
+final class AhoCorasick {
+
+    private static final int ROOT = 0;
+    private static final char[] NO_KEYS = new char[0];
+    private static final int[] NO_TARGETS = new int[0];
+
+    private final char[][] keys;
+    private final int[][] targets;
+    private final int[] fail;
+    // The pattern ending exactly at a node, or -1
+    private final int[] output;
+    // The nearest node down the fail chain with an output, or -1
+    private final int[] outputLink;
+
+    /**
+     * @param patterns Non-empty patterns; a match reports the pattern's index in this list. For a pattern
+     *                 listed twice only the first index is reported.
+     */
+    AhoCorasick(List<String> patterns) {
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> outputs = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        outputs.add(-1);
+        for (int i = 0; i < patterns.size(); i++) {
+            String pattern = patterns.get(i);
+            if (pattern.isEmpty()) {
+                throw new IllegalArgumentException("Patterns cannot be empty.");
+            }
+            int node = ROOT;
+            for (int j = 0; j < pattern.length(); j++) {
+                Integer child = trie.get(node).get(pattern.charAt(j));
+                if (child == null) {
+                    child = trie.size();
+                    trie.add(new TreeMap<>());
+                    outputs.add(-1);
+                    trie.get(node).put(pattern.charAt(j), child);
+                }
+                node = child;
+            }
+            if (outputs.get(node) < 0) {
+                outputs.set(node, i);
+            }
+        }
+
+        int size = trie.size();
+        keys = new char[size][];
+        targets = new int[size][];
+        output = new int[size];
+        for (int node = 0; node < size; node++) {
+            Map<Character, Integer> children = trie.get(node);
+            keys[node] = children.isEmpty() ? NO_KEYS : new char[children.size()];
+            targets[node] = children.isEmpty() ? NO_TARGETS : new int[children.size()];
+            int k = 0;
+            for (Map.Entry<Character, Integer> child : children.entrySet()) {
+                keys[node][k] = child.getKey();
+                targets[node][k] = child.getValue();
+                k++;
+            }
+            output[node] = outputs.get(node);
+        }
+
+        // Breadth-first, so a node's fail target (always shallower) is linked before the node itself
+        fail = new int[size];
+        outputLink = new int[size];
+        outputLink[ROOT] = -1;
+        Deque<Integer> queue = new ArrayDeque<>();
+        queue.add(ROOT);
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int k = 0; k < keys[node].length; k++) {
+                char c = keys[node][k];
+                int child = targets[node][k];
+                int state = fail[node];
+                int next;
+                while ((next = step(state, c)) < 0 && state != ROOT) {
+                    state = fail[state];
+                }
+                fail[child] = next >= 0 && next != child ? next : ROOT;
+                outputLink[child] = output[fail[child]] >= 0 ? fail[child] : outputLink[fail[child]];
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Reports the index of every pattern occurring in the text, once per occurrence.
+     * @param text The text to scan, in the same case as the patterns.
+     * @param matches Receives pattern indexes.
+     */
+    void forEachMatch(CharSequence text, IntConsumer matches) {
+        int node = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int next;
+            while ((next = step(node, c)) < 0 && node != ROOT) {
+                node = fail[node];
+            }
+            node = next >= 0 ? next : ROOT;
+            for (int match = output[node] >= 0 ? node : outputLink[node]; match >= 0; match = outputLink[match]) {
+                matches.accept(output[match]);
+            }
+        }
+    }
+
+    private int step(int node, char c) {
+        char[] nodeKeys = keys[node];
+        int low = 0;
+        int high = nodeKeys.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char key = nodeKeys[mid];
+            if (key < c) {
+                low = mid + 1;
+            } else if (key > c) {
+                high = mid - 1;
+            } else {
+                return targets[node][mid];
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,231 @@
+package com.finance.categorization;
+
+import com.finance.category.CategoryType;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * A set of categorization rules compiled for matching.
+ *
+ * All "contains" patterns go into one {@link AhoCorasick} automaton, so a description is scanned once no matter
+ * how many "contains" rules there are; each pattern hit is then narrowed down by the amount bounds of the rules
+ * using it.
+ * Regex and amount-only rules are kept in priority order and only tried while they could still beat the best
+ * match found so far, so their cost grows linearly with their number. All regexes tried for one description share
+ * a time budget: a regex that runs past it (catastrophic backtracking) counts as not matching, and the regexes
+ * after it are skipped. Immutable and safe to share between threads.
+ */
+public final class CategorizationEngine {
+
+    /**
+     * A rule as compiled, detached from the persistence context.
+     * @param pattern The description pattern, or null for a rule on the amount only.
+     * @param minAmount Inclusive lower bound on the absolute amount, or null.
+     * @param maxAmount Inclusive upper bound on the absolute amount, or null.
+     */
+    public record Rule(long id, int priority, long categoryId, String categoryName, CategoryType categoryType,
+                       RuleMatchType matchType, String pattern, BigDecimal minAmount, BigDecimal maxAmount) {
+
+        static Rule of(CategorizationRule rule) {
+            return new Rule(rule.getId(), rule.getPriority(), rule.getCategory().getId(), rule.getCategory().getName(),
+                    rule.getCategory().getType(), rule.getMatchType(), rule.getPattern(), rule.getMinAmount(), rule.getMaxAmount());
+        }
+
+        boolean hasAmountBounds() {
+            return minAmount != null || maxAmount != null;
+        }
+    }
+
+    public static final CategorizationEngine EMPTY = new CategorizationEngine(List.of());
+
+    private static final int[] NO_RANKS = new int[0];
+
+    // Time all regex rules together may spend on one description
+    static final long DEFAULT_REGEX_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    // Rules by rank: ascending priority, then ID
+    private final Rule[] rules;
+    private final AhoCorasick automaton;
+    // Ranks of the rules using each automaton pattern, ascending
+    private final int[][] ranksByPattern;
+    private final int[] regexRanks;
+    private final Pattern[] regexes;
+    private final int[] amountOnlyRanks;
+    private final long regexBudgetNanos;
+
+    public CategorizationEngine(List<Rule> rules) {
+        this(rules, DEFAULT_REGEX_BUDGET_NANOS);
+    }
+
+    CategorizationEngine(List<Rule> rules, long regexBudgetNanos) {
+        this.regexBudgetNanos = regexBudgetNanos;
+        this.rules = rules.stream()
+                .sorted(Comparator.comparingInt(Rule::priority).thenComparingLong(Rule::id))
+                .toArray(Rule[]::new);
+
+        Map<String, Integer> patternIndexes = new HashMap<>();
+        List<String> patterns = new ArrayList<>();
+        List<List<Integer>> ranks = new ArrayList<>();
+        List<Integer> regexRankList = new ArrayList<>();
+        List<Pattern> regexList = new ArrayList<>();
+        List<Integer> amountOnlyList = new ArrayList<>();
+        for (int rank = 0; rank < this.rules.length; rank++) {
+            Rule rule = this.rules[rank];
+            if (rule.pattern() == null || rule.pattern().isEmpty()) {
+                amountOnlyList.add(rank);
+            } else if (rule.matchType() == RuleMatchType.REGEX) {
+                regexRankList.add(rank);
+                regexList.add(Pattern.compile(rule.pattern(), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE));
+            } else {
+                String pattern = rule.pattern().toLowerCase(Locale.ROOT);
+                Integer index = patternIndexes.get(pattern);
+                if (index == null) {
+                    index = patterns.size();
+                    patternIndexes.put(pattern, index);
+                    patterns.add(pattern);
+                    ranks.add(new ArrayList<>());
+                }
+                ranks.get(index).add(rank);
+            }
+        }
+
+        this.automaton = patterns.isEmpty() ? null : new AhoCorasick(patterns);
+        this.ranksByPattern = new int[ranks.size()][];
+        for (int i = 0; i < ranks.size(); i++) {
+            ranksByPattern[i] = toArray(ranks.get(i));
+        }
+        this.regexRanks = toArray(regexRankList);
+        this.regexes = regexList.toArray(Pattern[]::new);
+        this.amountOnlyRanks = toArray(amountOnlyList);
+    }
+
+    /**
+     * Finds the first rule, by priority, that matches a transaction.
+     * @param description The transaction description; rules with a pattern never match a null description.
+     * @param amount The amount; its sign is ignored. Rules with amount bounds never match a null amount.
+     * @param direction Only rules filing into categories of this type are considered, or any rule if null.
+     * @return The matching rule, or null if none matches.
+     */
+    public Rule classify(String description, BigDecimal amount, CategoryType direction) {
+        if (rules.length == 0) {
+            return null;
+        }
+        BigDecimal absolute = amount != null ? amount.abs() : null;
+        int[] best = {Integer.MAX_VALUE};
+
+        if (automaton != null && description != null) {
+            automaton.forEachMatch(description.toLowerCase(Locale.ROOT), pattern -> {
+                for (int rank : ranksByPattern[pattern]) {
+                    if (rank >= best[0]) {
+                        break;
+                    }
+                    if (accepts(rules[rank], absolute, direction)) {
+                        best[0] = rank;
+                        break;
+                    }
+                }
+            });
+        }
+        if (description != null && regexRanks.length > 0) {
+            DeadlineCharSequence input = new DeadlineCharSequence(description, System.nanoTime() + regexBudgetNanos);
+            try {
+                for (int i = 0; i < regexRanks.length && regexRanks[i] < best[0]; i++) {
+                    if (accepts(rules[regexRanks[i]], absolute, direction) && regexes[i].matcher(input).find()) {
+                        best[0] = regexRanks[i];
+                    }
+                }
+            } catch (DeadlineCharSequence.DeadlineExceededException e) {
+                // The regex that ran out of time and any after it count as not matching
+            }
+        }
+        for (int i = 0; i < amountOnlyRanks.length && amountOnlyRanks[i] < best[0]; i++) {
+            if (accepts(rules[amountOnlyRanks[i]], absolute, direction)) {
+                best[0] = amountOnlyRanks[i];
+            }
+        }
+        return best[0] == Integer.MAX_VALUE ? null : rules[best[0]];
+    }
+
+    /**
+     * @return The number of compiled rules.
+     */
+    public int size() {
+        return rules.length;
+    }
+
+    private static boolean accepts(Rule rule, BigDecimal absolute, CategoryType direction) {
+        if (direction != null && rule.categoryType() != direction) {
+            return false;
+        }
+        if (!rule.hasAmountBounds()) {
+            return true;
+        }
+        if (absolute == null) {
+            return false;
+        }
+        return (rule.minAmount() == null || absolute.compareTo(rule.minAmount()) >= 0)
+                && (rule.maxAmount() == null || absolute.compareTo(rule.maxAmount()) <= 0);
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        return values.isEmpty() ? NO_RANKS : values.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Regex input that throws once a deadline has passed. The matcher reads every character through charAt,
+     * so this stops a backtracking match without a separate thread; the clock is only read every few hundred reads.
+     */
+    private static final class DeadlineCharSequence implements CharSequence {
+
+        private static final int READS_PER_CHECK = 256;
+
+        static final class DeadlineExceededException extends RuntimeException {
+            DeadlineExceededException() {
+                super("Regex time budget exceeded", null, false, false);
+            }
+        }
+
+        private final CharSequence text;
+        private final long deadlineNanos;
+        private int readsUntilCheck = READS_PER_CHECK;
+
+        DeadlineCharSequence(CharSequence text, long deadlineNanos) {
+            this.text = text;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (--readsUntilCheck == 0) {
+                readsUntilCheck = READS_PER_CHECK;
+                if (System.nanoTime() - deadlineNanos > 0) {
+                    throw new DeadlineExceededException();
+                }
+            }
+            return text.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return text.length();
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return text.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return text.toString();
+        }
+    }
+}
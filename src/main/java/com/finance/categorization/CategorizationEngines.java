@@ -0,0 +1,62 @@
+package com.finance.categorization;
+
+import com.finance.category.CategoryType;
+import com.finance.transaction.PerUserIndex;
+import com.finance.user.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Each user's categorization rules, compiled into a {@link CategorizationEngine} on first use and kept until the
+ * rules or the categories they file into change. Every such write calls {@link #invalidate(Long)}, so classifying
+ * a transaction costs one automaton pass and no query.
+ */
+@Component
+public class CategorizationEngines extends PerUserIndex<CategorizationEngine, Void> {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * @param user The user.
+     * @return The user's compiled rules.
+     */
+    public CategorizationEngine engineFor(User user) {
+        return query(user, engine -> engine);
+    }
+
+    /**
+     * Finds the user's first rule, by priority, matching a transaction.
+     * @param user The user.
+     * @param description The transaction description.
+     * @param amount The amount; its sign is ignored.
+     * @param direction The category type to restrict rules to, or null for any.
+     * @return The matching rule, if any.
+     */
+    public Optional<CategorizationEngine.Rule> classify(User user, String description, BigDecimal amount, CategoryType direction) {
+        return Optional.ofNullable(engineFor(user).classify(description, amount, direction));
+    }
+
+    @Override
+    protected CategorizationEngine build(User user) {
+        List<CategorizationRule> rules = entityManager.createQuery(
+                        "SELECT r FROM CategorizationRule r JOIN FETCH r.category WHERE r.user = :user", CategorizationRule.class)
+                .setParameter("user", user)
+                .getResultList();
+        if (rules.isEmpty()) {
+            return CategorizationEngine.EMPTY;
+        }
+        return new CategorizationEngine(rules.stream().map(CategorizationEngine.Rule::of).toList());
+    }
+
+    @Override
+    protected boolean apply(CategorizationEngine engine, Void before, Void after) {
+        // Rules only change through invalidate()
+        return false;
+    }
+}
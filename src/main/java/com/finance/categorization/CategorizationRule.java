@@ -0,0 +1,58 @@
+package com.finance.categorization;
+
+import com.finance.category.Category;
+import com.finance.user.User;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Files transactions whose description matches a pattern and/or whose amount falls in a range under a category.
+ * A rule needs at least one of the two. Rules are tried by ascending priority, then creation order; the first
+ * that matches wins.
+ */
+@Entity
+@Table(name = "categorization_rules", indexes = {
+        @Index(name = "idx_categorization_rules_user", columnList = "user_id, priority, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategorizationRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id", nullable = false)
+    private Category category;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private RuleMatchType matchType = RuleMatchType.CONTAINS;
+
+    // Null for rules that only look at the amount
+    @Column(length = 200)
+    private String pattern;
+
+    // Inclusive bounds on the absolute amount; null means unbounded
+    @Column(precision = 15, scale = 2)
+    private BigDecimal minAmount;
+
+    @Column(precision = 15, scale = 2)
+    private BigDecimal maxAmount;
+
+    @Column(nullable = false)
+    private int priority = 100;
+
+    @Version
+    private Long version;
+}
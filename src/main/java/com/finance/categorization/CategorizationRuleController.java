@@ -0,0 +1,126 @@
+package com.finance.categorization;
+
+import com.finance.categorization.dto.CategorizationRuleRequest;
+import com.finance.categorization.dto.CategorizationRuleResponse;
+import com.finance.category.CategoryType;
+import com.finance.user.UserService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/categorization-rules")
+public class CategorizationRuleController {
+
+    private final CategorizationRuleService ruleService;
+    private final UserService userService;
+
+    public CategorizationRuleController(CategorizationRuleService ruleService, UserService userService) {
+        this.ruleService = ruleService;
+        this.userService = userService;
+    }
+
+    /**
+     * Helper method to get the authenticated user's ID.
+     */
+    private Long getAuthenticatedUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getPrincipal())) {
+            throw new IllegalStateException("User not authenticated.");
+        }
+        String username = authentication.getName();
+        return userService.findIdByUsername(username)
+                .orElseThrow(() -> new IllegalStateException("Authenticated user not found in database: " + username));
+    }
+
+    private CategorizationRuleResponse convertToDto(CategorizationRule rule) {
+        return new CategorizationRuleResponse(
+                rule.getId(),
+                rule.getCategory().getName(),
+                rule.getCategory().getType(),
+                rule.getMatchType(),
+                rule.getPattern(),
+                rule.getMinAmount(),
+                rule.getMaxAmount(),
+                rule.getPriority()
+        );
+    }
+
+    private CategorizationRuleResponse convertToDto(CategorizationEngine.Rule rule) {
+        return new CategorizationRuleResponse(
+                rule.id(),
+                rule.categoryName(),
+                rule.categoryType(),
+                rule.matchType(),
+                rule.pattern(),
+                rule.minAmount(),
+                rule.maxAmount(),
+                rule.priority()
+        );
+    }
+
+    /**
+     * Creates a categorization rule for the authenticated user.
+     */
+    @PostMapping
+    public ResponseEntity<CategorizationRuleResponse> createRule(@RequestBody CategorizationRuleRequest request) {
+        Long userId = getAuthenticatedUserId();
+        CategorizationRule rule = ruleService.createRule(request, userId);
+        return new ResponseEntity<>(convertToDto(rule), HttpStatus.CREATED);
+    }
+
+    /**
+     * Lists the authenticated user's rules in the order they are tried.
+     */
+    @GetMapping
+    public ResponseEntity<List<CategorizationRuleResponse>> getRules() {
+        Long userId = getAuthenticatedUserId();
+        List<CategorizationRuleResponse> responses = ruleService.getRules(userId).stream()
+                .map(this::convertToDto)
+                .toList();
+        return ResponseEntity.ok(responses);
+    }
+
+    /**
+     * Shows which rule would pick the category of a transaction; 204 if none would.
+     */
+    @GetMapping("/match")
+    public ResponseEntity<CategorizationRuleResponse> match(@RequestParam String description,
+                                                            @RequestParam(required = false) BigDecimal amount,
+                                                            @RequestParam(required = false) CategoryType type) {
+        Long userId = getAuthenticatedUserId();
+        return ruleService.match(userId, description, amount, type)
+                .map(rule -> ResponseEntity.ok(convertToDto(rule)))
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    /**
+     * Replaces a rule of the authenticated user.
+     */
+    @PutMapping("/{id}")
+    public ResponseEntity<CategorizationRuleResponse> updateRule(@PathVariable Long id, @RequestBody CategorizationRuleRequest request) {
+        Long userId = getAuthenticatedUserId();
+        CategorizationRule rule = ruleService.updateRule(id, request, userId);
+        return ResponseEntity.ok(convertToDto(rule));
+    }
+
+    /**
+     * Deletes a rule of the authenticated user.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Map<String, String>> deleteRule(@PathVariable Long id) {
+        Long userId = getAuthenticatedUserId();
+        ruleService.deleteRule(id, userId);
+
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Categorization rule deleted successfully");
+        return ResponseEntity.ok(response);
+    }
+}
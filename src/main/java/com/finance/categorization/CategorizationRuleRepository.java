@@ -0,0 +1,46 @@
+package com.finance.categorization;
+
+import com.finance.category.Category;
+import com.finance.user.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CategorizationRuleRepository extends JpaRepository<CategorizationRule, Long> {
+
+    /**
+     * A user's rules in the order they are tried, with their categories.
+     */
+    @Query("SELECT r FROM CategorizationRule r JOIN FETCH r.category WHERE r.user = :user ORDER BY r.priority, r.id")
+    List<CategorizationRule> findByUserInOrder(@Param("user") User user);
+
+    Optional<CategorizationRule> findByIdAndUser(Long id, User user);
+
+    long countByUserAndMatchType(User user, RuleMatchType matchType);
+
+    /**
+     * Removes every rule filing into a category, for when the category goes away.
+     * @return The number of rules removed.
+     */
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query("DELETE FROM CategorizationRule r WHERE r.category = :category")
+    int deleteByCategory(@Param("category") Category category);
+
+    /**
+     * Points all of a user's rules in one category at another.
+     * @return The number of rules moved.
+     */
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query("UPDATE CategorizationRule r SET r.category = :target, r.version = r.version + 1 " +
+            "WHERE r.user = :user AND r.category = :source")
+    int reassignCategory(@Param("user") User user, @Param("source") Category source, @Param("target") Category target);
+}
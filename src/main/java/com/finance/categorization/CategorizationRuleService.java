@@ -0,0 +1,304 @@
+package com.finance.categorization;
+
+import com.finance.categorization.dto.CategorizationRuleRequest;
+import com.finance.category.Category;
+import com.finance.category.CategoryService;
+import com.finance.category.CategoryType;
+import com.finance.exception.ResourceNotFoundException;
+import com.finance.ledger.UserWriteLocks;
+import com.finance.user.User;
+import com.finance.user.UserService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+@Service
+public class CategorizationRuleService {
+
+    private static final int MAX_PATTERN_LENGTH = 200;
+    private static final int DEFAULT_PRIORITY = 100;
+
+    private final CategorizationRuleRepository ruleRepository;
+    private final UserService userService;
+    private final CategoryService categoryService;
+    private final CategorizationEngines engines;
+    private final UserWriteLocks writeLocks;
+    private final int maxRegexRules;
+
+    public CategorizationRuleService(CategorizationRuleRepository ruleRepository, UserService userService,
+                                     CategoryService categoryService, CategorizationEngines engines, UserWriteLocks writeLocks,
+                                     @Value("${finance.categorization.max-regex-rules:50}") int maxRegexRules) {
+        this.ruleRepository = ruleRepository;
+        this.userService = userService;
+        this.categoryService = categoryService;
+        this.engines = engines;
+        this.writeLocks = writeLocks;
+        this.maxRegexRules = maxRegexRules;
+    }
+
+    /**
+     * Creates a categorization rule.
+     * @param request The category, match type, pattern, amount bounds and priority.
+     * @param userId The ID of the user.
+     * @return The created rule.
+     * @throws IllegalArgumentException if the rule has neither a pattern nor amount bounds, any field is invalid,
+     *         or it would take the user past the regex rule limit.
+     * @throws ResourceNotFoundException if the user or category is not found.
+     */
+    @Transactional
+    public CategorizationRule createRule(CategorizationRuleRequest request, Long userId) {
+        // Held so the category cannot be deleted between the lookup and the insert
+        writeLocks.lockUntilCompletion(userId);
+        User user = userService.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+        CategorizationRule rule = new CategorizationRule();
+        rule.setUser(user);
+        applyRequest(rule, request, userId);
+        CategorizationRule saved = ruleRepository.save(rule);
+        engines.invalidate(userId);
+        return saved;
+    }
+
+    /**
+     * Lists a user's rules in the order they are tried.
+     * @param userId The ID of the user.
+     * @return The rules, by ascending priority.
+     */
+    public List<CategorizationRule> getRules(Long userId) {
+        User user = userService.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+        return ruleRepository.findByUserInOrder(user);
+    }
+
+    /**
+     * Replaces a rule's definition.
+     * @param ruleId The ID of the rule.
+     * @param request The full new definition; a missing priority resets it to the default.
+     * @param userId The ID of the user.
+     * @return The updated rule.
+     * @throws ResourceNotFoundException if the rule or category is not found for the user.
+     * @throws IllegalArgumentException if the new definition is invalid.
+     */
+    @Transactional
+    public CategorizationRule updateRule(Long ruleId, CategorizationRuleRequest request, Long userId) {
+        writeLocks.lockUntilCompletion(userId);
+        CategorizationRule rule = findRule(ruleId, userId);
+        applyRequest(rule, request, userId);
+        CategorizationRule saved = ruleRepository.save(rule);
+        engines.invalidate(userId);
+        return saved;
+    }
+
+    /**
+     * Deletes a rule.
+     * @param ruleId The ID of the rule.
+     * @param userId The ID of the user.
+     * @throws ResourceNotFoundException if the rule is not found for the user.
+     */
+    @Transactional
+    public void deleteRule(Long ruleId, Long userId) {
+        ruleRepository.delete(findRule(ruleId, userId));
+        engines.invalidate(userId);
+    }
+
+    /**
+     * Shows which rule would categorize a transaction, without creating one.
+     * @param userId The ID of the user.
+     * @param description The transaction description.
+     * @param amount The amount, or null to skip rules with amount bounds.
+     * @param type Restricts rules to categories of this type, or null for any.
+     * @return The first matching rule, if any.
+     */
+    public Optional<CategorizationEngine.Rule> match(Long userId, String description, BigDecimal amount, CategoryType type) {
+        User user = userService.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+        return engines.classify(user, description, amount, type);
+    }
+
+    private CategorizationRule findRule(Long ruleId, Long userId) {
+        User user = userService.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+        return ruleRepository.findByIdAndUser(ruleId, user)
+                .orElseThrow(() -> new ResourceNotFoundException("Categorization rule not found with ID: " + ruleId));
+    }
+
+    private void applyRequest(CategorizationRule rule, CategorizationRuleRequest request, Long userId) {
+        if (request.getCategoryName() == null || request.getCategoryName().trim().isEmpty()) {
+            throw new IllegalArgumentException("Category name cannot be empty.");
+        }
+        RuleMatchType matchType = request.getMatchType() != null
+                ? RuleMatchType.fromParam(request.getMatchType()) : RuleMatchType.CONTAINS;
+        String pattern = request.getPattern() != null && !request.getPattern().isBlank() ? request.getPattern() : null;
+        if (matchType == RuleMatchType.CONTAINS && pattern != null) {
+            pattern = pattern.trim();
+        }
+        BigDecimal minAmount = request.getMinAmount();
+        BigDecimal maxAmount = request.getMaxAmount();
+        int priority = request.getPriority() != null ? request.getPriority() : DEFAULT_PRIORITY;
+
+        if (pattern == null && minAmount == null && maxAmount == null) {
+            throw new IllegalArgumentException("A rule needs a pattern, an amount range, or both.");
+        }
+        if (pattern != null) {
+            validatePattern(matchType, pattern);
+        } else if (request.getMatchType() != null && matchType == RuleMatchType.REGEX) {
+            throw new IllegalArgumentException("A regex rule needs a pattern.");
+        }
+        validateBound(minAmount, "Minimum amount");
+        validateBound(maxAmount, "Maximum amount");
+        if (minAmount != null && maxAmount != null && minAmount.compareTo(maxAmount) > 0) {
+            throw new IllegalArgumentException("Minimum amount cannot be greater than maximum amount.");
+        }
+        if (priority < 0) {
+            throw new IllegalArgumentException("Priority cannot be negative.");
+        }
+        // Regexes are tried one by one, so their number bounds the cost of categorizing a transaction
+        if (matchType == RuleMatchType.REGEX && (rule.getId() == null || rule.getMatchType() != RuleMatchType.REGEX)
+                && ruleRepository.countByUserAndMatchType(rule.getUser(), RuleMatchType.REGEX) >= maxRegexRules) {
+            throw new IllegalArgumentException("A user can have at most " + maxRegexRules + " regex rules.");
+        }
+
+        Category category = categoryService.findAccessibleCategoryByName(request.getCategoryName(), userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Category not found or not accessible: " + request.getCategoryName()));
+        rule.setCategory(category);
+        rule.setMatchType(matchType);
+        rule.setPattern(pattern);
+        rule.setMinAmount(minAmount);
+        rule.setMaxAmount(maxAmount);
+        rule.setPriority(priority);
+    }
+
+    private static void validatePattern(RuleMatchType matchType, String pattern) {
+        if (pattern.length() > MAX_PATTERN_LENGTH) {
+            throw new IllegalArgumentException("Pattern cannot be longer than " + MAX_PATTERN_LENGTH + " characters.");
+        }
+        if (matchType == RuleMatchType.REGEX) {
+            try {
+                Pattern.compile(pattern);
+            } catch (PatternSyntaxException e) {
+                throw new IllegalArgumentException("Invalid regular expression: " + e.getDescription());
+            }
+            if (hasNestedRepetition(pattern)) {
+                throw new IllegalArgumentException("Regular expression cannot repeat a group that itself contains "
+                        + "a repetition, such as (a+)+.");
+            }
+        }
+    }
+
+    /**
+     * Detects a group with an unbounded repetition inside (*, + or {n,}) that is itself repeated without bound,
+     * the usual shape of catastrophic backtracking. Bounded repeats like (.*a){20} and overlapping alternatives
+     * are not caught here; the engine's time budget covers those.
+     * @param regex A syntactically valid regular expression.
+     */
+    static boolean hasNestedRepetition(String regex) {
+        // One entry per open group: whether it contains an unbounded repetition so far
+        Deque<Boolean> groups = new ArrayDeque<>();
+        groups.push(false);
+        int i = 0;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == 'Q') {
+                    int end = regex.indexOf("\\E", i + 2);
+                    i = end < 0 ? regex.length() : end + 2;
+                } else {
+                    i += 2;
+                }
+            } else if (c == '[') {
+                i = skipCharacterClass(regex, i);
+            } else if (c == '(') {
+                groups.push(false);
+                i++;
+            } else if (c == ')') {
+                boolean inner = groups.size() > 1 && groups.pop();
+                int next = unboundedRepetitionEnd(regex, i + 1);
+                if (inner && next >= 0) {
+                    return true;
+                }
+                if (inner || next >= 0) {
+                    markRepetition(groups);
+                }
+                i = next >= 0 ? next : i + 1;
+            } else {
+                int next = unboundedRepetitionEnd(regex, i);
+                if (next >= 0) {
+                    markRepetition(groups);
+                }
+                i = next >= 0 ? next : i + 1;
+            }
+        }
+        return false;
+    }
+
+    private static void markRepetition(Deque<Boolean> groups) {
+        groups.pop();
+        groups.push(true);
+    }
+
+    /**
+     * @return The index after an unbounded quantifier (*, + or {n,}) starting at index, or -1 if there is none.
+     */
+    private static int unboundedRepetitionEnd(String regex, int index) {
+        if (index >= regex.length()) {
+            return -1;
+        }
+        char c = regex.charAt(index);
+        if (c == '*' || c == '+') {
+            return index + 1;
+        }
+        if (c == '{') {
+            int close = regex.indexOf('}', index);
+            if (close > 0 && regex.substring(index + 1, close).matches("\\d+,")) {
+                return close + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipCharacterClass(String regex, int open) {
+        int depth = 0;
+        int i = open;
+        while (i < regex.length()) {
+            char c = regex.charAt(i);
+            if (c == '\\') {
+                i += 2;
+                continue;
+            }
+            if (c == '[') {
+                depth++;
+                // A ']' right after the opening bracket (or its negation) is a literal
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == '^') {
+                    i++;
+                }
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == ']') {
+                    i++;
+                }
+            } else if (c == ']' && --depth == 0) {
+                return i + 1;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static void validateBound(BigDecimal bound, String name) {
+        if (bound == null) {
+            return;
+        }
+        if (bound.signum() < 0) {
+            throw new IllegalArgumentException(name + " cannot be negative.");
+        }
+        if (bound.stripTrailingZeros().scale() > 2) {
+            throw new IllegalArgumentException(name + " can have at most two decimal places.");
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.finance.categorization;
+
+/**
+ * How a categorization rule's pattern is matched against a transaction description.
+ */
+public enum RuleMatchType {
+    /** The description contains the pattern, ignoring case. */
+    CONTAINS,
+    /** The regular expression is found in the description, ignoring case. */
+    REGEX;
+
+    /**
+     * Parses the request form (contains or regex, any case).
+     * @throws IllegalArgumentException if the value is not a known match type.
+     */
+    public static RuleMatchType fromParam(String value) {
+        if (value != null) {
+            for (RuleMatchType type : values()) {
+                if (type.name().equalsIgnoreCase(value.trim())) {
+                    return type;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Match type must be one of: contains, regex");
+    }
+}
@@ -0,0 +1,24 @@
+package com.finance.categorization.dto;
+
+import com.fasterxml.jackson.annotation.JsonSetter;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class CategorizationRuleRequest {
+    private String categoryName;
+    // "contains" (default) or "regex"
+    private String matchType;
+    private String pattern;
+    // Inclusive bounds on the absolute amount
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+    // Lower runs first; defaults to 100
+    private Integer priority;
+
+    @JsonSetter("category")
+    public void setCategory(String category) {
+        this.categoryName = category;
+    }
+}
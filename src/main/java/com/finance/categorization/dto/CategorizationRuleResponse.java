@@ -0,0 +1,27 @@
+package com.finance.categorization.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.finance.categorization.RuleMatchType;
+import com.finance.category.CategoryType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategorizationRuleResponse {
+    private Long id;
+
+    @JsonProperty("category")
+    private String categoryName;
+
+    private CategoryType categoryType;
+    private RuleMatchType matchType;
+    private String pattern;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+    private int priority;
+}
@@ -36,6 +36,17 @@ public class Category {
     @JoinColumn(name = "user_id") // Foreign key column in 'categories' table
     private User user;
 
+    @Version
+    private Long version;
+
+    public Category(Long id, String name, CategoryType type, boolean isCustom, User user) {
+        this.id = id;
+        this.name = name;
+        this.type = type;
+        this.isCustom = isCustom;
+        this.user = user;
+    }
+
     public Category(String name, CategoryType type, boolean isCustom, User user) {
         this.name = name;
         this.type = type;
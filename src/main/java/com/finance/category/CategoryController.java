@@ -1,7 +1,9 @@
 package com.finance.category;
 
+import com.finance.category.dto.CategoryMergeResponse;
 import com.finance.category.dto.CategoryRequest;
 import com.finance.category.dto.CategoryResponse;
+import com.finance.category.dto.CategoryUsageResponse;
 import com.finance.user.User;
 import com.finance.user.UserService;
 import jakarta.validation.Valid;
@@ -12,6 +14,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -46,15 +49,38 @@ public class CategoryController {
 
     /**
      * Retrieves all categories accessible to the authenticated user.
-     * Includes both default and custom categories created by the user.
+     * Includes both default and custom categories created by the user, each with its transaction count
+     * and whether it is in use, read from the usage counters.
      * @return A list of CategoryResponse DTOs.
      */
     @GetMapping
     public ResponseEntity<List<CategoryResponse>> getAllCategories() {
         Long userId = getAuthenticatedUserId();
         List<Category> categories = categoryService.getAllCategoriesForUser(userId);
+        Map<Long, CategoryUsage> usage = categoryService.getCategoryUsage(userId);
         List<CategoryResponse> responses = categories.stream()
-                .map(category -> new CategoryResponse(category.getName(), category.getType(), category.isCustom()))
+                .map(category -> {
+                    CategoryUsage counter = usage.get(category.getId());
+                    long count = counter != null ? counter.getTransactionCount() : 0;
+                    return new CategoryResponse(category.getName(), category.getType(), category.isCustom(), count, count > 0);
+                })
+                .collect(Collectors.toList());
+        return new ResponseEntity<>(responses, HttpStatus.OK);
+    }
+
+    /**
+     * Retrieves the authenticated user's categories with the largest amount totals.
+     * @param type Optional category type filter (INCOME/EXPENSE).
+     * @param limit The maximum number of categories to return (default 5).
+     * @return Categories with their transaction count and amount total, largest total first.
+     */
+    @GetMapping("/top")
+    public ResponseEntity<List<CategoryUsageResponse>> getTopCategories(@RequestParam(required = false) CategoryType type,
+                                                                        @RequestParam(defaultValue = "5") int limit) {
+        Long userId = getAuthenticatedUserId();
+        List<CategoryUsageResponse> responses = categoryService.getTopCategories(userId, type, limit).stream()
+                .map(ranked -> new CategoryUsageResponse(ranked.category().getName(), ranked.category().getType(),
+                        ranked.category().isCustom(), ranked.transactionCount(), ranked.amountTotal()))
                 .collect(Collectors.toList());
         return new ResponseEntity<>(responses, HttpStatus.OK);
     }
@@ -84,4 +110,18 @@ public class CategoryController {
         categoryService.deleteCustomCategory(name, userId);
         return new ResponseEntity<>("Category deleted successfully", HttpStatus.OK);
     }
+
+    /**
+     * Moves all of the authenticated user's transactions from a custom category into another category of the same
+     * type, then deletes the custom category.
+     * @param name The name of the custom category to merge away.
+     * @param target The name of the category to merge into.
+     * @return The number of transactions moved.
+     */
+    @PostMapping("/{name}/merge-into/{target}")
+    public ResponseEntity<CategoryMergeResponse> mergeCategory(@PathVariable String name, @PathVariable String target) {
+        Long userId = getAuthenticatedUserId();
+        int moved = categoryService.mergeCategory(name, target, userId);
+        return new ResponseEntity<>(new CategoryMergeResponse(name, target, moved), HttpStatus.OK);
+    }
 }
@@ -1,15 +1,32 @@
 package com.finance.category;
 
 
+import com.finance.archive.TransactionArchiveService;
+import com.finance.budget.BudgetRepository;
+import com.finance.budget.BudgetSpendIndex;
+import com.finance.categorization.CategorizationEngines;
+import com.finance.categorization.CategorizationRuleRepository;
 import com.finance.exception.ResourceNotFoundException;
-import com.finance.transaction.TransactionRepository;  // ADD THIS IMPORT
+import com.finance.ledger.LedgerVersionTracker;
+import com.finance.ledger.RetryOnConflict;
+import com.finance.ledger.UserWriteLocks;
+import com.finance.outbox.TransactionEvent;
+import com.finance.outbox.TransactionOutbox;
+import com.finance.recurring.RecurringRuleRepository;
+import com.finance.transaction.DuplicateDetector;
+import com.finance.transaction.TransactionLedgerIndex;
+import com.finance.transaction.TransactionRepository;
+import com.finance.transaction.TransactionSearchIndex;
 import com.finance.user.User;
 import com.finance.user.UserService;
-import jakarta.annotation.PostConstruct;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -17,48 +34,50 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final UserService userService;
-    private final TransactionRepository transactionRepository;  // ADD THIS
+    private final CategoryUsageService categoryUsage;
+    private final LedgerVersionTracker ledgerVersions;
+    private final DefaultCategories defaultCategories;
+    private final UserWriteLocks writeLocks;
+    private final TransactionRepository transactionRepository;
+    private final TransactionLedgerIndex ledgerIndex;
+    private final TransactionSearchIndex searchIndex;
+    private final RecurringRuleRepository recurringRuleRepository;
+    private final BudgetRepository budgetRepository;
+    private final BudgetSpendIndex budgetSpend;
+    private final CategorizationRuleRepository categorizationRuleRepository;
+    private final CategorizationEngines categorization;
+    private final DuplicateDetector duplicates;
+    private final TransactionArchiveService archives;
+    private final TransactionOutbox outbox;
 
-    // UPDATE CONSTRUCTOR to include TransactionRepository
-    public CategoryService(CategoryRepository categoryRepository, UserService userService, TransactionRepository transactionRepository) {
+    public CategoryService(CategoryRepository categoryRepository, UserService userService, CategoryUsageService categoryUsage,
+                           LedgerVersionTracker ledgerVersions, DefaultCategories defaultCategories, UserWriteLocks writeLocks,
+                           TransactionRepository transactionRepository, TransactionLedgerIndex ledgerIndex,
+                           TransactionSearchIndex searchIndex,
+                           RecurringRuleRepository recurringRuleRepository, BudgetRepository budgetRepository,
+                           BudgetSpendIndex budgetSpend, CategorizationRuleRepository categorizationRuleRepository,
+                           CategorizationEngines categorization, DuplicateDetector duplicates,
+                           TransactionArchiveService archives, TransactionOutbox outbox) {
         this.categoryRepository = categoryRepository;
         this.userService = userService;
-        this.transactionRepository = transactionRepository;  // ADD THIS
+        this.categoryUsage = categoryUsage;
+        this.ledgerVersions = ledgerVersions;
+        this.defaultCategories = defaultCategories;
+        this.writeLocks = writeLocks;
+        this.transactionRepository = transactionRepository;
+        this.ledgerIndex = ledgerIndex;
+        this.searchIndex = searchIndex;
+        this.recurringRuleRepository = recurringRuleRepository;
+        this.budgetRepository = budgetRepository;
+        this.budgetSpend = budgetSpend;
+        this.categorizationRuleRepository = categorizationRuleRepository;
+        this.categorization = categorization;
+        this.duplicates = duplicates;
+        this.archives = archives;
+        this.outbox = outbox;
     }
 
 
-    /**
-     * Initializes default categories upon application startup.
-     * This method runs once after the application context has been loaded.
-     */
-    @PostConstruct
-    public void initDefaultCategories() {
-        // Income categories
-        if (categoryRepository.findByNameAndIsCustomFalse("Salary").isEmpty()) {
-            categoryRepository.save(new Category("Salary", CategoryType.INCOME, false, null));
-        }
-
-        // Expense categories
-        if (categoryRepository.findByNameAndIsCustomFalse("Food").isEmpty()) {
-            categoryRepository.save(new Category("Food", CategoryType.EXPENSE, false, null));
-        }
-        if (categoryRepository.findByNameAndIsCustomFalse("Rent").isEmpty()) {
-            categoryRepository.save(new Category("Rent", CategoryType.EXPENSE, false, null));
-        }
-        if (categoryRepository.findByNameAndIsCustomFalse("Transportation").isEmpty()) {
-            categoryRepository.save(new Category("Transportation", CategoryType.EXPENSE, false, null));
-        }
-        if (categoryRepository.findByNameAndIsCustomFalse("Entertainment").isEmpty()) {
-            categoryRepository.save(new Category("Entertainment", CategoryType.EXPENSE, false, null));
-        }
-        if (categoryRepository.findByNameAndIsCustomFalse("Healthcare").isEmpty()) {
-            categoryRepository.save(new Category("Healthcare", CategoryType.EXPENSE, false, null));
-        }
-        if (categoryRepository.findByNameAndIsCustomFalse("Utilities").isEmpty()) {
-            categoryRepository.save(new Category("Utilities", CategoryType.EXPENSE, false, null));
-        }
-    }
-
     /**
      * Creates a new custom category for a specific user.
      * Ensures the category name is unique for that user.
@@ -84,7 +103,9 @@ public class CategoryService {
         }
 
         Category category = new Category(name, type, true, user);
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        ledgerVersions.recordWrite(userId);
+        return saved;
     }
     /**
      * Retrieves all categories accessible to a given user (default and custom).
@@ -110,7 +131,11 @@ public class CategoryService {
         User user = userService.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
 
-        // Use the correct repository method
+        // Default categories are served from memory; only custom names need a query
+        Category defaultCategory = defaultCategories.find(categoryName);
+        if (defaultCategory != null) {
+            return Optional.of(defaultCategory);
+        }
         return categoryRepository.findAccessibleCategoryByNameAndUser(categoryName, user);
     }
 
@@ -140,7 +165,10 @@ public class CategoryService {
      * @throws IllegalArgumentException if the category is not custom or if the new name is a duplicate.
      */
     @Transactional
+    @RetryOnConflict
     public Category updateCategory(Long categoryId, String newName, CategoryType newType, Long userId) {
+        // Held so no write files a transaction under the old name or type while the indexes are reset
+        writeLocks.lockUntilCompletion(userId);
         User user = userService.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
 
@@ -156,10 +184,20 @@ public class CategoryService {
             throw new IllegalArgumentException("A custom category with name '" + newName + "' already exists for this user.");
         }
 
+        CategoryType previousType = existingCategory.getType();
         existingCategory.setName(newName);
         existingCategory.setType(newType);
 
-        return categoryRepository.save(existingCategory);
+        Category saved = categoryRepository.save(existingCategory);
+        // Compiled rules and search postings carry the category's name and type; the ledger files its
+        // transactions under their type
+        categorization.invalidate(userId);
+        searchIndex.invalidate(userId);
+        if (newType != previousType) {
+            ledgerIndex.invalidate(userId);
+        }
+        ledgerVersions.recordWrite(userId);
+        return saved;
     }
 
     /**
@@ -168,10 +206,12 @@ public class CategoryService {
      * @param categoryName The name of the custom category to delete.
      * @param userId The ID of the user trying to delete the category.
      * @throws ResourceNotFoundException if the category is not found or not custom for the user.
-     * @throws IllegalArgumentException if the category is a default category.
+     * @throws IllegalArgumentException if the category is used by transactions, archived transactions or recurring rules.
      */
     @Transactional
     public void deleteCustomCategory(String categoryName, Long userId) {
+        // Held so no transaction can start using the category between the usage check and the delete
+        writeLocks.lockUntilCompletion(userId);
         User user = userService.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
@@ -179,23 +219,130 @@ public class CategoryService {
         Category category = categoryRepository.findByNameAndUserAndIsCustomTrue(categoryName, user)
                 .orElseThrow(() -> new ResourceNotFoundException("Custom category '" + categoryName + "' not found for this user."));
 
-        // Check if category is in use - NOW THIS WILL WORK
-        boolean isInUse = transactionRepository.existsByCategoryAndUser(category, user);
+        // Check if category is in use, from the maintained usage counter
+        boolean isInUse = categoryUsage.isInUse(userId, category.getId());
         if (isInUse) {
             throw new IllegalArgumentException("Cannot delete category '" + categoryName + "' as it is currently in use by transactions.");
         }
+        if (recurringRuleRepository.existsByCategory(category)) {
+            throw new IllegalArgumentException("Cannot delete category '" + categoryName + "' as it is currently in use by recurring rules.");
+        }
+        // Archived transactions could not be restored without it
+        if (archives.isCategoryArchived(userId, category.getId())) {
+            throw new IllegalArgumentException("Cannot delete category '" + categoryName + "' as it is used by archived transactions.");
+        }
 
-        // Delete the category
+        // Delete the category along with its budgets and categorization rules
+        categoryUsage.forget(userId, category.getId());
+        budgetRepository.deleteByCategory(category);
+        if (categorizationRuleRepository.deleteByCategory(category) > 0) {
+            categorization.invalidate(userId);
+        }
         categoryRepository.delete(category);
+        ledgerVersions.recordWrite(userId);
     }
 
 
+    /**
+     * Merges a custom category into another category of the same type: all of the user's transactions, recurring
+     * rules and categorization rules move to the target in one bulk statement each, archived transactions are
+     * rewritten to the target, and the source category is deleted.
+     * Usage counters are folded together and one bulk outbox event is recorded in the same database transaction;
+     * the search index is rebuilt on next use.
+     * @param sourceName The name of the custom category to merge away.
+     * @param targetName The name of the category to merge into (default or custom).
+     * @param userId The ID of the user.
+     * @return The number of transactions moved, not counting archived ones.
+     * @throws ResourceNotFoundException if either category is not found for the user.
+     * @throws IllegalArgumentException if the categories are the same or of different types.
+     */
+    @Transactional
+    public int mergeCategory(String sourceName, String targetName, Long userId) {
+        writeLocks.lockUntilCompletion(userId);
+        User user = userService.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+
+        Category source = categoryRepository.findByNameAndUserAndIsCustomTrue(sourceName, user)
+                .orElseThrow(() -> new ResourceNotFoundException("Custom category '" + sourceName + "' not found for this user."));
+        Category target = findAccessibleCategoryByName(targetName, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Category not found or not accessible: " + targetName));
+
+        if (source.getId().equals(target.getId())) {
+            throw new IllegalArgumentException("A category cannot be merged into itself.");
+        }
+        // Same type keeps the income/expense ledger totals unchanged
+        if (source.getType() != target.getType()) {
+            throw new IllegalArgumentException("Cannot merge " + source.getType() + " category '" + sourceName +
+                    "' into " + target.getType() + " category '" + targetName + "'.");
+        }
+
+        int moved = transactionRepository.reassignCategory(user, source, target);
+        if (moved > 0) {
+            outbox.appendBulk(userId, TransactionEvent.BulkOperation.CATEGORY_MERGE, moved);
+        }
+        archives.reassignCategory(userId, source.getId(), target.getId());
+        recurringRuleRepository.reassignCategory(user, source, target);
+        if (categorizationRuleRepository.reassignCategory(user, source, target) > 0) {
+            categorization.invalidate(userId);
+        }
+        categoryUsage.merge(userId, source.getId(), target.getId());
+        searchIndex.invalidate(userId);
+        budgetSpend.invalidate(userId);
+        duplicates.invalidate(userId);
+
+        // Spending now counts against the target's budgets
+        budgetRepository.deleteByCategory(source);
+        categoryRepository.delete(source);
+        ledgerVersions.recordWrite(userId);
+        return moved;
+    }
+
     /**
      * Retrieves all default categories (isCustom = false).
      * @return A list of default Category objects.
      */
     public List<Category> getDefaultCategories() {
-        return categoryRepository.findByIsCustomFalse();
+        return List.copyOf(defaultCategories.all());
+    }
+
+    /**
+     * Retrieves the user's transaction count and amount total per category, keyed by category ID.
+     * @param userId The ID of the user.
+     * @return The usage counters; categories without transactions have no entry.
+     */
+    public Map<Long, CategoryUsage> getCategoryUsage(Long userId) {
+        return categoryUsage.getUsageByCategory(userId);
+    }
+
+    /**
+     * Retrieves the user's categories with the highest amount totals.
+     * @param userId The ID of the user.
+     * @param type Optional category type filter.
+     * @param limit The maximum number of categories (1 to 50).
+     * @return Categories paired with their usage, largest total first.
+     * @throws IllegalArgumentException if the limit is out of range.
+     */
+    public List<CategoryWithUsage> getTopCategories(Long userId, CategoryType type, int limit) {
+        if (limit < 1 || limit > 50) {
+            throw new IllegalArgumentException("Limit must be between 1 and 50.");
+        }
+        Map<Long, CategoryUsage> usage = categoryUsage.getUsageByCategory(userId);
+        List<CategoryWithUsage> ranked = new ArrayList<>();
+        for (Category category : getAllCategoriesForUser(userId)) {
+            CategoryUsage counter = usage.get(category.getId());
+            if (counter != null && counter.getTransactionCount() > 0 && (type == null || type == category.getType())) {
+                ranked.add(new CategoryWithUsage(category, counter.getTransactionCount(), counter.getAmountTotal()));
+            }
+        }
+        ranked.sort(Comparator.comparing(CategoryWithUsage::amountTotal).reversed()
+                .thenComparing(Comparator.comparingLong(CategoryWithUsage::transactionCount).reversed()));
+        return ranked.size() > limit ? ranked.subList(0, limit) : ranked;
+    }
+
+    /**
+     * A category with its transaction count and amount total for one user.
+     */
+    public record CategoryWithUsage(Category category, long transactionCount, BigDecimal amountTotal) {
     }
 
     public void validateCategoryType(String type) {
@@ -0,0 +1,38 @@
+package com.finance.category;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Number of transactions and their summed amount for one user in one category.
+ * Maintained on every transaction write, so usage checks never scan the transactions table.
+ */
+@Entity
+@Table(name = "category_usage", uniqueConstraints = {
+        @UniqueConstraint(columnNames = {"user_id", "category_id"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryUsage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+
+    @Column(nullable = false)
+    private long transactionCount;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amountTotal = BigDecimal.ZERO;
+}
@@ -0,0 +1,64 @@
+package com.finance.category;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CategoryUsageRepository extends JpaRepository<CategoryUsage, Long> {
+
+    /**
+     * Finds all usage counters for a user.
+     * @param userId The ID of the user.
+     * @return The user's counters, one per category they have used.
+     */
+    List<CategoryUsage> findByUserId(Long userId);
+
+    /**
+     * Finds the usage counters of a range of users.
+     * @param fromUserId The lowest user ID, inclusive.
+     * @param toUserId The highest user ID, inclusive.
+     * @return The counters of every user in the range.
+     */
+    List<CategoryUsage> findByUserIdBetween(Long fromUserId, Long toUserId);
+
+    /**
+     * Finds the usage counter of one category for a user.
+     * @param userId The ID of the user.
+     * @param categoryId The ID of the category.
+     * @return An Optional containing the counter, or empty if the category was never used.
+     */
+    Optional<CategoryUsage> findByUserIdAndCategoryId(Long userId, Long categoryId);
+
+    /**
+     * Adjusts a counter in place.
+     * @param userId The ID of the user.
+     * @param categoryId The ID of the category.
+     * @param count The change in transaction count.
+     * @param amount The change in amount total.
+     * @return 1 if the counter exists, 0 if it has to be created.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE CategoryUsage u SET u.transactionCount = u.transactionCount + :count, " +
+            "u.amountTotal = u.amountTotal + :amount WHERE u.userId = :userId AND u.categoryId = :categoryId")
+    int adjust(@Param("userId") Long userId, @Param("categoryId") Long categoryId,
+               @Param("count") long count, @Param("amount") BigDecimal amount);
+
+    /**
+     * Deletes the counter of a category for a user.
+     * @param userId The ID of the user.
+     * @param categoryId The ID of the category.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CategoryUsage u WHERE u.userId = :userId AND u.categoryId = :categoryId")
+    void deleteByUserIdAndCategoryId(@Param("userId") Long userId, @Param("categoryId") Long categoryId);
+}
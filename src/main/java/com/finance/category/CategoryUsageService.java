@@ -0,0 +1,304 @@
+package com.finance.category;
+
+import com.finance.ledger.UserWriteLocks;
+import com.finance.transaction.TransactionRepository;
+import com.finance.transaction.TransactionSnapshot;
+import jakarta.annotation.PreDestroy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps per-(user, category) transaction counts and amount totals in step with transaction writes.
+ *
+ * Counters change in the same database transaction as the write, while the user's write lock is held, so
+ * they are exact at commit and a counter row is never created twice. A periodic reconciliation compares
+ * them with the transactions table, one page of users at a time on its own thread, and rebuilds any user whose
+ * counters drifted.
+ */
+@Service
+public class CategoryUsageService {
+
+    // Users whose transactions and counters one reconciliation query groups
+    static final int RECONCILE_PAGE_SIZE = 500;
+
+    private final CategoryUsageRepository usageRepository;
+    private final TransactionRepository transactionRepository;
+    private final UserWriteLocks writeLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final ThreadPoolExecutor executor;
+
+    private CompletableFuture<Integer> running = CompletableFuture.completedFuture(0);
+
+    public CategoryUsageService(CategoryUsageRepository usageRepository, TransactionRepository transactionRepository,
+                                UserWriteLocks writeLocks, PlatformTransactionManager transactionManager,
+                                JdbcTemplate jdbcTemplate) {
+        this.usageRepository = usageRepository;
+        this.transactionRepository = transactionRepository;
+        this.writeLocks = writeLocks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jdbcTemplate = jdbcTemplate;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "category-usage-reconcile");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * A change to one counter.
+     * @param count The number of transactions added, negative for removed ones.
+     * @param amount Their summed amount, negated for removed ones.
+     */
+    public record Delta(long count, BigDecimal amount) {
+
+        public Delta plus(Delta other) {
+            return new Delta(count + other.count, amount.add(other.amount));
+        }
+    }
+
+    /**
+     * Applies a transaction write to the counters. Must run in the writing transaction, under the user's write lock.
+     * @param userId The owner of the transaction.
+     * @param before The state before the write, or null for a create.
+     * @param after The state after the write, or null for a delete.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(Long userId, TransactionSnapshot before, TransactionSnapshot after) {
+        if (before != null && after != null && before.categoryId().equals(after.categoryId())) {
+            BigDecimal delta = after.amount().subtract(before.amount());
+            if (delta.signum() != 0) {
+                adjust(userId, after.categoryId(), 0, delta);
+            }
+            return;
+        }
+        if (before != null) {
+            adjust(userId, before.categoryId(), -1, before.amount().negate());
+        }
+        if (after != null) {
+            adjust(userId, after.categoryId(), 1, after.amount());
+        }
+    }
+
+    private void adjust(Long userId, Long categoryId, long count, BigDecimal amount) {
+        if (usageRepository.adjust(userId, categoryId, count, amount) == 0) {
+            usageRepository.save(new CategoryUsage(null, userId, categoryId, count, amount));
+        }
+    }
+
+    /**
+     * Applies a bulk write to a user's counters, creating counters that do not exist yet, with one JDBC batch of
+     * updates and one of inserts. Must run in the writing transaction, under the user's write lock, which is what
+     * makes the insert of a missing counter safe.
+     * @param userId The ID of the user.
+     * @param deltas The changes by category ID.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void adjust(Long userId, Map<Long, Delta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Map.Entry<Long, Delta>> entries = new ArrayList<>(deltas.entrySet());
+        int[] updated = jdbcTemplate.batchUpdate(
+                "UPDATE category_usage SET transaction_count = transaction_count + ?, amount_total = amount_total + ? " +
+                        "WHERE user_id = ? AND category_id = ?",
+                entries, entries.size(), (ps, entry) -> {
+                    ps.setLong(1, entry.getValue().count());
+                    ps.setBigDecimal(2, entry.getValue().amount());
+                    ps.setLong(3, userId);
+                    ps.setLong(4, entry.getKey());
+                })[0];
+
+        List<Map.Entry<Long, Delta>> missing = new ArrayList<>();
+        for (int i = 0; i < entries.size(); i++) {
+            if (updated[i] == 0) {
+                missing.add(entries.get(i));
+            }
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO category_usage (user_id, category_id, transaction_count, amount_total) VALUES (?, ?, ?, ?)",
+                    missing, missing.size(), (ps, entry) -> {
+                        ps.setLong(1, userId);
+                        ps.setLong(2, entry.getKey());
+                        ps.setLong(3, entry.getValue().count());
+                        ps.setBigDecimal(4, entry.getValue().amount());
+                    });
+        }
+    }
+
+    /**
+     * @param userId The ID of the user.
+     * @param categoryId The ID of the category.
+     * @return true if the user has at least one transaction in the category.
+     */
+    public boolean isInUse(Long userId, Long categoryId) {
+        return usageRepository.findByUserIdAndCategoryId(userId, categoryId)
+                .map(usage -> usage.getTransactionCount() > 0)
+                .orElse(false);
+    }
+
+    /**
+     * Returns a user's counters keyed by category ID. Categories never used have no entry.
+     * @param userId The ID of the user.
+     * @return The counters by category ID.
+     */
+    public Map<Long, CategoryUsage> getUsageByCategory(Long userId) {
+        Map<Long, CategoryUsage> usage = new HashMap<>();
+        for (CategoryUsage counter : usageRepository.findByUserId(userId)) {
+            usage.put(counter.getCategoryId(), counter);
+        }
+        return usage;
+    }
+
+    /**
+     * Drops a user's counter for a category that is being deleted.
+     * @param userId The ID of the user.
+     * @param categoryId The ID of the category.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void forget(Long userId, Long categoryId) {
+        usageRepository.deleteByUserIdAndCategoryId(userId, categoryId);
+    }
+
+    /**
+     * Folds a category's counter into another after its transactions were moved there in bulk.
+     * Must run in the moving transaction, under the user's write lock.
+     * @param userId The ID of the user.
+     * @param sourceId The category the transactions left.
+     * @param targetId The category they moved to.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void merge(Long userId, Long sourceId, Long targetId) {
+        usageRepository.findByUserIdAndCategoryId(userId, sourceId).ifPresent(source -> {
+            if (source.getTransactionCount() != 0 || source.getAmountTotal().signum() != 0) {
+                adjust(userId, targetId, source.getTransactionCount(), source.getAmountTotal());
+            }
+            usageRepository.delete(source);
+        });
+    }
+
+    /**
+     * Starts a reconciliation on the service's own thread, unless the previous one is still going.
+     * The first run waits one interval, so startup does not pay for a pass over every user.
+     */
+    @Scheduled(fixedDelayString = "${finance.categories.usage.reconcile-interval:3600000}",
+            initialDelayString = "${finance.categories.usage.reconcile-interval:3600000}")
+    public synchronized void reconcileInBackground() {
+        if (running.isDone()) {
+            running = CompletableFuture.supplyAsync(this::reconcile, executor).exceptionally(e -> {
+                System.err.println("Category usage reconciliation failed: " + e.getMessage());
+                return 0;
+            });
+        }
+    }
+
+    /**
+     * Finds users whose counters disagree with their transactions and rebuilds their counters.
+     * Users are checked RECONCILE_PAGE_SIZE at a time, in user ID order, so each query only groups the
+     * transactions and counters of one page. Detection runs without locks; each rebuild re-reads the user's
+     * transactions under their write lock.
+     * @return The number of users whose counters were corrected.
+     */
+    public int reconcile() {
+        int corrected = 0;
+        long after = 0;
+        List<Long> page;
+        do {
+            page = jdbcTemplate.queryForList("SELECT id FROM users WHERE id > ? ORDER BY id LIMIT ?", Long.class,
+                    after, RECONCILE_PAGE_SIZE);
+            if (page.isEmpty()) {
+                break;
+            }
+            after = page.get(page.size() - 1);
+            for (Long userId : findDrifted(page.get(0), after)) {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> rebuild(userId)))) {
+                    corrected++;
+                }
+            }
+        } while (page.size() == RECONCILE_PAGE_SIZE);
+        if (corrected > 0) {
+            System.out.println("Category usage reconciliation corrected counters for " + corrected + " user(s)");
+        }
+        return corrected;
+    }
+
+    private Set<Long> findDrifted(Long fromUserId, Long toUserId) {
+        Map<Key, CategoryUsage> actual = new HashMap<>();
+        for (Object[] row : transactionRepository.summarizeByUserAndCategoryBetween(fromUserId, toUserId)) {
+            Key key = new Key((Long) row[0], (Long) row[1]);
+            actual.put(key, new CategoryUsage(null, key.userId(), key.categoryId(), (Long) row[2], (BigDecimal) row[3]));
+        }
+        Set<Long> drifted = new LinkedHashSet<>();
+        for (CategoryUsage counter : usageRepository.findByUserIdBetween(fromUserId, toUserId)) {
+            Key key = new Key(counter.getUserId(), counter.getCategoryId());
+            if (!matches(counter, actual.remove(key))) {
+                drifted.add(key.userId());
+            }
+        }
+        // Whatever is left has transactions but no counter at all
+        actual.keySet().forEach(key -> drifted.add(key.userId()));
+        return drifted;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private boolean rebuild(Long userId) {
+        writeLocks.lockUntilCompletion(userId);
+        Map<Long, CategoryUsage> counters = getUsageByCategory(userId);
+        boolean changed = false;
+        for (Object[] row : transactionRepository.summarizeByCategoryForUser(userId)) {
+            Long categoryId = (Long) row[0];
+            long count = (Long) row[1];
+            BigDecimal total = (BigDecimal) row[2];
+            CategoryUsage counter = counters.remove(categoryId);
+            if (counter == null) {
+                usageRepository.save(new CategoryUsage(null, userId, categoryId, count, total));
+                changed = true;
+            } else if (counter.getTransactionCount() != count || counter.getAmountTotal().compareTo(total) != 0) {
+                counter.setTransactionCount(count);
+                counter.setAmountTotal(total);
+                usageRepository.save(counter);
+                changed = true;
+            }
+        }
+        for (CategoryUsage stale : counters.values()) {
+            usageRepository.delete(stale);
+            changed |= !matches(stale, null);
+        }
+        return changed;
+    }
+
+    private static boolean matches(CategoryUsage counter, CategoryUsage actual) {
+        if (actual == null) {
+            return counter.getTransactionCount() == 0 && counter.getAmountTotal().signum() == 0;
+        }
+        return counter.getTransactionCount() == actual.getTransactionCount()
+                && counter.getAmountTotal().compareTo(actual.getAmountTotal()) == 0;
+    }
+
+    private record Key(Long userId, Long categoryId) {
+    }
+}
@@ -0,0 +1,99 @@
+package com.finance.category;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Seeds the default (non-custom) categories and keeps them in memory.
+ *
+ * Seeding is a single MERGE that inserts only the missing names, so it is safe to run on every start.
+ * It matches on {@code user_id IS NULL} rather than {@code KEY(name, user_id)}: NULL never equals NULL,
+ * so a key-based merge would insert the defaults again on every run. The defaults are then read back
+ * once and served from memory; they are never modified through the API.
+ */
+@Component
+@Lazy(false) // Seeding must happen at startup, even when the fast profile makes other beans lazy
+@DependsOn("entityManagerFactory") // Hibernate creates the categories table
+public class DefaultCategories {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final List<String> configuredDefaults;
+
+    private volatile Map<String, Category> byName = Map.of();
+
+    /**
+     * @param configuredDefaults Entries of the form {@code Name:TYPE}, e.g. {@code Salary:INCOME}.
+     */
+    public DefaultCategories(JdbcTemplate jdbcTemplate,
+                             @Value("${finance.categories.defaults}") List<String> configuredDefaults) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.configuredDefaults = configuredDefaults;
+    }
+
+    @PostConstruct
+    public void seed() {
+        List<Object> parameters = new ArrayList<>();
+        StringJoiner rows = new StringJoiner(" UNION ALL ");
+        for (String entry : configuredDefaults) {
+            int separator = entry.lastIndexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Default category must be 'Name:TYPE', got: " + entry);
+            }
+            String name = entry.substring(0, separator).trim();
+            CategoryType type = CategoryType.valueOf(entry.substring(separator + 1).trim().toUpperCase(Locale.ROOT));
+            parameters.add(name);
+            parameters.add(type.name());
+            rows.add("SELECT CAST(? AS VARCHAR(255)) AS name, CAST(? AS VARCHAR(255)) AS type");
+        }
+
+        if (!parameters.isEmpty()) {
+            int inserted = jdbcTemplate.update(
+                    "MERGE INTO categories c USING (" + rows + ") d " +
+                            "ON c.name = d.name AND c.user_id IS NULL " +
+                            "WHEN NOT MATCHED THEN INSERT (name, type, is_custom, user_id, version) " +
+                            "VALUES (d.name, d.type, FALSE, NULL, 0)",
+                    parameters.toArray());
+            System.out.println("Default categories seeded: " + inserted + " inserted, "
+                    + (configuredDefaults.size() - inserted) + " already present");
+        }
+
+        Map<String, Category> loaded = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT id, name, type, version FROM categories WHERE user_id IS NULL AND is_custom = FALSE ORDER BY id",
+                rs -> {
+                    Category category = new Category(rs.getLong("id"), rs.getString("name"),
+                            CategoryType.valueOf(rs.getString("type")), false, null);
+                    category.setVersion(rs.getLong("version"));
+                    loaded.put(category.getName(), category);
+                });
+        byName = Collections.unmodifiableMap(loaded);
+    }
+
+    /**
+     * Finds a default category by name without touching the database.
+     * @param name The category name.
+     * @return The default category, or null if there is none with that name.
+     */
+    public Category find(String name) {
+        return byName.get(name);
+    }
+
+    /**
+     * @return All default categories, in creation order.
+     */
+    public Collection<Category> all() {
+        return byName.values();
+    }
+}
@@ -0,0 +1,14 @@
+package com.finance.category.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryMergeResponse {
+    private String source;
+    private String target;
+    private int transactionsMoved;
+}
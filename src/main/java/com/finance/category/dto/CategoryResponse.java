@@ -1,4 +1,3 @@
-
 // CategoryResponse.java
 package com.finance.category.dto;
 
@@ -14,4 +13,12 @@ public class CategoryResponse {
     private String name;
     private CategoryType type;
     private boolean custom; // Note: "custom" not "isCustom" to match test expectations
-}
\ No newline at end of file
+    private long transactionCount; // From the usage counters; 0 when unused
+    private boolean inUse;
+
+    public CategoryResponse(String name, CategoryType type, boolean custom) {
+        this.name = name;
+        this.type = type;
+        this.custom = custom;
+    }
+}
@@ -0,0 +1,19 @@
+package com.finance.category.dto;
+
+import com.finance.category.CategoryType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryUsageResponse {
+    private String name;
+    private CategoryType type;
+    private boolean custom;
+    private long transactionCount;
+    private BigDecimal amountTotal;
+}
@@ -0,0 +1,59 @@
+package com.finance.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.finance.json.CompactValuesModule;
+import com.finance.json.FinanceJsonModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Module beans are picked up by Spring Boot's auto-configured ObjectMapper.
+ *
+ * Clients can also ask for CBOR ({@code Accept: application/cbor}) or Smile
+ * ({@code Accept: application/x-jackson-smile}). Those mappers are built from the same Boot-configured
+ * builder, so they carry the modules below, plus the compact amount and date encoding.
+ */
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Hand-written serializers for transaction, report and goal responses.
+     */
+    @Bean
+    public Module financeJsonModule() {
+        return new FinanceJsonModule();
+    }
+
+    /**
+     * Replaces reflective getter calls with generated lambdas for every other bean-serialized DTO.
+     * A native image cannot define classes at runtime, so there it is left out.
+     */
+    @Bean
+    public Module blackbirdModule() {
+        return NativeDetector.inNativeImage() ? new SimpleModule("BlackbirdDisabled") : new BlackbirdModule();
+    }
+
+    // Boot adds converter beans ahead of its defaults, replacing any default of the same class
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper mapper = builder.factory(new CBORFactory()).build();
+        mapper.registerModule(new CompactValuesModule());
+        return new MappingJackson2CborHttpMessageConverter(mapper);
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper mapper = builder.factory(new SmileFactory()).build();
+        mapper.registerModule(new CompactValuesModule());
+        return new MappingJackson2SmileHttpMessageConverter(mapper);
+    }
+}
@@ -0,0 +1,90 @@
+package com.finance.config;
+
+import com.finance.archive.TransactionArchive;
+import com.finance.archive.dto.TransactionArchiveResponse;
+import com.finance.auth.dto.AuthRequest;
+import com.finance.auth.dto.AuthResponse;
+import com.finance.auth.dto.LoginRequest;
+import com.finance.budget.Budget;
+import com.finance.budget.dto.BudgetRequest;
+import com.finance.budget.dto.BudgetResponse;
+import com.finance.categorization.CategorizationRule;
+import com.finance.categorization.dto.CategorizationRuleRequest;
+import com.finance.categorization.dto.CategorizationRuleResponse;
+import com.finance.category.Category;
+import com.finance.category.dto.CategoryMergeResponse;
+import com.finance.category.dto.CategoryRequest;
+import com.finance.category.CategoryUsage;
+import com.finance.category.dto.CategoryResponse;
+import com.finance.category.dto.CategoryUsageResponse;
+import com.finance.goal.Goal;
+import com.finance.goal.dto.GoalRequest;
+import com.finance.goal.dto.GoalResponse;
+import com.finance.imports.dto.ImportJobResponse;
+import com.finance.outbox.OutboxEvent;
+import com.finance.outbox.TransactionEvent;
+import com.finance.recurring.RecurringRule;
+import com.finance.recurring.dto.RecurringRuleRequest;
+import com.finance.recurring.dto.RecurringRuleResponse;
+import com.finance.report.dto.CategorySpendingReport;
+import com.finance.report.dto.IncomeExpenseSummary;
+import com.finance.report.dto.MonthlyReport;
+import com.finance.report.dto.ReportJobResponse;
+import com.finance.report.dto.TrendReport;
+import com.finance.report.dto.YearlyReport;
+import com.finance.stream.dto.GoalDelta;
+import com.finance.stream.dto.TotalsDelta;
+import com.finance.stream.dto.TransactionDelta;
+import com.finance.transaction.Transaction;
+import com.finance.transaction.TransactionSnapshot;
+import com.finance.transaction.dto.TransactionRequest;
+import com.finance.transaction.dto.TransactionResponse;
+import com.finance.transaction.dto.TransactionSearchResponse;
+import com.finance.user.User;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Reflection hints for the native image.
+ *
+ * Spring AOT already covers types it can see in controller signatures, but several DTOs only appear inside
+ * generics, DeferredResults or Map values, so every request/response DTO is registered here for Jackson binding
+ * (Lombok getters/setters and nested types included). Entities are registered for Hibernate's field access.
+ * The security configuration needs nothing extra: its beans are plain factory methods that AOT pre-generates.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeHints.Registrar.class)
+public class NativeHints {
+
+    static class Registrar implements RuntimeHintsRegistrar {
+
+        private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            bindingRegistrar.registerReflectionHints(hints.reflection(),
+                    TransactionArchiveResponse.class, AuthRequest.class, AuthResponse.class, LoginRequest.class,
+                    BudgetRequest.class, BudgetResponse.class,
+                    CategorizationRuleRequest.class, CategorizationRuleResponse.class,
+                    CategoryMergeResponse.class, CategoryRequest.class, CategoryResponse.class, CategoryUsageResponse.class,
+                    GoalRequest.class, GoalResponse.class, ImportJobResponse.class,
+                    RecurringRuleRequest.class, RecurringRuleResponse.class,
+                    CategorySpendingReport.class, IncomeExpenseSummary.class, MonthlyReport.class, YearlyReport.class,
+                    ReportJobResponse.class, TrendReport.class,
+                    TransactionRequest.class, TransactionResponse.class, TransactionSearchResponse.class,
+                    TransactionEvent.class, TransactionSnapshot.class,
+                    GoalDelta.class, TotalsDelta.class, TransactionDelta.class);
+
+            for (Class<?> entity : new Class<?>[] {User.class, Category.class, Transaction.class, Goal.class, OutboxEvent.class,
+                    CategoryUsage.class, RecurringRule.class, Budget.class,
+                    CategorizationRule.class, TransactionArchive.class}) {
+                hints.reflection().registerType(entity, MemberCategory.DECLARED_FIELDS,
+                        MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package com.finance.debug;
 
+import com.finance.goal.GoalProgressWriter;
+import com.finance.outbox.OutboxDispatcher;
+import com.finance.recurring.RecurringRuleMaterializer;
+import com.finance.stream.LiveUpdateHub;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.ApplicationContext;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -12,6 +17,7 @@ import java.util.Map;
 
 @RestController
 @RequestMapping("/api/debug")
+@ConditionalOnProperty(name = "finance.debug.enabled", havingValue = "true", matchIfMissing = true)
 public class DebugController {
 
     @Autowired(required = false)
@@ -20,6 +26,21 @@ public class DebugController {
     @Autowired(required = false)
     private DataSource dataSource;
 
+    @Autowired(required = false)
+    private StartupMetrics startupMetrics;
+
+    @Autowired(required = false)
+    private GoalProgressWriter goalProgressWriter;
+
+    @Autowired(required = false)
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired(required = false)
+    private LiveUpdateHub liveUpdateHub;
+
+    @Autowired(required = false)
+    private RecurringRuleMaterializer recurringRuleMaterializer;
+
     @GetMapping("/authstatus")
     public ResponseEntity<String> getAuthStatus() {
         return ResponseEntity.ok("Debug endpoint accessible - " + LocalDateTime.now());
@@ -62,6 +83,18 @@ public class DebugController {
         return ResponseEntity.ok(health);
     }
 
+    @GetMapping("/startup")
+    public ResponseEntity<Map<String, Object>> getStartup() {
+        Map<String, Object> result = new HashMap<>();
+        if (startupMetrics != null) {
+            result.put("readyMillis", startupMetrics.getReadyMillis());
+            result.put("firstRequestMillis", startupMetrics.getFirstRequestMillis());
+        } else {
+            result.put("error", "Startup metrics not available");
+        }
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/beans")
     public ResponseEntity<Map<String, Object>> getBeans() {
         Map<String, Object> result = new HashMap<>();
@@ -128,4 +161,79 @@ public class DebugController {
         }
         return ResponseEntity.ok(result);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/goal-progress")
+    public ResponseEntity<Map<String, Object>> getGoalProgress() {
+        Map<String, Object> result = new HashMap<>();
+        if (goalProgressWriter != null) {
+            GoalProgressWriter.Stats stats = goalProgressWriter.stats();
+            result.put("pending", stats.pending());
+            result.put("enqueued", stats.enqueued());
+            result.put("written", stats.written());
+            result.put("dropped", stats.dropped());
+            result.put("lastBatchSize", stats.lastBatchSize());
+            result.put("lastFlushLagMillis", stats.lastFlushLagMillis());
+            result.put("maxFlushLagMillis", stats.maxFlushLagMillis());
+            result.put("lastFlushAt", stats.lastFlushAt());
+        } else {
+            result.put("error", "Goal progress writer not available");
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/outbox")
+    public ResponseEntity<Map<String, Object>> getOutbox() {
+        Map<String, Object> result = new HashMap<>();
+        if (outboxDispatcher != null) {
+            OutboxDispatcher.Stats stats = outboxDispatcher.stats();
+            result.put("delivered", stats.delivered());
+            result.put("batches", stats.batches());
+            result.put("lastBatchSize", stats.lastBatchSize());
+            result.put("lastLagMillis", stats.lastLagMillis());
+            result.put("maxLagMillis", stats.maxLagMillis());
+            result.put("lastDispatchAt", stats.lastDispatchAt());
+            result.put("cursor", stats.cursor());
+            result.put("openGaps", stats.openGaps());
+        } else {
+            result.put("error", "Outbox dispatcher not available");
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/stream")
+    public ResponseEntity<Map<String, Object>> getStream() {
+        Map<String, Object> result = new HashMap<>();
+        if (liveUpdateHub != null) {
+            LiveUpdateHub.Stats stats = liveUpdateHub.stats();
+            result.put("users", stats.users());
+            result.put("connections", stats.connections());
+            result.put("sent", stats.sent());
+            result.put("overflows", stats.overflows());
+        } else {
+            result.put("error", "Live update hub not available");
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/recurring")
+    public ResponseEntity<Map<String, Object>> getRecurring() {
+        Map<String, Object> result = new HashMap<>();
+        if (recurringRuleMaterializer != null) {
+            RecurringRuleMaterializer.Run run = recurringRuleMaterializer.lastRun();
+            if (run != null) {
+                result.put("upTo", run.upTo());
+                result.put("finishedAt", run.finishedAt());
+                result.put("millis", run.millis());
+                result.put("rules", run.result().rules());
+                result.put("transactions", run.result().transactions());
+                result.put("batches", run.result().batches());
+                result.put("conflicts", run.result().conflicts());
+            } else {
+                result.put("message", "No run yet");
+            }
+        } else {
+            result.put("error", "Recurring rule materializer not available");
+        }
+        return ResponseEntity.ok(result);
+    }
+}
@@ -0,0 +1,66 @@
+package com.finance.debug;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Records how long after JVM start the application became ready and finished serving its first request.
+ * Both are logged once; the first-request time is what a scale-out actually waits for, since lazily
+ * created beans are only paid for then.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class StartupMetrics extends OncePerRequestFilter {
+
+    private final long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private final AtomicBoolean firstRequestSeen = new AtomicBoolean();
+
+    private volatile Long readyMillis;
+    private volatile Long firstRequestMillis;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        readyMillis = System.currentTimeMillis() - jvmStartMillis;
+        System.out.println("Application ready " + readyMillis + " ms after JVM start");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (firstRequestMillis == null && firstRequestSeen.compareAndSet(false, true)) {
+                firstRequestMillis = System.currentTimeMillis() - jvmStartMillis;
+                System.out.println("First request (" + request.getMethod() + " " + request.getRequestURI()
+                        + ") served " + firstRequestMillis + " ms after JVM start");
+            }
+        }
+    }
+
+    /**
+     * @return Milliseconds from JVM start until the application was ready, or null if not yet ready.
+     */
+    public Long getReadyMillis() {
+        return readyMillis;
+    }
+
+    /**
+     * @return Milliseconds from JVM start until the first request completed, or null if none has.
+     */
+    public Long getFirstRequestMillis() {
+        return firstRequestMillis;
+    }
+}
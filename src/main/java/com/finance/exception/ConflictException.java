@@ -0,0 +1,10 @@
+package com.finance.exception;
+
+/**
+ * The request clashes with existing state or a request still in progress; answered with 409.
+ */
+public class ConflictException extends RuntimeException {
+    public ConflictException(String message) {
+        super(message);
+    }
+}
@@ -38,4 +38,7 @@ public class Goal {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false) // Foreign key to users table
     private User user;
+
+    @Version
+    private Long version;
 }
@@ -3,6 +3,8 @@ package com.finance.goal;
 import com.finance.goal.dto.GoalRequest;
 import com.finance.goal.dto.GoalResponse;
 import com.finance.exception.ResourceNotFoundException;
+import com.finance.ledger.ConditionalRequests;
+import com.finance.ledger.LedgerVersionTracker;
 import com.finance.user.UserService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
@@ -10,6 +12,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -23,10 +26,12 @@ public class GoalController {
 
     private final GoalService goalService;
     private final UserService userService;
+    private final LedgerVersionTracker ledgerVersions;
 
-    public GoalController(GoalService goalService, UserService userService) {
+    public GoalController(GoalService goalService, UserService userService, LedgerVersionTracker ledgerVersions) {
         this.goalService = goalService;
         this.userService = userService;
+        this.ledgerVersions = ledgerVersions;
     }
 
     /**
@@ -38,9 +43,8 @@ public class GoalController {
             throw new IllegalStateException("User not authenticated.");
         }
         String username = authentication.getName();
-        return userService.findByUsername(username)
-                .orElseThrow(() -> new IllegalStateException("Authenticated user not found in database: " + username))
-                .getId();
+        return userService.findIdByUsername(username)
+                .orElseThrow(() -> new IllegalStateException("Authenticated user not found in database: " + username));
     }
 
     /**
@@ -106,8 +110,11 @@ public class GoalController {
      * Retrieves all savings goals for the authenticated user.
      */
     @GetMapping
-    public ResponseEntity<List<GoalResponse>> getAllGoals() {
+    public ResponseEntity<List<GoalResponse>> getAllGoals(WebRequest webRequest) {
         Long userId = getAuthenticatedUserId();
+        if (ConditionalRequests.checkNotModified(webRequest, ledgerVersions.currentETag(userId))) {
+            return null;
+        }
         List<Goal> goals = goalService.getAllGoalsForUser(userId);
         List<GoalResponse> responses = goals.stream()
                 .map(this::convertToDto)
@@ -119,8 +126,11 @@ public class GoalController {
      * Retrieves a specific savings goal by ID for the authenticated user.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<GoalResponse> getGoalById(@PathVariable Long id) {
+    public ResponseEntity<GoalResponse> getGoalById(@PathVariable Long id, WebRequest webRequest) {
         Long userId = getAuthenticatedUserId();
+        if (ConditionalRequests.checkNotModified(webRequest, ledgerVersions.currentETag(userId))) {
+            return null;
+        }
         Goal goal = goalService.getGoalById(id, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Goal not found with ID: " + id + " for user: " + userId));
         return new ResponseEntity<>(convertToDto(goal), HttpStatus.OK);
@@ -0,0 +1,168 @@
+package com.finance.goal;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind buffer for goal progress recalculated on reads.
+ *
+ * Reads put the new value here instead of writing it, and repeated reads of a goal collapse into one pending
+ * entry. A scheduler writes pending entries in JDBC batches once the oldest has waited {@code max-staleness}
+ * or a full batch has built up; whatever is left is written on shutdown. Every write is conditional on the
+ * version the progress was computed from, so an entry that lost to a goal update is dropped, not applied.
+ */
+@Component
+public class GoalProgressWriter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration maxStaleness;
+    private final int batchSize;
+
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile int lastBatchSize;
+    private volatile long lastFlushLagMillis;
+    private volatile long maxFlushLagMillis;
+    private volatile Instant lastFlushAt;
+
+    public GoalProgressWriter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                              @Value("${finance.goals.progress.max-staleness:5s}") Duration maxStaleness,
+                              @Value("${finance.goals.progress.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxStaleness = maxStaleness;
+        this.batchSize = batchSize;
+    }
+
+    private record Pending(long version, BigDecimal progress, Instant dirtySince) {
+    }
+
+    /**
+     * Flush statistics since startup.
+     */
+    public record Stats(int pending, long enqueued, long written, long dropped, int lastBatchSize,
+                        long lastFlushLagMillis, long maxFlushLagMillis, Instant lastFlushAt) {
+    }
+
+    /**
+     * Queues recalculated progress for a goal, replacing any value still waiting for it.
+     * @param goalId The goal ID.
+     * @param version The goal version the progress was computed from.
+     * @param progress The new progress.
+     */
+    public void enqueue(Long goalId, Long version, BigDecimal progress) {
+        enqueued.incrementAndGet();
+        Pending entry = new Pending(version == null ? 0L : version, progress, Instant.now());
+        // Keep the first dirty time so a frequently read goal is still written within max-staleness
+        pending.merge(goalId, entry, (old, fresh) -> new Pending(fresh.version(), fresh.progress(), old.dirtySince()));
+    }
+
+    /**
+     * Returns the progress waiting to be written for a goal, which is newer than the stored value.
+     * @param goalId The goal ID.
+     * @return The pending progress, or null if nothing is pending.
+     */
+    public BigDecimal pendingProgress(Long goalId) {
+        Pending entry = pending.get(goalId);
+        return entry != null ? entry.progress() : null;
+    }
+
+    /**
+     * Drops any pending progress for a goal, e.g. because an update is about to store fresher progress itself.
+     * @param goalId The goal ID.
+     */
+    public void discard(Long goalId) {
+        pending.remove(goalId);
+    }
+
+    /**
+     * Writes pending progress once the oldest entry reaches max staleness or a full batch is waiting.
+     */
+    @Scheduled(fixedDelayString = "${finance.goals.progress.flush-interval:1000}")
+    public void flushIfDue() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(maxStaleness);
+        if (pending.size() >= batchSize || pending.values().stream().anyMatch(p -> !p.dirtySince().isAfter(cutoff))) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes everything pending, in batches. Also runs on shutdown.
+     */
+    @PreDestroy
+    public synchronized void flush() {
+        List<Map.Entry<Long, Pending>> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+        for (Map.Entry<Long, Pending> entry : pending.entrySet()) {
+            // Removed only if unchanged; a value queued meanwhile waits for the next flush
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                batch.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+            if (batch.size() == batchSize) {
+                writeBatch(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+    }
+
+    private void writeBatch(List<Map.Entry<Long, Pending>> batch) {
+        Instant now = Instant.now();
+        try {
+            int[] counts = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(
+                    "UPDATE goals SET current_progress = ?, version = version + 1 WHERE id = ? AND version = ?",
+                    batch, batch.size(), (ps, entry) -> {
+                        ps.setBigDecimal(1, entry.getValue().progress());
+                        ps.setLong(2, entry.getKey());
+                        ps.setLong(3, entry.getValue().version());
+                    })[0]);
+            int updated = 0;
+            for (int count : counts) {
+                updated += Math.max(count, 0);
+            }
+            written.addAndGet(updated);
+            dropped.addAndGet(batch.size() - updated);
+        } catch (RuntimeException e) {
+            System.err.println("Goal progress flush of " + batch.size() + " entries failed: " + e.getMessage());
+            // Put back unless a newer value arrived meanwhile; the next flush retries
+            batch.forEach(entry -> pending.putIfAbsent(entry.getKey(), entry.getValue()));
+            return;
+        }
+
+        long lag = 0;
+        for (Map.Entry<Long, Pending> entry : batch) {
+            lag = Math.max(lag, Duration.between(entry.getValue().dirtySince(), now).toMillis());
+        }
+        lastBatchSize = batch.size();
+        lastFlushLagMillis = lag;
+        maxFlushLagMillis = Math.max(maxFlushLagMillis, lag);
+        lastFlushAt = now;
+    }
+
+    public Stats stats() {
+        return new Stats(pending.size(), enqueued.get(), written.get(), dropped.get(), lastBatchSize,
+                lastFlushLagMillis, maxFlushLagMillis, lastFlushAt);
+    }
+}
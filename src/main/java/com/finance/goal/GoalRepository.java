@@ -24,4 +24,5 @@ public interface GoalRepository extends JpaRepository<Goal, Long> {
      * @return An Optional containing the goal if found and owned by the user, or empty.
      */
     Optional<Goal> findByIdAndUser(Long id, User user);
+
 }
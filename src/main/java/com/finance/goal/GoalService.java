@@ -1,11 +1,13 @@
 package com.finance.goal;
 
 import com.finance.exception.ResourceNotFoundException;
-import com.finance.transaction.TransactionRepository;
-import com.finance.transaction.Transaction;
+import com.finance.ledger.LedgerVersionTracker;
+import com.finance.ledger.RetryOnConflict;
+import com.finance.stream.LiveUpdateHub;
+import com.finance.stream.dto.GoalDelta;
+import com.finance.transaction.TransactionLedgerIndex;
 import com.finance.user.User;
 import com.finance.user.UserService;
-import com.finance.category.CategoryType;
 import com.finance.goal.dto.GoalRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -21,47 +23,28 @@ public class GoalService {
 
     private final GoalRepository goalRepository;
     private final UserService userService;
-    private final TransactionRepository transactionRepository;
+    private final TransactionLedgerIndex ledgerIndex;
+    private final LedgerVersionTracker ledgerVersions;
+    private final GoalProgressWriter progressWriter;
+    private final LiveUpdateHub liveUpdates;
 
-    public GoalService(GoalRepository goalRepository, UserService userService, TransactionRepository transactionRepository) {
+    public GoalService(GoalRepository goalRepository, UserService userService, TransactionLedgerIndex ledgerIndex,
+                       LedgerVersionTracker ledgerVersions, GoalProgressWriter progressWriter, LiveUpdateHub liveUpdates) {
         this.goalRepository = goalRepository;
         this.userService = userService;
-        this.transactionRepository = transactionRepository;
+        this.ledgerIndex = ledgerIndex;
+        this.ledgerVersions = ledgerVersions;
+        this.progressWriter = progressWriter;
+        this.liveUpdates = liveUpdates;
     }
 
     /**
      * Calculates the current progress for a goal based on transactions since start date.
      * Progress = (Total Income - Total Expenses) since goal start date
-     * This method is crucial for the tests to pass.
+     * The net is answered from the ledger prefix-sum index rather than by loading every transaction.
      */
     private BigDecimal calculateGoalProgress(User user, LocalDate startDate) {
-        System.out.println("=== CALCULATION DEBUG ===");
-        System.out.println("User: " + user.getId() + ", Start Date: " + startDate);
-
-        List<Transaction> allTransactions = transactionRepository.findByUserAndDateBetweenOrderByDateDesc(
-                user, startDate, LocalDate.now()
-        );
-
-        System.out.println("Found " + allTransactions.size() + " transactions:");
-        BigDecimal totalIncome = BigDecimal.ZERO;
-        BigDecimal totalExpenses = BigDecimal.ZERO;
-
-        for (Transaction t : allTransactions) {
-            System.out.println("- " + t.getDate() + ": " + t.getCategory().getName() +
-                    " (" + t.getCategory().getType() + ") = " + t.getAmount());
-
-            if (t.getCategory().getType() == CategoryType.INCOME) {
-                totalIncome = totalIncome.add(t.getAmount());
-            } else {
-                totalExpenses = totalExpenses.add(t.getAmount());
-            }
-        }
-
-        BigDecimal result = totalIncome.subtract(totalExpenses);
-        System.out.println("Income: " + totalIncome + ", Expenses: " + totalExpenses + ", Net: " + result);
-        System.out.println("========================");
-
-        return result;
+        return ledgerIndex.net(user, startDate, LocalDate.now());
     }
 
     private void updateGoalProgress(Goal goal) {
@@ -106,7 +89,10 @@ public class GoalService {
         }
 
         updateGoalProgress(goal);
-        return goalRepository.save(goal);
+        Goal saved = goalRepository.save(goal);
+        ledgerVersions.recordWrite(userId);
+        liveUpdates.publishAfterCommit(userId, "goal", GoalDelta.of("CREATED", saved));
+        return saved;
     }
 
 
@@ -118,20 +104,8 @@ public class GoalService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
 
         Optional<Goal> goalOptional = goalRepository.findByIdAndUser(goalId, user);
-
-        if (goalOptional.isPresent()) {
-            Goal goal = goalOptional.get();
-            // ALWAYS recalculate progress when retrieving a goal
-            BigDecimal currentProgress = calculateGoalProgress(goal.getUser(), goal.getStartDate());
-            goal.setCurrentProgress(currentProgress);
-
-            // Also save the updated progress to database
-            goal = goalRepository.save(goal);
-
-            return Optional.of(goal);
-        }
-
-        return Optional.empty();
+        goalOptional.ifPresent(goal -> refreshProgress(List.of(goal)));
+        return goalOptional;
     }
 
     /**
@@ -142,21 +116,34 @@ public class GoalService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
 
         List<Goal> goals = goalRepository.findByUser(user);
+        refreshProgress(goals);
+        return goals;
+    }
 
-        // Update progress for all goals and save them
+    /**
+     * Recalculates progress for goals being read. Changed values are returned right away and handed to the
+     * write-behind buffer, which stores them later in batches, conditional on the version that was read.
+     * Open live-update streams are told about every change, once: progress is compared with the value still
+     * waiting in the buffer, if any, since the stored one lags behind it until the next flush.
+     */
+    private void refreshProgress(List<Goal> goals) {
         for (Goal goal : goals) {
-            BigDecimal currentProgress = calculateGoalProgress(goal.getUser(), goal.getStartDate());
-            goal.setCurrentProgress(currentProgress);
-            goalRepository.save(goal); // Persist the updated progress
+            BigDecimal progress = calculateGoalProgress(goal.getUser(), goal.getStartDate());
+            BigDecimal pending = progressWriter.pendingProgress(goal.getId());
+            BigDecimal last = pending != null ? pending : goal.getCurrentProgress();
+            goal.setCurrentProgress(progress);
+            if (last == null || progress.compareTo(last) != 0) {
+                progressWriter.enqueue(goal.getId(), goal.getVersion(), progress);
+                liveUpdates.publish(goal.getUser().getId(), "goal", null, GoalDelta.of("PROGRESS", goal));
+            }
         }
-
-        return goals;
     }
 
     /**
      * Updates an existing savings goal for a user.
      */
     @Transactional
+    @RetryOnConflict
     public Goal updateGoal(Long goalId, String goalName, BigDecimal targetAmount, LocalDate targetDate, BigDecimal currentProgress, Long userId) {
         User user = userService.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
@@ -194,8 +181,13 @@ public class GoalService {
         // Always recalculate progress based on current transactions (ignore currentProgress parameter)
         BigDecimal calculatedProgress = calculateGoalProgress(goal.getUser(), goal.getStartDate());
         goal.setCurrentProgress(calculatedProgress);
+        // This save stores fresher progress than anything still buffered from reads
+        progressWriter.discard(goalId);
 
-        return goalRepository.save(goal);
+        Goal saved = goalRepository.save(goal);
+        ledgerVersions.recordWrite(userId);
+        liveUpdates.publishAfterCommit(userId, "goal", GoalDelta.of("UPDATED", saved));
+        return saved;
     }
 
     /**
@@ -210,5 +202,7 @@ public class GoalService {
                 .orElseThrow(() -> new ResourceNotFoundException("Goal not found with ID: " + goalId + " for user: " + userId));
 
         goalRepository.delete(goal);
+        ledgerVersions.recordWrite(userId);
+        liveUpdates.publishAfterCommit(userId, "goal", GoalDelta.deleted(goalId));
     }
 }
\ No newline at end of file
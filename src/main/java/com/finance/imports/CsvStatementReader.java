@@ -0,0 +1,207 @@
+package com.finance.imports;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CSV statements with a header row.
+ *
+ * Columns are found by header name (any case): {@code date}, either {@code amount} (signed) or
+ * {@code debit} and {@code credit}, and optionally {@code description} (or {@code memo} / {@code payee}) and
+ * {@code category}. Fields may be quoted, with {@code ""} for a quote and line breaks inside quotes.
+ * The delimiter is a comma, or a semicolon if the header has semicolons and no commas. Amounts may use parentheses
+ * for negatives and commas as thousands separators; in semicolon files, as exported with European locales, a
+ * comma is the decimal separator and dots group thousands.
+ */
+class CsvStatementReader implements StatementReader {
+
+    private final BufferedReader in;
+    private final DateTimeFormatter dateFormat;
+    private final char delimiter;
+    private final int dateColumn;
+    private final int amountColumn;
+    private final int debitColumn;
+    private final int creditColumn;
+    private final int descriptionColumn;
+    private final int categoryColumn;
+    private long line;
+
+    CsvStatementReader(BufferedReader in, DateTimeFormatter dateFormat) throws IOException {
+        this.in = in;
+        this.dateFormat = dateFormat;
+
+        String header = in.readLine();
+        line = 1;
+        if (header == null) {
+            throw new IllegalArgumentException("The CSV file is empty.");
+        }
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1);
+        }
+        delimiter = header.indexOf(';') >= 0 && header.indexOf(',') < 0 ? ';' : ',';
+        List<String> columns = split(header);
+        dateColumn = column(columns, "date");
+        amountColumn = column(columns, "amount");
+        debitColumn = column(columns, "debit");
+        creditColumn = column(columns, "credit");
+        int description = column(columns, "description");
+        if (description < 0) {
+            description = column(columns, "memo");
+        }
+        if (description < 0) {
+            description = column(columns, "payee");
+        }
+        descriptionColumn = description;
+        categoryColumn = column(columns, "category");
+
+        if (dateColumn < 0 || (amountColumn < 0 && debitColumn < 0 && creditColumn < 0)) {
+            throw new IllegalArgumentException("The CSV header must have a 'date' column and an 'amount' column "
+                    + "(or 'debit' and 'credit' columns).");
+        }
+    }
+
+    private static int column(List<String> columns, String name) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).trim().equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public RawRecord next() throws IOException {
+        String text;
+        do {
+            text = in.readLine();
+            line++;
+            if (text == null) {
+                return null;
+            }
+        } while (text.isBlank());
+
+        long start = line;
+        // An odd number of quotes means a quoted field continues on the next line
+        if (quotes(text) % 2 != 0) {
+            StringBuilder record = new StringBuilder(text);
+            int count = quotes(text);
+            String more;
+            while (count % 2 != 0 && (more = in.readLine()) != null) {
+                line++;
+                record.append('\n').append(more);
+                count += quotes(more);
+            }
+            text = record.toString();
+        }
+        return new RawRecord(start, text);
+    }
+
+    private static int quotes(String text) {
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public StatementLine parse(RawRecord record) {
+        List<String> fields = split(record.text());
+        LocalDate date = parseDate(field(fields, dateColumn));
+        BigDecimal amount;
+        if (amountColumn >= 0) {
+            amount = parseAmount(field(fields, amountColumn), "amount");
+        } else {
+            BigDecimal credit = optionalAmount(field(fields, creditColumn), "credit");
+            BigDecimal debit = optionalAmount(field(fields, debitColumn), "debit");
+            amount = credit.subtract(debit.abs());
+        }
+        String description = field(fields, descriptionColumn);
+        String category = field(fields, categoryColumn);
+        return new StatementLine(record.line(), date, amount,
+                description != null && !description.isBlank() ? description.trim() : null,
+                category != null && !category.isBlank() ? category.trim() : null);
+    }
+
+    private List<String> split(String text) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String field(List<String> fields, int column) {
+        return column >= 0 && column < fields.size() ? fields.get(column) : null;
+    }
+
+    private LocalDate parseDate(String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("missing date");
+        }
+        try {
+            return LocalDate.parse(value.trim(), dateFormat);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("invalid date '" + value.trim() + "'");
+        }
+    }
+
+    private BigDecimal optionalAmount(String value, String name) {
+        return value == null || value.isBlank() ? BigDecimal.ZERO : parseAmount(value, name);
+    }
+
+    private BigDecimal parseAmount(String value, String name) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("missing " + name);
+        }
+        String text = value.trim().replace(" ", "");
+        text = delimiter == ';' && text.indexOf(',') >= 0
+                ? text.replace(".", "").replace(',', '.')
+                : text.replace(",", "");
+        boolean negative = text.startsWith("(") && text.endsWith(")");
+        if (negative) {
+            text = text.substring(1, text.length() - 1);
+        }
+        try {
+            BigDecimal amount = new BigDecimal(text.startsWith("+") ? text.substring(1) : text);
+            return negative ? amount.negate() : amount;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid " + name + " '" + value.trim() + "'");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,113 @@
+package com.finance.imports;
+
+import com.finance.categorization.CategorizationEngine;
+import com.finance.categorization.RuleMatchType;
+import com.finance.category.CategoryType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Picks the category of an imported statement line.
+ *
+ * In order: the category named in the statement itself, then the first description pattern whose category
+ * matches the direction of the amount (expense for money out, income for money in), then the user's first
+ * matching categorization rule of that direction, then the import's default category for that direction.
+ * Built once per import from the user's categories and compiled rules, so classifying a line touches no
+ * database and is safe from any thread.
+ */
+public class ImportCategorizer {
+
+    /**
+     * A category the user can book into.
+     */
+    public record ImportCategory(long id, String name, CategoryType type) {
+    }
+
+    /**
+     * Books lines whose description contains the pattern (any case) into the category.
+     */
+    public record PatternMapping(String pattern, ImportCategory category) {
+
+        public PatternMapping {
+            pattern = pattern.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final Map<String, ImportCategory> categoriesByName;
+    // The import's mappings compiled as rules whose ID is the mapping's index
+    private final CategorizationEngine mappingRules;
+    private final List<PatternMapping> mappings;
+    private final CategorizationEngine storedRules;
+    private final ImportCategory expenseDefault;
+    private final ImportCategory incomeDefault;
+
+    /**
+     * @param categoriesByName The user's accessible categories by exact name.
+     * @param mappings Description patterns, tried in order.
+     * @param expenseDefault The category for money out that nothing else matched, or null to reject such lines.
+     * @param incomeDefault The category for money in that nothing else matched, or null to reject such lines.
+     */
+    public ImportCategorizer(Map<String, ImportCategory> categoriesByName, List<PatternMapping> mappings,
+                             ImportCategory expenseDefault, ImportCategory incomeDefault) {
+        this(categoriesByName, mappings, CategorizationEngine.EMPTY, expenseDefault, incomeDefault);
+    }
+
+    /**
+     * @param categoriesByName The user's accessible categories by exact name.
+     * @param mappings Description patterns, tried in order.
+     * @param storedRules The user's categorization rules, tried after the mappings.
+     * @param expenseDefault The category for money out that nothing else matched, or null to reject such lines.
+     * @param incomeDefault The category for money in that nothing else matched, or null to reject such lines.
+     */
+    public ImportCategorizer(Map<String, ImportCategory> categoriesByName, List<PatternMapping> mappings,
+                             CategorizationEngine storedRules, ImportCategory expenseDefault, ImportCategory incomeDefault) {
+        this.categoriesByName = Map.copyOf(categoriesByName);
+        this.mappings = List.copyOf(mappings);
+        List<CategorizationEngine.Rule> rules = new ArrayList<>(mappings.size());
+        for (int i = 0; i < mappings.size(); i++) {
+            ImportCategory category = mappings.get(i).category();
+            rules.add(new CategorizationEngine.Rule(i, i, category.id(), category.name(), category.type(),
+                    RuleMatchType.CONTAINS, mappings.get(i).pattern(), null, null));
+        }
+        this.mappingRules = rules.isEmpty() ? CategorizationEngine.EMPTY : new CategorizationEngine(rules);
+        this.storedRules = storedRules;
+        this.expenseDefault = expenseDefault;
+        this.incomeDefault = incomeDefault;
+    }
+
+    /**
+     * @param line A parsed statement line with a non-zero amount.
+     * @return The category to book it into.
+     * @throws IllegalArgumentException if no category fits; the message says why.
+     */
+    ImportCategory categorize(StatementLine line) {
+        CategoryType type = line.amount().signum() < 0 ? CategoryType.EXPENSE : CategoryType.INCOME;
+        if (line.category() != null) {
+            ImportCategory named = categoriesByName.get(line.category());
+            if (named == null) {
+                throw new IllegalArgumentException("unknown category '" + line.category() + "'");
+            }
+            if (named.type() != type) {
+                throw new IllegalArgumentException("category '" + named.name() + "' is " + named.type()
+                        + " but the amount is " + (type == CategoryType.EXPENSE ? "money out" : "money in"));
+            }
+            return named;
+        }
+        CategorizationEngine.Rule mapped = mappingRules.classify(line.description(), null, type);
+        if (mapped != null) {
+            return mappings.get((int) mapped.id()).category();
+        }
+        CategorizationEngine.Rule rule = storedRules.classify(line.description(), line.amount(), type);
+        if (rule != null) {
+            return new ImportCategory(rule.categoryId(), rule.categoryName(), rule.categoryType());
+        }
+        ImportCategory fallback = type == CategoryType.EXPENSE ? expenseDefault : incomeDefault;
+        if (fallback == null) {
+            throw new IllegalArgumentException("no category matches and no default " + type + " category was given");
+        }
+        return fallback;
+    }
+}
@@ -0,0 +1,99 @@
+package com.finance.imports;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A statement import running in the background, with live progress.
+ * Counters are only written by the job's own thread and read by status requests.
+ */
+@Getter
+public class ImportJob {
+
+    /** Rejected lines beyond this many are counted but not described. */
+    static final int MAX_ERRORS = 20;
+
+    private final String id;
+    private final Long userId;
+    private final String fileName;
+    private final StatementFormat format;
+    private final long totalBytes;
+    private final Instant submittedAt;
+    private final List<String> errors = new CopyOnWriteArrayList<>();
+
+    private volatile ImportJobStatus status = ImportJobStatus.PENDING;
+    private volatile long bytesRead;
+    private volatile long rowsRead;
+    private volatile long imported;
+    private volatile long duplicates;
+    private volatile long rejected;
+    private volatile Instant startedAt;
+    private volatile Instant completedAt;
+    private volatile String error;
+
+    public ImportJob(String id, Long userId, String fileName, StatementFormat format, long totalBytes) {
+        this.id = id;
+        this.userId = userId;
+        this.fileName = fileName;
+        this.format = format;
+        this.totalBytes = totalBytes;
+        this.submittedAt = Instant.now();
+    }
+
+    void markRunning() {
+        startedAt = Instant.now();
+        status = ImportJobStatus.RUNNING;
+    }
+
+    void addBytesRead(long bytes) {
+        bytesRead += bytes;
+    }
+
+    void addRowsRead(long rows) {
+        rowsRead += rows;
+    }
+
+    void addWritten(long imported, long duplicates) {
+        this.imported += imported;
+        this.duplicates += duplicates;
+    }
+
+    void reject(String message) {
+        rejected++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(message);
+        }
+    }
+
+    void complete() {
+        completedAt = Instant.now();
+        status = ImportJobStatus.COMPLETED;
+    }
+
+    void fail(Throwable cause) {
+        completedAt = Instant.now();
+        error = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        status = ImportJobStatus.FAILED;
+    }
+
+    public boolean isFinished() {
+        return status == ImportJobStatus.COMPLETED || status == ImportJobStatus.FAILED;
+    }
+
+    /**
+     * @return Statement rows processed per second so far, or 0 before the job starts.
+     */
+    public long getRowsPerSecond() {
+        Instant started = startedAt;
+        if (started == null) {
+            return 0;
+        }
+        Instant end = completedAt != null ? completedAt : Instant.now();
+        long millis = Math.max(1, Duration.between(started, end).toMillis());
+        return (imported + duplicates + rejected) * 1000 / millis;
+    }
+}
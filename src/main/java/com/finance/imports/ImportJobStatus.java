@@ -0,0 +1,8 @@
+package com.finance.imports;
+
+public enum ImportJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,128 @@
+package com.finance.imports;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * OFX statements, both the SGML flavour (1.x, elements not closed) and XML (2.x).
+ *
+ * The reader scans characters for {@code <STMTTRN>} ... {@code </STMTTRN>} blocks without reading whole lines,
+ * since XML exports are often a single line. Each block yields {@code DTPOSTED}, the signed {@code TRNAMT}
+ * and {@code NAME} (or {@code MEMO}) as the description. OFX carries no categories.
+ */
+class OfxStatementReader implements StatementReader {
+
+    private static final String START = "<STMTTRN>";
+    private static final String END = "</STMTTRN>";
+
+    private final BufferedReader in;
+    private long line = 1;
+
+    OfxStatementReader(BufferedReader in) {
+        this.in = in;
+    }
+
+    @Override
+    public RawRecord next() throws IOException {
+        if (!readUntil(START, null)) {
+            return null;
+        }
+        long start = line;
+        StringBuilder block = new StringBuilder(256);
+        // A truncated last block is still returned; parsing reports what is missing
+        readUntil(END, block);
+        return new RawRecord(start, block.toString());
+    }
+
+    /**
+     * Reads up to and including the token (matched in any case), appending what precedes it to the target if given.
+     * The tokens start with '<' and contain no other '<', so a mismatch only needs to re-check the current character.
+     * @return false if the input ended first.
+     */
+    private boolean readUntil(String token, StringBuilder target) throws IOException {
+        int matched = 0;
+        int c;
+        while ((c = in.read()) != -1) {
+            if (c == '\n') {
+                line++;
+            }
+            if (target != null) {
+                target.append((char) c);
+            }
+            if (Character.toUpperCase(c) == token.charAt(matched)) {
+                matched++;
+            } else {
+                matched = c == token.charAt(0) ? 1 : 0;
+            }
+            if (matched == token.length()) {
+                if (target != null) {
+                    target.setLength(target.length() - token.length());
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public StatementLine parse(RawRecord record) {
+        String block = record.text();
+        String posted = element(block, "DTPOSTED");
+        String amount = element(block, "TRNAMT");
+        String name = element(block, "NAME");
+        String description = name != null ? name : element(block, "MEMO");
+
+        if (posted == null || posted.length() < 8) {
+            throw new IllegalArgumentException("missing or invalid DTPOSTED");
+        }
+        LocalDate date;
+        try {
+            // Dates are YYYYMMDD, optionally followed by time and zone
+            date = LocalDate.parse(posted.substring(0, 8), DateTimeFormatter.BASIC_ISO_DATE);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("invalid DTPOSTED '" + posted + "'");
+        }
+        if (amount == null) {
+            throw new IllegalArgumentException("missing TRNAMT");
+        }
+        BigDecimal value;
+        try {
+            value = new BigDecimal(amount.replace(',', '.'));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid TRNAMT '" + amount + "'");
+        }
+        return new StatementLine(record.line(), date, value, description, null);
+    }
+
+    /**
+     * Returns the text after {@code <NAME>} up to the next tag, entity-decoded, or null if absent or empty.
+     */
+    private static String element(String block, String name) {
+        String tag = "<" + name + ">";
+        int start = -1;
+        for (int i = block.indexOf('<'); i >= 0; i = block.indexOf('<', i + 1)) {
+            if (block.regionMatches(true, i, tag, 0, tag.length())) {
+                start = i + tag.length();
+                break;
+            }
+        }
+        if (start < 0) {
+            return null;
+        }
+        int end = block.indexOf('<', start);
+        String value = (end < 0 ? block.substring(start) : block.substring(start, end)).trim();
+        if (value.isEmpty()) {
+            return null;
+        }
+        return value.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"").replace("&amp;", "&");
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,45 @@
+package com.finance.imports;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * The bank statement formats the importer reads.
+ */
+public enum StatementFormat {
+    CSV,
+    OFX;
+
+    /**
+     * Picks the format from the request parameter (csv or ofx, any case), or else from the file extension
+     * (.csv, .ofx or .qfx).
+     * @throws IllegalArgumentException if neither names a known format.
+     */
+    public static StatementFormat resolve(String param, String fileName) {
+        if (param != null && !param.isBlank()) {
+            for (StatementFormat format : values()) {
+                if (format.name().equalsIgnoreCase(param.trim())) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Format must be one of: csv, ofx");
+        }
+        String name = fileName != null ? fileName.toLowerCase(Locale.ROOT) : "";
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        if (name.endsWith(".ofx") || name.endsWith(".qfx")) {
+            return OFX;
+        }
+        throw new IllegalArgumentException("Cannot tell the statement format from the file name; pass format=csv or format=ofx");
+    }
+
+    StatementReader open(BufferedReader in, DateTimeFormatter dateFormat) throws IOException {
+        return switch (this) {
+            case CSV -> new CsvStatementReader(in, dateFormat);
+            case OFX -> new OfxStatementReader(in);
+        };
+    }
+}
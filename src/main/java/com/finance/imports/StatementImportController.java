@@ -0,0 +1,89 @@
+package com.finance.imports;
+
+import com.finance.exception.ResourceNotFoundException;
+import com.finance.imports.dto.ImportJobResponse;
+import com.finance.user.UserService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/transactions/import")
+public class StatementImportController {
+
+    private final StatementImportService importService;
+    private final UserService userService;
+
+    public StatementImportController(StatementImportService importService, UserService userService) {
+        this.importService = importService;
+        this.userService = userService;
+    }
+
+    /**
+     * Helper method to get the authenticated user's ID.
+     */
+    private Long getAuthenticatedUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getPrincipal())) {
+            throw new IllegalStateException("User not authenticated.");
+        }
+        String username = authentication.getName();
+        return userService.findIdByUsername(username)
+                .orElseThrow(() -> new IllegalStateException("Authenticated user not found in database: " + username));
+    }
+
+    private ImportJobResponse toJobResponse(ImportJob job) {
+        return new ImportJobResponse(
+                job.getId(),
+                job.getStatus(),
+                job.getFileName(),
+                job.getFormat(),
+                job.getTotalBytes(),
+                job.getBytesRead(),
+                job.getRowsRead(),
+                job.getImported(),
+                job.getDuplicates(),
+                job.getRejected(),
+                job.getRowsPerSecond(),
+                List.copyOf(job.getErrors()),
+                job.getSubmittedAt(),
+                job.getStartedAt(),
+                job.getCompletedAt(),
+                job.getError()
+        );
+    }
+
+    /**
+     * Uploads a CSV or OFX bank statement and imports it in the background.
+     * Returns 202 with the job; poll GET /api/transactions/import/{jobId} for progress.
+     */
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJobResponse> importStatement(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) String dateFormat,
+            @RequestParam(name = "mapping", required = false) List<String> mappings,
+            @RequestParam(required = false) String expenseCategory,
+            @RequestParam(required = false) String incomeCategory) {
+        Long userId = getAuthenticatedUserId();
+        ImportJob job = importService.submit(userId, file, format, dateFormat, mappings, expenseCategory, incomeCategory);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(toJobResponse(job));
+    }
+
+    /**
+     * Returns the progress of an import job. Finished jobs answer 200, others 202.
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ImportJobResponse> getImportJob(@PathVariable String jobId) {
+        Long userId = getAuthenticatedUserId();
+        ImportJob job = importService.getJob(jobId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Import job not found with ID: " + jobId));
+        return ResponseEntity.status(job.isFinished() ? HttpStatus.OK : HttpStatus.ACCEPTED).body(toJobResponse(job));
+    }
+}
@@ -0,0 +1,218 @@
+package com.finance.imports;
+
+import com.finance.categorization.CategorizationEngine;
+import com.finance.categorization.CategorizationEngines;
+import com.finance.category.Category;
+import com.finance.category.CategoryService;
+import com.finance.category.CategoryType;
+import com.finance.exception.ResourceNotFoundException;
+import com.finance.user.User;
+import com.finance.user.UserService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Accepts statement uploads and runs them as background import jobs.
+ *
+ * The upload is moved to a temporary file of the job's own (the multipart file is gone once the request ends)
+ * and imported by {@link StatementImporter} on a bounded pool; once its queue is full new uploads are rejected.
+ * Everything that can be checked up front (format, date pattern, category names) is, so a bad request fails
+ * with 400 instead of as a failed job. Finished jobs stay pollable for the configured TTL.
+ */
+@Service
+public class StatementImportService {
+
+    private static final String DEFAULT_DATE_FORMAT = "yyyy-MM-dd";
+
+    private final StatementImporter importer;
+    private final CategoryService categoryService;
+    private final UserService userService;
+    private final CategorizationEngines categorization;
+    private final ThreadPoolExecutor executor;
+    private final Duration resultTtl;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public StatementImportService(StatementImporter importer, CategoryService categoryService, UserService userService,
+                                  CategorizationEngines categorization,
+                                  @Value("${finance.imports.jobs.threads:2}") int threads,
+                                  @Value("${finance.imports.jobs.queue-capacity:20}") int queueCapacity,
+                                  @Value("${finance.imports.jobs.result-ttl:1h}") Duration resultTtl) {
+        this.importer = importer;
+        this.categoryService = categoryService;
+        this.userService = userService;
+        this.categorization = categorization;
+        this.resultTtl = resultTtl;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "import-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queues a statement file for import into a user's transactions.
+     * @param userId The ID of the user.
+     * @param file The uploaded CSV or OFX statement.
+     * @param format csv or ofx; taken from the file name if null.
+     * @param dateFormat The date pattern of CSV statements (default yyyy-MM-dd).
+     * @param mappings Description patterns as "pattern=Category", tried in order before the user's categorization rules.
+     * @param expenseCategory The category for money out that nothing else matched (optional).
+     * @param incomeCategory The category for money in that nothing else matched (optional).
+     * @return The job importing the file.
+     * @throws IllegalArgumentException if the file is empty, the format or date pattern is unknown, or a
+     *         category does not exist or has the wrong type.
+     * @throws ResourceNotFoundException if the user is not found.
+     * @throws RejectedExecutionException if the import queue is full.
+     */
+    public ImportJob submit(Long userId, MultipartFile file, String format, String dateFormat, List<String> mappings,
+                            String expenseCategory, String incomeCategory) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("The statement file is empty.");
+        }
+        StatementFormat statementFormat = StatementFormat.resolve(format, file.getOriginalFilename());
+        DateTimeFormatter formatter;
+        try {
+            formatter = DateTimeFormatter.ofPattern(dateFormat != null && !dateFormat.isBlank() ? dateFormat : DEFAULT_DATE_FORMAT);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid date format: " + dateFormat);
+        }
+        ImportCategorizer categorizer = categorizer(userId, mappings, expenseCategory, incomeCategory);
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), userId, file.getOriginalFilename(),
+                statementFormat, file.getSize());
+        Path path;
+        try {
+            path = Files.createTempFile("statement-import-", "." + statementFormat.name().toLowerCase(Locale.ROOT));
+            file.transferTo(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store the uploaded statement.", e);
+        }
+
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, path, formatter, categorizer));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            deleteQuietly(path);
+            throw new RejectedExecutionException("Import queue is full. Please retry later.", e);
+        }
+        return job;
+    }
+
+    /**
+     * Finds a job by ID, ensuring it belongs to the specified user.
+     * @param jobId The job ID.
+     * @param userId The ID of the user.
+     * @return An Optional containing the job if it exists, is owned by the user and has not expired.
+     */
+    public Optional<ImportJob> getJob(String jobId, Long userId) {
+        return Optional.ofNullable(jobs.get(jobId))
+                .filter(job -> job.getUserId().equals(userId));
+    }
+
+    private ImportCategorizer categorizer(Long userId, List<String> mappings, String expenseCategory, String incomeCategory) {
+        Map<String, ImportCategorizer.ImportCategory> byName = new HashMap<>();
+        for (Category category : categoryService.getAllCategoriesForUser(userId)) {
+            byName.put(category.getName(), new ImportCategorizer.ImportCategory(category.getId(), category.getName(), category.getType()));
+        }
+
+        List<ImportCategorizer.PatternMapping> patterns = new ArrayList<>();
+        if (mappings != null) {
+            for (String mapping : mappings) {
+                int separator = mapping.lastIndexOf('=');
+                if (separator <= 0 || separator == mapping.length() - 1 || mapping.substring(0, separator).isBlank()) {
+                    throw new IllegalArgumentException("Mappings must look like 'pattern=Category': " + mapping);
+                }
+                patterns.add(new ImportCategorizer.PatternMapping(mapping.substring(0, separator).trim(),
+                        category(byName, mapping.substring(separator + 1).trim(), null)));
+            }
+        }
+        User user = userService.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+        // Rules are taken as of the upload; edits while the job runs apply to the next import
+        CategorizationEngine storedRules = categorization.engineFor(user);
+        return new ImportCategorizer(byName, patterns, storedRules,
+                expenseCategory != null && !expenseCategory.isBlank() ? category(byName, expenseCategory.trim(), CategoryType.EXPENSE) : null,
+                incomeCategory != null && !incomeCategory.isBlank() ? category(byName, incomeCategory.trim(), CategoryType.INCOME) : null);
+    }
+
+    private static ImportCategorizer.ImportCategory category(Map<String, ImportCategorizer.ImportCategory> byName,
+                                                             String name, CategoryType requiredType) {
+        ImportCategorizer.ImportCategory category = byName.get(name);
+        if (category == null) {
+            throw new IllegalArgumentException("Category not found or not accessible: " + name);
+        }
+        if (requiredType != null && category.type() != requiredType) {
+            throw new IllegalArgumentException("Category '" + name + "' is not an " + requiredType + " category.");
+        }
+        return category;
+    }
+
+    private void run(ImportJob job, Path path, DateTimeFormatter dateFormat, ImportCategorizer categorizer) {
+        job.markRunning();
+        try {
+            importer.importFile(job, path, dateFormat, categorizer);
+            job.complete();
+            System.out.println("Import " + job.getId() + " finished: " + job.getImported() + " imported, "
+                    + job.getDuplicates() + " duplicates, " + job.getRejected() + " rejected, "
+                    + job.getRowsPerSecond() + " rows/s");
+        } catch (Exception e) {
+            System.err.println("Import job " + job.getId() + " failed: " + e.getMessage());
+            job.fail(e);
+        } finally {
+            deleteQuietly(path);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.err.println("Could not delete " + path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Drops finished jobs older than the TTL.
+     */
+    @Scheduled(fixedDelayString = "${finance.imports.jobs.cleanup-interval:60000}")
+    public void evictExpiredJobs() {
+        Instant cutoff = Instant.now().minus(resultTtl);
+        jobs.values().removeIf(job -> job.isFinished() && job.getCompletedAt().isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,303 @@
+package com.finance.imports;
+
+import com.finance.category.CategoryType;
+import com.finance.category.CategoryUsageService;
+import com.finance.ledger.UserWriteLocks;
+import com.finance.outbox.TransactionEvent;
+import com.finance.outbox.TransactionOutbox;
+import com.finance.transaction.LedgerInvalidation;
+import com.finance.transaction.Transaction;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams a bank statement file into a user's transactions.
+ *
+ * The job's thread reads the file once, front to back, only cutting it into records; chunks of records are
+ * parsed, validated and categorized on a shared pool of parse threads. Finished chunks are taken back in file
+ * order: lines whose (date, signed amount, description) fingerprint was already seen, either in the user's
+ * existing transactions or earlier in the file, are dropped, and the rest are written with one JDBC batch per
+ * chunk in its own database transaction, under the user's write lock, together with the category usage counters.
+ * At most two chunks per parse thread are in flight, so memory stays bounded whatever the file size.
+ *
+ * Like other bulk writes, each chunk records one bulk outbox event rather than one per transaction; the in-memory
+ * indexes are rebuilt on next use. If the import fails, chunks already written stay.
+ */
+@Component
+public class StatementImporter {
+
+    private static final String INSERT =
+            "INSERT INTO transactions (amount, date, category_id, user_id, description, version) VALUES (?, ?, ?, ?, ?, 0)";
+    private static final int MAX_DESCRIPTION_LENGTH = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserWriteLocks writeLocks;
+    private final CategoryUsageService categoryUsage;
+    private final LedgerInvalidation invalidation;
+    private final TransactionOutbox outbox;
+    private final ThreadPoolExecutor parsers;
+    private final int chunkSize;
+    private final int maxChunksInFlight;
+
+    public StatementImporter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                             UserWriteLocks writeLocks, CategoryUsageService categoryUsage,
+                             LedgerInvalidation invalidation, TransactionOutbox outbox,
+                             @Value("${finance.imports.parse-threads:4}") int parseThreads,
+                             @Value("${finance.imports.chunk-size:5000}") int chunkSize) {
+        if (parseThreads < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("Import parse threads and chunk size must be positive.");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.writeLocks = writeLocks;
+        this.categoryUsage = categoryUsage;
+        this.invalidation = invalidation;
+        this.outbox = outbox;
+        this.chunkSize = chunkSize;
+        this.maxChunksInFlight = parseThreads * 2;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.parsers = new ThreadPoolExecutor(parseThreads, parseThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "import-parse-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Imports a statement file, updating the job's progress as it goes. Runs on the calling thread.
+     * @param job The job to import for; its format and user are used.
+     * @param file The statement file.
+     * @param dateFormat The date format of CSV statements.
+     * @param categorizer Picks each line's category.
+     * @throws IOException if the file cannot be read.
+     * @throws IllegalArgumentException if the file is not a readable statement (e.g. a CSV header without a date column).
+     */
+    public void importFile(ImportJob job, Path file, DateTimeFormatter dateFormat, ImportCategorizer categorizer) throws IOException {
+        Long userId = job.getUserId();
+        Set<Fingerprint> seen = existingFingerprints(userId);
+        LocalDate today = LocalDate.now();
+        Deque<Future<ParsedChunk>> inFlight = new ArrayDeque<>();
+
+        try (InputStream input = new ProgressInputStream(Files.newInputStream(file), job);
+             StatementReader reader = job.getFormat().open(
+                new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 1 << 16), dateFormat)) {
+            List<StatementReader.RawRecord> chunk = new ArrayList<>(chunkSize);
+            StatementReader.RawRecord record;
+            while ((record = reader.next()) != null) {
+                chunk.add(record);
+                if (chunk.size() == chunkSize) {
+                    inFlight.add(submit(reader, chunk, categorizer, today));
+                    job.addRowsRead(chunk.size());
+                    chunk = new ArrayList<>(chunkSize);
+                    if (inFlight.size() >= maxChunksInFlight) {
+                        write(job, await(inFlight.poll()), seen);
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) {
+                inFlight.add(submit(reader, chunk, categorizer, today));
+                job.addRowsRead(chunk.size());
+            }
+            while (!inFlight.isEmpty()) {
+                write(job, await(inFlight.poll()), seen);
+            }
+        } finally {
+            inFlight.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private Future<ParsedChunk> submit(StatementReader reader, List<StatementReader.RawRecord> records,
+                                       ImportCategorizer categorizer, LocalDate today) {
+        return parsers.submit(() -> parse(reader, records, categorizer, today));
+    }
+
+    private static ParsedChunk parse(StatementReader reader, List<StatementReader.RawRecord> records,
+                                     ImportCategorizer categorizer, LocalDate today) {
+        List<ImportRow> rows = new ArrayList<>(records.size());
+        List<String> errors = new ArrayList<>();
+        for (StatementReader.RawRecord record : records) {
+            try {
+                StatementLine line = reader.parse(record);
+                if (line.amount().signum() == 0) {
+                    throw new IllegalArgumentException("amount is zero");
+                }
+                if (line.amount().stripTrailingZeros().scale() > 2) {
+                    throw new IllegalArgumentException("amount has more than two decimal places");
+                }
+                if (line.date().isAfter(today)) {
+                    throw new IllegalArgumentException("date " + line.date() + " is in the future");
+                }
+                if (line.date().isBefore(Transaction.EARLIEST_DATE)) {
+                    throw new IllegalArgumentException("date " + line.date() + " is before " + Transaction.EARLIEST_DATE);
+                }
+                String description = line.description();
+                if (description != null && description.length() > MAX_DESCRIPTION_LENGTH) {
+                    description = description.substring(0, MAX_DESCRIPTION_LENGTH);
+                }
+                ImportCategorizer.ImportCategory category = categorizer.categorize(line);
+                rows.add(new ImportRow(line.date(), line.amount().abs(), description, category.id(),
+                        Fingerprint.of(line.date(), line.amount(), description)));
+            } catch (IllegalArgumentException e) {
+                errors.add("line " + record.line() + ": " + e.getMessage());
+            }
+        }
+        return new ParsedChunk(rows, errors);
+    }
+
+    private static ParsedChunk await(Future<ParsedChunk> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Parsing a statement chunk failed.", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import interrupted.", e);
+        }
+    }
+
+    private void write(ImportJob job, ParsedChunk chunk, Set<Fingerprint> seen) {
+        chunk.errors().forEach(job::reject);
+        List<ImportRow> rows = new ArrayList<>(chunk.rows().size());
+        for (ImportRow row : chunk.rows()) {
+            if (seen.add(row.fingerprint())) {
+                rows.add(row);
+            }
+        }
+        if (!rows.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> insert(job.getUserId(), rows));
+        }
+        job.addWritten(rows.size(), chunk.rows().size() - rows.size());
+    }
+
+    private void insert(Long userId, List<ImportRow> rows) {
+        writeLocks.lockUntilCompletion(userId);
+        jdbcTemplate.batchUpdate(INSERT, rows, rows.size(), (ps, row) -> {
+            ps.setBigDecimal(1, row.amount());
+            ps.setDate(2, Date.valueOf(row.date()));
+            ps.setLong(3, row.categoryId());
+            ps.setLong(4, userId);
+            ps.setString(5, row.description());
+        });
+
+        Map<Long, CategoryUsageService.Delta> usage = new LinkedHashMap<>();
+        for (ImportRow row : rows) {
+            usage.merge(row.categoryId(), new CategoryUsageService.Delta(1, row.amount()), CategoryUsageService.Delta::plus);
+        }
+        categoryUsage.adjust(userId, usage);
+        outbox.appendBulk(userId, TransactionEvent.BulkOperation.IMPORT, rows.size());
+        invalidation.invalidate(userId);
+    }
+
+    /**
+     * Fingerprints of the user's existing transactions, read in one streaming query.
+     * Amounts are signed by category type so they compare with statement amounts.
+     */
+    private Set<Fingerprint> existingFingerprints(Long userId) {
+        Set<Fingerprint> fingerprints = new HashSet<>();
+        jdbcTemplate.query("SELECT t.date, t.amount, t.description, c.type FROM transactions t " +
+                        "JOIN categories c ON c.id = t.category_id WHERE t.user_id = ?",
+                (RowCallbackHandler) rs -> {
+                    BigDecimal amount = rs.getBigDecimal(2);
+                    if (CategoryType.EXPENSE.name().equals(rs.getString(4))) {
+                        amount = amount.negate();
+                    }
+                    fingerprints.add(Fingerprint.of(rs.getDate(1).toLocalDate(), amount, rs.getString(3)));
+                },
+                userId);
+        return fingerprints;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        parsers.shutdownNow();
+    }
+
+    /**
+     * What makes two transactions the same for de-duplication: date, signed amount ignoring trailing zeros,
+     * and description ignoring case and surrounding whitespace.
+     */
+    private record Fingerprint(LocalDate date, BigDecimal amount, String description) {
+
+        static Fingerprint of(LocalDate date, BigDecimal signedAmount, String description) {
+            return new Fingerprint(date, signedAmount.stripTrailingZeros(),
+                    description != null ? description.trim().toLowerCase(Locale.ROOT) : "");
+        }
+    }
+
+    private record ImportRow(LocalDate date, BigDecimal amount, String description, long categoryId, Fingerprint fingerprint) {
+    }
+
+    private record ParsedChunk(List<ImportRow> rows, List<String> errors) {
+    }
+
+    /**
+     * Reports bytes read to the job, for progress.
+     */
+    private static final class ProgressInputStream extends FilterInputStream {
+
+        private final ImportJob job;
+
+        ProgressInputStream(InputStream in, ImportJob job) {
+            super(in);
+            this.job = job;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                job.addBytesRead(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                job.addBytesRead(n);
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.finance.imports;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One parsed statement entry.
+ * @param line The line it started on.
+ * @param date The booking date.
+ * @param amount Signed: negative for money out, positive for money in.
+ * @param description The description, or null.
+ * @param category The category named in the statement, or null.
+ */
+record StatementLine(long line, LocalDate date, BigDecimal amount, String description, String category) {
+}
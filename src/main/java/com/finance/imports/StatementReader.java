@@ -0,0 +1,33 @@
+package com.finance.imports;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads a statement in two steps so the expensive one can run in parallel.
+ *
+ * {@link #next()} runs on the single reading thread and only finds record boundaries; {@link #parse(RawRecord)}
+ * turns a record into fields and is safe to call from any number of threads at once.
+ */
+interface StatementReader extends Closeable {
+
+    /**
+     * @return The next record, or null at the end of the statement.
+     */
+    RawRecord next() throws IOException;
+
+    /**
+     * @param record A record returned by {@link #next()}.
+     * @return The parsed statement line.
+     * @throws IllegalArgumentException if the record cannot be parsed; the message says why.
+     */
+    StatementLine parse(RawRecord record);
+
+    /**
+     * The unparsed text of one statement entry.
+     * @param line The line it starts on, for error messages.
+     * @param text The text.
+     */
+    record RawRecord(long line, String text) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.finance.imports.dto;
+
+import com.finance.imports.ImportJobStatus;
+import com.finance.imports.StatementFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobResponse {
+    private String jobId;
+    private ImportJobStatus status;
+    private String fileName;
+    private StatementFormat format;
+    private long totalBytes;
+    private long bytesRead;
+    private long rowsRead;
+    private long imported;
+    private long duplicates;
+    private long rejected;
+    private long rowsPerSecond;
+    private List<String> errors;    // The first rejected lines, with reasons
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant completedAt;
+    private String error;           // Set only when status is FAILED
+}
@@ -0,0 +1,33 @@
+package com.finance.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Applies the compact amount and date encoding to every DTO, not just the hand-serialized ones.
+ * Registered only on the CBOR and Smile mappers; JSON output is unaffected.
+ */
+public class CompactValuesModule extends SimpleModule {
+
+    public CompactValuesModule() {
+        super("CompactValuesModule");
+        addSerializer(BigDecimal.class, new StdSerializer<>(BigDecimal.class) {
+            @Override
+            public void serialize(BigDecimal value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+                JsonValues.writeAmountValue(gen, value);
+            }
+        });
+        addSerializer(LocalDate.class, new StdSerializer<>(LocalDate.class) {
+            @Override
+            public void serialize(LocalDate value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+                JsonValues.writeDateValue(gen, value);
+            }
+        });
+    }
+}
@@ -0,0 +1,19 @@
+package com.finance.json;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.finance.goal.dto.GoalResponse;
+import com.finance.report.dto.IncomeExpenseSummary;
+import com.finance.transaction.dto.TransactionResponse;
+
+/**
+ * Registers the hand-written serializers for the high-volume response DTOs.
+ */
+public class FinanceJsonModule extends SimpleModule {
+
+    public FinanceJsonModule() {
+        super("FinanceJsonModule");
+        addSerializer(TransactionResponse.class, new TransactionResponseSerializer());
+        addSerializer(IncomeExpenseSummary.class, new IncomeExpenseSummarySerializer());
+        addSerializer(GoalResponse.class, new GoalResponseSerializer());
+    }
+}
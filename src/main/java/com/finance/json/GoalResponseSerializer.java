@@ -0,0 +1,29 @@
+package com.finance.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.finance.goal.dto.GoalResponse;
+
+import java.io.IOException;
+
+public class GoalResponseSerializer extends StdSerializer<GoalResponse> {
+
+    public GoalResponseSerializer() {
+        super(GoalResponse.class);
+    }
+
+    @Override
+    public void serialize(GoalResponse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+        JsonValues.writeLong(gen, "id", value.getId());
+        JsonValues.writeString(gen, "goalName", value.getGoalName());
+        JsonValues.writeAmount(gen, "targetAmount", value.getTargetAmount());
+        JsonValues.writeDate(gen, "targetDate", value.getTargetDate());
+        JsonValues.writeDate(gen, "startDate", value.getStartDate());
+        JsonValues.writeAmount(gen, "currentProgress", value.getCurrentProgress());
+        JsonValues.writeAmount(gen, "progressPercentage", value.getProgressPercentage());
+        JsonValues.writeAmount(gen, "remainingAmount", value.getRemainingAmount());
+        gen.writeEndObject();
+    }
+}
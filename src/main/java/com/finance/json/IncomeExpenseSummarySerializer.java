@@ -0,0 +1,26 @@
+package com.finance.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.finance.report.dto.IncomeExpenseSummary;
+
+import java.io.IOException;
+
+public class IncomeExpenseSummarySerializer extends StdSerializer<IncomeExpenseSummary> {
+
+    public IncomeExpenseSummarySerializer() {
+        super(IncomeExpenseSummary.class);
+    }
+
+    @Override
+    public void serialize(IncomeExpenseSummary value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+        JsonValues.writeInteger(gen, "month", value.getMonth());
+        JsonValues.writeInteger(gen, "year", value.getYear());
+        JsonValues.writeAmountMap(gen, "totalIncome", value.getTotalIncome());
+        JsonValues.writeAmountMap(gen, "totalExpenses", value.getTotalExpenses());
+        JsonValues.writeAmount(gen, "netSavings", value.getNetSavings());
+        gen.writeEndObject();
+    }
+}
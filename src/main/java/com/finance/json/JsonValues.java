@@ -0,0 +1,110 @@
+package com.finance.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Field writers shared by the hand-written DTO serializers.
+ * Output matches what Jackson's bean serializer produced for the same DTOs, including explicit nulls.
+ *
+ * Binary formats (CBOR, Smile) get a compact encoding instead: amounts as longs in hundredths
+ * (12.50 is sent as 1250) and dates as days since 1970-01-01.
+ */
+final class JsonValues {
+
+    // Amounts are stored with two decimals, so hundredths are exact
+    static final int AMOUNT_SCALE = 2;
+
+    private JsonValues() {
+    }
+
+    static void writeAmount(JsonGenerator gen, String field, BigDecimal value) throws IOException {
+        gen.writeFieldName(field);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            writeAmountValue(gen, value);
+        }
+    }
+
+    static void writeAmountValue(JsonGenerator gen, BigDecimal value) throws IOException {
+        if (!gen.canWriteBinaryNatively()) {
+            gen.writeNumber(value);
+            return;
+        }
+        BigInteger scaled = value.setScale(AMOUNT_SCALE, RoundingMode.HALF_EVEN).unscaledValue();
+        if (scaled.bitLength() < Long.SIZE) {
+            gen.writeNumber(scaled.longValue());
+        } else {
+            // Too large for a long; the format's native decimal keeps it exact
+            gen.writeNumber(value);
+        }
+    }
+
+    static void writeDate(JsonGenerator gen, String field, LocalDate value) throws IOException {
+        gen.writeFieldName(field);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            writeDateValue(gen, value);
+        }
+    }
+
+    static void writeDateValue(JsonGenerator gen, LocalDate value) throws IOException {
+        if (gen.canWriteBinaryNatively()) {
+            gen.writeNumber(value.toEpochDay());
+        } else {
+            gen.writeString(value.toString());
+        }
+    }
+
+    static void writeString(JsonGenerator gen, String field, String value) throws IOException {
+        gen.writeFieldName(field);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(value);
+        }
+    }
+
+    static void writeLong(JsonGenerator gen, String field, Long value) throws IOException {
+        gen.writeFieldName(field);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    static void writeInteger(JsonGenerator gen, String field, Integer value) throws IOException {
+        gen.writeFieldName(field);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+
+    static void writeEnum(JsonGenerator gen, String field, Enum<?> value) throws IOException {
+        writeString(gen, field, value == null ? null : value.name());
+    }
+
+    static void writeAmountMap(JsonGenerator gen, String field, Map<String, BigDecimal> values) throws IOException {
+        gen.writeFieldName(field);
+        if (values == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartObject();
+        for (Map.Entry<String, BigDecimal> entry : values.entrySet()) {
+            writeAmount(gen, entry.getKey(), entry.getValue());
+        }
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,31 @@
+package com.finance.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.finance.transaction.dto.TransactionResponse;
+
+import java.io.IOException;
+
+/**
+ * Writes TransactionResponse field by field, skipping the reflective bean serializer on the hottest list endpoint.
+ */
+public class TransactionResponseSerializer extends StdSerializer<TransactionResponse> {
+
+    public TransactionResponseSerializer() {
+        super(TransactionResponse.class);
+    }
+
+    @Override
+    public void serialize(TransactionResponse value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+        JsonValues.writeLong(gen, "id", value.getId());
+        JsonValues.writeAmount(gen, "amount", value.getAmount());
+        JsonValues.writeDate(gen, "date", value.getDate());
+        JsonValues.writeEnum(gen, "type", value.getType());
+        JsonValues.writeString(gen, "description", value.getDescription());
+        // The bean serializer moved the renamed property to the end; keep that order
+        JsonValues.writeString(gen, "category", value.getCategoryName());
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,78 @@
+package com.finance.ledger;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+/**
+ * Conditional GET handling for endpoints whose content is versioned by {@link LedgerVersionTracker}.
+ */
+public final class ConditionalRequests {
+
+    static final MediaType CBOR = MediaType.APPLICATION_CBOR;
+    static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * Compares the request's If-None-Match against the ETag and marks the response 304 on a match.
+     * The ETag is sent either way, along with a Cache-Control that lets clients keep a private copy
+     * and revalidate it (Spring Security's default of no-store would stop them from ever sending If-None-Match).
+     *
+     * The same version is served as JSON, CBOR or Smile, so the tag carries the negotiated format and the
+     * response varies on Accept. It is sent weak because Tomcat does not compress responses with strong
+     * ETags, and gzip changes the bytes but not the content.
+     * @param webRequest The current request.
+     * @param eTag The current entity tag.
+     * @return true if the handler should return without a body.
+     */
+    public static boolean checkNotModified(WebRequest webRequest, String eTag) {
+        if (webRequest instanceof ServletWebRequest servletRequest) {
+            HttpServletResponse response = servletRequest.getResponse();
+            if (response != null) {
+                response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+                response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            }
+        }
+        return webRequest.checkNotModified("W/" + forMediaType(eTag, webRequest.getHeader(HttpHeaders.ACCEPT)));
+    }
+
+    /**
+     * Appends the binary format the Accept header prefers, if any, to a quoted entity tag.
+     * JSON (and anything unparseable) keeps the tag unchanged.
+     */
+    static String forMediaType(String eTag, String accept) {
+        if (accept == null || accept.isBlank()) {
+            return eTag;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+            MimeTypeUtils.sortBySpecificity(accepted);
+        } catch (IllegalArgumentException e) {
+            // Malformed or oversized Accept header; content negotiation will reject or default it anyway
+            return eTag;
+        }
+        for (MediaType mediaType : accepted) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            if (mediaType.includes(MediaType.APPLICATION_JSON)) {
+                return eTag;
+            }
+            if (mediaType.includes(CBOR)) {
+                return eTag.substring(0, eTag.length() - 1) + "-cbor\"";
+            }
+            if (mediaType.includes(SMILE)) {
+                return eTag.substring(0, eTag.length() - 1) + "-smile\"";
+            }
+        }
+        return eTag;
+    }
+}
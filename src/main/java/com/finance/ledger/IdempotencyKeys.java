@@ -0,0 +1,129 @@
+package com.finance.ledger;
+
+import com.finance.exception.ConflictException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of writes sent with an {@code Idempotency-Key} header, so a client retrying
+ * after a timeout gets the original result back instead of a second write.
+ *
+ * Keys are scoped per user and endpoint and kept for the configured TTL in a map capped at the configured
+ * number of keys; past the cap the oldest keys go first. Every entry expires a fixed TTL after it was last
+ * stored, so insertion order is expiry order and expired keys are dropped from the head on each call.
+ * Failed writes are not remembered, so they can be retried with the same key. Outcomes live in memory
+ * only and are lost on restart.
+ */
+@Component
+public class IdempotencyKeys {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    /**
+     * The result of a write and whether it was replayed from an earlier request.
+     */
+    public record Outcome<T>(T result, boolean replayed) {
+    }
+
+    private record Key(Long userId, String scope, String key) {
+    }
+
+    // result is only meaningful once completed
+    private record Entry(String fingerprint, Instant expiresAt, boolean completed, Object result) {
+    }
+
+    private final Map<Key, Entry> entries;
+    private final Duration ttl;
+
+    public IdempotencyKeys(@Value("${finance.idempotency.max-keys:100000}") int maxKeys,
+                           @Value("${finance.idempotency.ttl:24h}") Duration ttl) {
+        if (maxKeys < 1) {
+            throw new IllegalArgumentException("Idempotency key capacity must be positive.");
+        }
+        this.ttl = ttl;
+        this.entries = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maxKeys;
+            }
+        };
+    }
+
+    /**
+     * Runs a write once per idempotency key.
+     * A first request runs the write and stores its result. A repeat with the same fingerprint gets the stored
+     * result back without running the write again.
+     * @param userId The user sending the request.
+     * @param scope The endpoint, so one key can be reused across endpoints.
+     * @param key The client's idempotency key.
+     * @param fingerprint A summary of the request body; a repeat must send the same body.
+     * @param write The write to run; its result must not be null.
+     * @return The result, and whether it is a replay.
+     * @throws IllegalArgumentException if the key is blank or too long, or was already used with a different body.
+     * @throws ConflictException if a request with the same key is still in progress.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Outcome<T> execute(Long userId, String scope, String key, String fingerprint, Supplier<T> write) {
+        if (key == null || key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters.");
+        }
+        Key entryKey = new Key(userId, scope, key);
+        Entry pending;
+        synchronized (entries) {
+            Instant now = Instant.now();
+            evictExpired(now);
+            Entry existing = entries.get(entryKey);
+            if (existing != null) {
+                if (!existing.fingerprint().equals(fingerprint)) {
+                    throw new IllegalArgumentException("Idempotency-Key was already used for a different request.");
+                }
+                if (!existing.completed()) {
+                    throw new ConflictException("A request with this Idempotency-Key is still being processed.");
+                }
+                return new Outcome<>((T) existing.result(), true);
+            }
+            pending = new Entry(fingerprint, now.plus(ttl), false, null);
+            entries.put(entryKey, pending);
+        }
+
+        T result;
+        try {
+            result = write.get();
+        } catch (RuntimeException | Error e) {
+            synchronized (entries) {
+                entries.remove(entryKey, pending);
+            }
+            throw e;
+        }
+
+        synchronized (entries) {
+            // Re-inserted so the map stays in expiry order
+            entries.remove(entryKey);
+            entries.put(entryKey, new Entry(fingerprint, Instant.now().plus(ttl), true, result));
+        }
+        return new Outcome<>(result, false);
+    }
+
+    /**
+     * @return The number of keys currently remembered, including expired ones not dropped yet.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void evictExpired(Instant now) {
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext() && !iterator.next().expiresAt().isAfter(now)) {
+            iterator.remove();
+        }
+    }
+}
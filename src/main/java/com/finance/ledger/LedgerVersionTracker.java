@@ -0,0 +1,66 @@
+package com.finance.ledger;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic per-user counter of ledger writes.
+ * Transaction, category and goal writes all advance it. Anything derived from a user's data
+ * can be tagged with the version it was computed at and treated as stale once the version moves on.
+ */
+@Component
+public class LedgerVersionTracker {
+
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    // Counters restart at zero, so ETags also carry the process start to stay unique across restarts
+    private final String instanceId = Long.toString(System.currentTimeMillis(), 36);
+
+    /**
+     * Returns the current version for a user. Read it before computing derived data,
+     * so a write that commits during the computation always makes the result stale.
+     * @param userId The ID of the user.
+     * @return The user's version, 0 if nothing has been written since startup.
+     */
+    public long currentVersion(Long userId) {
+        AtomicLong version = versions.get(userId);
+        return version != null ? version.get() : 0L;
+    }
+
+    /**
+     * Returns the entity tag for everything a user can read, derived from their current version.
+     * {@link ConditionalRequests} adds the response format and sends it as a weak validator.
+     * @param userId The ID of the user.
+     * @return A quoted entity tag, without the weak prefix.
+     */
+    public String currentETag(Long userId) {
+        return "\"" + instanceId + "-" + userId + "-" + currentVersion(userId) + "\"";
+    }
+
+    /**
+     * Advances a user's version. Inside a Spring-managed transaction the increment happens after commit,
+     * so readers never see the new version before the data it describes.
+     * @param userId The ID of the user whose data changed.
+     */
+    public void recordWrite(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                increment(userId);
+            }
+        });
+    }
+
+    private void increment(Long userId) {
+        versions.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+    }
+}
@@ -0,0 +1,27 @@
+package com.finance.ledger;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Re-runs a {@code @Transactional} service method when its commit loses an optimistic version check.
+ *
+ * The retry wraps the transaction (see {@code @EnableRetry}'s default order), so every attempt starts a fresh
+ * transaction, re-reads the entity and re-applies the requested change on top of the newer version. After the
+ * last attempt the conflict propagates and is answered with 409 Conflict.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Retryable(retryFor = OptimisticLockingFailureException.class,
+        maxAttemptsExpression = "${finance.retry.max-attempts:4}",
+        backoff = @Backoff(delay = 10, maxDelay = 200, multiplier = 2, random = true))
+public @interface RetryOnConflict {
+}
@@ -0,0 +1,115 @@
+package com.finance.ledger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes writes per user without a global lock.
+ *
+ * User IDs hash onto a fixed table of locks, so writes for one user never interleave while writes for
+ * users on different stripes run in parallel (two users may share a stripe, which only costs some waiting).
+ * A lock is held until the surrounding database transaction completes, so the next writer for that user
+ * sees everything the previous one committed, including state derived from it after commit.
+ */
+@Component
+public class UserWriteLocks {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public UserWriteLocks(@Value("${finance.ledger.write-lock-stripes:64}") int stripeCount) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("Write lock stripe count must be positive.");
+        }
+        // Round up to a power of two so a stripe is picked with a mask
+        int size = Integer.highestOneBit(stripeCount);
+        if (size < stripeCount) {
+            size <<= 1;
+        }
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * Locks a user's stripe until the current Spring-managed transaction commits or rolls back.
+     * Re-entrant: a transaction may lock the same user more than once.
+     * @param userId The user about to be written to.
+     * @throws IllegalStateException if no transaction is active.
+     */
+    public void lockUntilCompletion(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("A per-user write lock can only be held inside a transaction.");
+        }
+        ReentrantLock lock = stripe(userId);
+        lock.lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * Locks the stripes of several users until the current Spring-managed transaction completes.
+     * Stripes are taken in ascending order, so two transactions locking overlapping sets cannot deadlock.
+     * Call it before the transaction writes anything.
+     * @param userIds The users about to be written to.
+     * @throws IllegalStateException if no transaction is active.
+     */
+    public void lockAllUntilCompletion(Collection<Long> userIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("A per-user write lock can only be held inside a transaction.");
+        }
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (Long userId : userIds) {
+            indexes.add(index(userId));
+        }
+        List<ReentrantLock> held = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            ReentrantLock lock = stripes[index];
+            lock.lock();
+            held.add(lock);
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                held.forEach(ReentrantLock::unlock);
+            }
+        });
+    }
+
+    /**
+     * The stripe a user's writes lock. Writers that touch many users at once group their work by it, so each of
+     * their transactions holds a single stripe instead of most of the table.
+     * @param userId The user.
+     * @return The stripe index.
+     */
+    public int stripeOf(Long userId) {
+        return index(userId);
+    }
+
+    ReentrantLock stripe(Long userId) {
+        return stripes[index(userId)];
+    }
+
+    private int index(Long userId) {
+        int hash = Long.hashCode(userId) * 0x9E3779B9; // Fibonacci hashing spreads sequential IDs
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    int stripeCount() {
+        return stripes.length;
+    }
+}
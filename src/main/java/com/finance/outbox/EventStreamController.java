@@ -0,0 +1,85 @@
+package com.finance.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finance.user.UserService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * Newline-delimited JSON feed of the authenticated user's transaction events, for external consumers.
+ * Consumers pass the last event ID they processed as {@code after} and resume from there.
+ */
+@RestController
+@RequestMapping("/api/events")
+public class EventStreamController {
+
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int PAGE_SIZE = 500;
+
+    private final OutboxEventRepository repository;
+    private final TransactionOutbox outbox;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+
+    public EventStreamController(OutboxEventRepository repository, TransactionOutbox outbox, UserService userService,
+                                 ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.outbox = outbox;
+        this.userService = userService;
+        this.objectMapper = objectMapper;
+    }
+
+    private Long getAuthenticatedUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getPrincipal())) {
+            throw new IllegalStateException("User not authenticated.");
+        }
+        String username = authentication.getName();
+        return userService.findIdByUsername(username)
+                .orElseThrow(() -> new IllegalStateException("Authenticated user not found in database: " + username));
+    }
+
+    /**
+     * Streams up to {@code limit} events after the given ID, one JSON object per line, oldest first.
+     * Rows are read and written a page at a time, so large catch-ups never sit in memory.
+     */
+    @GetMapping
+    public void streamEvents(@RequestParam(defaultValue = "0") long after,
+                             @RequestParam(defaultValue = "1000") int limit,
+                             HttpServletResponse response) throws IOException {
+        if (limit < 1 || limit > 10000) {
+            throw new IllegalArgumentException("Limit must be between 1 and 10000.");
+        }
+        Long userId = getAuthenticatedUserId();
+
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        OutputStream out = response.getOutputStream();
+        long cursor = after;
+        int remaining = limit;
+        while (remaining > 0) {
+            List<OutboxEvent> page = repository.findByUserIdAndIdGreaterThanOrderByIdAsc(
+                    userId, cursor, PageRequest.of(0, Math.min(PAGE_SIZE, remaining)));
+            for (OutboxEvent event : page) {
+                out.write(objectMapper.writeValueAsBytes(outbox.toEvent(event)));
+                out.write('\n');
+                cursor = event.getId();
+            }
+            out.flush();
+            remaining -= page.size();
+            if (page.size() < PAGE_SIZE) {
+                break;
+            }
+        }
+    }
+}
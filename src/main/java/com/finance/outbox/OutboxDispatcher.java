@@ -0,0 +1,147 @@
+package com.finance.outbox;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers committed outbox events to every {@link TransactionEventListener} of this node in batches.
+ *
+ * Listeners are node-local (the live update hub serves the streams connected to this node), so every node must see
+ * every event: each dispatcher keeps its own cursor over the outbox IDs instead of marking rows in the shared table,
+ * and nodes never compete for rows. A node starts from the events written after it came up.
+ *
+ * A row with a lower ID can commit after a higher one, but only for different users: a user's writes hold that
+ * user's write lock until they complete, so their IDs are assigned and committed in the same order. IDs skipped
+ * by the cursor are remembered as gaps and re-read on later polls until they show up or the gap timeout passes
+ * (rolled-back writes leave gaps that never fill). Rows are kept for the retention period so external consumers
+ * can resume from a cursor. Eager even under lazy initialization, since nothing else references it and its
+ * schedule must run.
+ */
+@Component
+@Lazy(false)
+public class OutboxDispatcher {
+
+    // Bounds the gap bookkeeping when a large range of IDs was consumed by rolled-back writes
+    private static final int MAX_TRACKED_GAPS = 1000;
+
+    private final OutboxEventRepository repository;
+    private final TransactionOutbox outbox;
+    private final ObjectProvider<TransactionEventListener> listeners;
+    private final int batchSize;
+    private final Duration retention;
+    private final Duration gapTimeout;
+
+    // Highest ID delivered by this node; -1 until the first poll
+    private long cursor = -1;
+    // IDs below the cursor that were not committed when it passed them, with when they were first missed
+    private final Map<Long, Instant> gaps = new LinkedHashMap<>();
+
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private volatile int lastBatchSize;
+    private volatile long lastLagMillis;
+    private volatile long maxLagMillis;
+    private volatile Instant lastDispatchAt;
+
+    public OutboxDispatcher(OutboxEventRepository repository, TransactionOutbox outbox,
+                            ObjectProvider<TransactionEventListener> listeners,
+                            @Value("${finance.outbox.batch-size:200}") int batchSize,
+                            @Value("${finance.outbox.retention:7d}") Duration retention,
+                            @Value("${finance.outbox.gap-timeout:60s}") Duration gapTimeout) {
+        this.repository = repository;
+        this.outbox = outbox;
+        this.listeners = listeners;
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.gapTimeout = gapTimeout;
+    }
+
+    /**
+     * Delivery statistics since startup. Lag is measured from the write to the end of delivery.
+     */
+    public record Stats(long delivered, long batches, int lastBatchSize, long lastLagMillis, long maxLagMillis,
+                        Instant lastDispatchAt, long cursor, int openGaps) {
+    }
+
+    /**
+     * Delivers the events committed since the last poll, late commits below the cursor first.
+     */
+    @Scheduled(fixedDelayString = "${finance.outbox.poll-interval:100}")
+    public synchronized void dispatch() {
+        if (cursor < 0) {
+            cursor = repository.findMaxId();
+        }
+        Instant now = Instant.now();
+        if (!gaps.isEmpty()) {
+            List<OutboxEvent> late = repository.findByIdInOrderByIdAsc(new ArrayList<>(gaps.keySet()));
+            late.forEach(event -> gaps.remove(event.getId()));
+            Instant expired = now.minus(gapTimeout);
+            gaps.values().removeIf(firstMissed -> firstMissed.isBefore(expired));
+            if (!late.isEmpty()) {
+                deliver(late);
+            }
+        }
+
+        List<OutboxEvent> batch;
+        do {
+            batch = repository.findByIdGreaterThanOrderByIdAsc(cursor, PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                return;
+            }
+            for (OutboxEvent event : batch) {
+                for (long missing = cursor + 1; missing < event.getId() && gaps.size() < MAX_TRACKED_GAPS; missing++) {
+                    gaps.put(missing, now);
+                }
+                cursor = event.getId();
+            }
+            deliver(batch);
+        } while (batch.size() == batchSize);
+    }
+
+    private void deliver(List<OutboxEvent> batch) {
+        List<TransactionEvent> events = batch.stream().map(outbox::toEvent).toList();
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                listener.onTransactionEvents(events);
+            } catch (RuntimeException e) {
+                System.err.println("Transaction event listener " + listener.getClass().getSimpleName() +
+                        " failed on events " + events.get(0).id() + ".." + events.get(events.size() - 1).id() +
+                        ": " + e.getMessage());
+            }
+        });
+
+        Instant now = Instant.now();
+        long lag = Duration.between(events.get(0).occurredAt(), now).toMillis();
+        delivered.addAndGet(events.size());
+        batches.incrementAndGet();
+        lastBatchSize = events.size();
+        lastLagMillis = lag;
+        maxLagMillis = Math.max(maxLagMillis, lag);
+        lastDispatchAt = now;
+    }
+
+    /**
+     * Drops events older than the retention period.
+     */
+    @Scheduled(fixedDelayString = "${finance.outbox.cleanup-interval:60000}")
+    public void deleteExpiredEvents() {
+        repository.deleteCreatedBefore(Instant.now().minus(retention));
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(delivered.get(), batches.get(), lastBatchSize, lastLagMillis, maxLagMillis, lastDispatchAt,
+                cursor, gaps.size());
+    }
+}
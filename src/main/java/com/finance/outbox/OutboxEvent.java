@@ -0,0 +1,44 @@
+package com.finance.outbox;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * One row of the transaction outbox, written in the same database transaction as the change it describes.
+ * The payload holds the transaction's state before and after the write as JSON, or what a bulk change did.
+ */
+@Entity
+@Table(name = "outbox", indexes = {
+        @Index(name = "idx_outbox_user_id", columnList = "user_id, id"),
+        @Index(name = "idx_outbox_created_at", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // Null for bulk changes
+    private Long transactionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionEvent.Type type;
+
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+}
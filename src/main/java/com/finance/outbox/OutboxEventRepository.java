@@ -0,0 +1,57 @@
+package com.finance.outbox;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Finds the events after a dispatcher's cursor.
+     * @param afterId The last ID the dispatcher delivered.
+     * @param pageable The batch size.
+     * @return Events in ID order.
+     */
+    List<OutboxEvent> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    /**
+     * Re-reads IDs a dispatcher's cursor passed before they were committed.
+     * @param ids The missing IDs.
+     * @return The events among them that exist now, in ID order.
+     */
+    List<OutboxEvent> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    /**
+     * @return The highest event ID, or 0 if the outbox is empty.
+     */
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM OutboxEvent e")
+    long findMaxId();
+
+    /**
+     * Finds a user's events after a given sequence number, for external consumers resuming from a cursor.
+     * @param userId The ID of the user.
+     * @param afterId The last sequence number already seen.
+     * @param pageable The page size.
+     * @return The user's events in ID order.
+     */
+    List<OutboxEvent> findByUserIdAndIdGreaterThanOrderByIdAsc(Long userId, Long afterId, Pageable pageable);
+
+    /**
+     * Deletes events older than a cutoff.
+     * @param cutoff Events written before this are removed.
+     * @return The number of rows deleted.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboxEvent e WHERE e.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") Instant cutoff);
+}
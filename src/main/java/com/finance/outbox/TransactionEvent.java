@@ -0,0 +1,54 @@
+package com.finance.outbox;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.finance.transaction.TransactionSnapshot;
+
+import java.time.Instant;
+
+/**
+ * A committed transaction write, as delivered to listeners and external consumers.
+ * @param id The outbox sequence number; increasing in commit order for any one user.
+ * @param userId The owner of the transaction.
+ * @param type What happened to the transaction.
+ * @param before The transaction before the write, or null when it was created or for a bulk change.
+ * @param after The transaction after the write, or null when it was deleted or for a bulk change.
+ * @param bulk What a bulk change did, only for {@link Type#BULK_CHANGED}.
+ * @param occurredAt When the write was made.
+ */
+public record TransactionEvent(Long id, Long userId, Type type, TransactionSnapshot before, TransactionSnapshot after,
+                               @JsonInclude(JsonInclude.Include.NON_NULL) BulkChange bulk, Instant occurredAt) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED,
+        // Many of the user's transactions changed in one database transaction; consumers re-read what they keep
+        BULK_CHANGED
+    }
+
+    /**
+     * The set-based writes that change transactions without one event per row.
+     */
+    public enum BulkOperation {
+        BULK_DELETE,
+        CATEGORY_MERGE,
+        RECURRING,
+        IMPORT,
+        ARCHIVE,
+        RESTORE
+    }
+
+    /**
+     * @param operation The write that was made.
+     * @param transactions The number of transactions it created, changed or removed.
+     */
+    public record BulkChange(BulkOperation operation, long transactions) {
+    }
+
+    /**
+     * @return The ID of the transaction written, or null for a bulk change.
+     */
+    public Long transactionId() {
+        return after != null ? after.id() : before != null ? before.id() : null;
+    }
+}
@@ -0,0 +1,15 @@
+package com.finance.outbox;
+
+import java.util.List;
+
+/**
+ * In-process subscriber to committed transaction writes. Implementations are picked up as Spring beans.
+ *
+ * Batches arrive on the dispatcher thread, each user's events in commit order. Every node delivers every event
+ * committed while it runs to its own listeners; a listener that throws is logged and skipped without holding up
+ * the others. Events written while a node was down are not replayed to it.
+ */
+public interface TransactionEventListener {
+
+    void onTransactionEvents(List<TransactionEvent> events);
+}
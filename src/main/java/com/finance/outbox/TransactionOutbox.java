@@ -0,0 +1,116 @@
+package com.finance.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.finance.transaction.TransactionSnapshot;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes transaction changes to the outbox table and reads them back as events.
+ * {@link #append} and {@link #appendBulk} must run inside the transaction making the change, so an event exists
+ * exactly when the change commits.
+ */
+@Component
+public class TransactionOutbox {
+
+    private final OutboxEventRepository repository;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+
+    public TransactionOutbox(OutboxEventRepository repository, ObjectMapper objectMapper, JdbcTemplate jdbcTemplate) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Records a transaction write in the current database transaction.
+     * @param userId The owner of the transaction.
+     * @param before The state before the write, or null for a create.
+     * @param after The state after the write, or null for a delete.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(Long userId, TransactionSnapshot before, TransactionSnapshot after) {
+        TransactionEvent.Type type = before == null ? TransactionEvent.Type.CREATED
+                : after == null ? TransactionEvent.Type.DELETED : TransactionEvent.Type.UPDATED;
+        ObjectNode payload = objectMapper.createObjectNode();
+        payload.set("before", objectMapper.valueToTree(before));
+        payload.set("after", objectMapper.valueToTree(after));
+
+        OutboxEvent event = new OutboxEvent();
+        event.setUserId(userId);
+        event.setTransactionId(after != null ? after.id() : before.id());
+        event.setType(type);
+        event.setPayload(payload.toString());
+        event.setCreatedAt(Instant.now());
+        repository.save(event);
+    }
+
+    /**
+     * Records a set-based write of many of a user's transactions in the current database transaction, as one event.
+     * Written with plain JDBC, since the bulk writers work below JPA; must run under the user's write lock so the
+     * event takes its place in the user's commit order.
+     * @param userId The owner of the transactions.
+     * @param operation The write made.
+     * @param transactions The number of transactions it created, changed or removed.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendBulk(Long userId, TransactionEvent.BulkOperation operation, long transactions) {
+        appendBulk(operation, Map.of(userId, transactions));
+    }
+
+    /**
+     * Records the same kind of set-based write for several users, one event each, with one JDBC batch.
+     * Must run under the write locks of all of them.
+     * @param operation The write made.
+     * @param transactionsByUser The number of transactions written, by user ID.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendBulk(TransactionEvent.BulkOperation operation, Map<Long, Long> transactionsByUser) {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        List<Map.Entry<Long, Long>> entries = new ArrayList<>(transactionsByUser.entrySet());
+        jdbcTemplate.batchUpdate("INSERT INTO outbox (user_id, transaction_id, type, payload, created_at) VALUES (?, NULL, ?, ?, ?)",
+                entries, entries.size(), (ps, entry) -> {
+                    ObjectNode payload = objectMapper.createObjectNode();
+                    payload.set("bulk", objectMapper.valueToTree(new TransactionEvent.BulkChange(operation, entry.getValue())));
+                    ps.setLong(1, entry.getKey());
+                    ps.setString(2, TransactionEvent.Type.BULK_CHANGED.name());
+                    ps.setString(3, payload.toString());
+                    ps.setObject(4, now);
+                });
+    }
+
+    /**
+     * Converts a stored outbox row into the event delivered to listeners and consumers.
+     * @param event The outbox row.
+     * @return The event.
+     */
+    public TransactionEvent toEvent(OutboxEvent event) {
+        try {
+            JsonNode payload = objectMapper.readTree(event.getPayload());
+            JsonNode bulk = payload.get("bulk");
+            return new TransactionEvent(event.getId(), event.getUserId(), event.getType(),
+                    snapshot(payload.get("before")), snapshot(payload.get("after")),
+                    bulk != null ? objectMapper.treeToValue(bulk, TransactionEvent.BulkChange.class) : null,
+                    event.getCreatedAt());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable outbox payload for event " + event.getId(), e);
+        }
+    }
+
+    private TransactionSnapshot snapshot(JsonNode node) throws JsonProcessingException {
+        return node == null || node.isNull() ? null : objectMapper.treeToValue(node, TransactionSnapshot.class);
+    }
+}
@@ -0,0 +1,42 @@
+package com.finance.recurring;
+
+import java.time.LocalDate;
+
+/**
+ * How often a recurring rule produces a transaction.
+ */
+public enum Cadence {
+    DAILY,
+    WEEKLY,
+    MONTHLY,
+    YEARLY;
+
+    /**
+     * Parses the request form (daily, weekly, monthly or yearly, any case).
+     * @throws IllegalArgumentException if the value is not a known cadence.
+     */
+    public static Cadence fromParam(String value) {
+        if (value != null) {
+            for (Cadence cadence : values()) {
+                if (cadence.name().equalsIgnoreCase(value.trim())) {
+                    return cadence;
+                }
+            }
+        }
+        throw new IllegalArgumentException("Cadence must be one of: daily, weekly, monthly, yearly");
+    }
+
+    /**
+     * Returns the date of the n-th occurrence (zero-based) of a rule starting on startDate.
+     * Counting from the start rather than from the previous occurrence keeps month ends stable:
+     * a rule starting on January 31 falls on February 28 (or 29) and then March 31 again.
+     */
+    public LocalDate occurrence(LocalDate startDate, long n) {
+        return switch (this) {
+            case DAILY -> startDate.plusDays(n);
+            case WEEKLY -> startDate.plusWeeks(n);
+            case MONTHLY -> startDate.plusMonths(n);
+            case YEARLY -> startDate.plusYears(n);
+        };
+    }
+}
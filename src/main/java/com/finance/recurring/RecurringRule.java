@@ -0,0 +1,64 @@
+package com.finance.recurring;
+
+import com.finance.category.Category;
+import com.finance.user.User;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A template for a transaction that repeats on a fixed cadence, such as rent or salary.
+ * The scheduler turns every occurrence up to today into a transaction and advances nextRunDate past it;
+ * occurrences counts how many it has produced so far. nextRunDate is null once the end date has passed.
+ */
+@Entity
+@Table(name = "recurring_rules", indexes = {
+        @Index(name = "idx_recurring_rules_user", columnList = "user_id, id"),
+        @Index(name = "idx_recurring_rules_next_run", columnList = "next_run_date")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "category_id", nullable = false)
+    private Category category;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Column(length = 500)
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Cadence cadence;
+
+    @Column(nullable = false)
+    private LocalDate startDate;
+
+    private LocalDate endDate;
+
+    @Column(name = "next_run_date")
+    private LocalDate nextRunDate;
+
+    @Column(nullable = false)
+    private long occurrences;
+
+    // The scheduler advances a rule only if this still matches what it read, so no occurrence is produced twice
+    @Version
+    private Long version;
+}
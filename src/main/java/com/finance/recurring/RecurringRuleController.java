@@ -0,0 +1,90 @@
+package com.finance.recurring;
+
+import com.finance.recurring.dto.RecurringRuleRequest;
+import com.finance.recurring.dto.RecurringRuleResponse;
+import com.finance.user.UserService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/recurring")
+public class RecurringRuleController {
+
+    private final RecurringRuleService ruleService;
+    private final UserService userService;
+
+    public RecurringRuleController(RecurringRuleService ruleService, UserService userService) {
+        this.ruleService = ruleService;
+        this.userService = userService;
+    }
+
+    /**
+     * Helper method to get the authenticated user's ID.
+     */
+    private Long getAuthenticatedUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getPrincipal())) {
+            throw new IllegalStateException("User not authenticated.");
+        }
+        String username = authentication.getName();
+        return userService.findIdByUsername(username)
+                .orElseThrow(() -> new IllegalStateException("Authenticated user not found in database: " + username));
+    }
+
+    private RecurringRuleResponse convertToDto(RecurringRule rule) {
+        return new RecurringRuleResponse(
+                rule.getId(),
+                rule.getAmount(),
+                rule.getCategory().getName(),
+                rule.getCategory().getType(),
+                rule.getDescription(),
+                rule.getCadence(),
+                rule.getStartDate(),
+                rule.getEndDate(),
+                rule.getNextRunDate(),
+                rule.getOccurrences()
+        );
+    }
+
+    /**
+     * Creates a recurring rule for the authenticated user.
+     */
+    @PostMapping
+    public ResponseEntity<RecurringRuleResponse> createRule(@RequestBody RecurringRuleRequest request) {
+        Long userId = getAuthenticatedUserId();
+        RecurringRule rule = ruleService.createRule(request, userId);
+        return new ResponseEntity<>(convertToDto(rule), HttpStatus.CREATED);
+    }
+
+    /**
+     * Retrieves all recurring rules of the authenticated user.
+     */
+    @GetMapping
+    public ResponseEntity<List<RecurringRuleResponse>> getRules() {
+        Long userId = getAuthenticatedUserId();
+        List<RecurringRuleResponse> responses = ruleService.getRulesForUser(userId).stream()
+                .map(this::convertToDto)
+                .toList();
+        return ResponseEntity.ok(responses);
+    }
+
+    /**
+     * Deletes a recurring rule of the authenticated user. Transactions it already produced are kept.
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Map<String, String>> deleteRule(@PathVariable Long id) {
+        Long userId = getAuthenticatedUserId();
+        ruleService.deleteRule(id, userId);
+
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Recurring rule deleted successfully");
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,353 @@
+package com.finance.recurring;
+
+import com.finance.category.CategoryUsageService;
+import com.finance.ledger.UserWriteLocks;
+import com.finance.outbox.TransactionEvent;
+import com.finance.outbox.TransactionOutbox;
+import com.finance.transaction.LedgerInvalidation;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Turns due occurrences of recurring rules into transactions, for all users at once.
+ *
+ * The users with due rules are split into contiguous ID ranges, one per worker thread. Each worker walks its
+ * range in (user, rule) order, a batch of rules at a time, and computes their occurrences in memory. Planned rules
+ * are grouped by the write lock stripe of their user; a group is written once it holds a batch of rules (or the
+ * worker has held back too much), in one database transaction that advances the rules, inserts their transactions
+ * and bumps the category usage counters, each with a single JDBC batch. A rule that fell behind (the application
+ * was down, or the rule started in the past) has all its missed occurrences produced in the same pass, up to
+ * max-catch-up per rule per run.
+ *
+ * A rule is only advanced if its version is unchanged since it was read, and its transactions are inserted in the
+ * same database transaction, so every occurrence is produced exactly once even if runs overlap, another instance
+ * materializes the same rules, or the rule is edited meanwhile. Each batch takes the single write lock stripe its
+ * users share before writing, like any other transaction write, so requests for users on other stripes are never
+ * held up by it. Batches record one bulk outbox event per user; the in-memory indexes are rebuilt on next use.
+ *
+ * The schedule only starts a run: the workers finish it on their own threads, so the shared scheduler thread is
+ * free for the other jobs meanwhile. Runs of one instance never overlap.
+ * Eager even under lazy initialization, since nothing else references it and its schedule must run.
+ */
+@Component
+@Lazy(false)
+public class RecurringRuleMaterializer {
+
+    private static final String SELECT_DUE =
+            "SELECT id, user_id, category_id, amount, description, cadence, start_date, end_date, occurrences, version " +
+                    "FROM recurring_rules WHERE user_id BETWEEN ? AND ? AND (user_id > ? OR id > ?) AND next_run_date <= ? " +
+                    "ORDER BY user_id, id LIMIT ?";
+
+    // Rule and occurrence rows a worker may hold back while its stripe groups fill up, in batches
+    private static final int MAX_HELD_BATCHES = 32;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserWriteLocks writeLocks;
+    private final CategoryUsageService categoryUsage;
+    private final LedgerInvalidation invalidation;
+    private final TransactionOutbox outbox;
+    private final ThreadPoolExecutor executor;
+    private final int threads;
+    private final int batchSize;
+    private final int maxCatchUp;
+
+    private volatile Run lastRun;
+    private CompletableFuture<Result> running = CompletableFuture.completedFuture(Result.EMPTY);
+
+    public RecurringRuleMaterializer(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                     UserWriteLocks writeLocks, CategoryUsageService categoryUsage,
+                                     LedgerInvalidation invalidation, TransactionOutbox outbox,
+                                     @Value("${finance.recurring.threads:4}") int threads,
+                                     @Value("${finance.recurring.batch-size:1000}") int batchSize,
+                                     @Value("${finance.recurring.max-catch-up:400}") int maxCatchUp) {
+        if (threads < 1 || batchSize < 1 || maxCatchUp < 1) {
+            throw new IllegalArgumentException("Recurring rule threads, batch size and catch-up limit must be positive.");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.writeLocks = writeLocks;
+        this.categoryUsage = categoryUsage;
+        this.invalidation = invalidation;
+        this.outbox = outbox;
+        this.threads = threads;
+        this.batchSize = batchSize;
+        this.maxCatchUp = maxCatchUp;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "recurring-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * The outcome of a materialization run.
+     * @param rules The number of rules advanced.
+     * @param transactions The number of transactions created.
+     * @param batches The number of database transactions it took.
+     * @param conflicts Rules skipped because they changed after being read; they are retried on the next run.
+     */
+    public record Result(int rules, long transactions, int batches, int conflicts) {
+
+        static final Result EMPTY = new Result(0, 0, 0, 0);
+
+        Result plus(Result other) {
+            return new Result(rules + other.rules, transactions + other.transactions,
+                    batches + other.batches, conflicts + other.conflicts);
+        }
+    }
+
+    /**
+     * The last completed run, for diagnostics.
+     * @param upTo The last day materialized.
+     * @param finishedAt When the run finished.
+     * @param millis How long it took.
+     * @param result What it produced.
+     */
+    public record Run(LocalDate upTo, Instant finishedAt, long millis, Result result) {
+    }
+
+    /**
+     * Starts materializing everything due up to today, unless the previous run is still going.
+     */
+    @Scheduled(fixedDelayString = "${finance.recurring.interval:3600000}",
+            initialDelayString = "${finance.recurring.initial-delay:10000}")
+    public synchronized void materializeDue() {
+        if (running.isDone()) {
+            start(LocalDate.now()).exceptionally(e -> {
+                System.err.println("Recurring rule materialization failed: " + e.getMessage());
+                return Result.EMPTY;
+            });
+        }
+    }
+
+    /**
+     * Materializes every occurrence dated on or before the given day, across all users, after any run in progress.
+     * @param today The last day to produce occurrences for.
+     * @return What the run produced.
+     */
+    public Result materializeUpTo(LocalDate today) {
+        return start(today).join();
+    }
+
+    public Run lastRun() {
+        return lastRun;
+    }
+
+    private synchronized CompletableFuture<Result> start(LocalDate today) {
+        running = running.handle((result, error) -> today).thenCompose(this::run);
+        return running;
+    }
+
+    private CompletableFuture<Result> run(LocalDate today) {
+        long start = System.nanoTime();
+        long[] bounds = jdbcTemplate.query(
+                "SELECT MIN(user_id), MAX(user_id) FROM recurring_rules WHERE next_run_date <= ?",
+                rs -> rs.next() && rs.getObject(1) != null ? new long[] {rs.getLong(1), rs.getLong(2)} : null,
+                Date.valueOf(today));
+
+        List<CompletableFuture<Result>> ranges = new ArrayList<>();
+        if (bounds != null) {
+            // Contiguous user ranges keep each worker on its own slice of the user index
+            long span = bounds[1] - bounds[0] + 1;
+            int partitions = (int) Math.min(threads, span);
+            long rangeSize = (span + partitions - 1) / partitions;
+            for (int i = 0; i < partitions; i++) {
+                long from = bounds[0] + i * rangeSize;
+                long to = Math.min(bounds[1], from + rangeSize - 1);
+                ranges.add(CompletableFuture.supplyAsync(() -> materializeRange(from, to, today), executor)
+                        .exceptionally(e -> {
+                            // Committed batches stay; the rest of that range is picked up by the next run
+                            System.err.println("Recurring rule materialization failed for a user range: "
+                                    + (e.getCause() != null ? e.getCause() : e).getMessage());
+                            return Result.EMPTY;
+                        }));
+            }
+        }
+
+        return CompletableFuture.allOf(ranges.toArray(CompletableFuture[]::new)).thenApply(ignored -> {
+            Result result = ranges.stream().map(CompletableFuture::join).reduce(Result.EMPTY, Result::plus);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            lastRun = new Run(today, Instant.now(), millis, result);
+            if (result.transactions() > 0 || result.conflicts() > 0) {
+                System.out.println("Materialized " + result.transactions() + " recurring transactions from " + result.rules()
+                        + " rules in " + result.batches() + " batches (" + result.conflicts() + " conflicts) in " + millis + " ms");
+            }
+            return result;
+        });
+    }
+
+    private Result materializeRange(long fromUserId, long toUserId, LocalDate today) {
+        Result total = Result.EMPTY;
+        // Planned rules not yet written, by write lock stripe in the order first seen, and how many rows they will write
+        Map<Integer, List<Plan>> held = new LinkedHashMap<>();
+        long heldRows = 0;
+        long afterUserId = fromUserId - 1;
+        long afterId = 0;
+        while (true) {
+            // Keyset over (user_id, id): rules skipped by a conflict or the catch-up limit are not read again this run
+            List<DueRule> due = jdbcTemplate.query(SELECT_DUE, RecurringRuleMaterializer::mapDueRule,
+                    Math.max(fromUserId, afterUserId), toUserId, afterUserId, afterId, Date.valueOf(today), batchSize);
+            for (DueRule rule : due) {
+                Plan plan = plan(rule, today);
+                List<Plan> group = held.computeIfAbsent(writeLocks.stripeOf(rule.userId()), stripe -> new ArrayList<>());
+                group.add(plan);
+                heldRows += plan.rows();
+                if (group.size() >= batchSize) {
+                    total = total.plus(transactionTemplate.execute(status -> write(group)));
+                    heldRows -= group.stream().mapToLong(Plan::rows).sum();
+                    held.remove(writeLocks.stripeOf(rule.userId()));
+                }
+            }
+            boolean done = due.size() < batchSize;
+            if (done || heldRows >= (long) batchSize * MAX_HELD_BATCHES) {
+                for (List<Plan> group : held.values()) {
+                    total = total.plus(transactionTemplate.execute(status -> write(group)));
+                }
+                held.clear();
+                heldRows = 0;
+            }
+            if (done) {
+                return total;
+            }
+            DueRule last = due.get(due.size() - 1);
+            afterUserId = last.userId();
+            afterId = last.id();
+        }
+    }
+
+    private Plan plan(DueRule rule, LocalDate today) {
+        List<LocalDate> dates = new ArrayList<>();
+        long n = rule.occurrences();
+        LocalDate date = rule.cadence().occurrence(rule.startDate(), n);
+        while (!date.isAfter(today) && (rule.endDate() == null || !date.isAfter(rule.endDate())) && dates.size() < maxCatchUp) {
+            dates.add(date);
+            n++;
+            date = rule.cadence().occurrence(rule.startDate(), n);
+        }
+        LocalDate nextRunDate = rule.endDate() != null && date.isAfter(rule.endDate()) ? null : date;
+        return new Plan(rule, dates, n, nextRunDate);
+    }
+
+    // All plans are for users on the same write lock stripe
+    private Result write(List<Plan> plans) {
+        Set<Long> userIds = new LinkedHashSet<>();
+        for (Plan plan : plans) {
+            userIds.add(plan.rule().userId());
+        }
+        writeLocks.lockAllUntilCompletion(userIds);
+
+        int[] advanced = jdbcTemplate.batchUpdate(
+                "UPDATE recurring_rules SET occurrences = ?, next_run_date = ?, version = version + 1 WHERE id = ? AND version = ?",
+                plans, plans.size(), (ps, plan) -> {
+                    ps.setLong(1, plan.occurrences());
+                    if (plan.nextRunDate() != null) {
+                        ps.setDate(2, Date.valueOf(plan.nextRunDate()));
+                    } else {
+                        ps.setNull(2, Types.DATE);
+                    }
+                    ps.setLong(3, plan.rule().id());
+                    ps.setLong(4, plan.rule().version());
+                })[0];
+
+        List<Occurrence> occurrences = new ArrayList<>();
+        // Category usage changes by user, then category
+        Map<Long, Map<Long, CategoryUsageService.Delta>> usage = new LinkedHashMap<>();
+        int rules = 0;
+        for (int i = 0; i < plans.size(); i++) {
+            // Zero rows means the rule was edited, deleted or already advanced since it was read
+            if (advanced[i] == 0) {
+                continue;
+            }
+            rules++;
+            DueRule rule = plans.get(i).rule();
+            for (LocalDate date : plans.get(i).dates()) {
+                occurrences.add(new Occurrence(rule, date));
+            }
+            if (!plans.get(i).dates().isEmpty()) {
+                int count = plans.get(i).dates().size();
+                usage.computeIfAbsent(rule.userId(), userId -> new LinkedHashMap<>()).merge(rule.categoryId(),
+                        new CategoryUsageService.Delta(count, rule.amount().multiply(BigDecimal.valueOf(count))),
+                        CategoryUsageService.Delta::plus);
+            }
+        }
+
+        if (!occurrences.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO transactions (amount, date, category_id, user_id, description, version) VALUES (?, ?, ?, ?, ?, 0)",
+                    occurrences, batchSize, (ps, occurrence) -> {
+                        ps.setBigDecimal(1, occurrence.rule().amount());
+                        ps.setDate(2, Date.valueOf(occurrence.date()));
+                        ps.setLong(3, occurrence.rule().categoryId());
+                        ps.setLong(4, occurrence.rule().userId());
+                        ps.setString(5, occurrence.rule().description());
+                    });
+        }
+
+        Map<Long, Long> created = new LinkedHashMap<>();
+        usage.forEach((userId, deltas) -> {
+            categoryUsage.adjust(userId, deltas);
+            created.put(userId, deltas.values().stream().mapToLong(CategoryUsageService.Delta::count).sum());
+            invalidation.invalidate(userId);
+        });
+        if (!created.isEmpty()) {
+            outbox.appendBulk(TransactionEvent.BulkOperation.RECURRING, created);
+        }
+        return new Result(rules, occurrences.size(), 1, plans.size() - rules);
+    }
+
+    private static DueRule mapDueRule(ResultSet rs, int rowNum) throws SQLException {
+        Date endDate = rs.getDate("end_date");
+        return new DueRule(rs.getLong("id"), rs.getLong("user_id"), rs.getLong("category_id"), rs.getBigDecimal("amount"),
+                rs.getString("description"), Cadence.valueOf(rs.getString("cadence")), rs.getDate("start_date").toLocalDate(),
+                endDate != null ? endDate.toLocalDate() : null, rs.getLong("occurrences"), rs.getLong("version"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private record DueRule(long id, long userId, long categoryId, BigDecimal amount, String description, Cadence cadence,
+                           LocalDate startDate, LocalDate endDate, long occurrences, long version) {
+    }
+
+    private record Plan(DueRule rule, List<LocalDate> dates, long occurrences, LocalDate nextRunDate) {
+
+        long rows() {
+            return 1 + dates.size();
+        }
+    }
+
+    private record Occurrence(DueRule rule, LocalDate date) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.finance.recurring;
+
+import com.finance.category.Category;
+import com.finance.user.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RecurringRuleRepository extends JpaRepository<RecurringRule, Long> {
+
+    List<RecurringRule> findByUserOrderByIdAsc(User user);
+
+    Optional<RecurringRule> findByIdAndUser(Long id, User user);
+
+    boolean existsByCategory(Category category);
+
+    /**
+     * Points all of a user's rules in one category at another, bumping their versions
+     * so a materialization that read them before the move does not apply.
+     * @return The number of rules moved.
+     */
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query("UPDATE RecurringRule r SET r.category = :target, r.version = r.version + 1 " +
+            "WHERE r.user = :user AND r.category = :source")
+    int reassignCategory(@Param("user") User user, @Param("source") Category source, @Param("target") Category target);
+}
@@ -0,0 +1,105 @@
+package com.finance.recurring;
+
+import com.finance.category.Category;
+import com.finance.category.CategoryService;
+import com.finance.exception.ResourceNotFoundException;
+import com.finance.ledger.UserWriteLocks;
+import com.finance.recurring.dto.RecurringRuleRequest;
+import com.finance.transaction.Transaction;
+import com.finance.user.User;
+import com.finance.user.UserService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Service
+public class RecurringRuleService {
+
+    private final RecurringRuleRepository ruleRepository;
+    private final UserService userService;
+    private final CategoryService categoryService;
+    private final UserWriteLocks writeLocks;
+
+    public RecurringRuleService(RecurringRuleRepository ruleRepository, UserService userService,
+                                CategoryService categoryService, UserWriteLocks writeLocks) {
+        this.ruleRepository = ruleRepository;
+        this.userService = userService;
+        this.categoryService = categoryService;
+        this.writeLocks = writeLocks;
+    }
+
+    /**
+     * Creates a recurring rule for a user. Occurrences from the start date up to today, including ones in the past,
+     * are turned into transactions by the next scheduler run.
+     * @param request The rule: amount, category, description, cadence, and optional start and end dates.
+     * @param userId The ID of the user.
+     * @return The created rule.
+     * @throws IllegalArgumentException if the amount, cadence or dates are invalid.
+     * @throws ResourceNotFoundException if the user or category is not found.
+     */
+    @Transactional
+    public RecurringRule createRule(RecurringRuleRequest request, Long userId) {
+        if (request.getAmount() == null || request.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Amount must be a positive decimal value.");
+        }
+        if (request.getCategoryName() == null || request.getCategoryName().trim().isEmpty()) {
+            throw new IllegalArgumentException("Category name cannot be empty.");
+        }
+        Cadence cadence = Cadence.fromParam(request.getCadence());
+        LocalDate startDate = request.getStartDate() != null ? request.getStartDate() : LocalDate.now();
+        if (startDate.isBefore(Transaction.EARLIEST_DATE)) {
+            throw new IllegalArgumentException("Start date cannot be before " + Transaction.EARLIEST_DATE + ".");
+        }
+        if (request.getEndDate() != null && request.getEndDate().isBefore(startDate)) {
+            throw new IllegalArgumentException("End date cannot be before start date.");
+        }
+
+        // Held so the category cannot be deleted between the lookup and the insert
+        writeLocks.lockUntilCompletion(userId);
+        User user = userService.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+        Category category = categoryService.findAccessibleCategoryByName(request.getCategoryName(), userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Category not found or not accessible: " + request.getCategoryName()));
+
+        RecurringRule rule = new RecurringRule();
+        rule.setUser(user);
+        rule.setCategory(category);
+        rule.setAmount(request.getAmount());
+        rule.setDescription(request.getDescription());
+        rule.setCadence(cadence);
+        rule.setStartDate(startDate);
+        rule.setEndDate(request.getEndDate());
+        rule.setNextRunDate(startDate);
+        rule.setOccurrences(0);
+        return ruleRepository.save(rule);
+    }
+
+    /**
+     * Retrieves all recurring rules of a user, oldest first.
+     * @param userId The ID of the user.
+     * @return The user's rules.
+     */
+    public List<RecurringRule> getRulesForUser(Long userId) {
+        User user = userService.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+        return ruleRepository.findByUserOrderByIdAsc(user);
+    }
+
+    /**
+     * Deletes a recurring rule. Transactions it already produced are kept.
+     * @param ruleId The ID of the rule.
+     * @param userId The ID of the user.
+     * @throws ResourceNotFoundException if the rule is not found for the user.
+     */
+    @Transactional
+    public void deleteRule(Long ruleId, Long userId) {
+        User user = userService.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+        RecurringRule rule = ruleRepository.findByIdAndUser(ruleId, user)
+                .orElseThrow(() -> new ResourceNotFoundException("Recurring rule not found with ID: " + ruleId));
+        ruleRepository.delete(rule);
+    }
+}
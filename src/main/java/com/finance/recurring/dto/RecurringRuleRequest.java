@@ -0,0 +1,22 @@
+package com.finance.recurring.dto;
+
+import com.fasterxml.jackson.annotation.JsonSetter;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+public class RecurringRuleRequest {
+    private BigDecimal amount;
+    private String categoryName;
+    private String description;
+    private String cadence;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    @JsonSetter("category")
+    public void setCategory(String category) {
+        this.categoryName = category;
+    }
+}
@@ -0,0 +1,34 @@
+package com.finance.recurring.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.finance.category.CategoryType;
+import com.finance.recurring.Cadence;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringRuleResponse {
+    private Long id;
+    private BigDecimal amount;
+
+    @JsonProperty("category")
+    private String categoryName;
+
+    private CategoryType type;
+    private String description;
+    private Cadence cadence;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    // Null once the rule has ended
+    private LocalDate nextRunDate;
+
+    // Transactions produced so far
+    private long occurrences;
+}
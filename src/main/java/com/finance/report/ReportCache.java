@@ -0,0 +1,88 @@
+package com.finance.report;
+
+import com.finance.report.dto.IncomeExpenseSummary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Computed reports tagged with the ledger version they were built from.
+ *
+ * A lookup only hits when the stored version equals the user's current version, so a stale entry
+ * is skipped by one comparison and dropped, since versions only grow. Reports covering closed past
+ * periods only change on back-dated writes (which bump the version anyway), so they get their own
+ * LRU map that open periods cannot push them out of; both maps are capped at a configured number
+ * of entries. Summaries are copied on the way in and out, so callers cannot change a cached report.
+ */
+@Component
+public class ReportCache {
+
+    public enum ReportKind {
+        MONTHLY,
+        YEARLY
+    }
+
+    public record Key(Long userId, ReportKind kind, LocalDate startDate, LocalDate endDate) {
+    }
+
+    private record Entry(long version, IncomeExpenseSummary summary) {
+    }
+
+    private final Map<Key, Entry> closedPeriods;
+    private final Map<Key, Entry> recent;
+
+    public ReportCache(@Value("${finance.reports.cache.max-entries:10000}") int maxEntries,
+                       @Value("${finance.reports.cache.max-closed-entries:100000}") int maxClosedEntries) {
+        this.closedPeriods = lru(maxClosedEntries);
+        this.recent = lru(maxEntries);
+    }
+
+    private static Map<Key, Entry> lru(int maxEntries) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached report if it was computed at the given version.
+     * @param key The report key.
+     * @param currentVersion The user's current ledger version.
+     * @return A copy of the cached summary, or null on a miss or a stale entry.
+     */
+    public IncomeExpenseSummary get(Key key, long currentVersion) {
+        Map<Key, Entry> entries = entries(key);
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && entry.version() < currentVersion) {
+                entries.remove(key);
+            }
+        }
+        return entry != null && entry.version() == currentVersion ? new IncomeExpenseSummary(entry.summary()) : null;
+    }
+
+    /**
+     * Stores a report computed at the given version, replacing any older entry for the same key.
+     * @param key The report key.
+     * @param version The ledger version read before the report was computed.
+     * @param summary The computed report.
+     */
+    public void put(Key key, long version, IncomeExpenseSummary summary) {
+        Entry entry = new Entry(version, new IncomeExpenseSummary(summary));
+        Map<Key, Entry> entries = entries(key);
+        synchronized (entries) {
+            entries.put(key, entry);
+        }
+    }
+
+    private Map<Key, Entry> entries(Key key) {
+        return YearMonth.from(key.endDate()).isBefore(YearMonth.now()) ? closedPeriods : recent;
+    }
+}
@@ -1,31 +1,48 @@
 package com.finance.report;
 
 import com.finance.exception.ResourceNotFoundException;
+import com.finance.ledger.ConditionalRequests;
+import com.finance.ledger.LedgerVersionTracker;
 import com.finance.report.dto.CategorySpendingReport;
 import com.finance.report.dto.IncomeExpenseSummary;
+import com.finance.report.dto.MonthlyReport;
+import com.finance.report.dto.ReportJobResponse;
+import com.finance.report.dto.TrendReport;
+import com.finance.report.dto.YearlyReport;
 import com.finance.user.UserService;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
 
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Map;
-import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/reports")
+@Lazy(false)
 public class ReportController {
 
+    // Upper bound on how long a poll may wait for a running job
+    private static final long MAX_WAIT_SECONDS = 30;
+
     private final ReportService reportService;
+    private final ReportJobService reportJobService;
     private final UserService userService;
+    private final LedgerVersionTracker ledgerVersions;
 
-    public ReportController(ReportService reportService, UserService userService) {
+    public ReportController(ReportService reportService, ReportJobService reportJobService, UserService userService,
+                            LedgerVersionTracker ledgerVersions) {
         this.reportService = reportService;
+        this.reportJobService = reportJobService;
         this.userService = userService;
+        this.ledgerVersions = ledgerVersions;
     }
 
     /**
@@ -37,9 +54,8 @@ public class ReportController {
             throw new IllegalStateException("User not authenticated.");
         }
         String username = authentication.getName();
-        return userService.findByUsername(username)
-                .orElseThrow(() -> new IllegalStateException("Authenticated user not found in database: " + username))
-                .getId();
+        return userService.findIdByUsername(username)
+                .orElseThrow(() -> new IllegalStateException("Authenticated user not found in database: " + username));
     }
 
     /**
@@ -48,9 +64,13 @@ public class ReportController {
     @GetMapping("/summary")
     public ResponseEntity<IncomeExpenseSummary> getIncomeExpenseSummary(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            WebRequest webRequest) {
         try {
             Long userId = getAuthenticatedUserId();
+            if (ConditionalRequests.checkNotModified(webRequest, ledgerVersions.currentETag(userId))) {
+                return null;
+            }
             IncomeExpenseSummary summary = reportService.getIncomeExpenseSummary(userId, startDate, endDate);
             return new ResponseEntity<>(summary, HttpStatus.OK);
         } catch (Exception e) {
@@ -66,9 +86,13 @@ public class ReportController {
     @GetMapping("/spending-by-category")
     public ResponseEntity<List<CategorySpendingReport>> getSpendingAnalysisByCategory(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            WebRequest webRequest) {
         try {
             Long userId = getAuthenticatedUserId();
+            if (ConditionalRequests.checkNotModified(webRequest, ledgerVersions.currentETag(userId))) {
+                return null;
+            }
             List<CategorySpendingReport> report = reportService.getSpendingAnalysisByCategory(userId, startDate, endDate);
             return new ResponseEntity<>(report, HttpStatus.OK);
         } catch (Exception e) {
@@ -82,9 +106,10 @@ public class ReportController {
      * Generates a monthly report for a specific year and month.
      */
     @GetMapping("/monthly/{year}/{month}")
-    public ResponseEntity<Map<String, Object>> getMonthlyReport(
+    public ResponseEntity<MonthlyReport> getMonthlyReport(
             @PathVariable int year,
-            @PathVariable int month) {
+            @PathVariable int month,
+            WebRequest webRequest) {
         try {
             // Validate month
             if (month < 1 || month > 12) {
@@ -92,17 +117,12 @@ public class ReportController {
             }
 
             Long userId = getAuthenticatedUserId();
+            if (ConditionalRequests.checkNotModified(webRequest, ledgerVersions.currentETag(userId))) {
+                return null;
+            }
             IncomeExpenseSummary summary = reportService.getMonthlyReport(userId, year, month);
 
-            // Convert to the format tests expect
-            Map<String, Object> response = new HashMap<>();
-            response.put("month", month);
-            response.put("year", year);
-            response.put("totalIncome", summary.getTotalIncome());
-            response.put("totalExpenses", summary.getTotalExpenses());
-            response.put("netSavings", summary.getNetSavings());
-
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(MonthlyReport.of(year, month, summary));
 
         } catch (Exception e) {
             System.err.println("Error in getMonthlyReport: " + e.getMessage());
@@ -112,19 +132,15 @@ public class ReportController {
     }
 
     @GetMapping("/yearly/{year}")
-    public ResponseEntity<Map<String, Object>> getYearlyReport(@PathVariable int year) {
+    public ResponseEntity<YearlyReport> getYearlyReport(@PathVariable int year, WebRequest webRequest) {
         try {
             Long userId = getAuthenticatedUserId();
+            if (ConditionalRequests.checkNotModified(webRequest, ledgerVersions.currentETag(userId))) {
+                return null;
+            }
             IncomeExpenseSummary summary = reportService.getYearlyReport(userId, year);
 
-            // Convert to the format tests expect
-            Map<String, Object> response = new HashMap<>();
-            response.put("year", year);
-            response.put("totalIncome", summary.getTotalIncome());
-            response.put("totalExpenses", summary.getTotalExpenses());
-            response.put("netSavings", summary.getNetSavings());
-
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(YearlyReport.of(year, summary));
 
         } catch (Exception e) {
             System.err.println("Error in getYearlyReport: " + e.getMessage());
@@ -132,4 +148,88 @@ public class ReportController {
             throw e;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Generates an income/expense time series (per period and per category) for a date range.
+     * Granularity is day, week or month; all lists in the response are aligned with "periods".
+     */
+    @GetMapping("/trend")
+    public ResponseEntity<TrendReport> getTrendReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "month") String granularity,
+            WebRequest webRequest) {
+        Long userId = getAuthenticatedUserId();
+        if (ConditionalRequests.checkNotModified(webRequest, ledgerVersions.currentETag(userId))) {
+            return null;
+        }
+        TrendReport report = reportService.getTrendReport(userId, from, to, TrendGranularity.fromParam(granularity));
+        return ResponseEntity.ok(report);
+    }
+
+    /**
+     * Queues an income vs. expense summary for a date range and returns immediately with a job ID.
+     * Intended for multi-year ranges; an identical job that is still running is reused.
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<ReportJobResponse> submitReportJob(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        Long userId = getAuthenticatedUserId();
+        ReportJob job = reportJobService.submit(userId, startDate, endDate);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(toJobResponse(job));
+    }
+
+    /**
+     * Queues a yearly report as a background job.
+     */
+    @PostMapping("/jobs/yearly/{year}")
+    public ResponseEntity<ReportJobResponse> submitYearlyReportJob(@PathVariable int year) {
+        Long userId = getAuthenticatedUserId();
+        ReportJob job = reportJobService.submit(userId, LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31));
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(toJobResponse(job));
+    }
+
+    /**
+     * Returns the state of a report job. With waitSeconds > 0 the request is held (without blocking a
+     * servlet thread) until the job finishes or the wait elapses. Finished jobs answer 200, others 202.
+     */
+    @GetMapping("/jobs/{jobId}")
+    public DeferredResult<ResponseEntity<ReportJobResponse>> getReportJob(
+            @PathVariable String jobId,
+            @RequestParam(defaultValue = "0") long waitSeconds) {
+        Long userId = getAuthenticatedUserId();
+        ReportJob job = reportJobService.getJob(jobId, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Report job not found with ID: " + jobId));
+
+        long waitMillis = TimeUnit.SECONDS.toMillis(Math.max(0, Math.min(waitSeconds, MAX_WAIT_SECONDS)));
+        if (job.isFinished() || waitMillis == 0) {
+            DeferredResult<ResponseEntity<ReportJobResponse>> immediate = new DeferredResult<>();
+            immediate.setResult(toJobStatusEntity(job));
+            return immediate;
+        }
+
+        DeferredResult<ResponseEntity<ReportJobResponse>> deferred = new DeferredResult<>(waitMillis);
+        deferred.onTimeout(() -> deferred.setResult(toJobStatusEntity(job)));
+        job.getResult().whenComplete((summary, error) -> deferred.setResult(toJobStatusEntity(job)));
+        return deferred;
+    }
+
+    private ResponseEntity<ReportJobResponse> toJobStatusEntity(ReportJob job) {
+        HttpStatus status = job.isFinished() ? HttpStatus.OK : HttpStatus.ACCEPTED;
+        return ResponseEntity.status(status).body(toJobResponse(job));
+    }
+
+    private ReportJobResponse toJobResponse(ReportJob job) {
+        return new ReportJobResponse(
+                job.getId(),
+                job.getStatus(),
+                job.getStartDate(),
+                job.getEndDate(),
+                job.getSubmittedAt(),
+                job.getCompletedAt(),
+                job.getError(),
+                job.getSummary()
+        );
+    }
+}
@@ -0,0 +1,66 @@
+package com.finance.report;
+
+import com.finance.report.dto.IncomeExpenseSummary;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * An income/expense summary computed in the background for one user and date range.
+ * The future completes with the summary, or exceptionally with the failure cause.
+ */
+@Getter
+public class ReportJob {
+
+    private final String id;
+    private final Long userId;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final Instant submittedAt;
+    private final CompletableFuture<IncomeExpenseSummary> result = new CompletableFuture<>();
+
+    private volatile ReportJobStatus status = ReportJobStatus.PENDING;
+    private volatile Instant completedAt;
+    private volatile String error;
+
+    public ReportJob(String id, Long userId, LocalDate startDate, LocalDate endDate) {
+        this.id = id;
+        this.userId = userId;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.submittedAt = Instant.now();
+    }
+
+    void markRunning() {
+        status = ReportJobStatus.RUNNING;
+    }
+
+    void complete(IncomeExpenseSummary summary) {
+        completedAt = Instant.now();
+        status = ReportJobStatus.COMPLETED;
+        result.complete(summary);
+    }
+
+    /**
+     * Marks the job failed. The cause stays server-side: callers only see a generic message naming the job.
+     */
+    void fail(Throwable cause) {
+        completedAt = Instant.now();
+        error = "The report could not be generated (job " + id + ").";
+        status = ReportJobStatus.FAILED;
+        result.completeExceptionally(cause);
+    }
+
+    public boolean isFinished() {
+        return result.isDone();
+    }
+
+    /**
+     * @return The summary if the job completed successfully, otherwise null.
+     */
+    public IncomeExpenseSummary getSummary() {
+        return status == ReportJobStatus.COMPLETED ? result.getNow(null) : null;
+    }
+}
@@ -0,0 +1,131 @@
+package com.finance.report;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs income/expense summaries for large date ranges off the request thread.
+ *
+ * Jobs run on a bounded pool; once its queue is full new submissions are rejected rather than piling up.
+ * A submission for the same user and range as a job that is still pending or running joins that job
+ * instead of starting another. Finished jobs stay pollable for the configured TTL.
+ */
+@Service
+public class ReportJobService {
+
+    private final ReportService reportService;
+    private final ThreadPoolExecutor executor;
+    private final Duration resultTtl;
+
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, ReportJob> inFlight = new ConcurrentHashMap<>();
+
+    public ReportJobService(ReportService reportService,
+                            @Value("${finance.reports.jobs.threads:2}") int threads,
+                            @Value("${finance.reports.jobs.queue-capacity:100}") int queueCapacity,
+                            @Value("${finance.reports.jobs.result-ttl:10m}") Duration resultTtl) {
+        this.reportService = reportService;
+        this.resultTtl = resultTtl;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "report-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Queues an income/expense summary for a user and date range.
+     * Returns the existing job if an identical one is still pending or running.
+     * @param userId The ID of the user.
+     * @param startDate The start date (inclusive).
+     * @param endDate The end date (inclusive).
+     * @return The job computing the summary.
+     * @throws IllegalArgumentException if the range is invalid.
+     * @throws RejectedExecutionException if the job queue is full.
+     */
+    public ReportJob submit(Long userId, LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("Start date and end date are required.");
+        }
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date cannot be after end date.");
+        }
+
+        String key = userId + ":" + startDate + ":" + endDate;
+        ReportJob[] created = new ReportJob[1];
+        ReportJob job = inFlight.computeIfAbsent(key, k -> {
+            created[0] = new ReportJob(UUID.randomUUID().toString(), userId, startDate, endDate);
+            return created[0];
+        });
+        if (created[0] == null) {
+            return job;
+        }
+
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, key));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            inFlight.remove(key, job);
+            throw new RejectedExecutionException("Report queue is full. Please retry later.", e);
+        }
+        return job;
+    }
+
+    /**
+     * Finds a job by ID, ensuring it belongs to the specified user.
+     * @param jobId The job ID.
+     * @param userId The ID of the user.
+     * @return An Optional containing the job if it exists, is owned by the user and has not expired.
+     */
+    public Optional<ReportJob> getJob(String jobId, Long userId) {
+        return Optional.ofNullable(jobs.get(jobId))
+                .filter(job -> job.getUserId().equals(userId));
+    }
+
+    private void run(ReportJob job, String key) {
+        job.markRunning();
+        try {
+            job.complete(reportService.computeIncomeExpenseSummary(job.getUserId(), job.getStartDate(), job.getEndDate()));
+        } catch (Exception e) {
+            System.err.println("Report job " + job.getId() + " for user " + job.getUserId() + " failed: " + e);
+            job.fail(e);
+        } finally {
+            inFlight.remove(key, job);
+        }
+    }
+
+    /**
+     * Drops finished jobs whose results are older than the TTL.
+     */
+    @Scheduled(fixedDelayString = "${finance.reports.jobs.cleanup-interval:60000}")
+    public void evictExpiredJobs() {
+        Instant cutoff = Instant.now().minus(resultTtl);
+        jobs.values().removeIf(job -> job.isFinished() && job.getCompletedAt().isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,8 @@
+package com.finance.report;
+
+public enum ReportJobStatus {
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
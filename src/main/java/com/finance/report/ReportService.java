@@ -3,30 +3,44 @@ package com.finance.report;
 import com.finance.category.Category;
 import com.finance.category.CategoryType;
 import com.finance.exception.ResourceNotFoundException;
+import com.finance.ledger.LedgerVersionTracker;
 import com.finance.report.dto.CategorySpendingReport;
 import com.finance.report.dto.IncomeExpenseSummary;
+import com.finance.report.dto.TrendReport;
 import com.finance.transaction.Transaction;
 import com.finance.transaction.TransactionRepository;
 import com.finance.user.User;
 import com.finance.user.UserService;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
 public class ReportService {
 
+    // Keeps a daily trend over decades from producing an unbounded response
+    private static final int MAX_TREND_PERIODS = 3660;
+
     private final TransactionRepository transactionRepository;
     private final UserService userService;
+    private final ReportCache reportCache;
+    private final LedgerVersionTracker ledgerVersions;
 
-    public ReportService(TransactionRepository transactionRepository, UserService userService) {
+    public ReportService(TransactionRepository transactionRepository, UserService userService,
+                         ReportCache reportCache, LedgerVersionTracker ledgerVersions) {
         this.transactionRepository = transactionRepository;
         this.userService = userService;
+        this.reportCache = reportCache;
+        this.ledgerVersions = ledgerVersions;
     }
 
     /**
@@ -34,76 +48,95 @@ public class ReportService {
      */
     public IncomeExpenseSummary getIncomeExpenseSummary(Long userId, LocalDate startDate, LocalDate endDate) {
         try {
-            System.out.println("=== GENERATING INCOME EXPENSE SUMMARY ===");
-            System.out.println("User ID: " + userId);
-            System.out.println("Start Date: " + startDate);
-            System.out.println("End Date: " + endDate);
+            return computeIncomeExpenseSummary(userId, startDate, endDate);
+        } catch (Exception e) {
+            System.err.println("Error in getIncomeExpenseSummary: " + e.getMessage());
+            e.printStackTrace();
+            // Return empty summary instead of throwing
+            return new IncomeExpenseSummary(new HashMap<>(), new HashMap<>(), BigDecimal.ZERO);
+        }
+    }
 
-            User user = userService.findById(userId)
-                    .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+    /**
+     * Same as getIncomeExpenseSummary but lets failures propagate.
+     * Used by asynchronous report jobs so a failed computation is reported instead of looking like an empty period.
+     * Runs in its own read-only transaction so it can load categories lazily off the request thread.
+     * @throws ResourceNotFoundException if the user is not found.
+     */
+    @Transactional(readOnly = true)
+    public IncomeExpenseSummary computeIncomeExpenseSummary(Long userId, LocalDate startDate, LocalDate endDate) {
+        System.out.println("=== GENERATING INCOME EXPENSE SUMMARY ===");
+        System.out.println("User ID: " + userId);
+        System.out.println("Start Date: " + startDate);
+        System.out.println("End Date: " + endDate);
 
-            // Get all transactions for the period
-            List<Transaction> transactions = transactionRepository.findFilteredTransactions(
-                    user, startDate, endDate, null, null);
+        User user = userService.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
 
-            System.out.println("Found " + transactions.size() + " transactions");
+        // Get all transactions for the period
+        List<Transaction> transactions = transactionRepository.findFilteredTransactions(
+                user, startDate, endDate, null, null);
 
-            // Group income by category
-            Map<String, BigDecimal> totalIncome = transactions.stream()
-                    .filter(t -> t.getCategory().getType() == CategoryType.INCOME)
-                    .collect(Collectors.groupingBy(
-                            t -> t.getCategory().getName(),
-                            HashMap::new,
-                            Collectors.mapping(Transaction::getAmount,
-                                    Collectors.reducing(BigDecimal.ZERO, BigDecimal::add))
-                    ));
+        System.out.println("Found " + transactions.size() + " transactions");
 
-            // Group expenses by category
-            Map<String, BigDecimal> totalExpenses = transactions.stream()
-                    .filter(t -> t.getCategory().getType() == CategoryType.EXPENSE)
-                    .collect(Collectors.groupingBy(
-                            t -> t.getCategory().getName(),
-                            HashMap::new,
-                            Collectors.mapping(Transaction::getAmount,
-                                    Collectors.reducing(BigDecimal.ZERO, BigDecimal::add))
-                    ));
+        // Group income by category
+        Map<String, BigDecimal> totalIncome = transactions.stream()
+                .filter(t -> t.getCategory().getType() == CategoryType.INCOME)
+                .collect(Collectors.groupingBy(
+                        t -> t.getCategory().getName(),
+                        HashMap::new,
+                        Collectors.mapping(Transaction::getAmount,
+                                Collectors.reducing(BigDecimal.ZERO, BigDecimal::add))
+                ));
 
-            // Calculate net savings
-            BigDecimal totalIncomeSum = totalIncome.values().stream()
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            BigDecimal totalExpenseSum = totalExpenses.values().stream()
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            BigDecimal netSavings = totalIncomeSum.subtract(totalExpenseSum);
+        // Group expenses by category
+        Map<String, BigDecimal> totalExpenses = transactions.stream()
+                .filter(t -> t.getCategory().getType() == CategoryType.EXPENSE)
+                .collect(Collectors.groupingBy(
+                        t -> t.getCategory().getName(),
+                        HashMap::new,
+                        Collectors.mapping(Transaction::getAmount,
+                                Collectors.reducing(BigDecimal.ZERO, BigDecimal::add))
+                ));
 
-            System.out.println("Total Income: " + totalIncomeSum);
-            System.out.println("Total Expenses: " + totalExpenseSum);
-            System.out.println("Net Savings: " + netSavings);
-            System.out.println("Income Categories: " + totalIncome);
-            System.out.println("Expense Categories: " + totalExpenses);
-            System.out.println("=========================================");
+        // Calculate net savings
+        BigDecimal totalIncomeSum = totalIncome.values().stream()
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal totalExpenseSum = totalExpenses.values().stream()
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal netSavings = totalIncomeSum.subtract(totalExpenseSum);
 
-            return new IncomeExpenseSummary(totalIncome, totalExpenses, netSavings);
+        System.out.println("Total Income: " + totalIncomeSum);
+        System.out.println("Total Expenses: " + totalExpenseSum);
+        System.out.println("Net Savings: " + netSavings);
+        System.out.println("Income Categories: " + totalIncome);
+        System.out.println("Expense Categories: " + totalExpenses);
+        System.out.println("=========================================");
 
-        } catch (Exception e) {
-            System.err.println("Error in getIncomeExpenseSummary: " + e.getMessage());
-            e.printStackTrace();
-            // Return empty summary instead of throwing
-            return new IncomeExpenseSummary(new HashMap<>(), new HashMap<>(), BigDecimal.ZERO);
-        }
+        return new IncomeExpenseSummary(totalIncome, totalExpenses, netSavings);
     }
 
     /**
      * Generates a monthly report with proper structure.
+     * Served from the report cache while the user's ledger version is unchanged.
      */
     public IncomeExpenseSummary getMonthlyReport(Long userId, int year, int month) {
         try {
             LocalDate startDate = LocalDate.of(year, month, 1);
             LocalDate endDate = startDate.withDayOfMonth(startDate.lengthOfMonth());
 
-            IncomeExpenseSummary summary = getIncomeExpenseSummary(userId, startDate, endDate);
+            ReportCache.Key key = new ReportCache.Key(userId, ReportCache.ReportKind.MONTHLY, startDate, endDate);
+            long version = ledgerVersions.currentVersion(userId);
+            IncomeExpenseSummary cached = reportCache.get(key, version);
+            if (cached != null) {
+                return cached;
+            }
+
+            IncomeExpenseSummary summary = computeIncomeExpenseSummary(userId, startDate, endDate);
             summary.setMonth(month);
             summary.setYear(year);
 
+            reportCache.put(key, version, summary);
             return summary;
         } catch (Exception e) {
             System.err.println("Error in getMonthlyReport: " + e.getMessage());
@@ -118,15 +151,24 @@ public class ReportService {
 
     /**
      * Generates a yearly report with proper structure.
+     * Served from the report cache while the user's ledger version is unchanged.
      */
     public IncomeExpenseSummary getYearlyReport(Long userId, int year) {
         try {
             LocalDate startDate = LocalDate.of(year, 1, 1);
             LocalDate endDate = LocalDate.of(year, 12, 31);
 
-            IncomeExpenseSummary summary = getIncomeExpenseSummary(userId, startDate, endDate);
+            ReportCache.Key key = new ReportCache.Key(userId, ReportCache.ReportKind.YEARLY, startDate, endDate);
+            long version = ledgerVersions.currentVersion(userId);
+            IncomeExpenseSummary cached = reportCache.get(key, version);
+            if (cached != null) {
+                return cached;
+            }
+
+            IncomeExpenseSummary summary = computeIncomeExpenseSummary(userId, startDate, endDate);
             summary.setYear(year);
 
+            reportCache.put(key, version, summary);
             return summary;
         } catch (Exception e) {
             System.err.println("Error in getYearlyReport: " + e.getMessage());
@@ -138,6 +180,83 @@ public class ReportService {
         }
     }
 
+    /**
+     * Builds an income/expense time series for a date range in a single grouped query.
+     * Daily per-category totals come back ordered by date and are folded into periods in one pass.
+     * @param userId The ID of the user.
+     * @param from The start date (inclusive).
+     * @param to The end date (inclusive).
+     * @param granularity The period size.
+     * @return The columnar trend report.
+     * @throws IllegalArgumentException if the range is invalid or has too many periods.
+     * @throws ResourceNotFoundException if the user is not found.
+     */
+    @Transactional(readOnly = true)
+    public TrendReport getTrendReport(Long userId, LocalDate from, LocalDate to, TrendGranularity granularity) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date cannot be after end date.");
+        }
+
+        List<LocalDate> periods = new ArrayList<>();
+        for (LocalDate period = granularity.periodStart(from); !period.isAfter(to); period = granularity.nextPeriod(period)) {
+            if (periods.size() == MAX_TREND_PERIODS) {
+                throw new IllegalArgumentException("Trend range is too large; use a coarser granularity (max " + MAX_TREND_PERIODS + " periods).");
+            }
+            periods.add(period);
+        }
+
+        User user = userService.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+        List<Object[]> rows = transactionRepository.findDailyCategoryTotalsByUserAndDateRange(user, from, to);
+
+        int size = periods.size();
+        BigDecimal[] income = zeros(size);
+        BigDecimal[] expenses = zeros(size);
+        Map<String, BigDecimal[]> categoryValues = new TreeMap<>();
+        Map<String, CategoryType> categoryTypes = new HashMap<>();
+
+        int index = 0;
+        for (Object[] row : rows) {
+            LocalDate date = (LocalDate) row[0];
+            String category = (String) row[1];
+            CategoryType type = (CategoryType) row[2];
+            BigDecimal total = (BigDecimal) row[3];
+
+            // Rows arrive in date order, so the period index only ever moves forward
+            while (index + 1 < size && !periods.get(index + 1).isAfter(date)) {
+                index++;
+            }
+
+            BigDecimal[] totals = type == CategoryType.INCOME ? income : expenses;
+            totals[index] = totals[index].add(total);
+
+            String seriesKey = type + ":" + category;
+            categoryTypes.put(seriesKey, type);
+            BigDecimal[] values = categoryValues.computeIfAbsent(seriesKey, k -> zeros(size));
+            values[index] = values[index].add(total);
+        }
+
+        List<BigDecimal> net = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            net.add(income[i].subtract(expenses[i]));
+        }
+
+        List<TrendReport.Series> series = new ArrayList<>(categoryValues.size());
+        categoryValues.forEach((seriesKey, values) -> series.add(new TrendReport.Series(
+                seriesKey.substring(seriesKey.indexOf(':') + 1),
+                categoryTypes.get(seriesKey),
+                Arrays.asList(values)
+        )));
+
+        return new TrendReport(granularity, from, to, periods, Arrays.asList(income), Arrays.asList(expenses), net, series);
+    }
+
+    private static BigDecimal[] zeros(int size) {
+        BigDecimal[] values = new BigDecimal[size];
+        Arrays.fill(values, BigDecimal.ZERO);
+        return values;
+    }
+
     /**
      * Generates a spending analysis report by category for a given date range.
      */
@@ -0,0 +1,49 @@
+package com.finance.report;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Bucket size for trend reports. Weeks start on Monday.
+ */
+public enum TrendGranularity {
+    DAY,
+    WEEK,
+    MONTH;
+
+    /**
+     * Parses the request parameter form (day, week or month, any case).
+     * @throws IllegalArgumentException if the value is not a known granularity.
+     */
+    public static TrendGranularity fromParam(String value) {
+        for (TrendGranularity granularity : values()) {
+            if (granularity.name().equalsIgnoreCase(value.trim())) {
+                return granularity;
+            }
+        }
+        throw new IllegalArgumentException("Granularity must be one of: day, week, month");
+    }
+
+    /**
+     * Returns the first day of the period containing the date.
+     */
+    public LocalDate periodStart(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    /**
+     * Returns the first day of the period after the one starting at periodStart.
+     */
+    public LocalDate nextPeriod(LocalDate periodStart) {
+        return switch (this) {
+            case DAY -> periodStart.plusDays(1);
+            case WEEK -> periodStart.plusWeeks(1);
+            case MONTH -> periodStart.plusMonths(1);
+        };
+    }
+}
@@ -4,6 +4,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @Data
@@ -41,4 +42,13 @@ public class IncomeExpenseSummary {
         this.totalExpenses = totalExpenses;
         this.netSavings = netSavings;
     }
-}
\ No newline at end of file
+
+    // Copy constructor, with copies of both category maps
+    public IncomeExpenseSummary(IncomeExpenseSummary other) {
+        this.month = other.month;
+        this.year = other.year;
+        this.totalIncome = other.totalIncome != null ? new LinkedHashMap<>(other.totalIncome) : null;
+        this.totalExpenses = other.totalExpenses != null ? new LinkedHashMap<>(other.totalExpenses) : null;
+        this.netSavings = other.netSavings;
+    }
+}
@@ -0,0 +1,18 @@
+package com.finance.report.dto;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Body of GET /api/reports/monthly/{year}/{month}.
+ */
+public record MonthlyReport(int month,
+                            int year,
+                            Map<String, BigDecimal> totalIncome,    // Category name -> amount
+                            Map<String, BigDecimal> totalExpenses,  // Category name -> amount
+                            BigDecimal netSavings) {
+
+    public static MonthlyReport of(int year, int month, IncomeExpenseSummary summary) {
+        return new MonthlyReport(month, year, summary.getTotalIncome(), summary.getTotalExpenses(), summary.getNetSavings());
+    }
+}
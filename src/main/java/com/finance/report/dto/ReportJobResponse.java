@@ -0,0 +1,23 @@
+package com.finance.report.dto;
+
+import com.finance.report.ReportJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobResponse {
+    private String jobId;
+    private ReportJobStatus status;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Instant submittedAt;
+    private Instant completedAt;
+    private String error;                  // Set only when status is FAILED
+    private IncomeExpenseSummary result;   // Set only when status is COMPLETED
+}
@@ -0,0 +1,37 @@
+package com.finance.report.dto;
+
+import com.finance.category.CategoryType;
+import com.finance.report.TrendGranularity;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Columnar time series: every values list is aligned with periods by index.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrendReport {
+    private TrendGranularity granularity;
+    private LocalDate from;
+    private LocalDate to;
+    private List<LocalDate> periods;        // First day of each period
+    private List<BigDecimal> income;        // Total income per period
+    private List<BigDecimal> expenses;      // Total expenses per period
+    private List<BigDecimal> net;           // Income - expenses per period
+    private List<Series> series;            // One row per category
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Series {
+        private String category;
+        private CategoryType type;
+        private List<BigDecimal> values;
+    }
+}
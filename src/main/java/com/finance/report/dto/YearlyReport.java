@@ -0,0 +1,17 @@
+package com.finance.report.dto;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Body of GET /api/reports/yearly/{year}.
+ */
+public record YearlyReport(int year,
+                           Map<String, BigDecimal> totalIncome,    // Category name -> amount
+                           Map<String, BigDecimal> totalExpenses,  // Category name -> amount
+                           BigDecimal netSavings) {
+
+    public static YearlyReport of(int year, IncomeExpenseSummary summary) {
+        return new YearlyReport(year, summary.getTotalIncome(), summary.getTotalExpenses(), summary.getNetSavings());
+    }
+}
@@ -0,0 +1,42 @@
+package com.finance.stream;
+
+import com.finance.user.UserService;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/stream")
+public class LiveUpdateController {
+
+    private final LiveUpdateHub hub;
+    private final UserService userService;
+
+    public LiveUpdateController(LiveUpdateHub hub, UserService userService) {
+        this.hub = hub;
+        this.userService = userService;
+    }
+
+    private Long getAuthenticatedUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || "anonymousUser".equals(authentication.getPrincipal())) {
+            throw new IllegalStateException("User not authenticated.");
+        }
+        String username = authentication.getName();
+        return userService.findIdByUsername(username)
+                .orElseThrow(() -> new IllegalStateException("Authenticated user not found in database: " + username));
+    }
+
+    /**
+     * Opens a Server-Sent Events stream of the user's updates: "transaction", "totals" and "goal" events,
+     * each carrying a small JSON delta.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return hub.subscribe(getAuthenticatedUserId());
+    }
+}
@@ -0,0 +1,214 @@
+package com.finance.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Open Server-Sent Event connections, grouped by user, and the fan-out of updates to them.
+ *
+ * Idle connections hold no thread: they are parked async requests. Publishing never writes to a socket on the
+ * caller's thread. The payload is serialized once and queued on one of a few single-threaded senders, picked
+ * by user ID, so each user's events stay in order and a slow client only delays users on the same sender.
+ * When a sender's queue is full the affected user's connections are closed, and clients reconnect and reload
+ * rather than miss updates silently.
+ */
+@Component
+public class LiveUpdateHub {
+
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final ThreadPoolExecutor[] senders;
+
+    private final Map<Long, Set<SseEmitter>> emitters = new ConcurrentHashMap<>();
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong overflows = new AtomicLong();
+
+    public LiveUpdateHub(ObjectMapper objectMapper,
+                         @Value("${finance.stream.timeout:30m}") Duration timeout,
+                         @Value("${finance.stream.send-threads:4}") int sendThreads,
+                         @Value("${finance.stream.queue-capacity:10000}") int queueCapacity) {
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+        this.senders = new ThreadPoolExecutor[sendThreads];
+        for (int i = 0; i < sendThreads; i++) {
+            String name = "live-update-" + (i + 1);
+            senders[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, name);
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+        }
+    }
+
+    /**
+     * Connection and delivery statistics since startup.
+     */
+    public record Stats(int users, int connections, long sent, long overflows) {
+    }
+
+    /**
+     * Opens a stream for a user. It stays registered until the client disconnects, it times out or a send fails.
+     * @param userId The ID of the user.
+     * @return The emitter to return from the controller.
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        emitters.compute(userId, (id, set) -> {
+            Set<SseEmitter> target = set != null ? set : ConcurrentHashMap.newKeySet();
+            target.add(emitter);
+            return target;
+        });
+        emitter.onCompletion(() -> unsubscribe(userId, emitter));
+        emitter.onTimeout(() -> unsubscribe(userId, emitter));
+        emitter.onError(e -> unsubscribe(userId, emitter));
+        try {
+            // Flushes the response headers so clients and proxies see the stream open straight away
+            emitter.send(SseEmitter.event().comment("connected"));
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        return emitter;
+    }
+
+    /**
+     * @param userId The ID of the user.
+     * @return true if the user has at least one open stream, so building an update for them is worthwhile.
+     */
+    public boolean hasSubscribers(Long userId) {
+        return emitters.containsKey(userId);
+    }
+
+    /**
+     * Queues an event for all of a user's streams.
+     * @param userId The ID of the user.
+     * @param name The event name.
+     * @param id The event ID, or null.
+     * @param data The payload, serialized as JSON.
+     */
+    public void publish(Long userId, String name, String id, Object data) {
+        if (!hasSubscribers(userId)) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            System.err.println("Could not serialize live update " + name + ": " + e.getMessage());
+            return;
+        }
+        enqueue(userId, () -> {
+            SseEmitter.SseEventBuilder event = SseEmitter.event().name(name).data(json);
+            if (id != null) {
+                event.id(id);
+            }
+            return event;
+        });
+    }
+
+    /**
+     * Publishes once the current database transaction commits, or right away if there is none.
+     * Nothing is sent for a write that rolls back.
+     */
+    public void publishAfterCommit(Long userId, String name, Object data) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(userId, name, null, data);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(userId, name, null, data);
+            }
+        });
+    }
+
+    /**
+     * Sends a comment to every stream so intermediaries keep idle connections open and dead ones are noticed.
+     */
+    @Scheduled(fixedDelayString = "${finance.stream.heartbeat-interval:30000}")
+    public void heartbeat() {
+        for (Long userId : emitters.keySet()) {
+            enqueue(userId, () -> SseEmitter.event().comment("heartbeat"));
+        }
+    }
+
+    private void enqueue(Long userId, Supplier<SseEmitter.SseEventBuilder> factory) {
+        try {
+            senders[Math.floorMod(Long.hashCode(userId), senders.length)].execute(() -> send(userId, factory));
+        } catch (RejectedExecutionException e) {
+            overflows.incrementAndGet();
+            Set<SseEmitter> targets = emitters.get(userId);
+            if (targets != null) {
+                targets.forEach(SseEmitter::complete);
+            }
+        }
+    }
+
+    private void send(Long userId, Supplier<SseEmitter.SseEventBuilder> factory) {
+        Set<SseEmitter> targets = emitters.get(userId);
+        if (targets == null) {
+            return;
+        }
+        for (SseEmitter emitter : targets) {
+            try {
+                emitter.send(factory.get());
+                sent.incrementAndGet();
+            } catch (IOException | IllegalStateException e) {
+                // Client went away; the error callback may not fire until the container notices
+                unsubscribe(userId, emitter);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private void unsubscribe(Long userId, SseEmitter emitter) {
+        emitters.computeIfPresent(userId, (id, set) -> {
+            set.remove(emitter);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    public Stats stats() {
+        int connections = 0;
+        for (Set<SseEmitter> set : emitters.values()) {
+            connections += set.size();
+        }
+        return new Stats(emitters.size(), connections, sent.get(), overflows.get());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        List<SseEmitter> open = new ArrayList<>();
+        emitters.values().forEach(open::addAll);
+        emitters.clear();
+        open.forEach(SseEmitter::complete);
+        for (ThreadPoolExecutor sender : senders) {
+            sender.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.finance.stream;
+
+import com.finance.category.CategoryType;
+import com.finance.goal.GoalService;
+import com.finance.outbox.TransactionEvent;
+import com.finance.outbox.TransactionEventListener;
+import com.finance.stream.dto.TotalsDelta;
+import com.finance.stream.dto.TransactionDelta;
+import com.finance.transaction.TransactionLedgerIndex;
+import com.finance.user.User;
+import com.finance.user.UserService;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Turns committed transaction events into live updates for connected users.
+ *
+ * Each event is pushed as a transaction delta, or for a bulk change as what the change did, so clients reload the
+ * transactions they show. Once per batch and user, the month-to-date totals are pushed and goals are re-read,
+ * which makes GoalService push any goal whose progress moved. Users without an open stream are skipped before
+ * any work is done.
+ */
+@Component
+public class LiveUpdateListener implements TransactionEventListener {
+
+    private final LiveUpdateHub hub;
+    private final UserService userService;
+    private final TransactionLedgerIndex ledgerIndex;
+    private final GoalService goalService;
+
+    public LiveUpdateListener(LiveUpdateHub hub, UserService userService, TransactionLedgerIndex ledgerIndex,
+                              GoalService goalService) {
+        this.hub = hub;
+        this.userService = userService;
+        this.ledgerIndex = ledgerIndex;
+        this.goalService = goalService;
+    }
+
+    @Override
+    public void onTransactionEvents(List<TransactionEvent> events) {
+        Set<Long> touched = new LinkedHashSet<>();
+        for (TransactionEvent event : events) {
+            if (!hub.hasSubscribers(event.userId())) {
+                continue;
+            }
+            if (event.type() == TransactionEvent.Type.BULK_CHANGED) {
+                hub.publish(event.userId(), "bulk", String.valueOf(event.id()), event.bulk());
+            } else {
+                hub.publish(event.userId(), "transaction", String.valueOf(event.id()), TransactionDelta.of(event));
+            }
+            touched.add(event.userId());
+        }
+        for (Long userId : touched) {
+            userService.findById(userId).ifPresent(user -> hub.publish(userId, "totals", null, monthToDate(user)));
+            goalService.getAllGoalsForUser(userId);
+        }
+    }
+
+    private TotalsDelta monthToDate(User user) {
+        LocalDate today = LocalDate.now();
+        LocalDate start = today.withDayOfMonth(1);
+        BigDecimal income = ledgerIndex.sum(user, start, today, CategoryType.INCOME);
+        BigDecimal expenses = ledgerIndex.sum(user, start, today, CategoryType.EXPENSE);
+        return new TotalsDelta(today.getYear(), today.getMonthValue(), income, expenses, income.subtract(expenses));
+    }
+}
@@ -0,0 +1,21 @@
+package com.finance.stream.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.finance.goal.Goal;
+
+import java.math.BigDecimal;
+
+/**
+ * A created, updated or deleted goal, or a change in its progress, as pushed to live clients.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record GoalDelta(String change, Long id, String goalName, BigDecimal targetAmount, BigDecimal currentProgress) {
+
+    public static GoalDelta of(String change, Goal goal) {
+        return new GoalDelta(change, goal.getId(), goal.getGoalName(), goal.getTargetAmount(), goal.getCurrentProgress());
+    }
+
+    public static GoalDelta deleted(Long goalId) {
+        return new GoalDelta("DELETED", goalId, null, null, null);
+    }
+}
@@ -0,0 +1,9 @@
+package com.finance.stream.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Month-to-date totals pushed after the user's transactions change.
+ */
+public record TotalsDelta(int year, int month, BigDecimal totalIncome, BigDecimal totalExpenses, BigDecimal netSavings) {
+}
@@ -0,0 +1,26 @@
+package com.finance.stream.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.finance.category.CategoryType;
+import com.finance.outbox.TransactionEvent;
+import com.finance.transaction.TransactionSnapshot;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A created, updated or deleted transaction as pushed to live clients. Deletions carry only the ID.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TransactionDelta(String change, Long id, BigDecimal amount, LocalDate date, String category,
+                               CategoryType type, String description) {
+
+    public static TransactionDelta of(TransactionEvent event) {
+        TransactionSnapshot after = event.after();
+        if (after == null) {
+            return new TransactionDelta(event.type().name(), event.transactionId(), null, null, null, null, null);
+        }
+        return new TransactionDelta(event.type().name(), after.id(), after.amount(), after.date(), after.categoryName(),
+                after.categoryType(), after.description());
+    }
+}
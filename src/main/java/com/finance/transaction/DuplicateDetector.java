@@ -0,0 +1,234 @@
+package com.finance.transaction;
+
+import com.finance.user.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Per-user index of recent transactions for spotting likely duplicates: same category and amount, dated
+ * within a few days of each other, with similar descriptions.
+ *
+ * Transactions are grouped by category and amount, then ordered by date, so a check looks only at the handful
+ * of transactions sharing both and falling inside the date window. Only the last {@code retention-days} of
+ * transactions are kept; the window slides forward as days pass, and older dates are not checked.
+ * Descriptions count as similar when their character trigrams overlap by at least the configured share,
+ * which tolerates case, punctuation and small differences such as a trailing location.
+ */
+@Component
+public class DuplicateDetector extends PerUserIndex<DuplicateDetector.RecentTransactions, TransactionSnapshot> {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final int windowDays;
+    private final int retentionDays;
+    private final double minSimilarity;
+
+    public DuplicateDetector(@Value("${finance.transactions.duplicates.window-days:3}") int windowDays,
+                             @Value("${finance.transactions.duplicates.retention-days:90}") int retentionDays,
+                             @Value("${finance.transactions.duplicates.min-similarity:0.6}") double minSimilarity) {
+        if (windowDays < 0 || retentionDays < windowDays) {
+            throw new IllegalArgumentException("Duplicate window must be non-negative and within the retention period.");
+        }
+        if (minSimilarity <= 0 || minSimilarity > 1) {
+            throw new IllegalArgumentException("Duplicate similarity must be in (0, 1].");
+        }
+        this.windowDays = windowDays;
+        this.retentionDays = retentionDays;
+        this.minSimilarity = minSimilarity;
+    }
+
+    /**
+     * Looks for an existing transaction that the given one likely duplicates.
+     * @param user The owner.
+     * @param date The new transaction's date.
+     * @param categoryId The new transaction's category.
+     * @param amount The new transaction's amount.
+     * @param description The new transaction's description.
+     * @return The ID of the closest-dated similar transaction, if any.
+     */
+    public Optional<Long> findDuplicate(User user, LocalDate date, Long categoryId, BigDecimal amount, String description) {
+        String normalized = normalize(description);
+        return query(user, recent -> {
+            recent.slide(horizon());
+            return Optional.ofNullable(recent.findSimilar(categoryId, amount, date, windowDays, normalized, minSimilarity));
+        });
+    }
+
+    @Override
+    protected RecentTransactions build(User user) {
+        LocalDate horizon = horizon();
+        List<Object[]> rows = entityManager.createQuery(
+                        "SELECT t.id, t.date, t.category.id, t.amount, t.description FROM Transaction t " +
+                                "WHERE t.user = :user AND t.date >= :horizon", Object[].class)
+                .setParameter("user", user)
+                .setParameter("horizon", horizon)
+                .getResultList();
+        RecentTransactions recent = new RecentTransactions(horizon);
+        for (Object[] row : rows) {
+            recent.add((Long) row[0], (LocalDate) row[1], (Long) row[2], (BigDecimal) row[3], normalize((String) row[4]));
+        }
+        return recent;
+    }
+
+    @Override
+    protected boolean apply(RecentTransactions recent, TransactionSnapshot before, TransactionSnapshot after) {
+        recent.slide(horizon());
+        if (before != null) {
+            recent.remove(before.id(), before.date(), before.categoryId(), before.amount());
+        }
+        if (after != null) {
+            recent.add(after.id(), after.date(), after.categoryId(), after.amount(), normalize(after.description()));
+        }
+        return true;
+    }
+
+    private LocalDate horizon() {
+        return LocalDate.now().minusDays(retentionDays);
+    }
+
+    static String normalize(String description) {
+        return String.join(" ", TransactionSearchIndex.tokenize(description));
+    }
+
+    /**
+     * Share of character trigrams two normalized descriptions have in common (Jaccard index).
+     * Two empty descriptions are identical; descriptions too short for a trigram must be equal.
+     */
+    static double similarity(String a, String b) {
+        if (a.equals(b)) {
+            return 1.0;
+        }
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0.0;
+        }
+        Set<Long> left = trigrams(a);
+        Set<Long> right = trigrams(b);
+        int shared = 0;
+        for (Long trigram : left) {
+            if (right.contains(trigram)) {
+                shared++;
+            }
+        }
+        return (double) shared / (left.size() + right.size() - shared);
+    }
+
+    private static Set<Long> trigrams(String text) {
+        // Padded so the first and last characters form trigrams of their own
+        String padded = " " + text + " ";
+        Set<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(((long) padded.charAt(i) << 32) | ((long) padded.charAt(i + 1) << 16) | padded.charAt(i + 2));
+        }
+        return trigrams;
+    }
+
+    private record Fingerprint(Long categoryId, BigDecimal amount) {
+
+        static Fingerprint of(Long categoryId, BigDecimal amount) {
+            // 12.5 and 12.50 are the same amount
+            return new Fingerprint(categoryId, amount.stripTrailingZeros());
+        }
+    }
+
+    private record Entry(Long id, String description) {
+    }
+
+    /**
+     * One user's transactions dated on or after the horizon, by category and amount, then by date.
+     */
+    static final class RecentTransactions {
+        private final Map<Fingerprint, TreeMap<LocalDate, List<Entry>>> byFingerprint = new HashMap<>();
+        private LocalDate horizon;
+
+        RecentTransactions(LocalDate horizon) {
+            this.horizon = horizon;
+        }
+
+        void add(Long id, LocalDate date, Long categoryId, BigDecimal amount, String description) {
+            if (date.isBefore(horizon)) {
+                return;
+            }
+            byFingerprint.computeIfAbsent(Fingerprint.of(categoryId, amount), f -> new TreeMap<>())
+                    .computeIfAbsent(date, d -> new ArrayList<>(1))
+                    .add(new Entry(id, description));
+        }
+
+        void remove(Long id, LocalDate date, Long categoryId, BigDecimal amount) {
+            Fingerprint fingerprint = Fingerprint.of(categoryId, amount);
+            TreeMap<LocalDate, List<Entry>> byDate = byFingerprint.get(fingerprint);
+            if (byDate == null) {
+                return;
+            }
+            List<Entry> entries = byDate.get(date);
+            if (entries != null && entries.removeIf(entry -> entry.id().equals(id)) && entries.isEmpty()) {
+                byDate.remove(date);
+                if (byDate.isEmpty()) {
+                    byFingerprint.remove(fingerprint);
+                }
+            }
+        }
+
+        /**
+         * Moves the horizon forward, dropping transactions that fell behind it. A no-op until the day changes.
+         */
+        void slide(LocalDate newHorizon) {
+            if (!newHorizon.isAfter(horizon)) {
+                return;
+            }
+            horizon = newHorizon;
+            Iterator<TreeMap<LocalDate, List<Entry>>> iterator = byFingerprint.values().iterator();
+            while (iterator.hasNext()) {
+                TreeMap<LocalDate, List<Entry>> byDate = iterator.next();
+                byDate.headMap(newHorizon).clear();
+                if (byDate.isEmpty()) {
+                    iterator.remove();
+                }
+            }
+        }
+
+        Long findSimilar(Long categoryId, BigDecimal amount, LocalDate date, int windowDays,
+                         String description, double minSimilarity) {
+            TreeMap<LocalDate, List<Entry>> byDate = byFingerprint.get(Fingerprint.of(categoryId, amount));
+            if (byDate == null) {
+                return null;
+            }
+            NavigableMap<LocalDate, List<Entry>> window = byDate.subMap(date.minusDays(windowDays), true, date.plusDays(windowDays), true);
+            Long closest = null;
+            long closestDistance = Long.MAX_VALUE;
+            for (Map.Entry<LocalDate, List<Entry>> day : window.entrySet()) {
+                long distance = Math.abs(day.getKey().toEpochDay() - date.toEpochDay());
+                if (distance >= closestDistance) {
+                    continue;
+                }
+                for (Entry entry : day.getValue()) {
+                    if (similarity(entry.description(), description) >= minSimilarity) {
+                        closest = entry.id();
+                        closestDistance = distance;
+                        break;
+                    }
+                }
+            }
+            return closest;
+        }
+
+        int size() {
+            return byFingerprint.values().stream().flatMap(byDate -> byDate.values().stream()).mapToInt(List::size).sum();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.finance.transaction;
+
+import com.finance.budget.BudgetSpendIndex;
+import com.finance.ledger.LedgerVersionTracker;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops everything held in memory about a user's transactions after a bulk write that bypassed the per-row
+ * index updates: the ledger, search, budget spend and duplicate indexes are rebuilt on next use, and the user's
+ * ledger version advances after commit.
+ */
+@Component
+public class LedgerInvalidation {
+
+    private final TransactionLedgerIndex ledgerIndex;
+    private final TransactionSearchIndex searchIndex;
+    private final BudgetSpendIndex budgetSpend;
+    private final DuplicateDetector duplicates;
+    private final LedgerVersionTracker ledgerVersions;
+
+    public LedgerInvalidation(TransactionLedgerIndex ledgerIndex, TransactionSearchIndex searchIndex,
+                              BudgetSpendIndex budgetSpend, DuplicateDetector duplicates,
+                              LedgerVersionTracker ledgerVersions) {
+        this.ledgerIndex = ledgerIndex;
+        this.searchIndex = searchIndex;
+        this.budgetSpend = budgetSpend;
+        this.duplicates = duplicates;
+        this.ledgerVersions = ledgerVersions;
+    }
+
+    /**
+     * Invalidates a user's transaction indexes. Call it in the writing transaction, under the user's write lock.
+     * @param userId The user whose transactions were written in bulk.
+     */
+    public void invalidate(Long userId) {
+        ledgerIndex.invalidate(userId);
+        searchIndex.invalidate(userId);
+        budgetSpend.invalidate(userId);
+        duplicates.invalidate(userId);
+        ledgerVersions.recordWrite(userId);
+    }
+}
@@ -0,0 +1,164 @@
+package com.finance.transaction;
+
+import com.finance.user.User;
+import org.springframework.core.Ordered;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Base for in-memory indexes over one user's transactions.
+ *
+ * A user's state is built lazily from the database on first query and then kept current through
+ * {@link #recordChange(Long, Object, Object)}. Changes are applied only once the surrounding database
+ * transaction commits, ahead of the per-user write lock being released, so the user's next writer already
+ * sees the change. A build that overlaps an in-flight write is used for that one answer but not cached, so
+ * cached state never misses or double counts a write.
+ *
+ * @param <S> The per-user state. Mutated and read only while holding the user's lock.
+ * @param <C> The change record passed to {@link #apply(Object, Object, Object)}.
+ */
+public abstract class PerUserIndex<S, C> {
+
+    private final Map<Long, Slot<S>> slots = new ConcurrentHashMap<>();
+
+    /**
+     * Builds a user's state from the database.
+     */
+    protected abstract S build(User user);
+
+    /**
+     * Applies a committed change to a user's state in place.
+     * @param state The state to update.
+     * @param before The state before the write, or null for an insert.
+     * @param after The state after the write, or null for a delete.
+     * @return false if the change cannot be applied and the state must be rebuilt instead.
+     */
+    protected abstract boolean apply(S state, C before, C after);
+
+    /**
+     * Runs a read against a user's state, building it first if needed.
+     */
+    protected <R> R query(User user, Function<S, R> reader) {
+        Slot<S> slot = slot(user.getId());
+        long startEpoch;
+        boolean quiet;
+        synchronized (slot) {
+            if (slot.state != null) {
+                return reader.apply(slot.state);
+            }
+            startEpoch = slot.epoch;
+            quiet = slot.pending == 0;
+        }
+
+        S built = build(user);
+
+        synchronized (slot) {
+            if (quiet && slot.pending == 0 && slot.epoch == startEpoch && slot.state == null) {
+                slot.state = built;
+                return reader.apply(built);
+            }
+        }
+        // Not installed, so nothing else can see it and it needs no lock
+        return reader.apply(built);
+    }
+
+    /**
+     * Records a write to a user's transactions.
+     * Inside a Spring-managed transaction the change is applied after commit and discarded on rollback.
+     * @param userId The owner of the transaction.
+     * @param before The state before the write, or null for an insert.
+     * @param after The state after the write, or null for a delete.
+     */
+    public void recordChange(Long userId, C before, C after) {
+        Slot<S> slot = slot(userId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            synchronized (slot) {
+                slot.applyCommitted(this, before, after);
+            }
+            return;
+        }
+
+        synchronized (slot) {
+            slot.pending++;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (slot) {
+                    if (status == STATUS_COMMITTED) {
+                        slot.applyCommitted(PerUserIndex.this, before, after);
+                    } else {
+                        slot.epoch++;
+                    }
+                    slot.pending--;
+                }
+            }
+        });
+    }
+
+    /**
+     * Drops a user's state so the next query rebuilds it from the database.
+     * Used after writes that bypass {@link #recordChange(Long, Object, Object)}, such as bulk statements.
+     * Inside a Spring-managed transaction the state is dropped once it completes, so a rebuild racing the
+     * write cannot cache pre-commit data.
+     * @param userId The user whose state to discard.
+     */
+    public void invalidate(Long userId) {
+        Slot<S> slot = slot(userId);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            synchronized (slot) {
+                slot.state = null;
+                slot.epoch++;
+            }
+            return;
+        }
+
+        synchronized (slot) {
+            slot.pending++;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (slot) {
+                    slot.state = null;
+                    slot.epoch++;
+                    slot.pending--;
+                }
+            }
+        });
+    }
+
+    private Slot<S> slot(Long userId) {
+        return slots.computeIfAbsent(userId, id -> new Slot<>());
+    }
+
+    /**
+     * Per-user holder. Never removed from the map, so every thread locks the same instance.
+     */
+    private static final class Slot<S> {
+        private S state;
+        private int pending;
+        private long epoch;
+
+        <C> void applyCommitted(PerUserIndex<S, C> index, C before, C after) {
+            if (state != null && !index.apply(state, before, after)) {
+                state = null;
+            }
+            epoch++;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.finance.transaction;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Fenwick (binary indexed) tree over BigDecimal amounts.
+ * Point updates and prefix sums both run in O(log n); positions are zero-based.
+ * Not thread-safe: callers synchronize access.
+ */
+class PrefixSumTree {
+
+    private final BigDecimal[] tree;
+
+    PrefixSumTree(int size) {
+        this.tree = new BigDecimal[size + 1];
+        Arrays.fill(tree, BigDecimal.ZERO);
+    }
+
+    /**
+     * Builds a tree from per-position values in O(n).
+     * @param values The value at each position (null entries are treated as zero).
+     * @return A tree whose size equals values.length.
+     */
+    static PrefixSumTree of(BigDecimal[] values) {
+        PrefixSumTree result = new PrefixSumTree(values.length);
+        BigDecimal[] tree = result.tree;
+        for (int i = 1; i < tree.length; i++) {
+            if (values[i - 1] != null) {
+                tree[i] = tree[i].add(values[i - 1]);
+            }
+            int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] = tree[parent].add(tree[i]);
+            }
+        }
+        return result;
+    }
+
+    int size() {
+        return tree.length - 1;
+    }
+
+    /**
+     * Adds a delta to the value at a position.
+     */
+    void add(int position, BigDecimal delta) {
+        if (position < 0 || position >= size()) {
+            throw new IndexOutOfBoundsException("Position " + position + " outside tree of size " + size());
+        }
+        for (int i = position + 1; i < tree.length; i += i & -i) {
+            tree[i] = tree[i].add(delta);
+        }
+    }
+
+    /**
+     * Sums the values at positions [0, position]. Positions past the end are clamped.
+     */
+    BigDecimal prefixSum(int position) {
+        BigDecimal sum = BigDecimal.ZERO;
+        for (int i = Math.min(position + 1, size()); i > 0; i -= i & -i) {
+            sum = sum.add(tree[i]);
+        }
+        return sum;
+    }
+
+    /**
+     * Sums the values at positions [from, to], clamped to the tree bounds.
+     */
+    BigDecimal rangeSum(int from, int to) {
+        int start = Math.max(from, 0);
+        if (to < start) {
+            return BigDecimal.ZERO;
+        }
+        return prefixSum(to).subtract(prefixSum(start - 1));
+    }
+}
@@ -11,12 +11,18 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Entity
-@Table(name = "transactions")
+// Every per-user range query (listings, reports, archiving) is served by the (user_id, date) index
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_user_date", columnList = "user_id, date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Transaction {
 
+    // Oldest date accepted on new transactions; keeps typos like year 0001 out of date-indexed structures
+    public static final LocalDate EARLIEST_DATE = LocalDate.of(1900, 1, 1);
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -37,4 +43,17 @@ public class Transaction {
 
     @Column(length = 500)
     private String description;
+
+    // Optimistic lock: an update based on a stale read fails instead of overwriting a newer one
+    @Version
+    private Long version;
+
+    public Transaction(Long id, BigDecimal amount, LocalDate date, Category category, User user, String description) {
+        this.id = id;
+        this.amount = amount;
+        this.date = date;
+        this.category = category;
+        this.user = user;
+        this.description = description;
+    }
 }
\ No newline at end of file
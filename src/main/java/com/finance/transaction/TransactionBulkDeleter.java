@@ -0,0 +1,102 @@
+package com.finance.transaction;
+
+import com.finance.category.CategoryUsageService;
+import com.finance.ledger.UserWriteLocks;
+import com.finance.outbox.TransactionEvent;
+import com.finance.outbox.TransactionOutbox;
+import com.finance.user.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Deletes a user's transactions matching a filter with set-based statements, one chunk per database transaction.
+ *
+ * Each chunk picks the next IDs, releases their category usage with one grouped query and removes them with one
+ * DELETE, all under the user's write lock, and records one bulk outbox event for it. Committing per chunk bounds row-lock time and undo size on large
+ * ranges and lets the user's other writes interleave. The in-memory ledger, search and budget indexes are rebuilt
+ * on next use rather than patched row by row. If a chunk fails, earlier chunks stay deleted and consistent.
+ */
+@Component
+public class TransactionBulkDeleter {
+
+    private final TransactionRepository transactionRepository;
+    private final CategoryUsageService categoryUsage;
+    private final LedgerInvalidation invalidation;
+    private final TransactionOutbox outbox;
+    private final UserWriteLocks writeLocks;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public TransactionBulkDeleter(TransactionRepository transactionRepository, CategoryUsageService categoryUsage,
+                                  LedgerInvalidation invalidation, TransactionOutbox outbox, UserWriteLocks writeLocks,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${finance.transactions.bulk-delete.chunk-size:1000}") int chunkSize) {
+        this.transactionRepository = transactionRepository;
+        this.categoryUsage = categoryUsage;
+        this.invalidation = invalidation;
+        this.outbox = outbox;
+        this.writeLocks = writeLocks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * The outcome of a bulk delete.
+     * @param deleted The number of transactions deleted.
+     * @param chunks The number of database transactions it took.
+     */
+    public record Result(int deleted, int chunks) {
+    }
+
+    /**
+     * Deletes all of a user's transactions matching the filter.
+     * @param user The owner of the transactions.
+     * @param startDate Optional start date (inclusive).
+     * @param endDate Optional end date (inclusive).
+     * @param categoryId Optional category ID.
+     * @return The number of transactions deleted and chunks used.
+     */
+    public Result delete(User user, LocalDate startDate, LocalDate endDate, Long categoryId) {
+        int deleted = 0;
+        int chunks = 0;
+        while (true) {
+            Integer count = transactionTemplate.execute(status -> deleteChunk(user, startDate, endDate, categoryId));
+            if (count == null || count == 0) {
+                return new Result(deleted, chunks);
+            }
+            deleted += count;
+            chunks++;
+            if (count < chunkSize) {
+                return new Result(deleted, chunks);
+            }
+        }
+    }
+
+    private int deleteChunk(User user, LocalDate startDate, LocalDate endDate, Long categoryId) {
+        Long userId = user.getId();
+        writeLocks.lockUntilCompletion(userId);
+        List<Long> ids = transactionRepository.findIdsByFilter(user, startDate, endDate, categoryId, PageRequest.of(0, chunkSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Map<Long, CategoryUsageService.Delta> released = new LinkedHashMap<>();
+        for (Object[] row : transactionRepository.summarizeByCategoryForIds(ids)) {
+            released.put((Long) row[0], new CategoryUsageService.Delta(-(Long) row[1], ((BigDecimal) row[2]).negate()));
+        }
+        categoryUsage.adjust(userId, released);
+        int deleted = transactionRepository.deleteByIdIn(ids);
+        outbox.appendBulk(userId, TransactionEvent.BulkOperation.BULK_DELETE, deleted);
+
+        invalidation.invalidate(userId);
+        return deleted;
+    }
+}
@@ -3,35 +3,49 @@ package com.finance.transaction;
 import com.finance.category.CategoryType;
 import com.finance.transaction.dto.TransactionRequest;
 import com.finance.transaction.dto.TransactionResponse;
+import com.finance.transaction.dto.TransactionSearchResponse;
 import com.finance.exception.ResourceNotFoundException;
+import com.finance.ledger.ConditionalRequests;
+import com.finance.ledger.IdempotencyKeys;
+import com.finance.ledger.LedgerVersionTracker;
 import com.finance.user.UserService;
 import jakarta.validation.Valid;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.function.Supplier;
 
 
 
 
 @RestController
 @RequestMapping("/api/transactions")
+@Lazy(false)
 public class TransactionController {
 
     private final TransactionService transactionService;
     private final UserService userService;
+    private final LedgerVersionTracker ledgerVersions;
+    private final IdempotencyKeys idempotencyKeys;
 
-    public TransactionController(TransactionService transactionService, UserService userService) {
+    public TransactionController(TransactionService transactionService, UserService userService, LedgerVersionTracker ledgerVersions,
+                                 IdempotencyKeys idempotencyKeys) {
         this.transactionService = transactionService;
         this.userService = userService;
+        this.ledgerVersions = ledgerVersions;
+        this.idempotencyKeys = idempotencyKeys;
     }
 
     private Long getAuthenticatedUserId() {
@@ -40,13 +54,32 @@ public class TransactionController {
             throw new IllegalStateException("User not authenticated.");
         }
         String username = authentication.getName();
-        return userService.findByUsername(username)
-                .orElseThrow(() -> new IllegalStateException("Authenticated user not found in database: " + username))
-                .getId();
+        return userService.findIdByUsername(username)
+                .orElseThrow(() -> new IllegalStateException("Authenticated user not found in database: " + username));
     }
 
+    /**
+     * Summarizes a create request so a reused idempotency key can be told apart from a genuine retry.
+     */
+    private static String fingerprint(TransactionRequest request) {
+        BigDecimal amount = request.getAmount();
+        return String.join("\u001F",
+                amount != null ? amount.stripTrailingZeros().toPlainString() : "",
+                String.valueOf(request.getDate()),
+                String.valueOf(request.getCategoryName()),
+                String.valueOf(request.getDescription()),
+                String.valueOf(Boolean.TRUE.equals(request.getAllowDuplicate())));
+    }
+
+    /**
+     * Creates a transaction, refusing likely duplicates unless allowDuplicate is set.
+     * With an Idempotency-Key header, a retry of the same request returns the original response
+     * (marked with Idempotent-Replayed: true) instead of creating the transaction again.
+     */
     @PostMapping
-    public ResponseEntity<TransactionResponse> createTransaction(@Valid @RequestBody TransactionRequest request) {
+    public ResponseEntity<TransactionResponse> createTransaction(
+            @Valid @RequestBody TransactionRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         try {
             Long userId = getAuthenticatedUserId();
 
@@ -54,23 +87,33 @@ public class TransactionController {
             System.out.println("Received transaction request: " + request);
             System.out.println("Category name: " + request.getCategoryName());
 
-            Transaction newTransaction = transactionService.createTransaction(
-                    request.getAmount(),
-                    request.getDate(),
-                    request.getCategoryName(),  // Make sure this is not null
-                    request.getDescription(),
-                    userId
-            );
-
-            TransactionResponse response = new TransactionResponse(
-                    newTransaction.getId(),
-                    newTransaction.getAmount(),
-                    newTransaction.getDate(),
-                    newTransaction.getCategory().getName(),
-                    newTransaction.getCategory().getType(),
-                    newTransaction.getDescription()
-            );
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            Supplier<TransactionResponse> create = () -> {
+                Transaction newTransaction = transactionService.createTransaction(
+                        request.getAmount(),
+                        request.getDate(),
+                        request.getCategoryName(),  // Null to pick it by categorization rules
+                        request.getDescription(),
+                        userId,
+                        !Boolean.TRUE.equals(request.getAllowDuplicate())
+                );
+                return new TransactionResponse(
+                        newTransaction.getId(),
+                        newTransaction.getAmount(),
+                        newTransaction.getDate(),
+                        newTransaction.getCategory().getName(),
+                        newTransaction.getCategory().getType(),
+                        newTransaction.getDescription()
+                );
+            };
+
+            if (idempotencyKey == null) {
+                return ResponseEntity.status(HttpStatus.CREATED).body(create.get());
+            }
+            IdempotencyKeys.Outcome<TransactionResponse> outcome = idempotencyKeys.execute(
+                    userId, "POST /api/transactions", idempotencyKey, fingerprint(request), create);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .header("Idempotent-Replayed", String.valueOf(outcome.replayed()))
+                    .body(outcome.result());
 
         } catch (Exception e) {
             System.err.println("Error creating transaction: " + e.getMessage());
@@ -84,9 +127,14 @@ public class TransactionController {
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
             @RequestParam(required = false) String category,
-            @RequestParam(required = false) CategoryType categoryType) {
+            @RequestParam(required = false) CategoryType categoryType,
+            WebRequest webRequest) {
 
         Long userId = getAuthenticatedUserId();
+        // Answer 304 from the ledger version alone when the client's copy is current
+        if (ConditionalRequests.checkNotModified(webRequest, ledgerVersions.currentETag(userId))) {
+            return null;
+        }
         List<Transaction> transactions = transactionService.getFilteredTransactions(
                 userId, startDate, endDate, category, categoryType
         );
@@ -106,9 +154,48 @@ public class TransactionController {
         return ResponseEntity.ok(responses);
     }
 
+    /**
+     * Full-text search over transaction descriptions, newest first.
+     * Each word in q matches the start of a word in the description; all words must match.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<TransactionSearchResponse> searchTransactions(
+            @RequestParam String q,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) CategoryType categoryType,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest webRequest) {
+
+        Long userId = getAuthenticatedUserId();
+        if (ConditionalRequests.checkNotModified(webRequest, ledgerVersions.currentETag(userId))) {
+            return null;
+        }
+        TransactionService.SearchResult result = transactionService.searchTransactions(
+                userId, q, startDate, endDate, category, categoryType, page, size
+        );
+
+        List<TransactionResponse> responses = result.transactions().stream()
+                .map(transaction -> new TransactionResponse(
+                        transaction.getId(),
+                        transaction.getAmount(),
+                        transaction.getDate(),
+                        transaction.getCategory().getName(),
+                        transaction.getCategory().getType(),
+                        transaction.getDescription()
+                ))
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(new TransactionSearchResponse(q, page, size, result.totalResults(), responses));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<TransactionResponse> getTransactionById(@PathVariable Long id) {
+    public ResponseEntity<TransactionResponse> getTransactionById(@PathVariable Long id, WebRequest webRequest) {
         Long userId = getAuthenticatedUserId();
+        if (ConditionalRequests.checkNotModified(webRequest, ledgerVersions.currentETag(userId))) {
+            return null;
+        }
         Transaction transaction = transactionService.getTransactionById(id, userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Transaction not found with ID: " + id));
         TransactionResponse response = new TransactionResponse(
@@ -153,4 +240,23 @@ public class TransactionController {
         response.put("message", "Transaction deleted successfully");
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    /**
+     * Deletes all of the user's transactions matching the filters in chunked set-based statements.
+     * At least one filter is required.
+     */
+    @DeleteMapping
+    public ResponseEntity<Map<String, Object>> deleteTransactions(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String category) {
+        Long userId = getAuthenticatedUserId();
+        TransactionBulkDeleter.Result result = transactionService.deleteTransactions(userId, startDate, endDate, category);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Transactions deleted successfully");
+        response.put("deleted", result.deleted());
+        response.put("chunks", result.chunks());
+        return ResponseEntity.ok(response);
+    }
+}
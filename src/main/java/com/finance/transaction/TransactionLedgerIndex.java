@@ -0,0 +1,167 @@
+package com.finance.transaction;
+
+import com.finance.category.CategoryType;
+import com.finance.user.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Per-user cumulative sums of income and expense amounts keyed by epoch day.
+ * Answers date-range totals in O(log n) instead of scanning the transactions table.
+ * TransactionService reports every write through {@link #recordChange(Long, Object, Object)}.
+ */
+@Component
+public class TransactionLedgerIndex extends PerUserIndex<TransactionLedgerIndex.LedgerSums, TransactionSnapshot> {
+
+    // Days either side of today always present in the tree, so recent and back-dated inserts rarely force a rebuild
+    private static final int PADDING_DAYS = 366;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Sums amounts of one category type for a user within a date range.
+     * @param user The user.
+     * @param startDate The start date (inclusive), or null for unbounded.
+     * @param endDate The end date (inclusive), or null for unbounded.
+     * @param categoryType INCOME or EXPENSE.
+     * @return The total, or BigDecimal.ZERO if there are no matching transactions.
+     */
+    public BigDecimal sum(User user, LocalDate startDate, LocalDate endDate, CategoryType categoryType) {
+        return query(user, sums -> sums.sum(startDate, endDate, categoryType));
+    }
+
+    /**
+     * Calculates income minus expenses for a user within a date range.
+     * @param user The user.
+     * @param startDate The start date (inclusive), or null for unbounded.
+     * @param endDate The end date (inclusive), or null for unbounded.
+     * @return The net amount for the period.
+     */
+    public BigDecimal net(User user, LocalDate startDate, LocalDate endDate) {
+        return query(user, sums -> sums.net(startDate, endDate));
+    }
+
+    @Override
+    protected LedgerSums build(User user) {
+        List<Object[]> rows = entityManager.createQuery(
+                        "SELECT t.date, t.category.type, t.amount FROM Transaction t WHERE t.user = :user", Object[].class)
+                .setParameter("user", user)
+                .getResultList();
+        return LedgerSums.of(rows);
+    }
+
+    @Override
+    protected boolean apply(LedgerSums sums, TransactionSnapshot before, TransactionSnapshot after) {
+        // A day not yet in the tree forces a rebuild rather than a resize
+        if (!sums.covers(before) || !sums.covers(after)) {
+            return false;
+        }
+        if (before != null) {
+            sums.add(before, before.amount().negate());
+        }
+        if (after != null) {
+            sums.add(after, after.amount());
+        }
+        return true;
+    }
+
+    /**
+     * Income and expense trees over compressed day coordinates: every day that has a transaction, plus every day
+     * of a dense window around today. Memory grows with the number of distinct days, not with the span between
+     * the oldest and newest date, so one far-past date cannot blow up the arrays.
+     */
+    static final class LedgerSums {
+        private final long[] days;
+        private final PrefixSumTree income;
+        private final PrefixSumTree expense;
+
+        private LedgerSums(long[] days, PrefixSumTree income, PrefixSumTree expense) {
+            this.days = days;
+            this.income = income;
+            this.expense = expense;
+        }
+
+        static LedgerSums of(List<Object[]> rows) {
+            long today = LocalDate.now().toEpochDay();
+            long[] candidates = new long[rows.size() + 2 * PADDING_DAYS + 1];
+            int count = 0;
+            for (long day = today - PADDING_DAYS; day <= today + PADDING_DAYS; day++) {
+                candidates[count++] = day;
+            }
+            for (Object[] row : rows) {
+                candidates[count++] = ((LocalDate) row[0]).toEpochDay();
+            }
+            Arrays.sort(candidates, 0, count);
+            int distinct = 0;
+            for (int i = 0; i < count; i++) {
+                if (distinct == 0 || candidates[i] != candidates[distinct - 1]) {
+                    candidates[distinct++] = candidates[i];
+                }
+            }
+            long[] days = Arrays.copyOf(candidates, distinct);
+
+            BigDecimal[] incomeByDay = new BigDecimal[distinct];
+            BigDecimal[] expenseByDay = new BigDecimal[distinct];
+            for (Object[] row : rows) {
+                int position = Arrays.binarySearch(days, ((LocalDate) row[0]).toEpochDay());
+                BigDecimal[] target = row[1] == CategoryType.INCOME ? incomeByDay : expenseByDay;
+                BigDecimal amount = (BigDecimal) row[2];
+                target[position] = target[position] == null ? amount : target[position].add(amount);
+            }
+            return new LedgerSums(days, PrefixSumTree.of(incomeByDay), PrefixSumTree.of(expenseByDay));
+        }
+
+        boolean covers(TransactionSnapshot snapshot) {
+            return snapshot == null || Arrays.binarySearch(days, snapshot.date().toEpochDay()) >= 0;
+        }
+
+        void add(TransactionSnapshot snapshot, BigDecimal delta) {
+            int position = Arrays.binarySearch(days, snapshot.date().toEpochDay());
+            (snapshot.categoryType() == CategoryType.INCOME ? income : expense).add(position, delta);
+        }
+
+        BigDecimal sum(LocalDate startDate, LocalDate endDate, CategoryType type) {
+            PrefixSumTree tree = type == CategoryType.INCOME ? income : expense;
+            return tree.rangeSum(from(startDate), to(endDate));
+        }
+
+        BigDecimal net(LocalDate startDate, LocalDate endDate) {
+            int from = from(startDate);
+            int to = to(endDate);
+            return income.rangeSum(from, to).subtract(expense.rangeSum(from, to));
+        }
+
+        int size() {
+            return days.length;
+        }
+
+        /**
+         * @return The first position on or after the start date.
+         */
+        private int from(LocalDate startDate) {
+            if (startDate == null) {
+                return 0;
+            }
+            int position = Arrays.binarySearch(days, startDate.toEpochDay());
+            return position >= 0 ? position : -position - 1;
+        }
+
+        /**
+         * @return The last position on or before the end date (-1 if there is none).
+         */
+        private int to(LocalDate endDate) {
+            if (endDate == null) {
+                return days.length - 1;
+            }
+            int position = Arrays.binarySearch(days, endDate.toEpochDay());
+            return position >= 0 ? position : -position - 2;
+        }
+    }
+}
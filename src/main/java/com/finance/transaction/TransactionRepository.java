@@ -3,18 +3,23 @@ package com.finance.transaction;
 import com.finance.category.Category;
 import com.finance.category.CategoryType;
 import com.finance.user.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 /**
  * Repository interface for managing Transaction entities.
+ * Hot date-range totals are answered by {@link TransactionLedgerIndex}; the aggregate queries here read the table.
  */
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
@@ -37,27 +42,6 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
      */
     Optional<Transaction> findByIdAndUser(Long id, User user);
 
-    /**
-     * Finds transactions for a user with optional filtering.
-     * @param user The user whose transactions to retrieve.
-     * @param startDate Optional start date filter.
-     * @param endDate Optional end date filter.
-     * @param categoryName Optional category name filter.
-     * @param categoryType Optional category type filter.
-     * @return A list of filtered transactions ordered by date descending.
-     */
-    @Query("SELECT t FROM Transaction t WHERE t.user = :user " +
-            "AND (:startDate IS NULL OR t.date >= :startDate) " +
-            "AND (:endDate IS NULL OR t.date <= :endDate) " +
-            "AND (:categoryName IS NULL OR t.category.name = :categoryName) " +
-            "AND (:categoryType IS NULL OR t.category.type = :categoryType) " +
-            "ORDER BY t.date DESC")
-    List<Transaction> findFilteredTransactions(@Param("user") User user,
-                                               @Param("startDate") LocalDate startDate,
-                                               @Param("endDate") LocalDate endDate,
-                                               @Param("categoryName") String categoryName,
-                                               @Param("categoryType") CategoryType categoryType);
-
     /**
      * Sums the amounts of transactions for a user within a date range and category type.
      * Used for generating reports (income vs expenses).
@@ -75,6 +59,64 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
                                                           @Param("endDate") LocalDate endDate,
                                                           @Param("categoryType") CategoryType categoryType);
 
+    /**
+     * Calculates total income minus total expenses for a user within a date range.
+     * Used for savings goal progress calculation.
+     * @param user The user whose net savings to calculate.
+     * @param startDate The start date (inclusive).
+     * @param endDate The end date (inclusive).
+     * @return The net savings (income - expenses) for the period.
+     */
+    @Query("SELECT COALESCE(SUM(CASE WHEN t.category.type = 'INCOME' THEN t.amount ELSE -t.amount END), 0) " +
+            "FROM Transaction t WHERE t.user = :user " +
+            "AND t.date >= :startDate AND t.date <= :endDate")
+    BigDecimal calculateNetSavingsByUserAndDateRange(@Param("user") User user,
+                                                     @Param("startDate") LocalDate startDate,
+                                                     @Param("endDate") LocalDate endDate);
+
+    /**
+     * Stand-ins for missing date bounds. Range queries always get both bounds, so the (user, date) index
+     * narrows them to the requested dates instead of scanning all of a user's history. Not a validation
+     * limit: the earliest date a transaction may have is {@link Transaction#EARLIEST_DATE}.
+     */
+    LocalDate OPEN_START = LocalDate.of(1, 1, 1);
+    LocalDate OPEN_END = LocalDate.of(9999, 12, 31);
+
+    /**
+     * Finds transactions for a user with optional filtering.
+     * @param user The user whose transactions to retrieve.
+     * @param startDate Optional start date filter.
+     * @param endDate Optional end date filter.
+     * @param categoryName Optional category name filter.
+     * @param categoryType Optional category type filter.
+     * @return A list of filtered transactions ordered by date descending.
+     */
+    default List<Transaction> findFilteredTransactions(User user, LocalDate startDate, LocalDate endDate,
+                                                       String categoryName, CategoryType categoryType) {
+        return findInDateRange(user, startDate != null ? startDate : OPEN_START,
+                endDate != null ? endDate : OPEN_END, categoryName, categoryType);
+    }
+
+    /**
+     * Finds transactions for a user within a date range, with optional category filters.
+     * @param user The user whose transactions to retrieve.
+     * @param startDate The start date (inclusive).
+     * @param endDate The end date (inclusive).
+     * @param categoryName Optional category name filter.
+     * @param categoryType Optional category type filter.
+     * @return A list of filtered transactions ordered by date descending.
+     */
+    @Query("SELECT t FROM Transaction t WHERE t.user = :user " +
+            "AND t.date >= :startDate AND t.date <= :endDate " +
+            "AND (:categoryName IS NULL OR t.category.name = :categoryName) " +
+            "AND (:categoryType IS NULL OR t.category.type = :categoryType) " +
+            "ORDER BY t.date DESC")
+    List<Transaction> findInDateRange(@Param("user") User user,
+                                      @Param("startDate") LocalDate startDate,
+                                      @Param("endDate") LocalDate endDate,
+                                      @Param("categoryName") String categoryName,
+                                      @Param("categoryType") CategoryType categoryType);
+
     /**
      * Finds all transactions for a specific user ordered by date descending.
      * @param user The user whose transactions to retrieve.
@@ -99,21 +141,6 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
      */
     List<Transaction> findByUserAndCategoryOrderByDateDesc(User user, Category category);
 
-    /**
-     * Calculates total income minus total expenses for a user within a date range.
-     * Used for savings goal progress calculation.
-     * @param user The user whose net savings to calculate.
-     * @param startDate The start date (inclusive).
-     * @param endDate The end date (inclusive).
-     * @return The net savings (income - expenses) for the period.
-     */
-    @Query("SELECT COALESCE(SUM(CASE WHEN t.category.type = 'INCOME' THEN t.amount ELSE -t.amount END), 0) " +
-            "FROM Transaction t WHERE t.user = :user " +
-            "AND t.date >= :startDate AND t.date <= :endDate")
-    BigDecimal calculateNetSavingsByUserAndDateRange(@Param("user") User user,
-                                                     @Param("startDate") LocalDate startDate,
-                                                     @Param("endDate") LocalDate endDate);
-
     /**
      * Finds transactions for a user by category type (INCOME or EXPENSE).
      * @param user The user whose transactions to retrieve.
@@ -171,15 +198,30 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
      * @param categoryType The category type to filter by (EXPENSE for spending analysis).
      * @return A list of monthly totals.
      */
+    default List<Object[]> findMonthlyTotalsByUserAndYearAndCategoryType(User user, int year, CategoryType categoryType) {
+        return findMonthlyTotalsByUserAndDateRangeAndCategoryType(user, LocalDate.of(year, 1, 1),
+                LocalDate.of(year + 1, 1, 1), categoryType);
+    }
+
+    /**
+     * Gets monthly totals for a user from a start date up to (excluding) an end date.
+     * Filters on the date itself rather than YEAR(date), so the (user, date) index limits the scan.
+     * @param user The user whose monthly totals to calculate.
+     * @param startDate The start date (inclusive).
+     * @param endDate The end date (exclusive).
+     * @param categoryType The category type to filter by.
+     * @return Rows of [month, total] ordered by month.
+     */
     @Query("SELECT MONTH(t.date) as month, SUM(t.amount) as total " +
             "FROM Transaction t WHERE t.user = :user " +
-            "AND YEAR(t.date) = :year " +
+            "AND t.date >= :startDate AND t.date < :endDate " +
             "AND t.category.type = :categoryType " +
             "GROUP BY MONTH(t.date) " +
             "ORDER BY MONTH(t.date)")
-    List<Object[]> findMonthlyTotalsByUserAndYearAndCategoryType(@Param("user") User user,
-                                                                 @Param("year") int year,
-                                                                 @Param("categoryType") CategoryType categoryType);
+    List<Object[]> findMonthlyTotalsByUserAndDateRangeAndCategoryType(@Param("user") User user,
+                                                                      @Param("startDate") LocalDate startDate,
+                                                                      @Param("endDate") LocalDate endDate,
+                                                                      @Param("categoryType") CategoryType categoryType);
 
     /**
      * Gets yearly totals for a user grouped by category type.
@@ -187,11 +229,75 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
      * @param year The year to analyze.
      * @return A list of category types and their totals.
      */
+    default List<Object[]> findYearlyTotalsByUserAndYear(User user, int year) {
+        return findTotalsByUserAndDateRange(user, LocalDate.of(year, 1, 1), LocalDate.of(year + 1, 1, 1));
+    }
+
+    /**
+     * Gets totals per category type for a user from a start date up to (excluding) an end date.
+     * @param user The user whose totals to calculate.
+     * @param startDate The start date (inclusive).
+     * @param endDate The end date (exclusive).
+     * @return A list of category types and their totals.
+     */
     @Query("SELECT t.category.type, SUM(t.amount) " +
             "FROM Transaction t WHERE t.user = :user " +
-            "AND YEAR(t.date) = :year " +
+            "AND t.date >= :startDate AND t.date < :endDate " +
             "GROUP BY t.category.type")
-    List<Object[]> findYearlyTotalsByUserAndYear(@Param("user") User user, @Param("year") int year);
+    List<Object[]> findTotalsByUserAndDateRange(@Param("user") User user,
+                                                @Param("startDate") LocalDate startDate,
+                                                @Param("endDate") LocalDate endDate);
+
+    /**
+     * Sums amounts per day and category for a user within a date range.
+     * One grouped scan feeds a whole trend report, whatever its granularity.
+     * @param user The user whose transactions to aggregate.
+     * @param startDate The start date (inclusive).
+     * @param endDate The end date (inclusive).
+     * @return Rows of [date, category name, category type, total] ordered by date.
+     */
+    @Query("SELECT t.date, c.name, c.type, SUM(t.amount) " +
+            "FROM Transaction t JOIN t.category c WHERE t.user = :user " +
+            "AND t.date >= :startDate AND t.date <= :endDate " +
+            "GROUP BY t.date, c.name, c.type " +
+            "ORDER BY t.date")
+    List<Object[]> findDailyCategoryTotalsByUserAndDateRange(@Param("user") User user,
+                                                             @Param("startDate") LocalDate startDate,
+                                                             @Param("endDate") LocalDate endDate);
+
+    /**
+     * Moves all of a user's transactions from one category to another in a single statement.
+     * Versions are bumped so concurrent optimistic updates of the moved rows fail rather than undo the move.
+     * @param user The owner of the transactions.
+     * @param source The category to move transactions out of.
+     * @param target The category to move them into.
+     * @return The number of transactions moved.
+     */
+    @Modifying(flushAutomatically = true)
+    @Transactional
+    @Query("UPDATE Transaction t SET t.category = :target, t.version = t.version + 1 " +
+            "WHERE t.user = :user AND t.category = :source")
+    int reassignCategory(@Param("user") User user, @Param("source") Category source, @Param("target") Category target);
+
+    /**
+     * Counts and sums a user's transactions per category.
+     * @param userId The ID of the user.
+     * @return Rows of [category ID, transaction count, amount total].
+     */
+    @Query("SELECT t.category.id, COUNT(t), SUM(t.amount) FROM Transaction t " +
+            "WHERE t.user.id = :userId GROUP BY t.category.id")
+    List<Object[]> summarizeByCategoryForUser(@Param("userId") Long userId);
+
+    /**
+     * Counts and sums the transactions of a range of users per user and category, for reconciling usage counters.
+     * @param fromUserId The lowest user ID, inclusive.
+     * @param toUserId The highest user ID, inclusive.
+     * @return Rows of [user ID, category ID, transaction count, amount total].
+     */
+    @Query("SELECT t.user.id, t.category.id, COUNT(t), SUM(t.amount) FROM Transaction t " +
+            "WHERE t.user.id BETWEEN :fromUserId AND :toUserId GROUP BY t.user.id, t.category.id")
+    List<Object[]> summarizeByUserAndCategoryBetween(@Param("fromUserId") Long fromUserId,
+                                                     @Param("toUserId") Long toUserId);
 
     /**
      * Finds transactions by description containing a search term (case-insensitive).
@@ -204,10 +310,54 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     /**
      * Deletes all transactions for a specific user and category.
      * This is a custom delete method that ensures data isolation.
+     * Runs as one DELETE statement rather than loading and removing each entity, so it bypasses the usage
+     * counters and in-memory indexes; use {@link TransactionBulkDeleter} to keep those consistent.
      * @param user The user whose transactions to delete.
      * @param category The category of transactions to delete.
+     * @return The number of transactions deleted.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Transaction t WHERE t.user = :user AND t.category = :category")
+    int deleteByUserAndCategory(@Param("user") User user, @Param("category") Category category);
+
+    /**
+     * Finds IDs of a user's transactions matching optional filters, lowest first.
+     * @param user The owner of the transactions.
+     * @param startDate Optional start date filter (inclusive).
+     * @param endDate Optional end date filter (inclusive).
+     * @param categoryId Optional category ID filter.
+     * @param pageable The maximum number of IDs.
+     * @return Matching transaction IDs.
+     */
+    @Query("SELECT t.id FROM Transaction t WHERE t.user = :user " +
+            "AND (:startDate IS NULL OR t.date >= :startDate) " +
+            "AND (:endDate IS NULL OR t.date <= :endDate) " +
+            "AND (:categoryId IS NULL OR t.category.id = :categoryId) " +
+            "ORDER BY t.id")
+    List<Long> findIdsByFilter(@Param("user") User user,
+                               @Param("startDate") LocalDate startDate,
+                               @Param("endDate") LocalDate endDate,
+                               @Param("categoryId") Long categoryId,
+                               Pageable pageable);
+
+    /**
+     * Counts and sums the given transactions per category.
+     * @param ids The transaction IDs.
+     * @return Rows of [category ID, transaction count, amount total].
+     */
+    @Query("SELECT t.category.id, COUNT(t), SUM(t.amount) FROM Transaction t WHERE t.id IN :ids GROUP BY t.category.id")
+    List<Object[]> summarizeByCategoryForIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Deletes the given transactions in one statement.
+     * @param ids The transaction IDs.
+     * @return The number of transactions deleted.
      */
-    void deleteByUserAndCategory(User user, Category category);
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Transaction t WHERE t.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 
     /**
      * Checks if a user has any transactions after a specific date.
@@ -0,0 +1,263 @@
+package com.finance.transaction;
+
+import com.finance.category.CategoryType;
+import com.finance.user.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Per-user inverted index over transaction descriptions.
+ *
+ * Each description is split into lower-cased words. A query matches a transaction when every query
+ * word is a prefix of some word in its description, so "gro mark" finds "Grocery market". Words shorter
+ * than {@link #MIN_PREFIX_LENGTH} only match whole words, since a letter or two would match most of a
+ * user's history. Prefix lookups are range scans over a sorted term map; only the postings of the most
+ * selective query word are walked, and its candidates are checked against the other words directly, so a
+ * search touches at most {@link #MAX_CANDIDATES} transactions (broader queries are rejected). Matching IDs
+ * are then filtered by date and category from the per-transaction metadata kept alongside, and only the
+ * newest matches up to the requested page are kept, so no database query runs until the page is loaded.
+ */
+@Component
+public class TransactionSearchIndex extends PerUserIndex<TransactionSearchIndex.UserTerms, TransactionSnapshot> {
+
+    static final int MIN_PREFIX_LENGTH = 3;
+    // Upper bound on the transactions a search walks while holding the user's index
+    static final int MAX_CANDIDATES = 100_000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * One page of matching transaction IDs plus the total number of matches.
+     */
+    public record SearchPage(List<Long> ids, int totalResults) {
+    }
+
+    /**
+     * Finds transactions whose descriptions match all query words, newest first.
+     * @param user The user whose transactions to search.
+     * @param queryText The words to match as prefixes.
+     * @param startDate Optional start date filter (inclusive).
+     * @param endDate Optional end date filter (inclusive).
+     * @param categoryName Optional category name filter.
+     * @param categoryType Optional category type filter.
+     * @param page Zero-based page number.
+     * @param size Page size.
+     * @return The requested page of transaction IDs.
+     * @throws IllegalArgumentException if the query is too broad to search.
+     */
+    public SearchPage search(User user, String queryText, LocalDate startDate, LocalDate endDate,
+                             String categoryName, CategoryType categoryType, int page, int size) {
+        List<String> words = tokenize(queryText);
+        if (words.isEmpty()) {
+            return new SearchPage(List.of(), 0);
+        }
+        // Only the newest matches up to the end of the requested page are kept, oldest at the head
+        long kept = Math.min((long) (page + 1) * size, Integer.MAX_VALUE);
+        return query(user, terms -> {
+            int[] total = new int[1];
+            PriorityQueue<Document> newest = new PriorityQueue<>(NEWEST_FIRST.reversed());
+            terms.forEachMatch(words, document -> {
+                if ((startDate == null || !document.date().isBefore(startDate))
+                        && (endDate == null || !document.date().isAfter(endDate))
+                        && (categoryName == null || categoryName.equals(document.categoryName()))
+                        && (categoryType == null || categoryType == document.categoryType())) {
+                    total[0]++;
+                    if (newest.size() < kept) {
+                        newest.add(document);
+                    } else if (!newest.isEmpty() && NEWEST_FIRST.compare(document, newest.peek()) < 0) {
+                        newest.poll();
+                        newest.add(document);
+                    }
+                }
+            });
+            List<Document> matches = new ArrayList<>(newest);
+            matches.sort(NEWEST_FIRST);
+
+            int from = (int) Math.min((long) page * size, matches.size());
+            List<Long> ids = matches.subList(from, matches.size()).stream().map(Document::id).toList();
+            return new SearchPage(ids, total[0]);
+        });
+    }
+
+    @Override
+    protected UserTerms build(User user) {
+        List<Object[]> rows = entityManager.createQuery(
+                        "SELECT t.id, t.date, c.name, c.type, t.description FROM Transaction t JOIN t.category c " +
+                                "WHERE t.user = :user", Object[].class)
+                .setParameter("user", user)
+                .getResultList();
+        UserTerms terms = new UserTerms();
+        for (Object[] row : rows) {
+            terms.add(new Document((Long) row[0], (LocalDate) row[1], (String) row[2], (CategoryType) row[3],
+                    tokenize((String) row[4])));
+        }
+        return terms;
+    }
+
+    @Override
+    protected boolean apply(UserTerms terms, TransactionSnapshot before, TransactionSnapshot after) {
+        if (before != null) {
+            terms.remove(before.id());
+        }
+        if (after != null) {
+            terms.add(new Document(after.id(), after.date(), after.categoryName(), after.categoryType(),
+                    tokenize(after.description())));
+        }
+        return true;
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        Set<String> words = new LinkedHashSet<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return new ArrayList<>(words);
+    }
+
+    private static final Comparator<Document> NEWEST_FIRST =
+            Comparator.comparing(Document::date).thenComparing(Document::id).reversed();
+
+    // Postings hold documents themselves, compared by identity, so a search reaches a document's metadata and
+    // words without a lookup by ID
+    private record Document(Long id, LocalDate date, String categoryName, CategoryType categoryType, List<String> words) {
+    }
+
+    /**
+     * Postings for one user: word to the transactions whose descriptions contain it, plus each transaction by ID.
+     */
+    static final class UserTerms {
+        private final TreeMap<String, Set<Document>> postings = new TreeMap<>();
+        private final Map<Long, Document> documents = new HashMap<>();
+
+        void add(Document document) {
+            documents.put(document.id(), document);
+            for (String word : document.words()) {
+                postings.computeIfAbsent(word, w -> Collections.newSetFromMap(new IdentityHashMap<>())).add(document);
+            }
+        }
+
+        void remove(Long id) {
+            Document document = documents.remove(id);
+            if (document == null) {
+                return;
+            }
+            for (String word : document.words()) {
+                Set<Document> posting = postings.get(word);
+                if (posting != null && posting.remove(document) && posting.isEmpty()) {
+                    postings.remove(word);
+                }
+            }
+        }
+
+        /**
+         * Calls the action once for every transaction matching all words. Only the postings of the word with the
+         * fewest of them are walked; each transaction found there is checked against the other words' own word lists.
+         * @throws IllegalArgumentException if that word alone matches more than {@link #MAX_CANDIDATES} transactions.
+         */
+        void forEachMatch(List<String> words, Consumer<Document> action) {
+            String driver = null;
+            Map<String, Set<Document>> driverPostings = null;
+            long driverSize = Long.MAX_VALUE;
+            for (String word : words) {
+                Map<String, Set<Document>> wordPostings = postingsFor(word);
+                long size = 0;
+                for (Set<Document> posting : wordPostings.values()) {
+                    size += posting.size();
+                }
+                if (size == 0) {
+                    return;
+                }
+                if (size < driverSize) {
+                    driver = word;
+                    driverPostings = wordPostings;
+                    driverSize = size;
+                }
+            }
+            if (driverSize > MAX_CANDIDATES) {
+                throw new IllegalArgumentException("Search matches too many transactions. Use more or longer words.");
+            }
+
+            List<String> others = new ArrayList<>(words);
+            others.remove(driver);
+            boolean severalTerms = driverPostings.size() > 1;
+            for (Map.Entry<String, Set<Document>> posting : driverPostings.entrySet()) {
+                for (Document document : posting.getValue()) {
+                    // A description with several words starting with the driver is in each of their postings;
+                    // it is taken from the first, which holds its lowest such word
+                    if ((!severalTerms || posting.getKey().equals(lowestMatch(document.words(), driver)))
+                            && matchesAll(document.words(), others)) {
+                        action.accept(document);
+                    }
+                }
+            }
+        }
+
+        Set<Long> match(List<String> words) {
+            Set<Long> ids = new HashSet<>();
+            forEachMatch(words, document -> ids.add(document.id()));
+            return ids;
+        }
+
+        private Map<String, Set<Document>> postingsFor(String word) {
+            if (word.length() < MIN_PREFIX_LENGTH) {
+                Set<Document> exact = postings.get(word);
+                return exact != null ? Map.of(word, exact) : Map.of();
+            }
+            // Every key from word up to (not including) word + MAX_VALUE starts with word
+            return postings.subMap(word, true, word + Character.MAX_VALUE, false);
+        }
+
+        private static boolean matches(String documentWord, String word) {
+            return word.length() < MIN_PREFIX_LENGTH ? documentWord.equals(word) : documentWord.startsWith(word);
+        }
+
+        private static String lowestMatch(List<String> documentWords, String word) {
+            String lowest = null;
+            for (String documentWord : documentWords) {
+                if (matches(documentWord, word) && (lowest == null || documentWord.compareTo(lowest) < 0)) {
+                    lowest = documentWord;
+                }
+            }
+            return lowest;
+        }
+
+        private static boolean matchesAll(List<String> documentWords, List<String> words) {
+            for (String word : words) {
+                boolean found = false;
+                for (String documentWord : documentWords) {
+                    if (matches(documentWord, word)) {
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
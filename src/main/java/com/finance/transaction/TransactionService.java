@@ -1,9 +1,18 @@
 package com.finance.transaction;
 
+import com.finance.budget.BudgetSpendIndex;
+import com.finance.categorization.CategorizationEngine;
+import com.finance.categorization.CategorizationEngines;
 import com.finance.category.Category;
 import com.finance.category.CategoryService;
 import com.finance.category.CategoryType;
+import com.finance.category.CategoryUsageService;
+import com.finance.exception.ConflictException;
 import com.finance.exception.ResourceNotFoundException;
+import com.finance.ledger.LedgerVersionTracker;
+import com.finance.ledger.RetryOnConflict;
+import com.finance.ledger.UserWriteLocks;
+import com.finance.outbox.TransactionOutbox;
 import com.finance.user.User;
 import com.finance.user.UserService;
 import org.springframework.stereotype.Service;
@@ -11,7 +20,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -20,27 +32,68 @@ public class TransactionService {
     private final TransactionRepository transactionRepository;
     private final UserService userService;
     private final CategoryService categoryService;
+    private final TransactionLedgerIndex ledgerIndex;
+    private final TransactionSearchIndex searchIndex;
+    private final LedgerVersionTracker ledgerVersions;
+    private final UserWriteLocks writeLocks;
+    private final TransactionOutbox outbox;
+    private final CategoryUsageService categoryUsage;
+    private final TransactionBulkDeleter bulkDeleter;
+    private final BudgetSpendIndex budgetSpend;
+    private final CategorizationEngines categorization;
+    private final DuplicateDetector duplicates;
 
-    public TransactionService(TransactionRepository transactionRepository, UserService userService, CategoryService categoryService) {
+    public TransactionService(TransactionRepository transactionRepository, UserService userService, CategoryService categoryService,
+                              TransactionLedgerIndex ledgerIndex, TransactionSearchIndex searchIndex, LedgerVersionTracker ledgerVersions,
+                              UserWriteLocks writeLocks, TransactionOutbox outbox, CategoryUsageService categoryUsage,
+                              TransactionBulkDeleter bulkDeleter, BudgetSpendIndex budgetSpend,
+                              CategorizationEngines categorization, DuplicateDetector duplicates) {
         this.transactionRepository = transactionRepository;
         this.userService = userService;
         this.categoryService = categoryService;
+        this.ledgerIndex = ledgerIndex;
+        this.searchIndex = searchIndex;
+        this.ledgerVersions = ledgerVersions;
+        this.writeLocks = writeLocks;
+        this.outbox = outbox;
+        this.categoryUsage = categoryUsage;
+        this.bulkDeleter = bulkDeleter;
+        this.budgetSpend = budgetSpend;
+        this.categorization = categorization;
+        this.duplicates = duplicates;
     }
 
     /**
      * Creates a new transaction for a user.
      * Validates amount, date, and category existence.
+     * Without a category name, the category of the user's first matching categorization rule is used.
      * @param amount The transaction amount.
      * @param date The transaction date.
-     * @param categoryName The name of the category.
+     * @param categoryName The name of the category, or null to pick it by categorization rules.
      * @param description The transaction description.
      * @param userId The ID of the user creating the transaction.
      * @return The created Transaction object.
-     * @throws IllegalArgumentException if amount is not positive, date is in future, or category is invalid.
+     * @throws IllegalArgumentException if amount is not positive, date is in future, or category is invalid
+     *         or missing with no matching rule.
      * @throws ResourceNotFoundException if the user or category is not found.
      */
     @Transactional
     public Transaction createTransaction(BigDecimal amount, LocalDate date, String categoryName, String description, Long userId) {
+        return createTransaction(amount, date, categoryName, description, userId, false);
+    }
+
+    /**
+     * Creates a new transaction for a user, optionally refusing likely duplicates.
+     * A likely duplicate has the same category and amount as an existing transaction dated within a few days,
+     * and a similar description; see {@link DuplicateDetector}.
+     * @param rejectDuplicates Whether to refuse the transaction if it looks like a duplicate.
+     * @return The created Transaction object.
+     * @throws ConflictException if duplicates are rejected and a similar transaction exists.
+     * @see #createTransaction(BigDecimal, LocalDate, String, String, Long)
+     */
+    @Transactional
+    public Transaction createTransaction(BigDecimal amount, LocalDate date, String categoryName, String description, Long userId,
+                                         boolean rejectDuplicates) {
 
         if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Amount must be a positive decimal value.");
@@ -51,8 +104,8 @@ public class TransactionService {
         if (date.isAfter(LocalDate.now())) {
             throw new IllegalArgumentException("Transaction date cannot be in the future.");
         }
-        if (categoryName == null || categoryName.trim().isEmpty()) {
-            throw new IllegalArgumentException("Category name cannot be empty.");
+        if (date.isBefore(Transaction.EARLIEST_DATE)) {
+            throw new IllegalArgumentException("Transaction date cannot be before " + Transaction.EARLIEST_DATE + ".");
         }
 
         if (amount.compareTo(BigDecimal.ZERO) <= 0) {
@@ -62,11 +115,29 @@ public class TransactionService {
             throw new IllegalArgumentException("Transaction date cannot be in the future.");
         }
 
+        writeLocks.lockUntilCompletion(userId);
         User user = userService.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
 
-        Category category = categoryService.findAccessibleCategoryByName(categoryName, userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Category not found or not accessible: " + categoryName));
+        String resolvedName = categoryName;
+        if (resolvedName == null || resolvedName.trim().isEmpty()) {
+            resolvedName = categorization.classify(user, description, amount, null)
+                    .map(CategorizationEngine.Rule::categoryName)
+                    .orElseThrow(() -> new IllegalArgumentException(
+                            "Category name cannot be empty unless a categorization rule matches the transaction."));
+        }
+        String finalName = resolvedName;
+        Category category = categoryService.findAccessibleCategoryByName(finalName, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Category not found or not accessible: " + finalName));
+
+        if (rejectDuplicates) {
+            // Checked under the user's write lock, so two concurrent copies cannot both pass
+            Optional<Long> duplicate = duplicates.findDuplicate(user, date, category.getId(), amount, description);
+            if (duplicate.isPresent()) {
+                throw new ConflictException("A similar transaction already exists (ID " + duplicate.get() +
+                        "). Set allowDuplicate to create it anyway.");
+            }
+        }
 
         // Important: Ensure the category is not soft-deleted or invalid if we were to implement soft deletes.
         // For now, if found, it's considered valid.
@@ -78,7 +149,9 @@ public class TransactionService {
         transaction.setDescription(description);
         transaction.setUser(user);
 
-        return transactionRepository.save(transaction);
+        Transaction saved = transactionRepository.save(transaction);
+        recordChange(userId, null, TransactionSnapshot.of(saved));
+        return saved;
     }
 
     /**
@@ -131,12 +204,16 @@ public class TransactionService {
      * @throws IllegalArgumentException if amount is not positive.
      */
     @Transactional
+    @RetryOnConflict
     public Transaction updateTransaction(Long transactionId, BigDecimal amount, String categoryName, String description, Long userId) {
+        // Held before the row is read, so concurrent updates of one transaction see each other's result as "before"
+        writeLocks.lockUntilCompletion(userId);
         User user = userService.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
 
         Transaction transaction = transactionRepository.findByIdAndUser(transactionId, user)
                 .orElseThrow(() -> new ResourceNotFoundException("Transaction not found with ID: " + transactionId + " for user: " + userId));
+        TransactionSnapshot before = TransactionSnapshot.of(transaction);
 
         if (amount != null) {
             if (amount.compareTo(BigDecimal.ZERO) <= 0) {
@@ -158,7 +235,9 @@ public class TransactionService {
         // KEY FIX: Never update the date field - keep original date
         // Even if date is passed in request, ignore it completely
 
-        return transactionRepository.save(transaction);
+        Transaction saved = transactionRepository.save(transaction);
+        recordChange(userId, before, TransactionSnapshot.of(saved));
+        return saved;
     }
 
     /**
@@ -170,6 +249,7 @@ public class TransactionService {
      */
     @Transactional
     public void deleteTransaction(Long transactionId, Long userId) {
+        writeLocks.lockUntilCompletion(userId);
         User user = userService.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
 
@@ -177,7 +257,100 @@ public class TransactionService {
                 .orElseThrow(() -> new ResourceNotFoundException("Transaction not found with ID: " + transactionId + " for user: " + userId));
 
         transactionRepository.delete(transaction);
+        recordChange(userId, TransactionSnapshot.of(transaction), null);
     }
 
+    /**
+     * Deletes all of a user's transactions matching the filters with set-based statements, in chunks.
+     * At least one filter is required, so an empty request never wipes the whole ledger.
+     * @param userId The ID of the user.
+     * @param startDate Optional start date (inclusive).
+     * @param endDate Optional end date (inclusive).
+     * @param categoryName Optional category name.
+     * @return The number of transactions deleted and chunks used.
+     * @throws IllegalArgumentException if no filter is given or the range is invalid.
+     * @throws ResourceNotFoundException if the user or category is not found.
+     */
+    public TransactionBulkDeleter.Result deleteTransactions(Long userId, LocalDate startDate, LocalDate endDate, String categoryName) {
+        boolean hasCategory = categoryName != null && !categoryName.isEmpty();
+        if (startDate == null && endDate == null && !hasCategory) {
+            throw new IllegalArgumentException("At least one of startDate, endDate or category is required.");
+        }
+        if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date cannot be after end date.");
+        }
+        User user = userService.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+
+        Long categoryId = null;
+        if (hasCategory) {
+            categoryId = categoryService.findAccessibleCategoryByName(categoryName, userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Category not found or not accessible: " + categoryName))
+                    .getId();
+        }
+        return bulkDeleter.delete(user, startDate, endDate, categoryId);
+    }
 
+    /**
+     * Searches a user's transaction descriptions, newest first.
+     * Every query word must match the start of a word in the description; results can be narrowed by date and category.
+     * @param userId The ID of the user.
+     * @param query The search words.
+     * @param startDate Optional start date filter.
+     * @param endDate Optional end date filter.
+     * @param categoryName Optional category name filter.
+     * @param categoryType Optional category type filter.
+     * @param page Zero-based page number.
+     * @param size Page size (1 to 100).
+     * @return The matching transactions for the page, and the total match count.
+     * @throws IllegalArgumentException if paging parameters are out of range.
+     * @throws ResourceNotFoundException if the user is not found.
+     */
+    public SearchResult searchTransactions(Long userId, String query, LocalDate startDate, LocalDate endDate,
+                                           String categoryName, CategoryType categoryType, int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Page must not be negative.");
+        }
+        if (size < 1 || size > 100) {
+            throw new IllegalArgumentException("Page size must be between 1 and 100.");
+        }
+        User user = userService.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+
+        TransactionSearchIndex.SearchPage hits = searchIndex.search(user, query, startDate, endDate, categoryName, categoryType, page, size);
+
+        // Load only the page, then restore the index's newest-first order
+        Map<Long, Transaction> loaded = new HashMap<>();
+        for (Transaction transaction : transactionRepository.findAllById(hits.ids())) {
+            loaded.put(transaction.getId(), transaction);
+        }
+        List<Transaction> transactions = new ArrayList<>(hits.ids().size());
+        for (Long id : hits.ids()) {
+            Transaction transaction = loaded.get(id);
+            if (transaction != null) {
+                transactions.add(transaction);
+            }
+        }
+        return new SearchResult(transactions, hits.totalResults());
+    }
+
+    /**
+     * A page of search results and the total number of matches across all pages.
+     */
+    public record SearchResult(List<Transaction> transactions, int totalResults) {
+    }
+
+    /**
+     * Keeps derived state in step with a write: the prefix-sum, search, budget and duplicate indexes and the user's
+     * ledger version, plus the category usage counters and an outbox event, both committed with the write itself.
+     */
+    private void recordChange(Long userId, TransactionSnapshot before, TransactionSnapshot after) {
+        categoryUsage.recordChange(userId, before, after);
+        outbox.append(userId, before, after);
+        ledgerIndex.recordChange(userId, before, after);
+        searchIndex.recordChange(userId, before, after);
+        budgetSpend.recordChange(userId, before, after);
+        duplicates.recordChange(userId, before, after);
+        ledgerVersions.recordWrite(userId);
+    }
 }
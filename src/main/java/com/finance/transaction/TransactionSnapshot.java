@@ -0,0 +1,33 @@
+package com.finance.transaction;
+
+import com.finance.category.CategoryType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Immutable copy of a transaction's state at one point in a write.
+ * Handed to in-memory indexes so they never touch managed entities after the transaction ends.
+ */
+public record TransactionSnapshot(Long id,
+                                  Long userId,
+                                  LocalDate date,
+                                  Long categoryId,
+                                  String categoryName,
+                                  CategoryType categoryType,
+                                  BigDecimal amount,
+                                  String description) {
+
+    public static TransactionSnapshot of(Transaction transaction) {
+        return new TransactionSnapshot(
+                transaction.getId(),
+                transaction.getUser() != null ? transaction.getUser().getId() : null,
+                transaction.getDate(),
+                transaction.getCategory().getId(),
+                transaction.getCategory().getName(),
+                transaction.getCategory().getType(),
+                transaction.getAmount(),
+                transaction.getDescription()
+        );
+    }
+}
@@ -13,6 +13,8 @@ public class TransactionRequest {
     private LocalDate date;
     private String categoryName;
     private String description;
+    // Create even if a similar transaction exists nearby (POST only)
+    private Boolean allowDuplicate;
 
     @JsonSetter("category")
     public void setCategory(String category) {
@@ -0,0 +1,18 @@
+package com.finance.transaction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionSearchResponse {
+    private String query;
+    private int page;
+    private int size;
+    private int totalResults;   // Matches across all pages
+    private List<TransactionResponse> results;
+}
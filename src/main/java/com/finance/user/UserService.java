@@ -4,7 +4,9 @@ import com.finance.exception.ResourceNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class UserService {
@@ -12,6 +14,9 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
 
+    // Usernames and IDs never change once registered, so the mapping can be cached for the process lifetime
+    private final Map<String, Long> userIdsByUsername = new ConcurrentHashMap<>();
+
     public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
@@ -69,4 +74,20 @@ public class UserService {
     public Optional<User> findByUsername(String username) {
         return userRepository.findByUsername(username);
     }
+
+    /**
+     * Resolves a username to its user ID, hitting the database only on the first lookup.
+     * Used on every authenticated request, including conditional GETs that must answer before any query runs.
+     * @param username The username (email) of the user.
+     * @return An Optional containing the user's ID if the user exists, or empty.
+     */
+    public Optional<Long> findIdByUsername(String username) {
+        Long cached = userIdsByUsername.get(username);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        Optional<Long> userId = userRepository.findByUsername(username).map(User::getId);
+        userId.ifPresent(id -> userIdsByUsername.put(username, id));
+        return userId;
+    }
 }
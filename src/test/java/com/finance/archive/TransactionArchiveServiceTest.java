@@ -0,0 +1,269 @@
+package com.finance.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finance.budget.BudgetSpendIndex;
+import com.finance.category.CategoryUsageService;
+import com.finance.exception.ResourceNotFoundException;
+import com.finance.ledger.LedgerVersionTracker;
+import com.finance.ledger.UserWriteLocks;
+import com.finance.outbox.TransactionOutbox;
+import com.finance.transaction.DuplicateDetector;
+import com.finance.transaction.LedgerInvalidation;
+import com.finance.transaction.TransactionLedgerIndex;
+import com.finance.transaction.TransactionSearchIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Transaction Archive Service Tests")
+class TransactionArchiveServiceTest {
+
+    private static final long USER = 7L;
+    private static final long OTHER_USER = 8L;
+
+    private JdbcTemplate jdbcTemplate;
+    private LedgerVersionTracker ledgerVersions;
+    private TransactionArchiveService archiveService;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:archives_" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE categories (id BIGINT PRIMARY KEY, name VARCHAR(255) NOT NULL, type VARCHAR(16) NOT NULL)");
+        jdbcTemplate.execute("INSERT INTO categories VALUES (1, 'Food', 'EXPENSE'), (2, 'Salary', 'INCOME'), (3, 'Coffee', 'EXPENSE')");
+        jdbcTemplate.execute("CREATE TABLE transactions (id BIGINT AUTO_INCREMENT PRIMARY KEY, amount NUMERIC(38, 2) NOT NULL, " +
+                "date DATE NOT NULL, category_id BIGINT NOT NULL, user_id BIGINT NOT NULL, description VARCHAR(500), version BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE category_usage (id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT NOT NULL, " +
+                "category_id BIGINT NOT NULL, transaction_count BIGINT NOT NULL, amount_total NUMERIC(19, 2) NOT NULL, " +
+                "UNIQUE (user_id, category_id))");
+        jdbcTemplate.execute("CREATE TABLE transaction_archives (id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT NOT NULL, " +
+                "archive_year INT NOT NULL, transaction_count BIGINT NOT NULL, compressed_bytes BIGINT NOT NULL, " +
+                "archived_at TIMESTAMP(6) WITH TIME ZONE NOT NULL, payload BLOB NOT NULL, UNIQUE (user_id, archive_year))");
+        jdbcTemplate.execute("CREATE TABLE transaction_archive_categories (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "user_id BIGINT NOT NULL, archive_year INT NOT NULL, category_id BIGINT NOT NULL, " +
+                "transaction_count BIGINT NOT NULL, UNIQUE (user_id, archive_year, category_id))");
+        jdbcTemplate.execute("CREATE TABLE outbox (id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT NOT NULL, " +
+                "transaction_id BIGINT, type VARCHAR(32) NOT NULL, payload CLOB NOT NULL, " +
+                "created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL)");
+        ledgerVersions = new LedgerVersionTracker();
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        archiveService = new TransactionArchiveService(jdbcTemplate, transactionManager, new UserWriteLocks(16),
+                new CategoryUsageService(null, null, null, transactionManager, jdbcTemplate),
+                new LedgerInvalidation(new TransactionLedgerIndex(), new TransactionSearchIndex(), new BudgetSpendIndex(),
+                        new DuplicateDetector(3, 90, 0.6), ledgerVersions),
+                new TransactionOutbox(null, new ObjectMapper(), jdbcTemplate));
+    }
+
+    private void insert(long userId, String date, long categoryId, String amount, String description) {
+        jdbcTemplate.update("INSERT INTO transactions (amount, date, category_id, user_id, description, version) VALUES (?, ?, ?, ?, ?, 0)",
+                new BigDecimal(amount), java.sql.Date.valueOf(date), categoryId, userId, description);
+        int updated = jdbcTemplate.update("UPDATE category_usage SET transaction_count = transaction_count + 1, " +
+                "amount_total = amount_total + ? WHERE user_id = ? AND category_id = ?", new BigDecimal(amount), userId, categoryId);
+        if (updated == 0) {
+            jdbcTemplate.update("INSERT INTO category_usage (user_id, category_id, transaction_count, amount_total) VALUES (?, ?, 1, ?)",
+                    userId, categoryId, new BigDecimal(amount));
+        }
+    }
+
+    private List<Map<String, Object>> transactions(long userId) {
+        return jdbcTemplate.queryForList("SELECT id, amount, date, category_id, description, version FROM transactions " +
+                "WHERE user_id = ? ORDER BY id", userId);
+    }
+
+    private List<String> bulkEvents(long userId) {
+        return jdbcTemplate.queryForList("SELECT payload FROM outbox WHERE user_id = ? AND type = 'BULK_CHANGED' ORDER BY id",
+                String.class, userId);
+    }
+
+    private long usageCount(long userId, long categoryId) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(transaction_count), 0) FROM category_usage " +
+                "WHERE user_id = ? AND category_id = ?", Long.class, userId, categoryId);
+    }
+
+    @Test
+    @DisplayName("Should move only the user's transactions of the archived year out of the table")
+    void shouldArchiveClosedYear() {
+        // Given
+        insert(USER, "2020-01-01", 1, "12.50", "Groceries");
+        insert(USER, "2020-12-31", 2, "3000.00", "Salary");
+        insert(USER, "2021-01-01", 1, "8.00", "Lunch");
+        insert(OTHER_USER, "2020-06-15", 1, "5.00", "Coffee");
+        long versionBefore = ledgerVersions.currentVersion(USER);
+
+        // When
+        TransactionArchiveService.Summary summary = archiveService.archive(USER, 2020);
+
+        // Then
+        assertAll(
+                () -> assertEquals(2020, summary.year()),
+                () -> assertEquals(2, summary.transactionCount()),
+                () -> assertTrue(summary.compressedBytes() > 0),
+                () -> assertEquals(1, transactions(USER).size()),
+                () -> assertEquals(LocalDate.of(2021, 1, 1), ((java.sql.Date) transactions(USER).get(0).get("DATE")).toLocalDate()),
+                () -> assertEquals(1, transactions(OTHER_USER).size()),
+                () -> assertEquals(1, usageCount(USER, 1)),
+                () -> assertEquals(0, usageCount(USER, 2)),
+                () -> assertEquals(1, usageCount(OTHER_USER, 1)),
+                () -> assertEquals(List.of(summary.year()), archiveService.getArchives(USER).stream()
+                        .map(TransactionArchiveService.Summary::year).toList()),
+                () -> assertTrue(archiveService.getArchives(OTHER_USER).isEmpty()),
+                () -> assertEquals(List.of("{\"bulk\":{\"operation\":\"ARCHIVE\",\"transactions\":2}}"), bulkEvents(USER)),
+                () -> assertTrue(bulkEvents(OTHER_USER).isEmpty()),
+                () -> assertNotEquals(versionBefore, ledgerVersions.currentVersion(USER))
+        );
+    }
+
+    @Test
+    @DisplayName("Should restore archived transactions with their original IDs and usage counters")
+    void shouldRestoreArchivedYear() {
+        // Given
+        insert(USER, "2019-03-01", 1, "12.50", "Groceries");
+        insert(USER, "2019-04-01", 2, "3000.00", null);
+        insert(USER, "2020-01-01", 1, "8.00", "Lunch");
+        List<Map<String, Object>> before = transactions(USER);
+        archiveService.archive(USER, 2019);
+
+        // When
+        TransactionArchiveService.Summary restored = archiveService.restore(USER, 2019);
+
+        // Then
+        assertAll(
+                () -> assertEquals(2, restored.transactionCount()),
+                () -> assertEquals(before, transactions(USER)),
+                () -> assertEquals(2, usageCount(USER, 1)),
+                () -> assertEquals(1, usageCount(USER, 2)),
+                () -> assertTrue(archiveService.getArchives(USER).isEmpty()),
+                () -> assertEquals(List.of("{\"bulk\":{\"operation\":\"ARCHIVE\",\"transactions\":2}}",
+                        "{\"bulk\":{\"operation\":\"RESTORE\",\"transactions\":2}}"), bulkEvents(USER))
+        );
+    }
+
+    @Test
+    @DisplayName("Should fold transactions added after archiving into the existing archive")
+    void shouldAppendToExistingArchive() {
+        // Given
+        insert(USER, "2019-03-01", 1, "12.50", "Groceries");
+        archiveService.archive(USER, 2019);
+        insert(USER, "2019-11-20", 1, "4.20", "Back-dated receipt");
+
+        // When
+        TransactionArchiveService.Summary summary = archiveService.archive(USER, 2019);
+        archiveService.restore(USER, 2019);
+
+        // Then
+        assertAll(
+                () -> assertEquals(2, summary.transactionCount()),
+                () -> assertTrue(archiveService.getArchives(USER).isEmpty()),
+                () -> assertEquals(2, transactions(USER).size()),
+                () -> assertEquals(2, usageCount(USER, 1))
+        );
+    }
+
+    @Test
+    @DisplayName("Should reject open years, empty years and unknown archives")
+    void shouldRejectInvalidRequests() {
+        // Given
+        int currentYear = LocalDate.now().getYear();
+        insert(USER, currentYear + "-01-01", 1, "1.00", "Open year");
+
+        // When / Then
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> archiveService.archive(USER, currentYear)),
+                () -> assertThrows(IllegalArgumentException.class, () -> archiveService.archive(USER, 2015)),
+                () -> assertThrows(ResourceNotFoundException.class, () -> archiveService.restore(USER, 2015)),
+                () -> assertEquals(1, transactions(USER).size())
+        );
+    }
+
+    @Test
+    @DisplayName("Should track which categories the user's archives still need")
+    void shouldTrackArchivedCategories() {
+        // Given
+        insert(USER, "2019-03-01", 2, "3000.00", "Salary");
+        insert(USER, "2020-03-01", 2, "3000.00", "Salary");
+        insert(USER, "2020-03-02", 1, "9.00", "Lunch");
+        insert(OTHER_USER, "2019-05-01", 3, "2.50", "Espresso");
+
+        // When
+        archiveService.archive(USER, 2019);
+        archiveService.archive(USER, 2020);
+        archiveService.archive(OTHER_USER, 2019);
+        boolean salaryWhileArchived = archiveService.isCategoryArchived(USER, 2L);
+        archiveService.restore(USER, 2019);
+        boolean salaryAfterOneRestore = archiveService.isCategoryArchived(USER, 2L);
+        archiveService.restore(USER, 2020);
+
+        // Then
+        assertAll(
+                () -> assertTrue(salaryWhileArchived),
+                () -> assertTrue(salaryAfterOneRestore),
+                () -> assertFalse(archiveService.isCategoryArchived(USER, 2L)),
+                () -> assertFalse(archiveService.isCategoryArchived(USER, 1L)),
+                () -> assertFalse(archiveService.isCategoryArchived(USER, 3L)),
+                () -> assertTrue(archiveService.isCategoryArchived(OTHER_USER, 3L))
+        );
+    }
+
+    @Test
+    @DisplayName("Should rewrite a merged category inside every archive that holds it")
+    void shouldReassignArchivedCategory() {
+        // Given
+        insert(USER, "2018-06-01", 3, "2.50", "Espresso");
+        insert(USER, "2019-03-01", 3, "3.00", "Latte");
+        insert(USER, "2019-03-02", 1, "12.50", "Groceries");
+        insert(USER, "2020-01-01", 2, "3000.00", "Salary");
+        insert(OTHER_USER, "2019-05-01", 3, "2.50", "Espresso");
+        List<Map<String, Object>> before = transactions(USER);
+        for (int year : List.of(2018, 2019, 2020)) {
+            archiveService.archive(USER, year);
+        }
+        archiveService.archive(OTHER_USER, 2019);
+
+        // When
+        int moved = archiveService.reassignCategory(USER, 3L, 1L);
+        for (int year : List.of(2018, 2019, 2020)) {
+            archiveService.restore(USER, year);
+        }
+
+        // Then
+        List<Map<String, Object>> after = transactions(USER);
+        assertAll(
+                () -> assertEquals(2, moved),
+                () -> assertEquals(before.size(), after.size()),
+                () -> assertEquals(List.of(1L, 1L, 1L, 2L), after.stream()
+                        .map(row -> ((Number) row.get("CATEGORY_ID")).longValue()).toList()),
+                () -> assertEquals(before.stream().map(row -> row.get("DESCRIPTION")).toList(),
+                        after.stream().map(row -> row.get("DESCRIPTION")).toList()),
+                () -> assertEquals(3, usageCount(USER, 1)),
+                () -> assertEquals(0, usageCount(USER, 3)),
+                () -> assertFalse(archiveService.isCategoryArchived(USER, 3L)),
+                () -> assertTrue(archiveService.isCategoryArchived(OTHER_USER, 3L))
+        );
+    }
+
+    @Test
+    @DisplayName("Should round-trip archived transactions through the compressed format")
+    void shouldRoundTripPayload() {
+        // Given
+        List<TransactionArchiveService.ArchivedTransaction> transactions = List.of(
+                new TransactionArchiveService.ArchivedTransaction(1, LocalDate.of(2019, 1, 1), new BigDecimal("12.50"), 1, "Caf\u00e9 \u2615", 0),
+                new TransactionArchiveService.ArchivedTransaction(2, LocalDate.of(2019, 12, 31), new BigDecimal("-0.01"), 2, null, 3));
+
+        // When
+        byte[] payload = TransactionArchiveService.encode(transactions);
+
+        // Then
+        assertEquals(transactions, TransactionArchiveService.decode(payload));
+    }
+}
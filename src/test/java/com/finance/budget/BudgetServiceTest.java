@@ -0,0 +1,123 @@
+package com.finance.budget;
+
+import com.finance.budget.dto.BudgetRequest;
+import com.finance.transaction.Transaction;
+import com.finance.transaction.TransactionService;
+import com.finance.user.User;
+import com.finance.user.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DisplayName("Budget Service Tests")
+class BudgetServiceTest {
+
+    @Autowired
+    private BudgetService budgetService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserService userService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userService.registerUser(new User(null, "budget." + System.nanoTime() + "@example.com",
+                "password123", "Budget Test", "1234567890"));
+    }
+
+    private BudgetRequest request(String category, String amount, Integer alertThreshold) {
+        BudgetRequest request = new BudgetRequest();
+        request.setCategoryName(category);
+        request.setAmount(new BigDecimal(amount));
+        request.setAlertThreshold(alertThreshold);
+        return request;
+    }
+
+    private BudgetService.BudgetWithSpend budgetFor(String category) {
+        return budgetService.getBudgets(user.getId(), YearMonth.now()).stream()
+                .filter(budget -> budget.budget().getCategory().getName().equals(category))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    @DisplayName("Should track spending as transactions are created, updated and deleted")
+    void shouldTrackSpendingThroughWrites() {
+        // Given
+        budgetService.createBudget(request("Food", "200.00", 75), user.getId());
+        LocalDate today = LocalDate.now();
+        Transaction lunch = transactionService.createTransaction(new BigDecimal("100.00"), today, "Food", "Lunch", user.getId());
+        assertEquals(BudgetStatus.OK, budgetFor("Food").status());
+
+        // When
+        transactionService.createTransaction(new BigDecimal("60.00"), today, "Food", "Groceries", user.getId());
+        BudgetService.BudgetWithSpend warning = budgetFor("Food");
+        transactionService.updateTransaction(lunch.getId(), new BigDecimal("150.00"), null, null, user.getId());
+        BudgetService.BudgetWithSpend exceeded = budgetFor("Food");
+        transactionService.deleteTransaction(lunch.getId(), user.getId());
+        BudgetService.BudgetWithSpend afterDelete = budgetFor("Food");
+
+        // Then
+        assertAll(
+                () -> assertEquals(0, new BigDecimal("160.00").compareTo(warning.spent())),
+                () -> assertEquals(BudgetStatus.WARNING, warning.status()),
+                () -> assertEquals(0, new BigDecimal("210.00").compareTo(exceeded.spent())),
+                () -> assertEquals(BudgetStatus.EXCEEDED, exceeded.status()),
+                () -> assertEquals(0, new BigDecimal("60.00").compareTo(afterDelete.spent())),
+                () -> assertEquals(BudgetStatus.OK, afterDelete.status())
+        );
+    }
+
+    @Test
+    @DisplayName("Should list only budgets at or over their threshold as alerts")
+    void shouldListAlerts() {
+        // Given
+        budgetService.createBudget(request("Food", "100.00", null), user.getId());
+        budgetService.createBudget(request("Transportation", "100.00", null), user.getId());
+        transactionService.createTransaction(new BigDecimal("80.00"), LocalDate.now(), "Food", "Market", user.getId());
+        transactionService.createTransaction(new BigDecimal("10.00"), LocalDate.now(), "Transportation", "Bus", user.getId());
+
+        // When
+        List<BudgetService.BudgetWithSpend> alerts = budgetService.getAlerts(user.getId());
+
+        // Then
+        assertAll(
+                () -> assertEquals(1, alerts.size()),
+                () -> assertEquals("Food", alerts.get(0).budget().getCategory().getName()),
+                () -> assertEquals(BudgetStatus.WARNING, alerts.get(0).status())
+        );
+    }
+
+    @Test
+    @DisplayName("Should reject duplicate budgets, income categories and invalid thresholds")
+    void shouldRejectInvalidBudgets() {
+        // Given
+        budgetService.createBudget(request("Food", "100.00", null), user.getId());
+
+        // Then
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> budgetService.createBudget(request("Food", "50.00", null), user.getId())),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> budgetService.createBudget(request("Salary", "50.00", null), user.getId())),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> budgetService.createBudget(request("Transportation", "50.00", 0), user.getId())),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> budgetService.createBudget(request("Transportation", "-5.00", null), user.getId()))
+        );
+    }
+}
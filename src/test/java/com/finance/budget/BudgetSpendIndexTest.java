@@ -0,0 +1,68 @@
+package com.finance.budget;
+
+import com.finance.category.CategoryType;
+import com.finance.transaction.TransactionSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Budget Spend Index Tests")
+class BudgetSpendIndexTest {
+
+    private static final YearMonth MAY = YearMonth.of(2024, 5);
+    private static final YearMonth JUNE = YearMonth.of(2024, 6);
+
+    private BudgetSpendIndex index;
+    private BudgetSpendIndex.MonthlySpend spend;
+
+    @BeforeEach
+    void setUp() {
+        index = new BudgetSpendIndex();
+        spend = new BudgetSpendIndex.MonthlySpend();
+        index.apply(spend, null, snapshot(1L, 10L, LocalDate.of(2024, 5, 3), "40.00"));
+        index.apply(spend, null, snapshot(2L, 10L, LocalDate.of(2024, 5, 28), "15.50"));
+        index.apply(spend, null, snapshot(3L, 20L, LocalDate.of(2024, 5, 10), "100.00"));
+    }
+
+    private TransactionSnapshot snapshot(Long id, Long categoryId, LocalDate date, String amount) {
+        return new TransactionSnapshot(id, 1L, date, categoryId, "Category " + categoryId,
+                CategoryType.EXPENSE, new BigDecimal(amount), "Test");
+    }
+
+    @Test
+    @DisplayName("Should total amounts per category and month")
+    void shouldTotalPerCategoryAndMonth() {
+        // When
+        Map<Long, BigDecimal> may = spend.forMonth(MAY);
+
+        // Then
+        assertAll(
+                () -> assertEquals(0, new BigDecimal("55.50").compareTo(may.get(10L))),
+                () -> assertEquals(0, new BigDecimal("100.00").compareTo(may.get(20L))),
+                () -> assertTrue(spend.forMonth(JUNE).isEmpty())
+        );
+    }
+
+    @Test
+    @DisplayName("Should move amounts on updates across months and categories, and drop them on deletes")
+    void shouldFollowUpdatesAndDeletes() {
+        // When
+        index.apply(spend, snapshot(1L, 10L, LocalDate.of(2024, 5, 3), "40.00"),
+                snapshot(1L, 20L, LocalDate.of(2024, 6, 1), "45.00"));
+        index.apply(spend, snapshot(3L, 20L, LocalDate.of(2024, 5, 10), "100.00"), null);
+
+        // Then
+        assertAll(
+                () -> assertEquals(0, new BigDecimal("15.50").compareTo(spend.get(10L, MAY))),
+                () -> assertEquals(0, BigDecimal.ZERO.compareTo(spend.get(20L, MAY))),
+                () -> assertEquals(0, new BigDecimal("45.00").compareTo(spend.get(20L, JUNE)))
+        );
+    }
+}
@@ -0,0 +1,140 @@
+package com.finance.categorization;
+
+import com.finance.category.CategoryType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Categorization Engine Tests")
+class CategorizationEngineTest {
+
+    private static CategorizationEngine.Rule contains(long id, int priority, String category, CategoryType type, String pattern) {
+        return new CategorizationEngine.Rule(id, priority, id, category, type, RuleMatchType.CONTAINS, pattern, null, null);
+    }
+
+    private static CategorizationEngine.Rule bounded(long id, int priority, String category, RuleMatchType matchType,
+                                                     String pattern, String min, String max) {
+        return new CategorizationEngine.Rule(id, priority, id, category, CategoryType.EXPENSE, matchType, pattern,
+                min != null ? new BigDecimal(min) : null, max != null ? new BigDecimal(max) : null);
+    }
+
+    @Test
+    @DisplayName("Should report every overlapping pattern occurrence")
+    void shouldFindOverlappingPatterns() {
+        // Given: the classic he/she/his/hers set, where matches end inside other matches
+        AhoCorasick automaton = new AhoCorasick(List.of("he", "she", "his", "hers", "he"));
+        List<Integer> matches = new ArrayList<>();
+
+        // When
+        automaton.forEachMatch("ushers", matches::add);
+
+        // Then: "she" and "he" end at the same character, "hers" at the last; the duplicate "he" reports index 0
+        assertEquals(List.of(1, 0, 3), matches);
+    }
+
+    @Test
+    @DisplayName("Should pick the matching rule with the lowest priority, then the lowest ID")
+    void shouldPreferLowestPriority() {
+        // Given
+        CategorizationEngine engine = new CategorizationEngine(List.of(
+                contains(5, 50, "Shopping", CategoryType.EXPENSE, "amazon"),
+                contains(3, 10, "Entertainment", CategoryType.EXPENSE, "prime video"),
+                contains(4, 10, "Subscriptions", CategoryType.EXPENSE, "amazon prime"),
+                contains(1, 90, "Refunds", CategoryType.INCOME, "amazon")));
+
+        // When & Then
+        assertAll(
+                () -> assertEquals(3, engine.classify("AMAZON PRIME VIDEO", null, null).id()),
+                () -> assertEquals(4, engine.classify("Amazon Prime membership", null, null).id()),
+                () -> assertEquals(5, engine.classify("amazon.co.uk order", null, CategoryType.EXPENSE).id()),
+                () -> assertEquals(1, engine.classify("Amazon refund", null, CategoryType.INCOME).id()),
+                () -> assertNull(engine.classify("Corner shop", null, null)),
+                () -> assertNull(engine.classify(null, null, null))
+        );
+    }
+
+    @Test
+    @DisplayName("Should combine patterns with amount ranges, regexes and amount-only rules")
+    void shouldApplyAmountRangesAndRegexes() {
+        // Given
+        CategorizationEngine engine = new CategorizationEngine(List.of(
+                bounded(1, 10, "Rent", RuleMatchType.CONTAINS, "transfer", "500", null),
+                bounded(2, 20, "Transportation", RuleMatchType.REGEX, "^(uber|lyft)\\b", null, "80"),
+                bounded(3, 30, "Transfers", RuleMatchType.CONTAINS, "transfer", null, null),
+                bounded(4, 40, "Large purchases", RuleMatchType.CONTAINS, null, "1000", null)));
+
+        // When & Then
+        assertAll(
+                () -> assertEquals("Rent", engine.classify("Transfer to J. Smith", new BigDecimal("-850.00"), null).categoryName()),
+                () -> assertEquals("Transfers", engine.classify("Transfer to J. Smith", new BigDecimal("20.00"), null).categoryName()),
+                () -> assertEquals("Transfers", engine.classify("Transfer to J. Smith", null, null).categoryName()),
+                () -> assertEquals("Transportation", engine.classify("Uber trip", new BigDecimal("80.00"), null).categoryName()),
+                () -> assertNull(engine.classify("Uber trip", new BigDecimal("80.01"), null)),
+                () -> assertNull(engine.classify("My uber trip", new BigDecimal("12"), null)),
+                () -> assertEquals("Large purchases", engine.classify("Laptop", new BigDecimal("1299.99"), null).categoryName()),
+                () -> assertEquals("Large purchases", engine.classify(null, new BigDecimal("1000"), null).categoryName())
+        );
+    }
+
+    @Test
+    @DisplayName("Should give up on a backtracking regex within the time budget and fall through to later rules")
+    void shouldBoundBacktrackingRegex() {
+        // Given
+        CategorizationEngine engine = new CategorizationEngine(List.of(
+                bounded(1, 10, "Never", RuleMatchType.REGEX, "^(.*a){20}$", null, null),
+                bounded(2, 20, "Skipped", RuleMatchType.REGEX, "a", null, null),
+                bounded(3, 30, "Fallback", RuleMatchType.CONTAINS, "aaaa", null, null)),
+                TimeUnit.MILLISECONDS.toNanos(20));
+        String description = "a".repeat(40) + "!";
+
+        // When
+        long start = System.nanoTime();
+        CategorizationEngine.Rule rule = engine.classify(description, null, null);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        // Then
+        assertAll(
+                () -> assertEquals("Fallback", rule.categoryName()),
+                () -> assertTrue(elapsedMillis < 5_000, "took " + elapsedMillis + " ms"),
+                () -> assertEquals("Skipped", engine.classify("a!", null, null).categoryName())
+        );
+    }
+
+    @Test
+    @DisplayName("Should classify against thousands of rules by the same first-match rule as a linear scan")
+    void shouldAgreeWithLinearScan() {
+        // Given
+        List<CategorizationEngine.Rule> rules = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            rules.add(bounded(i, (i * 7919) % 1000, "Category " + (i % 40), RuleMatchType.CONTAINS, "merchant" + (i % 1500),
+                    i % 3 == 0 ? String.valueOf(i % 100) : null, i % 5 == 0 ? String.valueOf(100 + i % 400) : null));
+        }
+        CategorizationEngine engine = new CategorizationEngine(rules);
+        List<CategorizationEngine.Rule> ordered = rules.stream()
+                .sorted((a, b) -> a.priority() != b.priority() ? Integer.compare(a.priority(), b.priority()) : Long.compare(a.id(), b.id()))
+                .toList();
+
+        for (int t = 0; t < 2_000; t++) {
+            String description = "Card payment MERCHANT" + (t * 31 % 1700) + " ref " + t;
+            BigDecimal amount = BigDecimal.valueOf(t % 600);
+
+            // When
+            CategorizationEngine.Rule actual = engine.classify(description, amount, null);
+
+            // Then
+            CategorizationEngine.Rule expected = ordered.stream()
+                    .filter(rule -> description.toLowerCase().contains(rule.pattern()))
+                    .filter(rule -> rule.minAmount() == null || amount.compareTo(rule.minAmount()) >= 0)
+                    .filter(rule -> rule.maxAmount() == null || amount.compareTo(rule.maxAmount()) <= 0)
+                    .findFirst()
+                    .orElse(null);
+            assertEquals(expected, actual, description + " / " + amount);
+        }
+    }
+}
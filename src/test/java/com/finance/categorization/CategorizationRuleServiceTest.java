@@ -0,0 +1,170 @@
+package com.finance.categorization;
+
+import com.finance.categorization.dto.CategorizationRuleRequest;
+import com.finance.category.CategoryService;
+import com.finance.category.CategoryType;
+import com.finance.exception.ResourceNotFoundException;
+import com.finance.transaction.Transaction;
+import com.finance.transaction.TransactionService;
+import com.finance.user.User;
+import com.finance.user.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "finance.categorization.max-regex-rules=2")
+@DisplayName("Categorization Rule Service Tests")
+class CategorizationRuleServiceTest {
+
+    @Autowired
+    private CategorizationRuleService ruleService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserService userService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userService.registerUser(new User(null, "rules." + System.nanoTime() + "@example.com",
+                "password123", "Rules Test", "1234567890"));
+    }
+
+    private CategorizationRuleRequest request(String category, String matchType, String pattern, String minAmount, Integer priority) {
+        CategorizationRuleRequest request = new CategorizationRuleRequest();
+        request.setCategoryName(category);
+        request.setMatchType(matchType);
+        request.setPattern(pattern);
+        request.setMinAmount(minAmount != null ? new BigDecimal(minAmount) : null);
+        request.setPriority(priority);
+        return request;
+    }
+
+    private Transaction create(String amount, String description) {
+        return transactionService.createTransaction(new BigDecimal(amount), LocalDate.now(), null, description, user.getId());
+    }
+
+    @Test
+    @DisplayName("Should categorize transactions without a category and follow rule edits")
+    void shouldCategorizeAndFollowEdits() {
+        // Given
+        CategorizationRule uber = ruleService.createRule(request("Transportation", null, "uber", null, null), user.getId());
+        ruleService.createRule(request("Entertainment", "regex", "uber\\s+eats", null, 10), user.getId());
+
+        // When
+        Transaction ride = create("14.50", "UBER TRIP HELP.UBER.COM");
+        Transaction meal = create("23.10", "Uber Eats order");
+        ruleService.updateRule(uber.getId(), request("Food", null, "uber", null, null), user.getId());
+        Transaction afterEdit = create("9.00", "Uber trip");
+        ruleService.deleteRule(uber.getId(), user.getId());
+
+        // Then
+        assertAll(
+                () -> assertEquals("Transportation", ride.getCategory().getName()),
+                () -> assertEquals("Entertainment", meal.getCategory().getName()),
+                () -> assertEquals("Food", afterEdit.getCategory().getName()),
+                () -> assertThrows(IllegalArgumentException.class, () -> create("9.00", "Uber trip"))
+        );
+    }
+
+    @Test
+    @DisplayName("Should move rules with a merged category and drop them with a deleted one")
+    void shouldFollowCategoryMergeAndDelete() {
+        // Given
+        categoryService.createCustomCategory("Coffee", CategoryType.EXPENSE, user.getId());
+        categoryService.createCustomCategory("Gym", CategoryType.EXPENSE, user.getId());
+        ruleService.createRule(request("Coffee", null, "starbucks", null, null), user.getId());
+        ruleService.createRule(request("Gym", null, "fitness", null, null), user.getId());
+        assertEquals("Coffee", ruleService.match(user.getId(), "STARBUCKS 123", null, null).orElseThrow().categoryName());
+
+        // When
+        categoryService.mergeCategory("Coffee", "Food", user.getId());
+        categoryService.deleteCustomCategory("Gym", user.getId());
+
+        // Then
+        assertAll(
+                () -> assertEquals("Food", ruleService.match(user.getId(), "STARBUCKS 123", null, null).orElseThrow().categoryName()),
+                () -> assertTrue(ruleService.match(user.getId(), "Fitness First", null, null).isEmpty()),
+                () -> assertEquals(1, ruleService.getRules(user.getId()).size())
+        );
+    }
+
+    @Test
+    @DisplayName("Should reject invalid rules")
+    void shouldRejectInvalidRules() {
+        // Given
+        Long userId = user.getId();
+
+        // When & Then
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> ruleService.createRule(request("Food", null, null, null, null), userId)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> ruleService.createRule(request("Food", "regex", "(unclosed", null, null), userId)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> ruleService.createRule(request("Food", "regex", "^(\\w+\\s?)*$", null, null), userId)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> ruleService.createRule(request("Food", "glob", "x", null, null), userId)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> ruleService.createRule(request("Food", null, "x", "-1", null), userId)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> ruleService.createRule(request("Food", null, "x", null, -1), userId)),
+                () -> assertThrows(ResourceNotFoundException.class,
+                        () -> ruleService.createRule(request("Nope", null, "x", null, null), userId))
+        );
+    }
+
+    @Test
+    @DisplayName("Should cap the number of regex rules per user")
+    void shouldCapRegexRules() {
+        // Given
+        Long userId = user.getId();
+        CategorizationRule first = ruleService.createRule(request("Food", "regex", "^cafe", null, null), userId);
+        ruleService.createRule(request("Food", "regex", "bakery$", null, null), userId);
+        CategorizationRule contains = ruleService.createRule(request("Food", null, "market", null, null), userId);
+
+        // When
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> ruleService.createRule(request("Food", "regex", "deli", null, null), userId));
+
+        // Then
+        assertAll(
+                () -> assertTrue(error.getMessage().contains("2 regex rules")),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> ruleService.updateRule(contains.getId(), request("Food", "regex", "market", null, null), userId)),
+                () -> assertEquals("deli", ruleService.updateRule(first.getId(), request("Food", "regex", "deli", null, null), userId).getPattern()),
+                () -> assertEquals(3, ruleService.getRules(userId).size())
+        );
+    }
+
+    @Test
+    @DisplayName("Should detect repeated groups that contain a repetition")
+    void shouldDetectNestedRepetition() {
+        assertAll(
+                () -> assertTrue(CategorizationRuleService.hasNestedRepetition("(a+)+")),
+                () -> assertTrue(CategorizationRuleService.hasNestedRepetition("^(\\w+\\s?)*$")),
+                () -> assertTrue(CategorizationRuleService.hasNestedRepetition("((ab)*c){2,}")),
+                () -> assertTrue(CategorizationRuleService.hasNestedRepetition("(?:x|[a-z]+)*")),
+                () -> assertFalse(CategorizationRuleService.hasNestedRepetition("uber\\s+eats")),
+                () -> assertFalse(CategorizationRuleService.hasNestedRepetition("^(uber|lyft)\\b")),
+                () -> assertFalse(CategorizationRuleService.hasNestedRepetition("(\\d+)-(\\d+)")),
+                () -> assertFalse(CategorizationRuleService.hasNestedRepetition("(a+){2}")),
+                () -> assertFalse(CategorizationRuleService.hasNestedRepetition("\\(a+\\)+")),
+                () -> assertFalse(CategorizationRuleService.hasNestedRepetition("([+*])+")),
+                () -> assertFalse(CategorizationRuleService.hasNestedRepetition("\\Q(a+)+\\E"))
+        );
+    }
+}
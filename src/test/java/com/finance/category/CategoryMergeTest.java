@@ -0,0 +1,158 @@
+package com.finance.category;
+
+import com.finance.archive.TransactionArchiveService;
+import com.finance.transaction.TransactionLedgerIndex;
+import com.finance.transaction.TransactionService;
+import com.finance.user.User;
+import com.finance.user.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DisplayName("Category Merge Tests")
+class CategoryMergeTest {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CategoryUsageService categoryUsage;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TransactionLedgerIndex ledgerIndex;
+
+    @Autowired
+    private TransactionArchiveService archiveService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userService.registerUser(new User(null, "merge." + System.nanoTime() + "@example.com",
+                "password123", "Merge Test", "1234567890"));
+    }
+
+    @Test
+    @DisplayName("Should move 100k transactions in one statement and keep counters and search in step")
+    void shouldMoveAllTransactionsAndFixAggregates() {
+        // Given
+        Category groceries = categoryService.createCustomCategory("Groceries", CategoryType.EXPENSE, user.getId());
+        Long foodId = categoryService.findAccessibleCategoryByName("Food", user.getId()).orElseThrow().getId();
+        transactionService.createTransaction(new BigDecimal("10.00"), LocalDate.now(), "Food", "Bakery", user.getId());
+        transactionService.createTransaction(new BigDecimal("5.00"), LocalDate.now(), "Groceries", "Weekly market", user.getId());
+        jdbcTemplate.update("INSERT INTO transactions (amount, date, category_id, user_id, description, version) " +
+                "SELECT 1.00, CURRENT_DATE, ?, ?, 'Bulk ' || X, 0 FROM SYSTEM_RANGE(1, 100000)", groceries.getId(), user.getId());
+        categoryUsage.reconcile();
+        assertEquals(1, transactionService.searchTransactions(user.getId(), "weekly", null, null, "Groceries", null, 0, 10).totalResults());
+
+        // When
+        // One UPDATE: measured at 4.4 to 5.8 s on H2 when run alone and up to 13 s inside the full suite's shared
+        // database, about 2 s warm (see CategoryMergeBenchmark)
+        int moved = assertTimeout(Duration.ofSeconds(20),
+                () -> categoryService.mergeCategory("Groceries", "Food", user.getId()));
+
+        // Then
+        Map<Long, CategoryUsage> usage = categoryService.getCategoryUsage(user.getId());
+        assertAll(
+                () -> assertEquals(100001, moved),
+                () -> assertFalse(usage.containsKey(groceries.getId())),
+                () -> assertEquals(100002, usage.get(foodId).getTransactionCount()),
+                () -> assertEquals(0, new BigDecimal("100015.00").compareTo(usage.get(foodId).getAmountTotal())),
+                () -> assertTrue(categoryService.findAccessibleCategoryByName("Groceries", user.getId()).isEmpty()),
+                () -> assertEquals(1, transactionService.searchTransactions(user.getId(), "weekly", null, null, "Food", null, 0, 10).totalResults()),
+                () -> assertEquals(List.of("{\"bulk\":{\"operation\":\"CATEGORY_MERGE\",\"transactions\":100001}}"),
+                        jdbcTemplate.queryForList("SELECT payload FROM outbox WHERE user_id = ? AND type = 'BULK_CHANGED'",
+                                String.class, user.getId())),
+                () -> assertEquals(0, categoryUsage.reconcile())
+        );
+    }
+
+    @Test
+    @DisplayName("Should refile a category's history when its type or name changes")
+    void shouldRefileHistoryWhenCategoryChanges() {
+        // Given
+        Category gigs = categoryService.createCustomCategory("Gigs", CategoryType.EXPENSE, user.getId());
+        transactionService.createTransaction(new BigDecimal("40.00"), LocalDate.now(), "Gigs", "Weekend market stall", user.getId());
+        assertEquals(0, new BigDecimal("40.00").compareTo(
+                ledgerIndex.sum(user, null, null, CategoryType.EXPENSE)));
+
+        // When
+        categoryService.updateCategory(gigs.getId(), "Side income", CategoryType.INCOME, user.getId());
+
+        // Then
+        assertAll(
+                () -> assertEquals(0, BigDecimal.ZERO.compareTo(
+                        ledgerIndex.sum(user, null, null, CategoryType.EXPENSE))),
+                () -> assertEquals(0, new BigDecimal("40.00").compareTo(
+                        ledgerIndex.sum(user, null, null, CategoryType.INCOME))),
+                () -> assertEquals(1, transactionService.searchTransactions(user.getId(), "stall", null, null, "Side income", null, 0, 10).totalResults()),
+                () -> assertEquals(0, transactionService.searchTransactions(user.getId(), "stall", null, null, "Gigs", null, 0, 10).totalResults())
+        );
+    }
+
+    @Test
+    @DisplayName("Should keep archived transactions restorable across category deletes and merges")
+    void shouldKeepArchivesRestorable() {
+        // Given
+        int lastYear = LocalDate.now().getYear() - 1;
+        Category coffee = categoryService.createCustomCategory("Coffee", CategoryType.EXPENSE, user.getId());
+        Long foodId = categoryService.findAccessibleCategoryByName("Food", user.getId()).orElseThrow().getId();
+        Long archivedId = transactionService.createTransaction(new BigDecimal("3.20"), LocalDate.of(lastYear, 3, 1),
+                "Coffee", "Espresso", user.getId()).getId();
+        archiveService.archive(user.getId(), lastYear);
+
+        // When
+        IllegalArgumentException deleteError = assertThrows(IllegalArgumentException.class,
+                () -> categoryService.deleteCustomCategory("Coffee", user.getId()));
+        categoryService.mergeCategory("Coffee", "Food", user.getId());
+        archiveService.restore(user.getId(), lastYear);
+
+        // Then
+        assertAll(
+                () -> assertTrue(deleteError.getMessage().contains("archived")),
+                () -> assertTrue(categoryService.getCategoryByIdAndUser(coffee.getId(), user.getId()).isEmpty()),
+                () -> assertEquals(foodId, jdbcTemplate.queryForObject(
+                        "SELECT category_id FROM transactions WHERE id = ?", Long.class, archivedId)),
+                () -> assertEquals(1, categoryService.getCategoryUsage(user.getId()).get(foodId).getTransactionCount()),
+                () -> assertEquals(0, categoryUsage.reconcile())
+        );
+    }
+
+    @Test
+    @DisplayName("Should refuse to merge into a category of the other type")
+    void shouldRefuseMergeAcrossTypes() {
+        // Given
+        categoryService.createCustomCategory("Side gigs", CategoryType.INCOME, user.getId());
+        categoryService.createCustomCategory("Snacks", CategoryType.EXPENSE, user.getId());
+
+        // Then
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> categoryService.mergeCategory("Snacks", "Salary", user.getId())),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> categoryService.mergeCategory("Snacks", "Snacks", user.getId())),
+                () -> assertEquals(0, categoryService.mergeCategory("Side gigs", "Salary", user.getId()))
+        );
+    }
+}
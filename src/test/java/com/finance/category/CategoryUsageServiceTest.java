@@ -0,0 +1,160 @@
+package com.finance.category;
+
+import com.finance.ledger.UserWriteLocks;
+import com.finance.transaction.TransactionRepository;
+import com.finance.transaction.TransactionSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Category Usage Service Tests")
+class CategoryUsageServiceTest {
+
+    @Mock
+    private CategoryUsageRepository usageRepository;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private UserWriteLocks writeLocks;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private CategoryUsageService categoryUsage;
+
+    @BeforeEach
+    void setUp() {
+        categoryUsage = new CategoryUsageService(usageRepository, transactionRepository, writeLocks, transactionManager,
+                jdbcTemplate);
+    }
+
+    private static TransactionSnapshot snapshot(Long categoryId, String amount) {
+        return new TransactionSnapshot(10L, 1L, LocalDate.now(), categoryId, "Food", CategoryType.EXPENSE,
+                new BigDecimal(amount), "Lunch");
+    }
+
+    @Test
+    @DisplayName("Should create a counter on first use and adjust it afterwards")
+    void shouldCreateCounterOnFirstUse() {
+        // Given
+        when(usageRepository.adjust(1L, 5L, 1, new BigDecimal("12.50"))).thenReturn(0);
+
+        // When
+        categoryUsage.recordChange(1L, null, snapshot(5L, "12.50"));
+
+        // Then
+        ArgumentCaptor<CategoryUsage> saved = ArgumentCaptor.forClass(CategoryUsage.class);
+        verify(usageRepository).save(saved.capture());
+        assertAll(
+                () -> assertEquals(1L, saved.getValue().getUserId()),
+                () -> assertEquals(5L, saved.getValue().getCategoryId()),
+                () -> assertEquals(1, saved.getValue().getTransactionCount()),
+                () -> assertEquals(0, new BigDecimal("12.50").compareTo(saved.getValue().getAmountTotal()))
+        );
+    }
+
+    @Test
+    @DisplayName("Should apply only the amount difference when the category is unchanged")
+    void shouldApplyAmountDifferenceOnUpdate() {
+        // Given
+        when(usageRepository.adjust(1L, 5L, 0, new BigDecimal("7.50"))).thenReturn(1);
+
+        // When
+        categoryUsage.recordChange(1L, snapshot(5L, "12.50"), snapshot(5L, "20.00"));
+        categoryUsage.recordChange(1L, snapshot(5L, "20.00"), snapshot(5L, "20.00"));
+
+        // Then
+        verify(usageRepository, times(1)).adjust(anyLong(), anyLong(), anyLong(), any());
+        verify(usageRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should move usage between categories and release it on delete")
+    void shouldMoveUsageBetweenCategories() {
+        // Given
+        when(usageRepository.adjust(anyLong(), anyLong(), anyLong(), any())).thenReturn(1);
+
+        // When
+        categoryUsage.recordChange(1L, snapshot(5L, "12.50"), snapshot(6L, "12.50"));
+        categoryUsage.recordChange(1L, snapshot(6L, "12.50"), null);
+
+        // Then
+        verify(usageRepository).adjust(1L, 5L, -1, new BigDecimal("-12.50"));
+        verify(usageRepository).adjust(1L, 6L, 1, new BigDecimal("12.50"));
+        verify(usageRepository).adjust(1L, 6L, -1, new BigDecimal("-12.50"));
+    }
+
+    @Test
+    @DisplayName("Should report a category in use only while it has transactions")
+    void shouldReportInUseFromCounter() {
+        // Given
+        when(usageRepository.findByUserIdAndCategoryId(1L, 5L))
+                .thenReturn(Optional.of(new CategoryUsage(1L, 1L, 5L, 2, new BigDecimal("30.00"))));
+        when(usageRepository.findByUserIdAndCategoryId(1L, 6L))
+                .thenReturn(Optional.of(new CategoryUsage(2L, 1L, 6L, 0, BigDecimal.ZERO)));
+
+        // Then
+        assertAll(
+                () -> assertTrue(categoryUsage.isInUse(1L, 5L)),
+                () -> assertFalse(categoryUsage.isInUse(1L, 6L)),
+                () -> assertFalse(categoryUsage.isInUse(1L, 7L))
+        );
+    }
+
+    @Test
+    @DisplayName("Should rebuild only users whose counters drifted")
+    void shouldRebuildOnlyDriftedUsers() {
+        // Given: user 1 is exact, user 2 is missing a transaction, user 3 has no counter yet
+        CategoryUsage exact = new CategoryUsage(1L, 1L, 5L, 2, new BigDecimal("30.00"));
+        CategoryUsage drifted = new CategoryUsage(2L, 2L, 5L, 1, new BigDecimal("10.00"));
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), eq(0L), eq(CategoryUsageService.RECONCILE_PAGE_SIZE)))
+                .thenReturn(List.of(1L, 2L, 3L));
+        when(usageRepository.findByUserIdBetween(1L, 3L)).thenReturn(List.of(exact, drifted));
+        when(transactionRepository.summarizeByUserAndCategoryBetween(1L, 3L)).thenReturn(List.of(
+                new Object[]{1L, 5L, 2L, new BigDecimal("30.00")},
+                new Object[]{2L, 5L, 2L, new BigDecimal("25.00")},
+                new Object[]{3L, 6L, 1L, new BigDecimal("4.00")}));
+        when(usageRepository.findByUserId(2L)).thenReturn(List.of(drifted));
+        when(usageRepository.findByUserId(3L)).thenReturn(List.of());
+        when(transactionRepository.summarizeByCategoryForUser(2L))
+                .thenReturn(List.<Object[]>of(new Object[]{5L, 2L, new BigDecimal("25.00")}));
+        when(transactionRepository.summarizeByCategoryForUser(3L))
+                .thenReturn(List.<Object[]>of(new Object[]{6L, 1L, new BigDecimal("4.00")}));
+
+        // When
+        int corrected = categoryUsage.reconcile();
+
+        // Then
+        assertEquals(2, corrected);
+        assertEquals(2, drifted.getTransactionCount());
+        assertEquals(0, new BigDecimal("25.00").compareTo(drifted.getAmountTotal()));
+        verify(writeLocks).lockUntilCompletion(2L);
+        verify(writeLocks).lockUntilCompletion(3L);
+        verify(writeLocks, never()).lockUntilCompletion(1L);
+        verify(transactionRepository, never()).summarizeByCategoryForUser(1L);
+    }
+}
@@ -0,0 +1,72 @@
+package com.finance.category;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Default Categories Tests")
+class DefaultCategoriesTest {
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:default_categories_" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", ""));
+        // Same shape as the Hibernate-generated table
+        jdbcTemplate.execute("CREATE TABLE categories (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                "name VARCHAR(255) NOT NULL, type ENUM('EXPENSE', 'INCOME') NOT NULL, is_custom BOOLEAN NOT NULL, " +
+                "user_id BIGINT, version BIGINT, UNIQUE (name, user_id))");
+    }
+
+    @Test
+    @DisplayName("Should seed defaults once no matter how often it runs")
+    void shouldSeedDefaultsOnce() {
+        // Given
+        DefaultCategories defaults = new DefaultCategories(jdbcTemplate, List.of("Salary:INCOME", "Food:EXPENSE", "Rent:EXPENSE"));
+
+        // When
+        defaults.seed();
+        defaults.seed();
+
+        // Then
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM categories", Integer.class));
+        assertAll(
+                () -> assertEquals(CategoryType.INCOME, defaults.find("Salary").getType()),
+                () -> assertFalse(defaults.find("Food").isCustom()),
+                () -> assertNotNull(defaults.find("Rent").getId()),
+                () -> assertNull(defaults.find("Travel"))
+        );
+    }
+
+    @Test
+    @DisplayName("Should add newly configured defaults and leave custom categories alone")
+    void shouldAddNewDefaultsAndIgnoreCustomCategories() {
+        // Given
+        new DefaultCategories(jdbcTemplate, List.of("Salary:INCOME")).seed();
+        jdbcTemplate.update("INSERT INTO categories (name, type, is_custom, user_id) VALUES ('Travel', 'EXPENSE', TRUE, 1)");
+        DefaultCategories defaults = new DefaultCategories(jdbcTemplate, List.of("Salary:INCOME", "Travel:expense"));
+
+        // When
+        defaults.seed();
+
+        // Then
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM categories", Integer.class));
+        assertEquals(2, defaults.all().size());
+        assertEquals(CategoryType.EXPENSE, defaults.find("Travel").getType());
+    }
+
+    @Test
+    @DisplayName("Should reject malformed entries")
+    void shouldRejectMalformedEntries() {
+        DefaultCategories defaults = new DefaultCategories(jdbcTemplate, List.of("Salary"));
+
+        assertThrows(IllegalArgumentException.class, defaults::seed);
+    }
+}
@@ -0,0 +1,144 @@
+package com.finance.goal;
+
+import com.finance.goal.dto.GoalRequest;
+import com.finance.transaction.TransactionService;
+import com.finance.user.User;
+import com.finance.user.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DisplayName("Goal Concurrency Tests")
+class GoalConcurrencyTest {
+
+    @Autowired
+    private GoalService goalService;
+
+    @Autowired
+    private GoalRepository goalRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private GoalProgressWriter progressWriter;
+
+    private User user;
+    private Goal goal;
+
+    @BeforeEach
+    void setUp() {
+        user = userService.registerUser(new User(null, "concurrency." + System.nanoTime() + "@example.com",
+                "password123", "Concurrency Test", "1234567890"));
+        GoalRequest request = new GoalRequest();
+        request.setGoalName("Emergency fund");
+        request.setTargetAmount(new BigDecimal("1000.00"));
+        request.setTargetDate(LocalDate.now().plusYears(1));
+        goal = goalService.createGoal(request, user.getId());
+    }
+
+    @Test
+    @DisplayName("Should keep every concurrent partial update")
+    void shouldKeepEveryConcurrentPartialUpdate() throws Exception {
+        // Given
+        int rounds = 25;
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        long startVersion = goalRepository.findById(goal.getId()).orElseThrow().getVersion();
+
+        try {
+            for (int round = 1; round <= rounds; round++) {
+                String name = "Round " + round;
+                BigDecimal amount = new BigDecimal(1000 + round + ".00");
+                CountDownLatch start = new CountDownLatch(1);
+
+                // When: one request renames the goal while another changes its target
+                Future<Goal> rename = pool.submit(() -> {
+                    start.await();
+                    return goalService.updateGoal(goal.getId(), name, null, null, null, user.getId());
+                });
+                Future<Goal> retarget = pool.submit(() -> {
+                    start.await();
+                    return goalService.updateGoal(goal.getId(), null, amount, null, null, user.getId());
+                });
+                start.countDown();
+                rename.get();
+                retarget.get();
+
+                // Then: neither write overwrote the other
+                Goal stored = goalRepository.findById(goal.getId()).orElseThrow();
+                assertEquals(name, stored.getGoalName(), "rename lost in round " + round);
+                assertEquals(0, amount.compareTo(stored.getTargetAmount()), "target change lost in round " + round);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // Every update committed exactly once
+        assertEquals(startVersion + 2L * rounds, goalRepository.findById(goal.getId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    @DisplayName("Should not write on concurrent reads when progress is unchanged")
+    void shouldNotWriteOnReadsWhenProgressUnchanged() throws Exception {
+        // Given
+        long startVersion = goalRepository.findById(goal.getId()).orElseThrow().getVersion();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> readers = new ArrayList<>();
+
+        // When
+        long started = System.nanoTime();
+        try {
+            for (int i = 0; i < 200; i++) {
+                readers.add(pool.submit(() -> goalService.getAllGoalsForUser(user.getId())));
+                readers.add(pool.submit(() -> goalService.getGoalById(goal.getId(), user.getId())));
+            }
+            for (Future<?> reader : readers) {
+                reader.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        System.out.println("400 concurrent goal reads took " + (System.nanoTime() - started) / 1_000_000 + " ms");
+
+        // Then: no read stored anything, so none took a row lock
+        assertEquals(startVersion, goalRepository.findById(goal.getId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    @DisplayName("Should hand changed progress on once while it waits to be written")
+    void shouldEnqueueChangedProgressOnce() {
+        // Given
+        transactionService.createTransaction(new BigDecimal("250.00"), LocalDate.now(), "Salary", "Payday", user.getId());
+        long enqueuedBefore = progressWriter.stats().enqueued();
+
+        // When
+        List<Goal> first = goalService.getAllGoalsForUser(user.getId());
+        goalService.getAllGoalsForUser(user.getId());
+        Goal byId = goalService.getGoalById(goal.getId(), user.getId()).orElseThrow();
+
+        // Then
+        assertAll(
+                () -> assertEquals(0, new BigDecimal("250.00").compareTo(first.get(0).getCurrentProgress())),
+                () -> assertEquals(0, new BigDecimal("250.00").compareTo(byId.getCurrentProgress())),
+                () -> assertEquals(0, new BigDecimal("250.00").compareTo(progressWriter.pendingProgress(goal.getId()))),
+                () -> assertEquals(1, progressWriter.stats().enqueued() - enqueuedBefore)
+        );
+    }
+}
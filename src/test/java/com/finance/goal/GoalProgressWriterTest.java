@@ -0,0 +1,139 @@
+package com.finance.goal;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Goal Progress Writer Tests")
+class GoalProgressWriterTest {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:goal_progress_" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE goals (id BIGINT PRIMARY KEY, current_progress NUMERIC(19, 2), version BIGINT)");
+        jdbcTemplate.update("INSERT INTO goals VALUES (1, 0.00, 0), (2, 0.00, 0), (3, 0.00, 5)");
+    }
+
+    private GoalProgressWriter writer(Duration maxStaleness, int batchSize) {
+        return new GoalProgressWriter(jdbcTemplate, new DataSourceTransactionManager(dataSource), maxStaleness, batchSize);
+    }
+
+    private BigDecimal progress(long id) {
+        return jdbcTemplate.queryForObject("SELECT current_progress FROM goals WHERE id = ?", BigDecimal.class, id);
+    }
+
+    private long version(long id) {
+        return jdbcTemplate.queryForObject("SELECT version FROM goals WHERE id = ?", Long.class, id);
+    }
+
+    @Test
+    @DisplayName("Should collapse repeated reads into one write of the latest value")
+    void shouldCollapseRepeatedReadsIntoOneWrite() {
+        // Given
+        GoalProgressWriter writer = writer(Duration.ofMinutes(1), 100);
+        writer.enqueue(1L, 0L, new BigDecimal("10.00"));
+        writer.enqueue(1L, 0L, new BigDecimal("25.00"));
+        writer.enqueue(2L, 0L, new BigDecimal("5.00"));
+
+        // When
+        writer.flush();
+
+        // Then
+        GoalProgressWriter.Stats stats = writer.stats();
+        assertAll(
+                () -> assertEquals(0, new BigDecimal("25.00").compareTo(progress(1))),
+                () -> assertEquals(1, version(1)),
+                () -> assertEquals(0, new BigDecimal("5.00").compareTo(progress(2))),
+                () -> assertEquals(0, stats.pending()),
+                () -> assertEquals(3, stats.enqueued()),
+                () -> assertEquals(2, stats.written()),
+                () -> assertEquals(2, stats.lastBatchSize()),
+                () -> assertNotNull(stats.lastFlushAt())
+        );
+    }
+
+    @Test
+    @DisplayName("Should drop progress computed from an outdated version")
+    void shouldDropProgressFromOutdatedVersion() {
+        // Given: goal 3 was updated (version 5) after this value was computed
+        GoalProgressWriter writer = writer(Duration.ofMinutes(1), 100);
+        writer.enqueue(3L, 4L, new BigDecimal("99.00"));
+
+        // When
+        writer.flush();
+
+        // Then
+        assertAll(
+                () -> assertEquals(0, BigDecimal.ZERO.compareTo(progress(3))),
+                () -> assertEquals(5, version(3)),
+                () -> assertEquals(1, writer.stats().dropped())
+        );
+    }
+
+    @Test
+    @DisplayName("Should hold entries until they are stale or a batch is full")
+    void shouldHoldEntriesUntilStaleOrBatchFull() {
+        // Given
+        GoalProgressWriter writer = writer(Duration.ofMinutes(1), 2);
+        writer.enqueue(1L, 0L, new BigDecimal("10.00"));
+
+        // When: one young entry
+        writer.flushIfDue();
+
+        // Then
+        assertEquals(1, writer.stats().pending());
+        assertEquals(0, BigDecimal.ZERO.compareTo(progress(1)));
+
+        // When: the batch fills up
+        writer.enqueue(2L, 0L, new BigDecimal("20.00"));
+        writer.flushIfDue();
+
+        // Then
+        assertEquals(0, writer.stats().pending());
+        assertEquals(0, new BigDecimal("20.00").compareTo(progress(2)));
+    }
+
+    @Test
+    @DisplayName("Should flush stale entries on the next check")
+    void shouldFlushStaleEntries() {
+        // Given
+        GoalProgressWriter writer = writer(Duration.ZERO, 100);
+        writer.enqueue(1L, 0L, new BigDecimal("10.00"));
+
+        // When
+        writer.flushIfDue();
+
+        // Then
+        assertEquals(0, writer.stats().pending());
+        assertEquals(0, new BigDecimal("10.00").compareTo(progress(1)));
+    }
+
+    @Test
+    @DisplayName("Should not write discarded entries")
+    void shouldNotWriteDiscardedEntries() {
+        // Given
+        GoalProgressWriter writer = writer(Duration.ZERO, 100);
+        writer.enqueue(1L, 0L, new BigDecimal("10.00"));
+
+        // When
+        writer.discard(1L);
+        writer.flush();
+
+        // Then
+        assertEquals(0, version(1));
+        assertEquals(0, writer.stats().written());
+    }
+}
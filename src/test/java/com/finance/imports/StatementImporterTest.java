@@ -0,0 +1,286 @@
+package com.finance.imports;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finance.budget.BudgetSpendIndex;
+import com.finance.categorization.CategorizationEngine;
+import com.finance.categorization.RuleMatchType;
+import com.finance.category.CategoryType;
+import com.finance.category.CategoryUsageService;
+import com.finance.ledger.LedgerVersionTracker;
+import com.finance.ledger.UserWriteLocks;
+import com.finance.outbox.TransactionOutbox;
+import com.finance.transaction.DuplicateDetector;
+import com.finance.transaction.LedgerInvalidation;
+import com.finance.transaction.TransactionLedgerIndex;
+import com.finance.transaction.TransactionSearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Statement Importer Tests")
+class StatementImporterTest {
+
+    private static final ImportCategorizer.ImportCategory FOOD = new ImportCategorizer.ImportCategory(1, "Food", CategoryType.EXPENSE);
+    private static final ImportCategorizer.ImportCategory RENT = new ImportCategorizer.ImportCategory(2, "Rent", CategoryType.EXPENSE);
+    private static final ImportCategorizer.ImportCategory SALARY = new ImportCategorizer.ImportCategory(3, "Salary", CategoryType.INCOME);
+    private static final DateTimeFormatter ISO = DateTimeFormatter.ISO_LOCAL_DATE;
+
+    @TempDir
+    Path tempDir;
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private LedgerVersionTracker ledgerVersions;
+    private final List<StatementImporter> importers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:imports_" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE categories (id BIGINT PRIMARY KEY, name VARCHAR(255) NOT NULL, type VARCHAR(16) NOT NULL)");
+        jdbcTemplate.execute("INSERT INTO categories VALUES (1, 'Food', 'EXPENSE'), (2, 'Rent', 'EXPENSE'), (3, 'Salary', 'INCOME')");
+        jdbcTemplate.execute("CREATE TABLE transactions (id BIGINT AUTO_INCREMENT PRIMARY KEY, amount NUMERIC(38, 2) NOT NULL, " +
+                "date DATE NOT NULL, category_id BIGINT NOT NULL, user_id BIGINT NOT NULL, description VARCHAR(500), version BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE category_usage (id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT NOT NULL, " +
+                "category_id BIGINT NOT NULL, transaction_count BIGINT NOT NULL, amount_total NUMERIC(19, 2) NOT NULL, " +
+                "UNIQUE (user_id, category_id))");
+        jdbcTemplate.execute("CREATE TABLE outbox (id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT NOT NULL, " +
+                "transaction_id BIGINT, type VARCHAR(32) NOT NULL, payload CLOB NOT NULL, " +
+                "created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL)");
+        ledgerVersions = new LedgerVersionTracker();
+    }
+
+    @AfterEach
+    void tearDown() {
+        importers.forEach(StatementImporter::shutdown);
+    }
+
+    private StatementImporter importer(int parseThreads, int chunkSize) {
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        StatementImporter importer = new StatementImporter(jdbcTemplate, transactionManager, new UserWriteLocks(16),
+                new CategoryUsageService(null, null, null, transactionManager, jdbcTemplate),
+                new LedgerInvalidation(new TransactionLedgerIndex(), new TransactionSearchIndex(), new BudgetSpendIndex(),
+                        new DuplicateDetector(3, 90, 0.6), ledgerVersions),
+                new TransactionOutbox(null, new ObjectMapper(), jdbcTemplate), parseThreads, chunkSize);
+        importers.add(importer);
+        return importer;
+    }
+
+    private ImportCategorizer categorizer(List<ImportCategorizer.PatternMapping> mappings,
+                                          ImportCategorizer.ImportCategory expenseDefault,
+                                          ImportCategorizer.ImportCategory incomeDefault) {
+        return new ImportCategorizer(Map.of("Food", FOOD, "Rent", RENT, "Salary", SALARY), mappings, expenseDefault, incomeDefault);
+    }
+
+    private ImportJob run(StatementImporter importer, StatementFormat format, String content, ImportCategorizer categorizer)
+            throws IOException {
+        Path file = Files.writeString(tempDir.resolve("statement-" + System.nanoTime()), content);
+        ImportJob job = new ImportJob("job", 1L, file.getFileName().toString(), format, Files.size(file));
+        job.markRunning();
+        importer.importFile(job, file, ISO, categorizer);
+        job.complete();
+        return job;
+    }
+
+    private List<String> bulkEvents(long userId) {
+        return jdbcTemplate.queryForList("SELECT payload FROM outbox WHERE user_id = ? AND type = 'BULK_CHANGED' ORDER BY id",
+                String.class, userId);
+    }
+
+    private long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+
+    @Test
+    @DisplayName("Should import CSV lines with quoted fields, mappings and defaults, rejecting bad lines")
+    void shouldImportCsv() throws IOException {
+        // Given
+        String csv = """
+                Date,Description,Amount
+                2024-03-01,"TESCO STORES, LONDON",-42.10
+                2024-03-02,"Monthly ""flat""
+                rent",-900.00
+                2024-03-03,ACME PAYROLL,"2,500.00"
+                2024-03-04,Corner shop,(3.50)
+                not-a-date,Broken,-1.00
+                2024-03-05,Nothing,0
+                2999-01-01,Future,-5.00
+                """;
+        ImportCategorizer categorizer = categorizer(
+                List.of(new ImportCategorizer.PatternMapping("Tesco", FOOD), new ImportCategorizer.PatternMapping("rent", RENT)),
+                FOOD, SALARY);
+
+        // When
+        ImportJob job = run(importer(2, 2), StatementFormat.CSV, csv, categorizer);
+
+        // Then
+        assertAll(
+                () -> assertEquals(7, job.getRowsRead()),
+                () -> assertEquals(4, job.getImported()),
+                () -> assertEquals(3, job.getRejected()),
+                () -> assertTrue(job.getErrors().get(0).startsWith("line 7: invalid date")),
+                () -> assertEquals(job.getTotalBytes(), job.getBytesRead()),
+                () -> assertEquals(2, count("SELECT category_id FROM transactions WHERE description = ?", "Monthly \"flat\"\nrent")),
+                () -> assertEquals(0, new BigDecimal("2500.00").compareTo(jdbcTemplate.queryForObject(
+                        "SELECT amount FROM transactions WHERE category_id = 3", BigDecimal.class))),
+                () -> assertEquals(2, count("SELECT transaction_count FROM category_usage WHERE user_id = 1 AND category_id = 1")),
+                () -> assertEquals(0, new BigDecimal("45.60").compareTo(jdbcTemplate.queryForObject(
+                        "SELECT amount_total FROM category_usage WHERE user_id = 1 AND category_id = 1", BigDecimal.class))),
+                // Chunks of two: four rows written in two database transactions
+                () -> assertEquals(List.of("{\"bulk\":{\"operation\":\"IMPORT\",\"transactions\":2}}",
+                        "{\"bulk\":{\"operation\":\"IMPORT\",\"transactions\":2}}"), bulkEvents(1L)),
+                () -> assertTrue(ledgerVersions.currentVersion(1L) > 0)
+        );
+    }
+
+    @Test
+    @DisplayName("Should drop lines matching existing transactions or earlier lines of the file")
+    void shouldDropDuplicates() throws IOException {
+        // Given: an existing expense of 12.50 on March 1, and an income with the same figures
+        jdbcTemplate.update("INSERT INTO transactions (amount, date, category_id, user_id, description, version) " +
+                "VALUES (12.50, DATE '2024-03-01', 1, 1, 'Bakery', 0)");
+        String csv = """
+                date,amount,description
+                2024-03-01,-12.5,bakery
+                2024-03-01,12.50,Bakery
+                2024-03-02,-7.00,Kiosk
+                2024-03-02,-7.00,  KIOSK
+                """;
+
+        // When
+        ImportJob job = run(importer(1, 10), StatementFormat.CSV, csv, categorizer(List.of(), FOOD, SALARY));
+
+        // Then: only the refund-like income and the first kiosk line are new
+        assertAll(
+                () -> assertEquals(2, job.getImported()),
+                () -> assertEquals(2, job.getDuplicates()),
+                () -> assertEquals(3, count("SELECT COUNT(*) FROM transactions"))
+        );
+    }
+
+    @Test
+    @DisplayName("Should read SGML OFX transaction blocks")
+    void shouldImportOfx() throws IOException {
+        // Given
+        String ofx = """
+                OFXHEADER:100
+                DATA:OFXSGML
+
+                <OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>
+                <STMTTRN>
+                <TRNTYPE>DEBIT
+                <DTPOSTED>20240305120000[-5:EST]
+                <TRNAMT>-19.99
+                <FITID>1
+                <NAME>Tesco &amp; Co
+                </STMTTRN>
+                <stmttrn><TRNTYPE>CREDIT<DTPOSTED>20240306<TRNAMT>3000.00<MEMO>Payroll March</stmttrn>
+                <STMTTRN>
+                <TRNTYPE>DEBIT
+                <TRNAMT>-1.00
+                </STMTTRN>
+                </BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>
+                """;
+        ImportCategorizer categorizer = categorizer(List.of(new ImportCategorizer.PatternMapping("tesco", FOOD)), null, SALARY);
+
+        // When
+        ImportJob job = run(importer(2, 1), StatementFormat.OFX, ofx, categorizer);
+
+        // Then
+        assertAll(
+                () -> assertEquals(3, job.getRowsRead()),
+                () -> assertEquals(2, job.getImported()),
+                () -> assertEquals(List.of("line 13: missing or invalid DTPOSTED"), job.getErrors()),
+                () -> assertEquals(LocalDate.of(2024, 3, 5), jdbcTemplate.queryForObject(
+                        "SELECT date FROM transactions WHERE description = 'Tesco & Co'", LocalDate.class)),
+                () -> assertEquals(3, count("SELECT category_id FROM transactions WHERE description = 'Payroll March'"))
+        );
+    }
+
+    @Test
+    @DisplayName("Should import every line of a large file parsed in parallel chunks")
+    void shouldImportLargeFileInParallel() throws IOException {
+        // Given
+        StringBuilder csv = new StringBuilder("date;amount;description;category\n");
+        for (int i = 0; i < 20_000; i++) {
+            csv.append(LocalDate.of(2023, 1, 1).plusDays(i % 365)).append(";-").append(1 + i % 100).append(".25;Purchase ")
+                    .append(i).append(";").append(i % 2 == 0 ? "Food" : "Rent").append('\n');
+        }
+
+        // When
+        ImportJob job = run(importer(4, 250), StatementFormat.CSV, csv.toString(), categorizer(List.of(), null, null));
+
+        // Then
+        assertAll(
+                () -> assertEquals(20_000, job.getImported()),
+                () -> assertEquals(0, job.getRejected()),
+                () -> assertEquals(20_000, count("SELECT COUNT(DISTINCT description) FROM transactions")),
+                () -> assertEquals(10_000, count("SELECT transaction_count FROM category_usage WHERE category_id = 2"))
+        );
+    }
+
+    @Test
+    @DisplayName("Should reject a statement category that does not match the amount's direction")
+    void shouldRejectCategoryOfWrongDirection() throws IOException {
+        // Given
+        String csv = "date,amount,description,category\n2024-03-01,100.00,Refund,Food\n2024-03-01,-5.00,Lunch,Unknown\n";
+
+        // When
+        ImportJob job = run(importer(1, 10), StatementFormat.CSV, csv, categorizer(List.of(), FOOD, SALARY));
+
+        // Then
+        assertAll(
+                () -> assertEquals(0, job.getImported()),
+                () -> assertEquals(2, job.getRejected()),
+                () -> assertTrue(job.getErrors().get(0).contains("category 'Food' is EXPENSE")),
+                () -> assertEquals("line 3: unknown category 'Unknown'", job.getErrors().get(1))
+        );
+    }
+
+    @Test
+    @DisplayName("Should fall back to the user's categorization rules after the import's own mappings")
+    void shouldApplyStoredRulesAfterMappings() throws IOException {
+        // Given: a stored rule for "tesco" is shadowed by the mapping, the bounded rent rule applies to large amounts only
+        CategorizationEngine storedRules = new CategorizationEngine(List.of(
+                new CategorizationEngine.Rule(1, 10, RENT.id(), RENT.name(), RENT.type(), RuleMatchType.CONTAINS, "tesco", null, null),
+                new CategorizationEngine.Rule(2, 20, RENT.id(), RENT.name(), RENT.type(), RuleMatchType.REGEX, "^landlord\\b",
+                        new BigDecimal("500"), null)));
+        ImportCategorizer categorizer = new ImportCategorizer(Map.of("Food", FOOD, "Rent", RENT, "Salary", SALARY),
+                List.of(new ImportCategorizer.PatternMapping("tesco", FOOD)), storedRules, FOOD, SALARY);
+        String csv = """
+                date,amount,description
+                2024-03-01,-20.00,TESCO EXPRESS
+                2024-03-02,-850.00,Landlord Ltd
+                2024-03-03,-50.00,Landlord Ltd
+                """;
+
+        // When
+        ImportJob job = run(importer(1, 10), StatementFormat.CSV, csv, categorizer);
+
+        // Then
+        assertAll(
+                () -> assertEquals(3, job.getImported()),
+                () -> assertEquals(1, count("SELECT category_id FROM transactions WHERE description = 'TESCO EXPRESS'")),
+                () -> assertEquals(2, count("SELECT category_id FROM transactions WHERE amount = 850.00")),
+                () -> assertEquals(1, count("SELECT category_id FROM transactions WHERE amount = 50.00"))
+        );
+    }
+}
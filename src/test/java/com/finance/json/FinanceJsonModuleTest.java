@@ -0,0 +1,115 @@
+package com.finance.json;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.finance.category.CategoryType;
+import com.finance.goal.dto.GoalResponse;
+import com.finance.report.dto.IncomeExpenseSummary;
+import com.finance.transaction.dto.TransactionResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Finance JSON Module Tests")
+class FinanceJsonModuleTest {
+
+    private final ObjectMapper reflective = mapper();
+    private final ObjectMapper handWritten = mapper().registerModule(new FinanceJsonModule());
+
+    private static ObjectMapper mapper() {
+        return new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @Test
+    @DisplayName("Should write transactions exactly like the bean serializer")
+    void shouldWriteTransactionsLikeBeanSerializer() throws Exception {
+        // Given
+        List<TransactionResponse> transactions = List.of(
+                new TransactionResponse(1L, new BigDecimal("1250.50"), LocalDate.of(2024, 3, 1), "Salary",
+                        CategoryType.INCOME, "March salary"),
+                new TransactionResponse(2L, new BigDecimal("42.10"), LocalDate.of(2024, 3, 2), "Food",
+                        CategoryType.EXPENSE, null));
+
+        // When
+        String expected = reflective.writeValueAsString(transactions);
+        String actual = handWritten.writeValueAsString(transactions);
+
+        // Then
+        assertEquals(expected, actual);
+        assertTrue(actual.contains("\"category\":\"Salary\""));
+    }
+
+    @Test
+    @DisplayName("Should write summaries exactly like the bean serializer")
+    void shouldWriteSummariesLikeBeanSerializer() throws Exception {
+        // Given
+        Map<String, BigDecimal> income = new LinkedHashMap<>();
+        income.put("Salary", new BigDecimal("3000.00"));
+        Map<String, BigDecimal> expenses = new LinkedHashMap<>();
+        expenses.put("Food", new BigDecimal("450.25"));
+        expenses.put("Rent", new BigDecimal("1200.00"));
+        IncomeExpenseSummary monthly = new IncomeExpenseSummary(3, 2024, income, expenses, new BigDecimal("1349.75"));
+        IncomeExpenseSummary basic = new IncomeExpenseSummary(Map.of(), Map.of(), BigDecimal.ZERO);
+
+        // Then
+        assertAll(
+                () -> assertEquals(reflective.writeValueAsString(monthly), handWritten.writeValueAsString(monthly)),
+                () -> assertEquals(reflective.writeValueAsString(basic), handWritten.writeValueAsString(basic))
+        );
+    }
+
+    @Test
+    @DisplayName("Should write goals exactly like the bean serializer")
+    void shouldWriteGoalsLikeBeanSerializer() throws Exception {
+        // Given
+        GoalResponse goal = new GoalResponse(7L, "Emergency fund", new BigDecimal("5000.00"), LocalDate.of(2025, 1, 1),
+                LocalDate.of(2024, 1, 1), new BigDecimal("1250.00"), new BigDecimal("25.00"), new BigDecimal("3750.00"));
+        GoalResponse empty = new GoalResponse();
+
+        // Then
+        assertAll(
+                () -> assertEquals(reflective.writeValueAsString(goal), handWritten.writeValueAsString(goal)),
+                () -> assertEquals(reflective.writeValueAsString(empty), handWritten.writeValueAsString(empty))
+        );
+    }
+
+    @Test
+    @DisplayName("Should send amounts as hundredths and dates as epoch days in CBOR")
+    void shouldSendCompactValuesInCbor() throws Exception {
+        // Given
+        ObjectMapper cbor = new ObjectMapper(new CBORFactory())
+                .registerModule(new JavaTimeModule())
+                .registerModule(new FinanceJsonModule())
+                .registerModule(new CompactValuesModule());
+        TransactionResponse transaction = new TransactionResponse(1L, new BigDecimal("12.5"), LocalDate.of(2024, 3, 1),
+                "Food", CategoryType.EXPENSE, "Lunch");
+        IncomeExpenseSummary summary = new IncomeExpenseSummary(Map.of("Salary", new BigDecimal("3000.00")), Map.of(),
+                new BigDecimal("3000.00"));
+
+        // When
+        JsonNode transactionNode = new ObjectMapper(new CBORFactory()).readTree(cbor.writeValueAsBytes(transaction));
+        JsonNode summaryNode = new ObjectMapper(new CBORFactory()).readTree(cbor.writeValueAsBytes(summary));
+
+        // Then
+        assertAll(
+                () -> assertEquals(1250L, transactionNode.get("amount").longValue()),
+                () -> assertTrue(transactionNode.get("amount").isIntegralNumber()),
+                () -> assertEquals(LocalDate.of(2024, 3, 1).toEpochDay(), transactionNode.get("date").longValue()),
+                () -> assertEquals("Food", transactionNode.get("category").textValue()),
+                () -> assertEquals(300000L, summaryNode.get("totalIncome").get("Salary").longValue()),
+                () -> assertEquals(300000L, summaryNode.get("netSavings").longValue())
+        );
+    }
+}
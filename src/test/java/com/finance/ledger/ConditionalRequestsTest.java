@@ -0,0 +1,36 @@
+package com.finance.ledger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Conditional Requests Tests")
+class ConditionalRequestsTest {
+
+    private static final String TAG = "\"abc-1-5\"";
+
+    @Test
+    @DisplayName("Should keep the tag unchanged for JSON and wildcard clients")
+    void shouldKeepTagForJson() {
+        assertAll(
+                () -> assertEquals(TAG, ConditionalRequests.forMediaType(TAG, null)),
+                () -> assertEquals(TAG, ConditionalRequests.forMediaType(TAG, "*/*")),
+                () -> assertEquals(TAG, ConditionalRequests.forMediaType(TAG, "application/json")),
+                () -> assertEquals(TAG, ConditionalRequests.forMediaType(TAG, "application/json, application/cbor;q=0.5")),
+                () -> assertEquals(TAG, ConditionalRequests.forMediaType(TAG, "not a media type"))
+        );
+    }
+
+    @Test
+    @DisplayName("Should tag binary formats the client prefers")
+    void shouldTagPreferredBinaryFormats() {
+        assertAll(
+                () -> assertEquals("\"abc-1-5-cbor\"", ConditionalRequests.forMediaType(TAG, "application/cbor")),
+                () -> assertEquals("\"abc-1-5-cbor\"",
+                        ConditionalRequests.forMediaType(TAG, "application/json;q=0.5, application/cbor")),
+                () -> assertEquals("\"abc-1-5-smile\"",
+                        ConditionalRequests.forMediaType(TAG, "application/x-jackson-smile, */*;q=0.1"))
+        );
+    }
+}
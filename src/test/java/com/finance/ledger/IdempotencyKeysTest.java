@@ -0,0 +1,109 @@
+package com.finance.ledger;
+
+import com.finance.exception.ConflictException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Idempotency Keys Tests")
+class IdempotencyKeysTest {
+
+    private static final String SCOPE = "POST /api/transactions";
+
+    @Test
+    @DisplayName("Should run a write once and replay its result for retries with the same key")
+    void shouldReplayRetries() {
+        // Given
+        IdempotencyKeys keys = new IdempotencyKeys(100, Duration.ofHours(1));
+        AtomicInteger writes = new AtomicInteger();
+
+        // When
+        IdempotencyKeys.Outcome<Integer> first = keys.execute(1L, SCOPE, "abc", "body", writes::incrementAndGet);
+        IdempotencyKeys.Outcome<Integer> retry = keys.execute(1L, SCOPE, "abc", "body", writes::incrementAndGet);
+        IdempotencyKeys.Outcome<Integer> otherUser = keys.execute(2L, SCOPE, "abc", "body", writes::incrementAndGet);
+
+        // Then
+        assertAll(
+                () -> assertEquals(2, writes.get()),
+                () -> assertFalse(first.replayed()),
+                () -> assertTrue(retry.replayed()),
+                () -> assertEquals(1, retry.result()),
+                () -> assertEquals(2, otherUser.result()),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> keys.execute(1L, SCOPE, "abc", "other body", writes::incrementAndGet)),
+                () -> assertThrows(IllegalArgumentException.class,
+                        () -> keys.execute(1L, SCOPE, " ", "body", writes::incrementAndGet))
+        );
+    }
+
+    @Test
+    @DisplayName("Should forget failed writes so they can be retried")
+    void shouldForgetFailures() {
+        // Given
+        IdempotencyKeys keys = new IdempotencyKeys(100, Duration.ofHours(1));
+
+        // When
+        assertThrows(IllegalStateException.class, () -> keys.execute(1L, SCOPE, "abc", "body", () -> {
+            throw new IllegalStateException("boom");
+        }));
+        IdempotencyKeys.Outcome<String> retry = keys.execute(1L, SCOPE, "abc", "body", () -> "created");
+
+        // Then
+        assertFalse(retry.replayed());
+        assertEquals("created", retry.result());
+    }
+
+    @Test
+    @DisplayName("Should refuse a retry while the first request is still running")
+    void shouldRefuseConcurrentRetry() throws Exception {
+        // Given
+        IdempotencyKeys keys = new IdempotencyKeys(100, Duration.ofHours(1));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<IdempotencyKeys.Outcome<String>> first = CompletableFuture.supplyAsync(
+                () -> keys.execute(1L, SCOPE, "abc", "body", () -> {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "created";
+                }));
+        started.await();
+
+        // When & Then
+        assertThrows(ConflictException.class, () -> keys.execute(1L, SCOPE, "abc", "body", () -> "again"));
+        release.countDown();
+        assertEquals("created", first.get().result());
+        assertTrue(keys.execute(1L, SCOPE, "abc", "body", () -> "again").replayed());
+    }
+
+    @Test
+    @DisplayName("Should drop keys past the TTL or the capacity, oldest first")
+    void shouldBoundKeys() {
+        // Given
+        IdempotencyKeys bounded = new IdempotencyKeys(2, Duration.ofHours(1));
+        IdempotencyKeys expiring = new IdempotencyKeys(100, Duration.ZERO);
+
+        // When
+        bounded.execute(1L, SCOPE, "a", "body", () -> "a");
+        bounded.execute(1L, SCOPE, "b", "body", () -> "b");
+        bounded.execute(1L, SCOPE, "c", "body", () -> "c");
+        expiring.execute(1L, SCOPE, "a", "body", () -> "first");
+
+        // Then
+        assertAll(
+                () -> assertEquals(2, bounded.size()),
+                () -> assertFalse(bounded.execute(1L, SCOPE, "a", "body", () -> "a").replayed()),
+                () -> assertTrue(bounded.execute(1L, SCOPE, "c", "body", () -> "c").replayed()),
+                () -> assertEquals("second", expiring.execute(1L, SCOPE, "a", "body", () -> "second").result())
+        );
+    }
+}
@@ -0,0 +1,128 @@
+package com.finance.ledger;
+
+import com.finance.transaction.PerUserIndex;
+import com.finance.user.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("User Write Locks Tests")
+class UserWriteLocksTest {
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void completeTransaction() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    private static boolean lockedElsewhere(ReentrantLock lock) {
+        return !CompletableFuture.supplyAsync(() -> {
+            boolean acquired = lock.tryLock();
+            if (acquired) {
+                lock.unlock();
+            }
+            return acquired;
+        }).join();
+    }
+
+    @Test
+    @DisplayName("Should hold the user's stripe until the transaction completes")
+    void shouldHoldStripeUntilCompletion() {
+        // Given
+        UserWriteLocks locks = new UserWriteLocks(16);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        locks.lockUntilCompletion(42L);
+        locks.lockUntilCompletion(42L);
+
+        // Then
+        ReentrantLock stripe = locks.stripe(42L);
+        assertTrue(lockedElsewhere(stripe));
+        assertEquals(2, stripe.getHoldCount());
+
+        completeTransaction();
+        assertFalse(stripe.isLocked());
+    }
+
+    @Test
+    @DisplayName("Should release the lock only after per-user indexes applied the committed write")
+    void shouldReleaseAfterIndexesApplyCommit() {
+        // Given: an index that records whether the writer's stripe is still held when a change reaches it
+        UserWriteLocks locks = new UserWriteLocks(16);
+        ReentrantLock stripe = locks.stripe(7L);
+        List<Boolean> heldDuringApply = new ArrayList<>();
+        var index = new PerUserIndex<Object, String>() {
+            @Override
+            protected Object build(User user) {
+                return new Object();
+            }
+
+            @Override
+            protected boolean apply(Object state, String before, String after) {
+                heldDuringApply.add(stripe.isLocked());
+                return true;
+            }
+
+            void load(User user) {
+                query(user, state -> state);
+            }
+        };
+        User user = new User();
+        user.setId(7L);
+        index.load(user);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When: locked first, as every write does, then the change is recorded
+        locks.lockUntilCompletion(7L);
+        index.recordChange(7L, null, "inserted");
+        completeTransaction();
+
+        // Then
+        assertEquals(List.of(true), heldDuringApply);
+        assertFalse(stripe.isLocked());
+    }
+
+    @Test
+    @DisplayName("Should refuse to lock outside a transaction")
+    void shouldRefuseToLockOutsideTransaction() {
+        UserWriteLocks locks = new UserWriteLocks(16);
+
+        assertThrows(IllegalStateException.class, () -> locks.lockUntilCompletion(1L));
+    }
+
+    @Test
+    @DisplayName("Should round the stripe count up and spread sequential users")
+    void shouldRoundStripeCountAndSpreadUsers() {
+        // Given
+        UserWriteLocks locks = new UserWriteLocks(48);
+
+        // When
+        long distinct = LongStream.rangeClosed(1, 64)
+                .mapToObj(locks::stripe)
+                .distinct()
+                .count();
+
+        // Then
+        assertEquals(64, locks.stripeCount());
+        assertTrue(distinct > 32, "64 sequential users should land on most of the 64 stripes, got " + distinct);
+        assertEquals(1, new UserWriteLocks(1).stripeCount());
+    }
+}
@@ -0,0 +1,236 @@
+package com.finance.outbox;
+
+import com.finance.transaction.Transaction;
+import com.finance.transaction.TransactionService;
+import com.finance.user.User;
+import com.finance.user.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Own database, so dispatchers of other cached test contexts never see these events
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:outbox_test;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE")
+@DisplayName("Transaction Outbox Tests")
+class TransactionOutboxTest {
+
+    @TestConfiguration
+    static class ListenerConfig {
+        @Bean
+        RecordingListener recordingListener() {
+            return new RecordingListener();
+        }
+    }
+
+    static class RecordingListener implements TransactionEventListener {
+        final List<TransactionEvent> events = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void onTransactionEvents(List<TransactionEvent> batch) {
+            events.addAll(batch);
+        }
+
+        List<TransactionEvent> forUser(Long userId) {
+            synchronized (events) {
+                return events.stream().filter(event -> event.userId().equals(userId)).toList();
+            }
+        }
+    }
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private OutboxDispatcher dispatcher;
+
+    @Autowired
+    private RecordingListener listener;
+
+    @Autowired
+    private OutboxEventRepository repository;
+
+    @Autowired
+    private TransactionOutbox outbox;
+
+    @Value("${finance.outbox.batch-size:200}")
+    private int batchSize;
+
+    @BeforeEach
+    void setUp() {
+        // Places the cursor before the test's writes if the scheduled poll has not run yet
+        dispatcher.dispatch();
+    }
+
+    private User newUser() {
+        return userService.registerUser(new User(null, "outbox." + System.nanoTime() + "@example.com",
+                "password123", "Outbox Test", "1234567890"));
+    }
+
+    private List<TransactionEvent> awaitEvents(Long userId, int expected) throws InterruptedException {
+        return awaitEvents(dispatcher, listener, userId, expected);
+    }
+
+    private static List<TransactionEvent> awaitEvents(OutboxDispatcher dispatcher, RecordingListener listener,
+                                                      Long userId, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        List<TransactionEvent> events = listener.forUser(userId);
+        while (events.size() < expected && System.currentTimeMillis() < deadline) {
+            dispatcher.dispatch();
+            Thread.sleep(10);
+            events = listener.forUser(userId);
+        }
+        return events;
+    }
+
+    @Test
+    @DisplayName("Should deliver create, update and delete events with before and after state")
+    void shouldDeliverWriteEventsInOrder() throws Exception {
+        // Given
+        User user = newUser();
+
+        // When
+        Transaction created = transactionService.createTransaction(new BigDecimal("40.00"), LocalDate.now(), "Food",
+                "Lunch", user.getId());
+        transactionService.updateTransaction(created.getId(), new BigDecimal("45.00"), null, null, user.getId());
+        transactionService.deleteTransaction(created.getId(), user.getId());
+
+        // Then
+        List<TransactionEvent> events = awaitEvents(user.getId(), 3);
+        assertEquals(3, events.size());
+        assertAll(
+                () -> assertEquals(TransactionEvent.Type.CREATED, events.get(0).type()),
+                () -> assertNull(events.get(0).before()),
+                () -> assertEquals(0, new BigDecimal("40.00").compareTo(events.get(0).after().amount())),
+                () -> assertEquals(TransactionEvent.Type.UPDATED, events.get(1).type()),
+                () -> assertEquals(0, new BigDecimal("40.00").compareTo(events.get(1).before().amount())),
+                () -> assertEquals(0, new BigDecimal("45.00").compareTo(events.get(1).after().amount())),
+                () -> assertEquals(TransactionEvent.Type.DELETED, events.get(2).type()),
+                () -> assertNull(events.get(2).after()),
+                () -> assertEquals(created.getId(), events.get(2).transactionId())
+        );
+    }
+
+    @Test
+    @DisplayName("Should deliver a bulk delete as one bulk change event after the single writes")
+    void shouldDeliverBulkChanges() throws Exception {
+        // Given
+        User user = newUser();
+        for (int i = 0; i < 3; i++) {
+            transactionService.createTransaction(new BigDecimal("2.00"), LocalDate.of(2024, 1, 10), "Food", "Bulk " + i,
+                    user.getId());
+        }
+
+        // When
+        transactionService.deleteTransactions(user.getId(), LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), null);
+
+        // Then
+        List<TransactionEvent> events = awaitEvents(user.getId(), 4);
+        assertEquals(4, events.size());
+        TransactionEvent bulk = events.get(3);
+        assertAll(
+                () -> assertEquals(TransactionEvent.Type.BULK_CHANGED, bulk.type()),
+                () -> assertEquals(new TransactionEvent.BulkChange(TransactionEvent.BulkOperation.BULK_DELETE, 3), bulk.bulk()),
+                () -> assertNull(bulk.transactionId()),
+                () -> assertNull(events.get(0).bulk())
+        );
+    }
+
+    @Test
+    @DisplayName("Should deliver every event in per-user order under concurrent write load")
+    void shouldDeliverEveryEventInOrderUnderLoad() throws Exception {
+        // Given
+        int users = 4;
+        int threadsPerUser = 4;
+        int writesPerThread = 50;
+        List<User> owners = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            owners.add(newUser());
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(users * threadsPerUser);
+
+        // When
+        long start = System.nanoTime();
+        List<Future<?>> writers = new ArrayList<>();
+        for (User owner : owners) {
+            for (int t = 0; t < threadsPerUser; t++) {
+                writers.add(pool.submit(() -> {
+                    for (int i = 0; i < writesPerThread; i++) {
+                        transactionService.createTransaction(new BigDecimal("1.00"), LocalDate.now(), "Salary",
+                                "Load " + i, owner.getId());
+                    }
+                    return null;
+                }));
+            }
+        }
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        long writeNanos = System.nanoTime() - start;
+        pool.shutdown();
+
+        // Then
+        int expected = threadsPerUser * writesPerThread;
+        for (User owner : owners) {
+            List<TransactionEvent> events = awaitEvents(owner.getId(), expected);
+            assertEquals(expected, events.size());
+            for (int i = 1; i < events.size(); i++) {
+                assertTrue(events.get(i - 1).id() < events.get(i).id(), "events out of order for user " + owner.getId());
+                assertTrue(events.get(i - 1).transactionId() < events.get(i).transactionId());
+            }
+        }
+        long totalNanos = System.nanoTime() - start;
+        OutboxDispatcher.Stats stats = dispatcher.stats();
+        System.out.printf("Outbox load: %d writes in %d ms (%.0f/s), all delivered after %d ms, max lag %d ms%n",
+                users * expected, writeNanos / 1_000_000, users * expected * 1e9 / writeNanos,
+                totalNanos / 1_000_000, stats.maxLagMillis());
+    }
+
+    @Test
+    @DisplayName("Should deliver every event to the listeners of each node sharing the outbox")
+    void shouldDeliverEveryEventOnEachNode() throws Exception {
+        // Given
+        RecordingListener otherNodeListener = new RecordingListener();
+        DefaultListableBeanFactory otherNode = new DefaultListableBeanFactory();
+        otherNode.registerSingleton("recordingListener", otherNodeListener);
+        OutboxDispatcher otherDispatcher = new OutboxDispatcher(repository, outbox,
+                otherNode.getBeanProvider(TransactionEventListener.class), batchSize, Duration.ofDays(7),
+                Duration.ofSeconds(60));
+        otherDispatcher.dispatch();
+        User user = newUser();
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            transactionService.createTransaction(new BigDecimal("1.00"), LocalDate.now(), "Salary", "Node " + i,
+                    user.getId());
+        }
+
+        // Then
+        List<TransactionEvent> here = awaitEvents(user.getId(), 5);
+        List<TransactionEvent> there = awaitEvents(otherDispatcher, otherNodeListener, user.getId(), 5);
+        assertAll(
+                () -> assertEquals(5, here.size()),
+                () -> assertEquals(here.stream().map(TransactionEvent::id).toList(),
+                        there.stream().map(TransactionEvent::id).toList())
+        );
+    }
+}
@@ -0,0 +1,271 @@
+package com.finance.recurring;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finance.budget.BudgetSpendIndex;
+import com.finance.category.CategoryUsageService;
+import com.finance.ledger.LedgerVersionTracker;
+import com.finance.ledger.UserWriteLocks;
+import com.finance.outbox.TransactionOutbox;
+import com.finance.transaction.DuplicateDetector;
+import com.finance.transaction.LedgerInvalidation;
+import com.finance.transaction.TransactionLedgerIndex;
+import com.finance.transaction.TransactionSearchIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Recurring Rule Materializer Tests")
+class RecurringRuleMaterializerTest {
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private LedgerVersionTracker ledgerVersions;
+    private UserWriteLocks writeLocks;
+    private final List<RecurringRuleMaterializer> materializers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:recurring_" + System.nanoTime() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE recurring_rules (id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT NOT NULL, " +
+                "category_id BIGINT NOT NULL, amount NUMERIC(38, 2) NOT NULL, description VARCHAR(500), cadence VARCHAR(16) NOT NULL, " +
+                "start_date DATE NOT NULL, end_date DATE, next_run_date DATE, occurrences BIGINT NOT NULL, version BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE transactions (id BIGINT AUTO_INCREMENT PRIMARY KEY, amount NUMERIC(38, 2) NOT NULL, " +
+                "date DATE NOT NULL, category_id BIGINT NOT NULL, user_id BIGINT NOT NULL, description VARCHAR(500), version BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE category_usage (id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT NOT NULL, " +
+                "category_id BIGINT NOT NULL, transaction_count BIGINT NOT NULL, amount_total NUMERIC(19, 2) NOT NULL, " +
+                "UNIQUE (user_id, category_id))");
+        jdbcTemplate.execute("CREATE TABLE outbox (id BIGINT AUTO_INCREMENT PRIMARY KEY, user_id BIGINT NOT NULL, " +
+                "transaction_id BIGINT, type VARCHAR(32) NOT NULL, payload CLOB NOT NULL, " +
+                "created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL)");
+        ledgerVersions = new LedgerVersionTracker();
+        writeLocks = new UserWriteLocks(16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        materializers.forEach(RecurringRuleMaterializer::shutdown);
+    }
+
+    private RecurringRuleMaterializer materializer(int threads, int batchSize, int maxCatchUp) {
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        RecurringRuleMaterializer materializer = new RecurringRuleMaterializer(jdbcTemplate, transactionManager,
+                writeLocks, new CategoryUsageService(null, null, null, transactionManager, jdbcTemplate),
+                new LedgerInvalidation(new TransactionLedgerIndex(), new TransactionSearchIndex(), new BudgetSpendIndex(),
+                        new DuplicateDetector(3, 90, 0.6), ledgerVersions),
+                new TransactionOutbox(null, new ObjectMapper(), jdbcTemplate), threads, batchSize, maxCatchUp);
+        materializers.add(materializer);
+        return materializer;
+    }
+
+    private long rule(long userId, long categoryId, String amount, Cadence cadence, LocalDate startDate, LocalDate endDate) {
+        jdbcTemplate.update("INSERT INTO recurring_rules (user_id, category_id, amount, description, cadence, start_date, " +
+                        "end_date, next_run_date, occurrences, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, 0)",
+                userId, categoryId, new BigDecimal(amount), "Rule for " + userId, cadence.name(), Date.valueOf(startDate),
+                endDate != null ? Date.valueOf(endDate) : null, Date.valueOf(startDate));
+        return jdbcTemplate.queryForObject("SELECT MAX(id) FROM recurring_rules", Long.class);
+    }
+
+    private List<LocalDate> transactionDates(long userId) {
+        return jdbcTemplate.queryForList("SELECT date FROM transactions WHERE user_id = ? ORDER BY date", Date.class, userId)
+                .stream().map(Date::toLocalDate).toList();
+    }
+
+    private List<String> bulkEvents(long userId) {
+        return jdbcTemplate.queryForList("SELECT payload FROM outbox WHERE user_id = ? AND type = 'BULK_CHANGED' ORDER BY id",
+                String.class, userId);
+    }
+
+    private long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+
+    @Test
+    @DisplayName("Should catch up every missed month, keeping month ends stable")
+    void shouldCatchUpMissedMonths() {
+        // Given
+        long ruleId = rule(1L, 7L, "1200.00", Cadence.MONTHLY, LocalDate.of(2024, 1, 31), null);
+
+        // When
+        RecurringRuleMaterializer.Result result = materializer(2, 100, 400).materializeUpTo(LocalDate.of(2024, 4, 30));
+
+        // Then
+        assertAll(
+                () -> assertEquals(1, result.rules()),
+                () -> assertEquals(4, result.transactions()),
+                () -> assertEquals(List.of(LocalDate.of(2024, 1, 31), LocalDate.of(2024, 2, 29),
+                        LocalDate.of(2024, 3, 31), LocalDate.of(2024, 4, 30)), transactionDates(1L)),
+                () -> assertEquals(LocalDate.of(2024, 5, 31), jdbcTemplate.queryForObject(
+                        "SELECT next_run_date FROM recurring_rules WHERE id = ?", Date.class, ruleId).toLocalDate()),
+                () -> assertEquals(4, count("SELECT occurrences FROM recurring_rules WHERE id = ?", ruleId)),
+                () -> assertEquals(4, count("SELECT transaction_count FROM category_usage WHERE user_id = 1 AND category_id = 7")),
+                () -> assertEquals(0, new BigDecimal("4800.00").compareTo(jdbcTemplate.queryForObject(
+                        "SELECT amount_total FROM category_usage WHERE user_id = 1 AND category_id = 7", BigDecimal.class))),
+                () -> assertEquals(List.of("{\"bulk\":{\"operation\":\"RECURRING\",\"transactions\":4}}"), bulkEvents(1L)),
+                () -> assertEquals(1, ledgerVersions.currentVersion(1L))
+        );
+    }
+
+    @Test
+    @DisplayName("Should produce nothing when run again for the same day")
+    void shouldBeIdempotentAcrossRuns() {
+        // Given
+        rule(1L, 7L, "50.00", Cadence.WEEKLY, LocalDate.of(2024, 3, 1), null);
+        RecurringRuleMaterializer materializer = materializer(1, 100, 400);
+        materializer.materializeUpTo(LocalDate.of(2024, 3, 31));
+
+        // When
+        RecurringRuleMaterializer.Result again = materializer.materializeUpTo(LocalDate.of(2024, 3, 31));
+
+        // Then
+        assertAll(
+                () -> assertEquals(0, again.rules()),
+                () -> assertEquals(0, again.transactions()),
+                () -> assertEquals(5, count("SELECT COUNT(*) FROM transactions")),
+                () -> assertEquals(5, count("SELECT transaction_count FROM category_usage"))
+        );
+    }
+
+    @Test
+    @DisplayName("Should produce each occurrence once when two instances run at the same time")
+    void shouldProduceEachOccurrenceOnceUnderConcurrentRuns() {
+        // Given: 2000 rules over 500 users, materialized by two independent instances
+        for (long userId = 1; userId <= 500; userId++) {
+            for (int i = 0; i < 4; i++) {
+                rule(userId, 1 + i, "10.00", Cadence.MONTHLY, LocalDate.of(2024, 1, 1 + i), null);
+            }
+        }
+        RecurringRuleMaterializer first = materializer(4, 50, 400);
+        RecurringRuleMaterializer second = materializer(4, 50, 400);
+        LocalDate upTo = LocalDate.of(2024, 3, 15);
+
+        // When
+        CompletableFuture<RecurringRuleMaterializer.Result> a = CompletableFuture.supplyAsync(() -> first.materializeUpTo(upTo));
+        CompletableFuture<RecurringRuleMaterializer.Result> b = CompletableFuture.supplyAsync(() -> second.materializeUpTo(upTo));
+        long produced = a.join().transactions() + b.join().transactions();
+        // Rules skipped by a conflict are finished by a later run
+        produced += first.materializeUpTo(upTo).transactions();
+
+        // Then: three occurrences (January to March) per rule
+        long total = produced;
+        assertAll(
+                () -> assertEquals(6000, total),
+                () -> assertEquals(6000, count("SELECT COUNT(*) FROM transactions")),
+                () -> assertEquals(0, count("SELECT COUNT(*) FROM (SELECT user_id, category_id, date FROM transactions " +
+                        "GROUP BY user_id, category_id, date HAVING COUNT(*) > 1)")),
+                () -> assertEquals(6000, count("SELECT SUM(transaction_count) FROM category_usage")),
+                () -> assertEquals(2000, count("SELECT COUNT(*) FROM category_usage"))
+        );
+    }
+
+    @Test
+    @DisplayName("Should stop at the end date and add to existing counters")
+    void shouldStopAtEndDate() {
+        // Given
+        long ruleId = rule(3L, 2L, "25.00", Cadence.WEEKLY, LocalDate.of(2024, 6, 3), LocalDate.of(2024, 6, 20));
+        jdbcTemplate.update("INSERT INTO category_usage (user_id, category_id, transaction_count, amount_total) VALUES (3, 2, 10, 100.00)");
+
+        // When
+        RecurringRuleMaterializer.Result result = materializer(1, 100, 400).materializeUpTo(LocalDate.of(2024, 12, 31));
+
+        // Then
+        assertAll(
+                () -> assertEquals(3, result.transactions()),
+                () -> assertNull(jdbcTemplate.queryForObject("SELECT next_run_date FROM recurring_rules WHERE id = ?", Date.class, ruleId)),
+                () -> assertEquals(13, count("SELECT transaction_count FROM category_usage WHERE user_id = 3 AND category_id = 2")),
+                () -> assertEquals(0, materializer(1, 100, 400).materializeUpTo(LocalDate.of(2025, 12, 31)).transactions())
+        );
+    }
+
+    @Test
+    @DisplayName("Should catch up at most the configured number of occurrences per run")
+    void shouldLimitCatchUpPerRun() {
+        // Given
+        rule(4L, 1L, "3.00", Cadence.DAILY, LocalDate.of(2024, 1, 1), null);
+        RecurringRuleMaterializer materializer = materializer(1, 100, 4);
+
+        // When
+        long firstRun = materializer.materializeUpTo(LocalDate.of(2024, 1, 10)).transactions();
+        long secondRun = materializer.materializeUpTo(LocalDate.of(2024, 1, 10)).transactions();
+        long thirdRun = materializer.materializeUpTo(LocalDate.of(2024, 1, 10)).transactions();
+
+        // Then
+        assertAll(
+                () -> assertEquals(4, firstRun),
+                () -> assertEquals(4, secondRun),
+                () -> assertEquals(2, thirdRun),
+                () -> assertEquals(LocalDate.of(2024, 1, 10), transactionDates(4L).get(9))
+        );
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Timed out waiting for the materializer");
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    @DisplayName("Should run scheduled materialization in the background and only wait for the stripes it writes")
+    void shouldOnlyHoldTheStripeOfEachBatch() throws Exception {
+        // Given: a user whose stripe is locked by another writer, after a user on a different stripe
+        long lockedUser = 2;
+        long otherUser = 1;
+        while (writeLocks.stripeOf(otherUser) == writeLocks.stripeOf(lockedUser)) {
+            lockedUser++;
+        }
+        rule(otherUser, 1L, "10.00", Cadence.MONTHLY, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31));
+        rule(lockedUser, 1L, "10.00", Cadence.MONTHLY, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31));
+        RecurringRuleMaterializer materializer = materializer(1, 2, 400);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        long writer = lockedUser;
+        CompletableFuture<Void> lockHolder = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)).executeWithoutResult(status -> {
+                    writeLocks.lockUntilCompletion(writer);
+                    locked.countDown();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        // When
+        materializer.materializeDue();
+        await(() -> !transactionDates(otherUser).isEmpty());
+        List<LocalDate> whileLocked = transactionDates(lockedUser);
+        release.countDown();
+        lockHolder.join();
+        await(() -> materializer.lastRun() != null);
+
+        // Then
+        long blocked = lockedUser;
+        assertAll(
+                () -> assertTrue(whileLocked.isEmpty()),
+                () -> assertEquals(List.of(LocalDate.of(2024, 1, 1)), transactionDates(blocked)),
+                () -> assertEquals(2, materializer.lastRun().result().transactions()),
+                () -> assertEquals(2, materializer.lastRun().result().batches())
+        );
+    }
+}
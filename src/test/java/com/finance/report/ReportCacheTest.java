@@ -0,0 +1,129 @@
+package com.finance.report;
+
+import com.finance.report.dto.IncomeExpenseSummary;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Report Cache Tests")
+class ReportCacheTest {
+
+    private final LocalDate lastYearStart = LocalDate.now().minusYears(1).withDayOfYear(1);
+    private final LocalDate lastYearEnd = lastYearStart.withDayOfYear(lastYearStart.lengthOfYear());
+
+    private IncomeExpenseSummary summary(String net) {
+        return new IncomeExpenseSummary(new HashMap<>(), new HashMap<>(), new BigDecimal(net));
+    }
+
+    @Test
+    @DisplayName("Should hit only when the ledger version matches")
+    void shouldHitOnlyWhenLedgerVersionMatches() {
+        // Given
+        ReportCache cache = new ReportCache(10, 10);
+        ReportCache.Key key = new ReportCache.Key(1L, ReportCache.ReportKind.YEARLY, lastYearStart, lastYearEnd);
+        IncomeExpenseSummary stored = summary("100.00");
+
+        // When
+        cache.put(key, 3L, stored);
+
+        // Then
+        assertAll(
+                () -> assertEquals(stored, cache.get(key, 3L)),
+                () -> assertNull(cache.get(key, 4L)),
+                () -> assertNull(cache.get(key, 3L), "a stale entry is dropped"),
+                () -> assertNull(cache.get(new ReportCache.Key(2L, ReportCache.ReportKind.YEARLY, lastYearStart, lastYearEnd), 3L))
+        );
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used open-period entries beyond the cap")
+    void shouldEvictLeastRecentlyUsedOpenPeriodEntries() {
+        // Given
+        ReportCache cache = new ReportCache(2, 10);
+        LocalDate monthStart = LocalDate.now().withDayOfMonth(1);
+        LocalDate monthEnd = monthStart.withDayOfMonth(monthStart.lengthOfMonth());
+        ReportCache.Key first = new ReportCache.Key(1L, ReportCache.ReportKind.MONTHLY, monthStart, monthEnd);
+        ReportCache.Key second = new ReportCache.Key(2L, ReportCache.ReportKind.MONTHLY, monthStart, monthEnd);
+        ReportCache.Key third = new ReportCache.Key(3L, ReportCache.ReportKind.MONTHLY, monthStart, monthEnd);
+
+        // When
+        cache.put(first, 0L, summary("1.00"));
+        cache.put(second, 0L, summary("2.00"));
+        cache.get(first, 0L);
+        cache.put(third, 0L, summary("3.00"));
+
+        // Then
+        assertAll(
+                () -> assertNotNull(cache.get(first, 0L)),
+                () -> assertNull(cache.get(second, 0L)),
+                () -> assertNotNull(cache.get(third, 0L))
+        );
+    }
+
+    @Test
+    @DisplayName("Should keep closed periods regardless of the open-period cap")
+    void shouldKeepClosedPeriodsRegardlessOfOpenPeriodCap() {
+        // Given
+        ReportCache cache = new ReportCache(1, 10);
+
+        // When
+        for (long userId = 1; userId <= 5; userId++) {
+            cache.put(new ReportCache.Key(userId, ReportCache.ReportKind.YEARLY, lastYearStart, lastYearEnd), 0L, summary("5.00"));
+        }
+
+        // Then
+        for (long userId = 1; userId <= 5; userId++) {
+            assertNotNull(cache.get(new ReportCache.Key(userId, ReportCache.ReportKind.YEARLY, lastYearStart, lastYearEnd), 0L));
+        }
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used closed-period entries beyond their own cap")
+    void shouldCapClosedPeriods() {
+        // Given
+        ReportCache cache = new ReportCache(10, 2);
+
+        // When
+        for (long userId = 1; userId <= 3; userId++) {
+            cache.put(new ReportCache.Key(userId, ReportCache.ReportKind.YEARLY, lastYearStart, lastYearEnd), 0L, summary("5.00"));
+        }
+
+        // Then
+        assertAll(
+                () -> assertNull(cache.get(new ReportCache.Key(1L, ReportCache.ReportKind.YEARLY, lastYearStart, lastYearEnd), 0L)),
+                () -> assertNotNull(cache.get(new ReportCache.Key(2L, ReportCache.ReportKind.YEARLY, lastYearStart, lastYearEnd), 0L)),
+                () -> assertNotNull(cache.get(new ReportCache.Key(3L, ReportCache.ReportKind.YEARLY, lastYearStart, lastYearEnd), 0L))
+        );
+    }
+
+    @Test
+    @DisplayName("Should not let callers change a cached report")
+    void shouldCopySummaries() {
+        // Given
+        ReportCache cache = new ReportCache(10, 10);
+        ReportCache.Key key = new ReportCache.Key(1L, ReportCache.ReportKind.YEARLY, lastYearStart, lastYearEnd);
+        IncomeExpenseSummary stored = summary("100.00");
+        stored.getTotalIncome().put("Salary", new BigDecimal("100.00"));
+        cache.put(key, 0L, stored);
+
+        // When
+        stored.getTotalIncome().put("Bonus", new BigDecimal("50.00"));
+        IncomeExpenseSummary first = cache.get(key, 0L);
+        first.setNetSavings(BigDecimal.ZERO);
+        first.getTotalIncome().clear();
+        IncomeExpenseSummary second = cache.get(key, 0L);
+
+        // Then
+        assertAll(
+                () -> assertNotSame(first, second),
+                () -> assertEquals(0, new BigDecimal("100.00").compareTo(second.getNetSavings())),
+                () -> assertEquals(Map.of("Salary", new BigDecimal("100.00")), second.getTotalIncome())
+        );
+    }
+}
@@ -0,0 +1,269 @@
+package com.finance.report;
+
+import com.finance.ledger.LedgerVersionTracker;
+import com.finance.report.dto.IncomeExpenseSummary;
+import com.finance.user.UserService;
+import jakarta.servlet.AsyncListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisplayName("Report Job Service Tests")
+class ReportJobServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2023, 1, 1);
+    private static final LocalDate END = LocalDate.of(2023, 12, 31);
+
+    private final StubReportService reportService = new StubReportService();
+    private final List<ReportJobService> services = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        reportService.release.countDown();
+        services.forEach(ReportJobService::shutdown);
+        SecurityContextHolder.clearContext();
+    }
+
+    private ReportJobService service(int threads, int queueCapacity, Duration resultTtl) {
+        ReportJobService service = new ReportJobService(reportService, threads, queueCapacity, resultTtl);
+        services.add(service);
+        return service;
+    }
+
+    private static void awaitFinished(ReportJob job) throws Exception {
+        job.getResult().handle((summary, error) -> null).get(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Computes a fixed summary once released, or throws the configured failure.
+     */
+    private static class StubReportService extends ReportService {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch started = new CountDownLatch(1);
+        final AtomicInteger calls = new AtomicInteger();
+        volatile RuntimeException failure;
+
+        StubReportService() {
+            super(null, null, null, null);
+        }
+
+        @Override
+        public IncomeExpenseSummary computeIncomeExpenseSummary(Long userId, LocalDate startDate, LocalDate endDate) {
+            calls.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return new IncomeExpenseSummary(new HashMap<>(), new HashMap<>(), new BigDecimal("42.00"));
+        }
+    }
+
+    @Test
+    @DisplayName("Should join identical submissions while the job is in flight")
+    void shouldCoalesceIdenticalSubmissions() throws Exception {
+        // Given
+        ReportJobService service = service(1, 10, Duration.ofMinutes(10));
+
+        // When
+        ReportJob first = service.submit(1L, START, END);
+        ReportJob repeated = service.submit(1L, START, END);
+        ReportJob otherUser = service.submit(2L, START, END);
+        ReportJob otherRange = service.submit(1L, START, END.minusDays(1));
+        reportService.release.countDown();
+        for (ReportJob job : List.of(first, otherUser, otherRange)) {
+            awaitFinished(job);
+        }
+
+        // Then
+        assertAll(
+                () -> assertSame(first, repeated),
+                () -> assertNotSame(first, otherUser),
+                () -> assertNotSame(first, otherRange),
+                () -> assertEquals(3, reportService.calls.get()),
+                () -> assertEquals(ReportJobStatus.COMPLETED, first.getStatus()),
+                () -> assertEquals(0, new BigDecimal("42.00").compareTo(first.getSummary().getNetSavings()))
+        );
+    }
+
+    @Test
+    @DisplayName("Should reject submissions once the queue is full and accept them again after it drains")
+    void shouldRejectWhenQueueIsFull() throws Exception {
+        // Given
+        ReportJobService service = service(1, 1, Duration.ofMinutes(10));
+        ReportJob running = service.submit(1L, START, END);
+        assertTrue(reportService.started.await(5, TimeUnit.SECONDS));
+        ReportJob queued = service.submit(2L, START, END);
+
+        // When
+        RejectedExecutionException rejected = assertThrows(RejectedExecutionException.class,
+                () -> service.submit(3L, START, END));
+        reportService.release.countDown();
+        awaitFinished(running);
+        awaitFinished(queued);
+        ReportJob retried = service.submit(3L, START, END);
+        awaitFinished(retried);
+
+        // Then
+        assertAll(
+                () -> assertEquals("Report queue is full. Please retry later.", rejected.getMessage()),
+                () -> assertEquals(ReportJobStatus.COMPLETED, queued.getStatus()),
+                () -> assertEquals(ReportJobStatus.COMPLETED, retried.getStatus()),
+                () -> assertEquals(3, reportService.calls.get())
+        );
+    }
+
+    @Test
+    @DisplayName("Should record a failed computation on the job without exposing its cause")
+    void shouldRecordFailure() throws Exception {
+        // Given
+        ReportJobService service = service(1, 10, Duration.ofMinutes(10));
+        reportService.failure = new IllegalArgumentException("boom");
+        reportService.release.countDown();
+
+        // When
+        ReportJob job = service.submit(1L, START, END);
+        awaitFinished(job);
+
+        // Then
+        assertAll(
+                () -> assertEquals(ReportJobStatus.FAILED, job.getStatus()),
+                () -> assertEquals("The report could not be generated (job " + job.getId() + ").", job.getError()),
+                () -> assertFalse(job.getError().contains("boom")),
+                () -> assertNull(job.getSummary()),
+                () -> assertNotNull(job.getCompletedAt())
+        );
+    }
+
+    @Test
+    @DisplayName("Should validate ranges and only return jobs to their owner")
+    void shouldValidateAndScopeJobsToOwner() {
+        // Given
+        ReportJobService service = service(1, 10, Duration.ofMinutes(10));
+
+        // When
+        ReportJob job = service.submit(1L, START, END);
+
+        // Then
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> service.submit(1L, END, START)),
+                () -> assertThrows(IllegalArgumentException.class, () -> service.submit(1L, null, END)),
+                () -> assertSame(job, service.getJob(job.getId(), 1L).orElseThrow()),
+                () -> assertTrue(service.getJob(job.getId(), 2L).isEmpty()),
+                () -> assertTrue(service.getJob("unknown", 1L).isEmpty())
+        );
+    }
+
+    @Test
+    @DisplayName("Should evict finished jobs past the TTL but keep running ones")
+    void shouldEvictFinishedJobsAfterTtl() throws Exception {
+        // Given
+        ReportJobService service = service(1, 10, Duration.ZERO);
+        ReportJob running = service.submit(1L, START, END);
+        assertTrue(reportService.started.await(5, TimeUnit.SECONDS));
+
+        // When
+        service.evictExpiredJobs();
+        Optional<ReportJob> whileRunning = service.getJob(running.getId(), 1L);
+        reportService.release.countDown();
+        awaitFinished(running);
+        Thread.sleep(5);
+        service.evictExpiredJobs();
+
+        // Then
+        assertAll(
+                () -> assertTrue(whileRunning.isPresent()),
+                () -> assertTrue(service.getJob(running.getId(), 1L).isEmpty())
+        );
+    }
+
+    private MockMvc pollingEndpoint(ReportJobService service) {
+        UserService userService = mock(UserService.class);
+        when(userService.findIdByUsername("alice")).thenReturn(Optional.of(1L));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("alice", null, List.of()));
+        ReportController controller = new ReportController(reportService, service, userService, new LedgerVersionTracker());
+        return MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    @DisplayName("Should answer 200 for a finished job and when a job finishes during the wait")
+    void shouldAnswerOkOnceFinished() throws Exception {
+        // Given
+        ReportJobService service = service(1, 10, Duration.ofMinutes(10));
+        MockMvc mockMvc = pollingEndpoint(service);
+        ReportJob job = service.submit(1L, START, END);
+
+        // When
+        MvcResult waiting = mockMvc.perform(get("/api/reports/jobs/{jobId}", job.getId()).param("waitSeconds", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        reportService.release.countDown();
+        awaitFinished(job);
+
+        // Then
+        mockMvc.perform(asyncDispatch(waiting))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"));
+        MvcResult finished = mockMvc.perform(get("/api/reports/jobs/{jobId}", job.getId()).param("waitSeconds", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(finished))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("Should answer 202 with the running job when the wait times out")
+    void shouldAnswerAcceptedOnTimeout() throws Exception {
+        // Given
+        ReportJobService service = service(1, 10, Duration.ofMinutes(10));
+        MockMvc mockMvc = pollingEndpoint(service);
+        ReportJob job = service.submit(1L, START, END);
+        assertTrue(reportService.started.await(5, TimeUnit.SECONDS));
+
+        // When
+        MvcResult waiting = mockMvc.perform(get("/api/reports/jobs/{jobId}", job.getId()).param("waitSeconds", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MockAsyncContext asyncContext = (MockAsyncContext) waiting.getRequest().getAsyncContext();
+        for (AsyncListener listener : asyncContext.getListeners()) {
+            listener.onTimeout(null);
+        }
+
+        // Then
+        mockMvc.perform(asyncDispatch(waiting))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("RUNNING"));
+    }
+}
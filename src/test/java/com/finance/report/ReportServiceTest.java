@@ -0,0 +1,196 @@
+package com.finance.report;
+
+import com.finance.category.CategoryType;
+import com.finance.ledger.LedgerVersionTracker;
+import com.finance.report.dto.TrendReport;
+import com.finance.transaction.TransactionRepository;
+import com.finance.user.User;
+import com.finance.user.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Report Service Tests")
+class ReportServiceTest {
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private ReportCache reportCache;
+
+    @Mock
+    private LedgerVersionTracker ledgerVersions;
+
+    @InjectMocks
+    private ReportService reportService;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setId(1L);
+        testUser.setUsername("test@example.com");
+    }
+
+    private static Object[] row(String date, String category, CategoryType type, String total) {
+        return new Object[]{LocalDate.parse(date), category, type, new BigDecimal(total)};
+    }
+
+    private void givenRows(LocalDate from, LocalDate to, Object[]... rows) {
+        when(userService.findById(1L)).thenReturn(Optional.of(testUser));
+        when(transactionRepository.findDailyCategoryTotalsByUserAndDateRange(testUser, from, to))
+                .thenReturn(List.of(rows));
+    }
+
+    private static void assertAmounts(List<BigDecimal> actual, String... expected) {
+        assertEquals(expected.length, actual.size(), "number of periods");
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(0, new BigDecimal(expected[i]).compareTo(actual.get(i)),
+                    "period " + i + ": expected " + expected[i] + " but was " + actual.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("Should leave periods without rows at zero and fold later rows into later periods")
+    void shouldSkipEmptyPeriods() {
+        // Given
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 5, 31);
+        givenRows(from, to,
+                row("2024-01-10", "Food", CategoryType.EXPENSE, "40.00"),
+                row("2024-01-31", "Food", CategoryType.EXPENSE, "10.00"),
+                row("2024-04-01", "Salary", CategoryType.INCOME, "3000.00"),
+                row("2024-04-15", "Food", CategoryType.EXPENSE, "25.00"));
+
+        // When
+        TrendReport report = reportService.getTrendReport(1L, from, to, TrendGranularity.MONTH);
+
+        // Then
+        assertEquals(List.of(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 1), LocalDate.of(2024, 3, 1),
+                LocalDate.of(2024, 4, 1), LocalDate.of(2024, 5, 1)), report.getPeriods());
+        assertAmounts(report.getIncome(), "0", "0", "0", "3000.00", "0");
+        assertAmounts(report.getExpenses(), "50.00", "0", "0", "25.00", "0");
+        assertAmounts(report.getNet(), "-50.00", "0", "0", "2975.00", "0");
+    }
+
+    @Test
+    @DisplayName("Should split weeks on Monday, keeping Sunday in the week before")
+    void shouldBucketOnWeekBoundaries() {
+        // Given
+        LocalDate from = LocalDate.of(2024, 1, 1);   // Monday
+        LocalDate to = LocalDate.of(2024, 1, 21);    // Sunday
+        givenRows(from, to,
+                row("2024-01-01", "Food", CategoryType.EXPENSE, "5.00"),
+                row("2024-01-07", "Food", CategoryType.EXPENSE, "7.00"),
+                row("2024-01-08", "Food", CategoryType.EXPENSE, "11.00"),
+                row("2024-01-21", "Food", CategoryType.EXPENSE, "13.00"));
+
+        // When
+        TrendReport report = reportService.getTrendReport(1L, from, to, TrendGranularity.WEEK);
+
+        // Then
+        assertEquals(List.of(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 8), LocalDate.of(2024, 1, 15)),
+                report.getPeriods());
+        assertAmounts(report.getExpenses(), "12.00", "11.00", "13.00");
+    }
+
+    @Test
+    @DisplayName("Should start the first period at the period containing an unaligned start date")
+    void shouldAlignFirstPeriodToPeriodStart() {
+        // Given
+        LocalDate from = LocalDate.of(2024, 1, 3);   // Wednesday
+        LocalDate to = LocalDate.of(2024, 1, 9);     // Tuesday
+        givenRows(from, to,
+                row("2024-01-03", "Salary", CategoryType.INCOME, "100.00"),
+                row("2024-01-09", "Salary", CategoryType.INCOME, "50.00"));
+
+        // When
+        TrendReport weekly = reportService.getTrendReport(1L, from, to, TrendGranularity.WEEK);
+
+        // Then
+        assertAll(
+                () -> assertEquals(from, weekly.getFrom()),
+                () -> assertEquals(List.of(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 8)), weekly.getPeriods()),
+                () -> assertAmounts(weekly.getIncome(), "100.00", "50.00"),
+                () -> assertAmounts(weekly.getNet(), "100.00", "50.00")
+        );
+    }
+
+    @Test
+    @DisplayName("Should key series by type and name so equally named categories stay apart")
+    void shouldKeySeriesByTypeAndName() {
+        // Given
+        LocalDate from = LocalDate.of(2024, 3, 1);
+        LocalDate to = LocalDate.of(2024, 3, 2);
+        givenRows(from, to,
+                row("2024-03-01", "Refunds", CategoryType.EXPENSE, "20.00"),
+                row("2024-03-01", "Refunds", CategoryType.INCOME, "35.00"),
+                row("2024-03-02", "Groceries", CategoryType.EXPENSE, "8.00"),
+                row("2024-03-02", "Refunds", CategoryType.INCOME, "5.00"));
+
+        // When
+        TrendReport report = reportService.getTrendReport(1L, from, to, TrendGranularity.DAY);
+
+        // Then
+        List<TrendReport.Series> series = report.getSeries();
+        assertEquals(3, series.size());
+        assertAll(
+                () -> assertEquals("Groceries", series.get(0).getCategory()),
+                () -> assertEquals(CategoryType.EXPENSE, series.get(0).getType()),
+                () -> assertAmounts(series.get(0).getValues(), "0", "8.00"),
+                () -> assertEquals("Refunds", series.get(1).getCategory()),
+                () -> assertEquals(CategoryType.EXPENSE, series.get(1).getType()),
+                () -> assertAmounts(series.get(1).getValues(), "20.00", "0"),
+                () -> assertEquals("Refunds", series.get(2).getCategory()),
+                () -> assertEquals(CategoryType.INCOME, series.get(2).getType()),
+                () -> assertAmounts(series.get(2).getValues(), "35.00", "5.00"),
+                () -> assertAmounts(report.getNet(), "15.00", "-3.00")
+        );
+    }
+
+    @Test
+    @DisplayName("Should reject ranges beyond the period cap before loading any rows")
+    void shouldRejectTooManyPeriods() {
+        // Given
+        LocalDate from = LocalDate.of(2000, 1, 1);
+        LocalDate lastAllowed = from.plusDays(3659);
+
+        // When
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> reportService.getTrendReport(1L, from, lastAllowed.plusDays(1), TrendGranularity.DAY));
+
+        // Then
+        assertTrue(error.getMessage().contains("3660"));
+        verifyNoInteractions(userService, transactionRepository);
+
+        givenRows(from, lastAllowed);
+        assertEquals(3660, reportService.getTrendReport(1L, from, lastAllowed, TrendGranularity.DAY).getPeriods().size());
+    }
+
+    @Test
+    @DisplayName("Should reject a start date after the end date")
+    void shouldRejectInvertedRange() {
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> reportService.getTrendReport(1L,
+                LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1), TrendGranularity.MONTH));
+        verifyNoInteractions(transactionRepository);
+    }
+}
@@ -0,0 +1,99 @@
+package com.finance.stream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.finance.stream.dto.GoalDelta;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Live Update Hub Tests")
+class LiveUpdateHubTest {
+
+    private LiveUpdateHub hub;
+
+    @BeforeEach
+    void setUp() {
+        hub = new LiveUpdateHub(new ObjectMapper(), Duration.ofMinutes(1), 2, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private long awaitSent(long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (hub.stats().sent() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        return hub.stats().sent();
+    }
+
+    @Test
+    @DisplayName("Should track connections per user")
+    void shouldTrackConnectionsPerUser() {
+        // When
+        hub.subscribe(1L);
+        hub.subscribe(1L);
+        hub.subscribe(2L);
+
+        // Then
+        assertAll(
+                () -> assertTrue(hub.hasSubscribers(1L)),
+                () -> assertFalse(hub.hasSubscribers(3L)),
+                () -> assertEquals(2, hub.stats().users()),
+                () -> assertEquals(3, hub.stats().connections())
+        );
+    }
+
+    @Test
+    @DisplayName("Should fan out to every connection of the user only")
+    void shouldFanOutToUserConnectionsOnly() throws InterruptedException {
+        // Given
+        hub.subscribe(1L);
+        hub.subscribe(1L);
+        hub.subscribe(2L);
+
+        // When
+        hub.publish(1L, "goal", null, GoalDelta.deleted(7L));
+        hub.publish(3L, "goal", null, GoalDelta.deleted(8L));
+
+        // Then
+        assertEquals(2, awaitSent(2));
+        Thread.sleep(50);
+        assertEquals(2, hub.stats().sent());
+    }
+
+    @Test
+    @DisplayName("Should publish only after the surrounding transaction commits")
+    void shouldPublishOnlyAfterCommit() throws InterruptedException {
+        // Given
+        hub.subscribe(1L);
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        hub.publishAfterCommit(1L, "goal", GoalDelta.deleted(7L));
+        Thread.sleep(50);
+
+        // Then
+        assertEquals(0, hub.stats().sent());
+
+        // When: the transaction commits
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+
+        // Then
+        assertEquals(1, awaitSent(1));
+    }
+}
@@ -0,0 +1,97 @@
+package com.finance.transaction;
+
+import com.finance.category.CategoryType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Duplicate Detector Tests")
+class DuplicateDetectorTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private DuplicateDetector detector;
+    private DuplicateDetector.RecentTransactions recent;
+
+    @BeforeEach
+    void setUp() {
+        detector = new DuplicateDetector(3, 90, 0.6);
+        recent = new DuplicateDetector.RecentTransactions(TODAY.minusDays(90));
+        detector.apply(recent, null, snapshot(1L, TODAY.minusDays(10), 10L, "42.10", "TESCO STORES 1234"));
+        detector.apply(recent, null, snapshot(2L, TODAY.minusDays(2), 10L, "42.10", "Tesco Stores 1234, London"));
+        detector.apply(recent, null, snapshot(3L, TODAY.minusDays(1), 20L, "42.10", "Tesco Stores 1234"));
+    }
+
+    private TransactionSnapshot snapshot(Long id, LocalDate date, Long categoryId, String amount, String description) {
+        return new TransactionSnapshot(id, 1L, date, categoryId, "Category " + categoryId,
+                CategoryType.EXPENSE, new BigDecimal(amount), description);
+    }
+
+    private Long find(LocalDate date, Long categoryId, String amount, String description) {
+        return recent.findSimilar(categoryId, new BigDecimal(amount), date, 3,
+                DuplicateDetector.normalize(description), 0.6);
+    }
+
+    @Test
+    @DisplayName("Should match the same category and amount within the window and a similar description")
+    void shouldMatchWithinWindow() {
+        // When & Then
+        assertAll(
+                () -> assertEquals(2L, find(TODAY, 10L, "42.1", "tesco stores 1234")),
+                () -> assertEquals(2L, find(TODAY.minusDays(5), 10L, "42.10", "TESCO STORES 1234 LONDON")),
+                () -> assertEquals(1L, find(TODAY.minusDays(12), 10L, "42.10", "Tesco-Stores 1234")),
+                () -> assertNull(find(TODAY.minusDays(6), 10L, "42.10", "Tesco Stores 1234")),
+                () -> assertNull(find(TODAY, 10L, "42.11", "Tesco Stores 1234")),
+                () -> assertNull(find(TODAY, 30L, "42.10", "Tesco Stores 1234")),
+                () -> assertNull(find(TODAY, 10L, "42.10", "Amazon Marketplace"))
+        );
+    }
+
+    @Test
+    @DisplayName("Should follow updates and deletes")
+    void shouldFollowUpdatesAndDeletes() {
+        // When
+        detector.apply(recent, snapshot(2L, TODAY.minusDays(2), 10L, "42.10", "Tesco Stores 1234, London"),
+                snapshot(2L, TODAY.minusDays(2), 10L, "50.00", "Tesco Stores 1234, London"));
+        detector.apply(recent, snapshot(3L, TODAY.minusDays(1), 20L, "42.10", "Tesco Stores 1234"), null);
+
+        // Then
+        assertAll(
+                () -> assertNull(find(TODAY, 10L, "42.10", "Tesco Stores 1234")),
+                () -> assertEquals(2L, find(TODAY, 10L, "50", "Tesco Stores 1234")),
+                () -> assertNull(find(TODAY, 20L, "42.10", "Tesco Stores 1234")),
+                () -> assertEquals(2, recent.size())
+        );
+    }
+
+    @Test
+    @DisplayName("Should drop transactions that slide out of the retention period")
+    void shouldSlideWindow() {
+        // When
+        recent.slide(TODAY.minusDays(5));
+
+        // Then
+        assertAll(
+                () -> assertEquals(2, recent.size()),
+                () -> assertNull(find(TODAY.minusDays(12), 10L, "42.10", "Tesco Stores 1234"))
+        );
+    }
+
+    @Test
+    @DisplayName("Should score descriptions by shared trigrams")
+    void shouldScoreSimilarity() {
+        assertAll(
+                () -> assertEquals(1.0, DuplicateDetector.similarity("", "")),
+                () -> assertEquals(0.0, DuplicateDetector.similarity("", "rent")),
+                () -> assertEquals(1.0, DuplicateDetector.similarity(DuplicateDetector.normalize("Rent, May!"),
+                        DuplicateDetector.normalize("RENT may"))),
+                () -> assertTrue(DuplicateDetector.similarity("netflix com", "netflix") >= 0.6),
+                () -> assertTrue(DuplicateDetector.similarity("netflix", "spotify") < 0.1)
+        );
+    }
+}
@@ -0,0 +1,69 @@
+package com.finance.transaction;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Prefix Sum Tree Tests")
+class PrefixSumTreeTest {
+
+    @Test
+    @DisplayName("Should build from values and answer range sums")
+    void shouldBuildFromValuesAndAnswerRangeSums() {
+        // Given
+        BigDecimal[] values = {
+                new BigDecimal("10.00"), null, new BigDecimal("2.50"), new BigDecimal("7.25"), null, new BigDecimal("1.00")
+        };
+
+        // When
+        PrefixSumTree tree = PrefixSumTree.of(values);
+
+        // Then
+        assertAll(
+                () -> assertEquals(6, tree.size()),
+                () -> assertEquals(0, new BigDecimal("20.75").compareTo(tree.rangeSum(0, 5))),
+                () -> assertEquals(0, new BigDecimal("9.75").compareTo(tree.rangeSum(1, 3))),
+                () -> assertEquals(0, new BigDecimal("2.50").compareTo(tree.rangeSum(2, 2))),
+                () -> assertEquals(0, BigDecimal.ZERO.compareTo(tree.rangeSum(4, 4)))
+        );
+    }
+
+    @Test
+    @DisplayName("Should reflect point updates in later sums")
+    void shouldReflectPointUpdatesInLaterSums() {
+        // Given
+        PrefixSumTree tree = new PrefixSumTree(10);
+
+        // When
+        tree.add(3, new BigDecimal("100.00"));
+        tree.add(7, new BigDecimal("40.00"));
+        tree.add(3, new BigDecimal("-25.00"));
+
+        // Then
+        assertAll(
+                () -> assertEquals(0, new BigDecimal("75.00").compareTo(tree.prefixSum(3))),
+                () -> assertEquals(0, new BigDecimal("115.00").compareTo(tree.prefixSum(9))),
+                () -> assertEquals(0, new BigDecimal("40.00").compareTo(tree.rangeSum(4, 9)))
+        );
+    }
+
+    @Test
+    @DisplayName("Should clamp ranges outside the tree")
+    void shouldClampRangesOutsideTheTree() {
+        // Given
+        PrefixSumTree tree = new PrefixSumTree(5);
+        tree.add(0, new BigDecimal("5.00"));
+        tree.add(4, new BigDecimal("3.00"));
+
+        // Then
+        assertAll(
+                () -> assertEquals(0, new BigDecimal("8.00").compareTo(tree.rangeSum(-10, 100))),
+                () -> assertEquals(0, BigDecimal.ZERO.compareTo(tree.rangeSum(6, 9))),
+                () -> assertEquals(0, BigDecimal.ZERO.compareTo(tree.rangeSum(3, 1))),
+                () -> assertThrows(IndexOutOfBoundsException.class, () -> tree.add(5, BigDecimal.ONE))
+        );
+    }
+}
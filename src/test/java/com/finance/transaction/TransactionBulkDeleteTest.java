@@ -0,0 +1,111 @@
+package com.finance.transaction;
+
+import com.finance.category.CategoryService;
+import com.finance.category.CategoryType;
+import com.finance.category.CategoryUsageService;
+import com.finance.user.User;
+import com.finance.user.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "finance.transactions.bulk-delete.chunk-size=50")
+@DisplayName("Transaction Bulk Delete Tests")
+class TransactionBulkDeleteTest {
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionLedgerIndex ledgerIndex;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CategoryUsageService categoryUsage;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userService.registerUser(new User(null, "bulk." + System.nanoTime() + "@example.com",
+                "password123", "Bulk Delete Test", "1234567890"));
+    }
+
+    private void insert(int rows, LocalDate date, String category) {
+        Long categoryId = categoryService.findAccessibleCategoryByName(category, user.getId()).orElseThrow().getId();
+        jdbcTemplate.update("INSERT INTO transactions (amount, date, category_id, user_id, description, version) " +
+                "SELECT 2.00, ?, ?, ?, 'Row ' || X, 0 FROM SYSTEM_RANGE(1, ?)", date, categoryId, user.getId(), rows);
+    }
+
+    @Test
+    @DisplayName("Should delete a date range in chunks and keep counters and totals consistent")
+    void shouldDeleteRangeInChunks() {
+        // Given
+        LocalDate january = LocalDate.of(2024, 1, 15);
+        LocalDate march = LocalDate.of(2024, 3, 15);
+        insert(120, january, "Food");
+        insert(30, january, "Rent");
+        insert(10, march, "Food");
+        categoryUsage.reconcile();
+        // Build the ledger index before the delete so the test sees it rebuilt
+        assertEquals(0, new BigDecimal("320.00").compareTo(ledgerIndex.sum(
+                user, null, null, CategoryType.EXPENSE)));
+
+        // When
+        TransactionBulkDeleter.Result result = transactionService.deleteTransactions(user.getId(),
+                LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), null);
+
+        // Then
+        assertAll(
+                () -> assertEquals(150, result.deleted()),
+                () -> assertEquals(3, result.chunks()),
+                () -> assertEquals(10, transactionRepository.countByUser(user)),
+                () -> assertEquals(0, new BigDecimal("20.00").compareTo(ledgerIndex.sum(
+                        user, null, null, CategoryType.EXPENSE))),
+                () -> assertEquals(0, categoryUsage.reconcile()),
+                () -> assertEquals(Collections.nCopies(3, "{\"bulk\":{\"operation\":\"BULK_DELETE\",\"transactions\":50}}"),
+                        jdbcTemplate.queryForList("SELECT payload FROM outbox WHERE user_id = ? AND type = 'BULK_CHANGED'",
+                                String.class, user.getId()))
+        );
+    }
+
+    @Test
+    @DisplayName("Should delete only the requested category")
+    void shouldDeleteOnlyRequestedCategory() {
+        // Given
+        LocalDate day = LocalDate.of(2024, 2, 10);
+        insert(40, day, "Food");
+        insert(5, day, "Salary");
+        categoryUsage.reconcile();
+
+        // When
+        TransactionBulkDeleter.Result result = transactionService.deleteTransactions(user.getId(), null, null, "Food");
+
+        // Then
+        assertEquals(40, result.deleted());
+        assertEquals(1, result.chunks());
+        assertEquals(5, transactionRepository.countByUser(user));
+        assertFalse(categoryUsage.isInUse(user.getId(),
+                categoryService.findAccessibleCategoryByName("Food", user.getId()).orElseThrow().getId()));
+    }
+}
@@ -0,0 +1,91 @@
+package com.finance.transaction;
+
+import com.finance.category.CategoryType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Transaction Ledger Index Tests")
+class TransactionLedgerIndexTest {
+
+    private static Object[] row(LocalDate date, CategoryType type, String amount) {
+        return new Object[]{date, type, new BigDecimal(amount)};
+    }
+
+    private static TransactionSnapshot snapshot(LocalDate date, CategoryType type, String amount) {
+        return new TransactionSnapshot(1L, 1L, date, 1L, "Category", type, new BigDecimal(amount), null);
+    }
+
+    @Test
+    @DisplayName("Should size the sums by distinct days, not by the span back to the oldest date")
+    void shouldStayCompactForFarPastDates() {
+        // Given
+        LocalDate today = LocalDate.now();
+        List<Object[]> rows = List.of(
+                row(LocalDate.of(1, 1, 1), CategoryType.INCOME, "5.00"),
+                row(LocalDate.MIN, CategoryType.EXPENSE, "1.00"),
+                row(today, CategoryType.INCOME, "100.00"));
+
+        // When
+        TransactionLedgerIndex.LedgerSums sums = TransactionLedgerIndex.LedgerSums.of(rows);
+
+        // Then
+        assertAll(
+                () -> assertTrue(sums.size() < 1000),
+                () -> assertEquals(0, new BigDecimal("105.00").compareTo(sums.sum(null, null, CategoryType.INCOME))),
+                () -> assertEquals(0, new BigDecimal("104.00").compareTo(sums.net(null, null))),
+                () -> assertEquals(0, new BigDecimal("1.00").compareTo(sums.sum(null, LocalDate.of(1, 1, 1), CategoryType.EXPENSE)))
+        );
+    }
+
+    @Test
+    @DisplayName("Should answer ranges that start or end between stored days")
+    void shouldAnswerRangesBetweenStoredDays() {
+        // Given
+        TransactionLedgerIndex.LedgerSums sums = TransactionLedgerIndex.LedgerSums.of(List.of(
+                row(LocalDate.of(1990, 3, 10), CategoryType.EXPENSE, "10.00"),
+                row(LocalDate.of(1990, 6, 20), CategoryType.EXPENSE, "20.00"),
+                row(LocalDate.of(2000, 1, 1), CategoryType.EXPENSE, "40.00")));
+
+        // When / Then
+        assertAll(
+                () -> assertEquals(0, new BigDecimal("30.00").compareTo(
+                        sums.sum(LocalDate.of(1990, 1, 1), LocalDate.of(1999, 12, 31), CategoryType.EXPENSE))),
+                () -> assertEquals(0, new BigDecimal("20.00").compareTo(
+                        sums.sum(LocalDate.of(1990, 3, 11), LocalDate.of(1990, 6, 20), CategoryType.EXPENSE))),
+                () -> assertEquals(0, BigDecimal.ZERO.compareTo(
+                        sums.sum(LocalDate.of(1991, 1, 1), LocalDate.of(1991, 12, 31), CategoryType.EXPENSE))),
+                () -> assertEquals(0, BigDecimal.ZERO.compareTo(
+                        sums.sum(LocalDate.of(1980, 1, 1), LocalDate.of(1985, 1, 1), CategoryType.EXPENSE)))
+        );
+    }
+
+    @Test
+    @DisplayName("Should apply writes on known days in place and ask for a rebuild on new past days")
+    void shouldApplyWritesOnKnownDaysOnly() {
+        // Given
+        TransactionLedgerIndex index = new TransactionLedgerIndex();
+        LocalDate past = LocalDate.of(1995, 5, 5);
+        TransactionLedgerIndex.LedgerSums sums = TransactionLedgerIndex.LedgerSums.of(List.<Object[]>of(
+                row(past, CategoryType.INCOME, "10.00")));
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+
+        // When
+        boolean appliedRecent = index.apply(sums, null, snapshot(yesterday, CategoryType.INCOME, "5.00"));
+        boolean appliedKnown = index.apply(sums, null, snapshot(past, CategoryType.INCOME, "1.00"));
+        boolean appliedNewPast = index.apply(sums, null, snapshot(past.plusDays(1), CategoryType.INCOME, "1.00"));
+
+        // Then
+        assertAll(
+                () -> assertTrue(appliedRecent),
+                () -> assertTrue(appliedKnown),
+                () -> assertFalse(appliedNewPast),
+                () -> assertEquals(0, new BigDecimal("16.00").compareTo(sums.sum(null, null, CategoryType.INCOME)))
+        );
+    }
+}
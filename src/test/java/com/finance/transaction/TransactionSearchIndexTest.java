@@ -0,0 +1,134 @@
+package com.finance.transaction;
+
+import com.finance.category.CategoryType;
+import com.finance.user.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("Transaction Search Index Tests")
+class TransactionSearchIndexTest {
+
+    private TransactionSearchIndex index;
+    private TransactionSearchIndex.UserTerms terms;
+
+    @BeforeEach
+    void setUp() {
+        index = new TransactionSearchIndex();
+        terms = new TransactionSearchIndex.UserTerms();
+        index.apply(terms, null, snapshot(1L, "Grocery market run"));
+        index.apply(terms, null, snapshot(2L, "Farmers market"));
+        index.apply(terms, null, snapshot(3L, "Monthly rent"));
+    }
+
+    private TransactionSnapshot snapshot(Long id, String description) {
+        return new TransactionSnapshot(id, 1L, LocalDate.of(2024, 1, id.intValue()), 1L, "Food",
+                CategoryType.EXPENSE, new BigDecimal("10.00"), description);
+    }
+
+    @Test
+    @DisplayName("Should tokenize into distinct lower-case words")
+    void shouldTokenizeIntoDistinctLowerCaseWords() {
+        assertEquals(List.of("coffee", "shop", "2024"), TransactionSearchIndex.tokenize("Coffee, SHOP coffee - 2024!"));
+        assertTrue(TransactionSearchIndex.tokenize(null).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should match every query word as a prefix")
+    void shouldMatchEveryQueryWordAsPrefix() {
+        assertAll(
+                () -> assertEquals(Set.of(1L, 2L), terms.match(List.of("mark"))),
+                () -> assertEquals(Set.of(1L), terms.match(List.of("gro", "mark"))),
+                () -> assertEquals(Set.of(), terms.match(List.of("gro", "rent"))),
+                () -> assertEquals(Set.of(), terms.match(List.of("xyz")))
+        );
+    }
+
+    @Test
+    @DisplayName("Should reflect updates and deletes")
+    void shouldReflectUpdatesAndDeletes() {
+        // When
+        index.apply(terms, snapshot(2L, "Farmers market"), snapshot(2L, "Hardware store"));
+        index.apply(terms, snapshot(3L, "Monthly rent"), null);
+
+        // Then
+        assertAll(
+                () -> assertEquals(Set.of(1L), terms.match(List.of("market"))),
+                () -> assertEquals(Set.of(2L), terms.match(List.of("hard"))),
+                () -> assertEquals(Set.of(), terms.match(List.of("rent")))
+        );
+    }
+
+    @Test
+    @DisplayName("Should match words shorter than the minimum prefix length only as whole words")
+    void shouldMatchShortWordsExactly() {
+        // Given
+        index.apply(terms, null, snapshot(4L, "Go kart track"));
+
+        // Then
+        assertAll(
+                () -> assertEquals(Set.of(4L), terms.match(List.of("go"))),
+                () -> assertEquals(Set.of(), terms.match(List.of("g"))),
+                () -> assertEquals(Set.of(), terms.match(List.of("mo"))),
+                () -> assertEquals(Set.of(4L), terms.match(List.of("tra", "go"))),
+                () -> assertEquals(Set.of(), terms.match(List.of("market", "ma")))
+        );
+    }
+
+    @Test
+    @DisplayName("Should page matches newest first and count all of them")
+    void shouldPageNewestFirst() {
+        // Given
+        for (long id = 4; id <= 10; id++) {
+            // One description has two words starting with the query, and still counts once
+            index.apply(terms, null, snapshot(id, id == 10 ? "Marketplace market" : "Market stall " + id));
+        }
+        TransactionSearchIndex built = new TransactionSearchIndex() {
+            @Override
+            protected UserTerms build(User user) {
+                return terms;
+            }
+        };
+        User user = new User();
+        user.setId(1L);
+
+        // When
+        TransactionSearchIndex.SearchPage first = built.search(user, "market", null, null, null, null, 0, 3);
+        TransactionSearchIndex.SearchPage last = built.search(user, "market", null, null, null, null, 2, 3);
+        TransactionSearchIndex.SearchPage beyond = built.search(user, "market", null, null, null, null, 5, 3);
+
+        // Then
+        assertAll(
+                () -> assertEquals(List.of(10L, 9L, 8L), first.ids()),
+                () -> assertEquals(9, first.totalResults()),
+                () -> assertEquals(List.of(4L, 2L, 1L), last.ids()),
+                () -> assertEquals(List.of(), beyond.ids()),
+                () -> assertEquals(9, beyond.totalResults())
+        );
+    }
+
+    @Test
+    @DisplayName("Should reject a query whose most selective word matches too many transactions")
+    void shouldRejectTooBroadQueries() {
+        // Given
+        index.apply(terms, snapshot(1L, "Grocery market run"), snapshot(1L, "Card grocery"));
+        for (long id = 4; id <= 4 + TransactionSearchIndex.MAX_CANDIDATES; id++) {
+            index.apply(terms, null, new TransactionSnapshot(id, 1L, LocalDate.of(2024, 2, 1), 1L, "Food",
+                    CategoryType.EXPENSE, new BigDecimal("10.00"), "Card payment"));
+        }
+
+        // When / Then
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> terms.match(List.of("card"))),
+                () -> assertThrows(IllegalArgumentException.class, () -> terms.match(List.of("card", "payment"))),
+                () -> assertEquals(Set.of(1L), terms.match(List.of("card", "gro")))
+        );
+    }
+}
@@ -1,9 +1,18 @@
 package com.finance.transaction;
 
+import com.finance.budget.BudgetSpendIndex;
+import com.finance.categorization.CategorizationEngine;
+import com.finance.categorization.CategorizationEngines;
+import com.finance.categorization.RuleMatchType;
 import com.finance.category.Category;
 import com.finance.category.CategoryService;
 import com.finance.category.CategoryType;
+import com.finance.category.CategoryUsageService;
+import com.finance.exception.ConflictException;
 import com.finance.exception.ResourceNotFoundException;
+import com.finance.ledger.LedgerVersionTracker;
+import com.finance.ledger.UserWriteLocks;
+import com.finance.outbox.TransactionOutbox;
 import com.finance.user.User;
 import com.finance.user.UserService;
 import org.junit.jupiter.api.Test;
@@ -37,6 +46,36 @@ class TransactionServiceTest {
     @Mock
     private CategoryService categoryService;
 
+    @Mock
+    private TransactionLedgerIndex ledgerIndex;
+
+    @Mock
+    private TransactionSearchIndex searchIndex;
+
+    @Mock
+    private LedgerVersionTracker ledgerVersions;
+
+    @Mock
+    private UserWriteLocks writeLocks;
+
+    @Mock
+    private TransactionOutbox outbox;
+
+    @Mock
+    private CategoryUsageService categoryUsage;
+
+    @Mock
+    private TransactionBulkDeleter bulkDeleter;
+
+    @Mock
+    private BudgetSpendIndex budgetSpend;
+
+    @Mock
+    private CategorizationEngines categorization;
+
+    @Mock
+    private DuplicateDetector duplicates;
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -97,6 +136,79 @@ class TransactionServiceTest {
         verify(transactionRepository).save(any(Transaction.class));
     }
 
+    @Test
+    @DisplayName("Should refuse a likely duplicate when asked to")
+    void shouldRejectLikelyDuplicate() {
+        // Given
+        BigDecimal amount = new BigDecimal("42.10");
+        LocalDate date = LocalDate.of(2024, 2, 1);
+        when(userService.findById(1L)).thenReturn(Optional.of(testUser));
+        when(categoryService.findAccessibleCategoryByName("Salary", 1L)).thenReturn(Optional.of(testCategory));
+        when(duplicates.findDuplicate(testUser, date, 1L, amount, "Tesco")).thenReturn(Optional.of(99L));
+
+        // When & Then
+        ConflictException exception = assertThrows(
+                ConflictException.class,
+                () -> transactionService.createTransaction(amount, date, "Salary", "Tesco", 1L, true)
+        );
+        assertTrue(exception.getMessage().contains("ID 99"));
+        verify(transactionRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Should not look for duplicates unless asked to")
+    void shouldSkipDuplicateCheckByDefault() {
+        // Given
+        when(userService.findById(1L)).thenReturn(Optional.of(testUser));
+        when(categoryService.findAccessibleCategoryByName("Salary", 1L)).thenReturn(Optional.of(testCategory));
+        when(transactionRepository.save(any(Transaction.class))).thenReturn(testTransaction);
+
+        // When
+        transactionService.createTransaction(new BigDecimal("42.10"), LocalDate.of(2024, 2, 1), "Salary", "Tesco", 1L);
+
+        // Then
+        verify(duplicates, never()).findDuplicate(any(), any(), any(), any(), any());
+        verify(duplicates).recordChange(eq(1L), isNull(), any(TransactionSnapshot.class));
+    }
+
+    @Test
+    @DisplayName("Should pick the category from a categorization rule when none is given")
+    void shouldCategorizeByRuleWhenCategoryMissing() {
+        // Given
+        BigDecimal amount = new BigDecimal("1500.00");
+        LocalDate date = LocalDate.of(2024, 2, 1);
+        CategorizationEngine.Rule rule = new CategorizationEngine.Rule(7L, 10, 1L, "Salary", CategoryType.INCOME,
+                RuleMatchType.CONTAINS, "payroll", null, null);
+
+        when(userService.findById(1L)).thenReturn(Optional.of(testUser));
+        when(categorization.classify(testUser, "ACME PAYROLL", amount, null)).thenReturn(Optional.of(rule));
+        when(categoryService.findAccessibleCategoryByName("Salary", 1L)).thenReturn(Optional.of(testCategory));
+        when(transactionRepository.save(any(Transaction.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        Transaction result = transactionService.createTransaction(amount, date, " ", "ACME PAYROLL", 1L);
+
+        // Then
+        assertEquals(testCategory, result.getCategory());
+        verify(categorization).classify(testUser, "ACME PAYROLL", amount, null);
+    }
+
+    @Test
+    @DisplayName("Should reject a transaction without category when no rule matches")
+    void shouldRejectMissingCategoryWithoutMatchingRule() {
+        // Given
+        when(userService.findById(1L)).thenReturn(Optional.of(testUser));
+        when(categorization.classify(eq(testUser), any(), any(), isNull())).thenReturn(Optional.empty());
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> transactionService.createTransaction(new BigDecimal("12.00"), LocalDate.of(2024, 2, 1), null, "Unknown shop", 1L)
+        );
+        assertTrue(exception.getMessage().startsWith("Category name cannot be empty"));
+        verify(transactionRepository, never()).save(any());
+    }
+
     @Test
     @DisplayName("Should throw exception when amount is negative")
     void shouldThrowExceptionWhenAmountIsNegative() {
@@ -163,6 +275,23 @@ class TransactionServiceTest {
         verify(transactionRepository, never()).save(any());
     }
 
+    @Test
+    @DisplayName("Should throw exception when date is before the earliest accepted date")
+    void shouldThrowExceptionWhenDateIsTooOld() {
+        // Given
+        BigDecimal amount = new BigDecimal("100.00");
+        LocalDate ancientDate = LocalDate.of(1, 1, 1);
+
+        // When & Then
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> transactionService.createTransaction(amount, ancientDate, "Food", "Test", 1L)
+        );
+
+        assertEquals("Transaction date cannot be before 1900-01-01.", exception.getMessage());
+        verify(transactionRepository, never()).save(any());
+    }
+
     @Test
     @DisplayName("Should throw exception when user not found during transaction creation")
     void shouldThrowExceptionWhenUserNotFoundDuringTransactionCreation() {
@@ -456,4 +585,35 @@ class TransactionServiceTest {
                 exception.getMessage());
         verify(transactionRepository, never()).delete(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should refuse a bulk delete without any filter")
+    void shouldRefuseBulkDeleteWithoutFilter() {
+        // When & Then
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> transactionService.deleteTransactions(1L, null, null, "")
+        );
+
+        assertEquals("At least one of startDate, endDate or category is required.", exception.getMessage());
+        verifyNoInteractions(bulkDeleter);
+    }
+
+    @Test
+    @DisplayName("Should resolve the category before a bulk delete")
+    void shouldResolveCategoryBeforeBulkDelete() {
+        // Given
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        when(userService.findById(1L)).thenReturn(Optional.of(testUser));
+        when(categoryService.findAccessibleCategoryByName("Salary", 1L)).thenReturn(Optional.of(testCategory));
+        when(bulkDeleter.delete(testUser, start, null, testCategory.getId()))
+                .thenReturn(new TransactionBulkDeleter.Result(3, 1));
+
+        // When
+        TransactionBulkDeleter.Result result = transactionService.deleteTransactions(1L, start, null, "Salary");
+
+        // Then
+        assertEquals(3, result.deleted());
+        verify(bulkDeleter).delete(testUser, start, null, testCategory.getId());
+    }
+}
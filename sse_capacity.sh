@@ -0,0 +1,51 @@
+#!/bin/bash
+
+# Measures how many idle /api/stream connections one node holds.
+# Registers a user, then opens idle SSE streams in steps and after each step prints the connection count
+# reported by the server plus the server process's resident memory and thread count.
+#
+# Usage:
+#   ./sse_capacity.sh [base url] [server pid]
+#   STEPS="500 1000 2000 4000" ./sse_capacity.sh http://localhost:8080/api 12345
+#
+# Each stream is one curl process on this machine, so raise `ulimit -n` on both sides for large steps.
+
+set -u
+
+BASE_URL="${1:-http://localhost:8080/api}"
+SERVER_PID="${2:-}"
+STEPS="${STEPS:-250 500 1000 2000}"
+COOKIES=$(mktemp)
+USERNAME="sse.capacity.$(date +%s)@example.com"
+
+cleanup() {
+    jobs -p | xargs -r kill 2> /dev/null
+    rm -f "$COOKIES"
+}
+trap cleanup EXIT
+
+curl -s -o /dev/null -H 'Content-Type: application/json' -X POST "$BASE_URL/auth/register" \
+    -d "{\"username\": \"$USERNAME\", \"password\": \"password123\", \"fullName\": \"SSE Capacity\", \"phoneNumber\": \"+1234567890\"}"
+curl -s -o /dev/null -c "$COOKIES" -H 'Content-Type: application/json' -X POST "$BASE_URL/auth/login" \
+    -d "{\"username\": \"$USERNAME\", \"password\": \"password123\"}" || exit 1
+
+server_usage() {
+    if [ -n "$SERVER_PID" ] && [ -d "/proc/$SERVER_PID" ]; then
+        local rss threads
+        rss=$(awk '/VmRSS/ {print $2 " " $3}' "/proc/$SERVER_PID/status")
+        threads=$(awk '/Threads/ {print $2}' "/proc/$SERVER_PID/status")
+        echo "RSS $rss, $threads threads"
+    fi
+}
+
+opened=0
+echo "Baseline: $(server_usage)"
+for target in $STEPS; do
+    while [ "$opened" -lt "$target" ]; do
+        curl -s -N -b "$COOKIES" -H 'Accept: text/event-stream' "$BASE_URL/stream" > /dev/null &
+        opened=$((opened + 1))
+    done
+    sleep 2
+    connections=$(curl -s "$BASE_URL/debug/stream" | sed -n 's/.*"connections":\([0-9]*\).*/\1/p')
+    echo "Opened $opened, server holds ${connections:-?}: $(server_usage)"
+done